@@ -70,6 +70,8 @@ export interface FilteredActiveMediaProps {
     bounds?: LatLngBounds | null,
     excludedId?: string | null,
     venueIds?: string[] | null,
+    startDate?: string | null,
+    endDate?: string | null,
     page?: number,
     size?: number
 }
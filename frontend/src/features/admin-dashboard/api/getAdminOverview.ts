@@ -7,6 +7,8 @@ export interface AdminOverviewResponse {
     totalUsers: number;
     totalMediaOwners: number;
     totalAdvertisers: number;
+    refreshedAt: string;
+    snapshotAgeSeconds: number;
 }
 
 export const getAdminOverview = async (): Promise<AdminOverviewResponse> => {
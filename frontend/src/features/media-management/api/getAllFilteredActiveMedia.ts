@@ -5,6 +5,7 @@ import { FilteredActiveMediaProps } from "@/entities/media/model/media";
 
 export enum SpecialSort {
     nearest = "nearest",
+    relevance = "relevance",
     weeklyImpressionsAsc ="weeklyImpressions,asc",
     weeklyImpressionsDesc ="weeklyImpressions,desc"
 }
@@ -26,7 +27,7 @@ function escapeLike(input: string): string {
 
 
 export async function getAllFilteredActiveMedia(
-    {title, businessId, minPrice, maxPrice, minWeeklyImpressions, sort, latLng, bounds, excludedId, venueIds, page, size}: FilteredActiveMediaProps,
+    {title, businessId, minPrice, maxPrice, minWeeklyImpressions, sort, latLng, bounds, excludedId, venueIds, startDate, endDate, page, size}: FilteredActiveMediaProps,
     signal?: AbortSignal
 ): Promise<MediaListResponseDTO> {
     const params = new URLSearchParams();
@@ -91,6 +92,12 @@ export async function getAllFilteredActiveMedia(
         venueIds.forEach(id => params.append("venueIds", id));
     }
 
+    // Both ISO local date-times, e.g. "2026-11-03T00:00:00"; media reserved for any part of the range are left out
+    if (startDate && endDate) {
+        params.append("startDate", startDate);
+        params.append("endDate", endDate);
+    }
+
     const response = await axiosInstance.get(`/media/active?${params.toString()}`, { signal });
 
     return response.data;
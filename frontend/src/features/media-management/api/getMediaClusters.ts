@@ -0,0 +1,25 @@
+import axiosInstance from "@/shared/api/axios/axios";
+
+export interface MediaCluster {
+    latitude: number;
+    longitude: number;
+    count: number;
+    minPrice: number | null;
+    // Only set when the cluster is a single media
+    mediaId: string | null;
+}
+
+// Bounds use the same [south, north, west, east] order as getAllFilteredActiveMedia
+export const getMediaClusters = async (
+    bounds: { getSouth(): number; getNorth(): number; getWest(): number; getEast(): number },
+    zoom: number,
+    signal?: AbortSignal,
+): Promise<MediaCluster[]> => {
+    const params = new URLSearchParams();
+    [bounds.getSouth(), bounds.getNorth(), bounds.getWest(), bounds.getEast()]
+        .forEach(bound => params.append("bounds", bound.toString()));
+    params.append("zoom", Math.round(zoom).toString());
+
+    const response = await axiosInstance.get(`/media/clusters?${params.toString()}`, { signal });
+    return response.data;
+};
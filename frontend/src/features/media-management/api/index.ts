@@ -5,5 +5,6 @@ export { getAllMedia } from './getAllMedia';
 export { getMediaById } from './getMediaById';
 export { updateMedia } from './updateMedia';
 export { getMediaByBusinessId } from './getMediaByBusinessId';
+export { getMediaClusters } from './getMediaClusters';
 
 
@@ -0,0 +1,22 @@
+import axiosInstance from "@/shared/api/axios/axios";
+
+export interface AvailabilityWeek {
+    startDate: string;
+    endDate: string;
+    booked: boolean;
+}
+
+export interface MediaAvailability {
+    mediaId: string;
+    weeks: AvailabilityWeek[];
+}
+
+export const getMediaAvailability = async (
+    mediaIds: string[],
+    months = 3,
+): Promise<MediaAvailability[]> => {
+    const response = await axiosInstance.get('/media/availability', {
+        params: { mediaIds: mediaIds.join(','), months }
+    });
+    return response.data;
+};
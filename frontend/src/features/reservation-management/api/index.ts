@@ -5,3 +5,4 @@ export { denyReservation } from './denyReservation'
 export { getAllReservationByAdvertiserBusinessId } from './getAllReservationByAdvertiserBusinessId'
 export { getAllReservationByMediaOwnerBusinessId } from './getAllReservationByMediaOwnerBusinessId'
 export { getReservationById } from './getReservationById'
+export { getMediaAvailability } from './getMediaAvailability'
@@ -17,6 +17,7 @@ export default function BrowseActions({filters,  setSortBy, sortSelectValue, isM
     const t = useTranslations('browse.browseactions');
     const sortSelectData =[
         { value: SpecialSort.nearest, label: t('sort.nearest') },
+        { value: SpecialSort.relevance, label: t('sort.relevance') },
         { value: SortOptions.priceAsc, label: (t('sort.price') + t('sort.asc')) },
         { value: SortOptions.priceDesc, label: (t('sort.price') + t('sort.desc')) },
         { value: SpecialSort.weeklyImpressionsAsc, label: (t('sort.impressions') + t('sort.asc')) },
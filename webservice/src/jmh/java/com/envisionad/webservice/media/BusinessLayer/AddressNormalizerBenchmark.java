@@ -0,0 +1,97 @@
+package com.envisionad.webservice.media.BusinessLayer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Folds the fields of a typical address consistency check, once with {@link AddressNormalizer} and
+ * once with the regex pipeline it replaced; AddressNormalizerTest checks that the two agree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AddressNormalizerBenchmark {
+
+    // What a user enters next to what the geocoder answers for the same Quebec addresses
+    private final String[] places = {
+            "Montréal", "Montreal", "Québec", "QC", "Canada", "ca", "Saint-Jean-sur-Richelieu",
+            "Trois-Rivières", "Laval", "Gatineau", "Sherbrooke", "Lévis", "Montréal-Nord", "Westmount"};
+    private final String[] streets = {
+            "123 Rue Sainte-Catherine O", "Rue Sainte-Catherine Ouest", "1000 Boul. René-Lévesque E.",
+            "Boulevard René-Lévesque Est", "4873 Westmount Ave", "Avenue Westmount", "55 Chemin de la Côte-Sainte-Catherine"};
+    private final String[] postalCodes = {"H2X 1Y4", "H2X1Y4", "h3y-1x9", "H3Y 1X9", "J3B 6Y8"};
+
+    @Benchmark
+    public void singlePass(Blackhole blackhole) {
+        for (String place : places) {
+            blackhole.consume(AddressNormalizer.comparable(place));
+        }
+        for (String street : streets) {
+            blackhole.consume(AddressNormalizer.streetTokens(street));
+            blackhole.consume(AddressNormalizer.comparable(street));
+        }
+        for (String postalCode : postalCodes) {
+            blackhole.consume(AddressNormalizer.postalComparable(postalCode));
+        }
+    }
+
+    @Benchmark
+    public void regexPipeline(Blackhole blackhole) {
+        for (String place : places) {
+            blackhole.consume(regexComparable(place));
+        }
+        for (String street : streets) {
+            blackhole.consume(regexStreetTokens(street));
+            blackhole.consume(regexComparable(street));
+        }
+        for (String postalCode : postalCodes) {
+            blackhole.consume(regexPostalComparable(postalCode));
+        }
+    }
+
+    private static String regexComparable(String value) {
+        String normalized = Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{Alnum}]", "");
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    private static Set<String> regexStreetTokens(String value) {
+        String tokenized = Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{Alnum}]", " ")
+                .trim();
+        if (tokenized.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : tokenized.split("\\s+")) {
+            switch (token) {
+                case "street", "st", "rue", "road", "rd", "avenue", "ave", "av", "boulevard", "blvd", "boul", "chemin",
+                        "ch", "drive", "dr", "lane", "ln", "court", "ct", "place", "pl", "terrace", "ter",
+                        "north", "n", "nord", "south", "s", "sud", "east", "e", "est", "west", "w", "ouest", "o" -> {
+                }
+                default -> tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String regexPostalComparable(String value) {
+        String normalized = value.trim().toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "");
+        return normalized.isEmpty() ? null : normalized;
+    }
+}
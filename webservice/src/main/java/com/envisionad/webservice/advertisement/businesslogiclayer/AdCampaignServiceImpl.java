@@ -1,6 +1,5 @@
 package com.envisionad.webservice.advertisement.businesslogiclayer;
 
-import com.cloudinary.Cloudinary;
 import com.envisionad.webservice.advertisement.dataaccesslayer.*;
 import com.envisionad.webservice.advertisement.datamapperlayer.AdCampaignRequestMapper;
 import com.envisionad.webservice.advertisement.datamapperlayer.AdCampaignResponseMapper;
@@ -15,6 +14,7 @@ import com.envisionad.webservice.business.dataaccesslayer.Business;
 import com.envisionad.webservice.business.dataaccesslayer.BusinessIdentifier;
 import com.envisionad.webservice.business.dataaccesslayer.BusinessRepository;
 import com.envisionad.webservice.business.exceptions.BusinessNotFoundException;
+import com.envisionad.webservice.utils.CloudinaryClient;
 import com.envisionad.webservice.utils.CloudinaryConfig;
 import com.envisionad.webservice.utils.JwtUtils;
 
@@ -40,9 +40,9 @@ public class AdCampaignServiceImpl implements AdCampaignService {
     private final AdResponseMapper adResponseMapper;
     private final JwtUtils jwtUtils;
     private final ReservationRepository reservationRepository;
-    private final Cloudinary cloudinary;
+    private final CloudinaryClient cloudinaryClient;
 
-    public AdCampaignServiceImpl(AdCampaignRepository adCampaignRepository, AdCampaignRequestMapper adCampaignRequestMapper, AdCampaignResponseMapper adCampaignResponseMapper, AdRequestMapper adRequestMapper, AdResponseMapper adResponseMapper, BusinessRepository businessRepository, JwtUtils jwtUtils, ReservationRepository reservationRepository, Cloudinary cloudinary) {
+    public AdCampaignServiceImpl(AdCampaignRepository adCampaignRepository, AdCampaignRequestMapper adCampaignRequestMapper, AdCampaignResponseMapper adCampaignResponseMapper, AdRequestMapper adRequestMapper, AdResponseMapper adResponseMapper, BusinessRepository businessRepository, JwtUtils jwtUtils, ReservationRepository reservationRepository, CloudinaryClient cloudinaryClient) {
         this.businessRepository = businessRepository;
         this.adCampaignRepository = adCampaignRepository;
         this.adCampaignRequestMapper = adCampaignRequestMapper;
@@ -50,7 +50,7 @@ public class AdCampaignServiceImpl implements AdCampaignService {
         this.adRequestMapper = adRequestMapper;
         this.adResponseMapper = adResponseMapper;
         this.jwtUtils = jwtUtils;
-        this.cloudinary = cloudinary;
+        this.cloudinaryClient = cloudinaryClient;
         this.reservationRepository = reservationRepository;
     }
 
@@ -208,7 +208,7 @@ public class AdCampaignServiceImpl implements AdCampaignService {
             options.put("invalidate", true);
             options.put("resource_type", resourceType);
 
-            cloudinary.uploader().destroy(publicId, options);
+            cloudinaryClient.destroy(publicId, options);
 
         } catch (Exception e) {
             log.warn("Failed to delete Cloudinary asset for url={}", url, e);
@@ -2,6 +2,9 @@ package com.envisionad.webservice.appsettings.businesslogiclayer;
 
 import com.envisionad.webservice.appsettings.dataaccesslayer.AppSetting;
 import com.envisionad.webservice.appsettings.dataaccesslayer.AppSettingRepository;
+import com.envisionad.webservice.config.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
@@ -16,11 +19,13 @@ public class AppSettingServiceImpl implements AppSettingService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.APP_SETTINGS, key = "#key")
     public Optional<AppSetting> findByKey(String key) {
         return repository.findById(key);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.APP_SETTINGS, key = "#key")
     public AppSetting upsert(String key, String value) {
         AppSetting setting = repository.findById(key).orElse(new AppSetting());
         setting.setKey(key);
@@ -8,10 +8,12 @@ import com.envisionad.webservice.business.mappinglayer.InvitationMapper;
 import com.envisionad.webservice.business.mappinglayer.VerificationMapper;
 import com.envisionad.webservice.business.presentationlayer.models.*;
 import com.envisionad.webservice.business.utils.Validator;
+import com.envisionad.webservice.config.CacheConfig;
 import com.envisionad.webservice.utils.EmailService;
 import com.envisionad.webservice.utils.JwtUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
@@ -83,6 +85,7 @@ public class BusinessServiceImpl implements BusinessService {
 
         businessRepository.save(business);
         employeeRepository.save(employee);
+        jwtUtils.evictMembership(userId, business.getBusinessId().getBusinessId());
 
         return businessMapper.toResponse(business);
     }
@@ -102,6 +105,7 @@ public class BusinessServiceImpl implements BusinessService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.BUSINESS_NAMES, key = "#businessId")
     public BusinessResponseModel updateBusinessById(Jwt jwt, String businessId, BusinessRequestModel businessRequestModel) {
         Validator.validateBusiness(businessRequestModel);
 
@@ -237,12 +241,7 @@ public class BusinessServiceImpl implements BusinessService {
         if (!businessRepository.existsByBusinessId_BusinessId(businessId))
             throw new BusinessNotFoundException(businessId);
 
-        List<Employee> employees = employeeRepository.findAllByBusinessId_BusinessId(businessId);
-
-        String userId = jwtUtils.extractUserId(jwt);
-        if (employees.stream().noneMatch(e -> e.getUserId().equals(userId)))
-            throw new AccessDeniedException("Access Denied");
-
+        jwtUtils.validateUserIsEmployeeOfBusiness(jwt, businessId);
 
         return invitationRepository.findAllByBusinessId_BusinessId(businessId).stream().map(invitationMapper::toResponse).collect(Collectors.toList());
     }
@@ -270,7 +269,9 @@ public class BusinessServiceImpl implements BusinessService {
         employee.setEmployeeId(new EmployeeIdentifier());
         employee.setUserId(userId);
 
-        return employeeMapper.toResponse(employeeRepository.save(employee));
+        Employee saved = employeeRepository.save(employee);
+        jwtUtils.evictMembership(userId, businessId);
+        return employeeMapper.toResponse(saved);
     }
 
     @Override
@@ -292,6 +293,7 @@ public class BusinessServiceImpl implements BusinessService {
             throw new BusinessEmployeeNotFoundException(employeeId);
 
         employeeRepository.delete(employee);
+        jwtUtils.evictMembership(employee.getUserId(), businessId);
     }
 
     @Override
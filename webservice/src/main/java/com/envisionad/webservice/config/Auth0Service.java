@@ -2,7 +2,12 @@ package com.envisionad.webservice.config;
 
 import com.envisionad.webservice.config.exceptions.Auth0ServiceUnavailableException;
 import com.envisionad.webservice.config.exceptions.Auth0UserNotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
@@ -18,13 +23,27 @@ import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.net.URI;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class Auth0Service {
@@ -61,72 +80,216 @@ public class Auth0Service {
     /** Safety buffer subtracted from expires_in to avoid using a token right at its boundary. */
     private static final Duration TOKEN_EXPIRY_BUFFER = Duration.ofSeconds(30);
 
+    private static final Duration PROFILE_TTL = Duration.ofMinutes(10);
+    private static final Duration MISSING_PROFILE_TTL = Duration.ofMinutes(1);
+    private static final int MAX_CACHED_PROFILES = 10_000;
+    static final int SEARCH_BATCH_SIZE = 50;
+    static final int MAX_CONCURRENT_LOOKUPS = 4;
+
+    /** A user's email, or {@code null} for a user Auth0 reported as missing, until {@code expiresAt}. */
+    private record CachedProfile(String email, Instant expiresAt) {
+    }
+
+    private final Cache<String, CachedProfile> profileCache = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_PROFILES)
+            .expireAfter(new CachedProfileExpiry())
+            .build();
+
+    private final AtomicInteger lookupThreadCount = new AtomicInteger();
+    private final ExecutorService lookupExecutor = Executors.newFixedThreadPool(MAX_CONCURRENT_LOOKUPS, runnable -> {
+        Thread thread = new Thread(runnable, "auth0-user-lookup-" + lookupThreadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    void shutdownLookups() {
+        lookupExecutor.shutdownNow();
+    }
 
 
     /**
      * Fetches the email for any user by their Auth0 user_id using the Management API
-     * (server-to-server, no user JWT required). Always returns the latest email from Auth0.
+     * (server-to-server, no user JWT required). Emails are cached for {@link #PROFILE_TTL},
+     * and users Auth0 reports as missing for {@link #MISSING_PROFILE_TTL}.
      */
     public String getUserEmailByUserId(String userId) {
-        String managementToken = getManagementApiToken();
+        CachedProfile cached = profileCache.getIfPresent(userId);
+        if (cached != null) {
+            if (cached.email() == null) {
+                throw new Auth0UserNotFoundException(userId, null);
+            }
+            return cached.email();
+        }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(managementToken);
-        HttpEntity<String> entity = new HttpEntity<>(headers);
+        try {
+            String email = fetchUserEmail(userId);
+            cacheEmail(userId, email);
+            return email;
+        } catch (Auth0UserNotFoundException e) {
+            profileCache.put(userId, new CachedProfile(null, Instant.now().plus(MISSING_PROFILE_TTL)));
+            throw e;
+        }
+    }
+
+    /**
+     * Resolves the emails of many users at once. Cached users are answered from memory and the
+     * rest with one user-search call per {@value #SEARCH_BATCH_SIZE} ids. Ids the search doesn't
+     * return (its index trails new sign-ups by a few seconds) are fetched individually, at most
+     * {@value #MAX_CONCURRENT_LOOKUPS} at a time.
+     *
+     * @return emails keyed by user id, in the order the ids were given; users that don't exist
+     *         or couldn't be resolved are left out
+     */
+    public Map<String, String> getUserEmailsByUserIds(Collection<String> userIds) {
+        Map<String, String> resolved = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        Set<String> distinctIds = new LinkedHashSet<>();
+        for (String userId : userIds) {
+            if (userId == null || userId.isBlank() || !distinctIds.add(userId)) {
+                continue;
+            }
+            CachedProfile cached = profileCache.getIfPresent(userId);
+            if (cached == null) {
+                misses.add(userId);
+            } else if (cached.email() != null) {
+                resolved.put(userId, cached.email());
+            }
+        }
+
+        List<String> remainder = new ArrayList<>();
+        for (int from = 0; from < misses.size(); from += SEARCH_BATCH_SIZE) {
+            List<String> batch = misses.subList(from, Math.min(from + SEARCH_BATCH_SIZE, misses.size()));
+            Map<String, String> found = searchUserEmails(batch);
+            found.forEach(this::cacheEmail);
+            resolved.putAll(found);
+            for (String userId : batch) {
+                if (!found.containsKey(userId)) {
+                    remainder.add(userId);
+                }
+            }
+        }
+        resolved.putAll(lookUpIndividually(remainder));
+
+        Map<String, String> emails = new LinkedHashMap<>();
+        for (String userId : distinctIds) {
+            String email = resolved.get(userId);
+            if (email != null) {
+                emails.put(userId, email);
+            }
+        }
+        return emails;
+    }
 
+    private String fetchUserEmail(String userId) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(managementBaseUrl)
+                .pathSegment("api", "v2", "users", userId)
+                .build()
+                .toUri();
         try {
-            java.net.URI uri = UriComponentsBuilder
-                    .fromUriString(managementBaseUrl)
-                    .pathSegment("api", "v2", "users", userId)
-                    .build()
-                    .toUri();
-
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                    uri,
-                    HttpMethod.GET,
-                    entity,
-                    getMapTypeRef()
-            );
-
-            return extractEmail(response, userId);
+            return extractEmail(getFromManagementApi(uri, getMapTypeRef()), userId);
+        } catch (HttpClientErrorException.NotFound e) {
+            throw new Auth0UserNotFoundException(userId, e);
+        } catch (RestClientException e) {
+            throw new Auth0ServiceUnavailableException(
+                    "Failed to retrieve email for user '" + userId + "' from Auth0 Management API", e);
+        }
+    }
+
+    /**
+     * Looks up a batch of users through the user-search endpoint. A failed search is not fatal:
+     * the ids fall through to individual lookups.
+     */
+    private Map<String, String> searchUserEmails(List<String> userIds) {
+        String query = userIds.stream()
+                .map(userId -> '"' + userId.replace("\\", "\\\\").replace("\"", "\\\"") + '"')
+                .collect(Collectors.joining(" OR ", "user_id:(", ")"));
+        URI uri = UriComponentsBuilder
+                .fromUriString(managementBaseUrl)
+                .pathSegment("api", "v2", "users")
+                .queryParam("q", query)
+                .queryParam("search_engine", "v3")
+                .queryParam("fields", "user_id,email")
+                .queryParam("include_fields", true)
+                .queryParam("per_page", userIds.size())
+                .build()
+                .toUri();
+
+        Map<String, String> emails = new HashMap<>();
+        try {
+            List<Map<String, Object>> users = getFromManagementApi(uri, getListTypeRef()).getBody();
+            if (users == null) {
+                return emails;
+            }
+            for (Map<String, Object> user : users) {
+                Object userId = user.get("user_id");
+                Object email = user.get("email");
+                if (userId instanceof String id && email instanceof String address && !address.isBlank()) {
+                    emails.put(id, address);
+                }
+            }
+        } catch (RestClientException | Auth0ServiceUnavailableException e) {
+            log.warn("Auth0 user search for {} users failed, falling back to individual lookups: {}",
+                    userIds.size(), e.getMessage());
+        }
+        return emails;
+    }
+
+    private Map<String, String> lookUpIndividually(List<String> userIds) {
+        Map<String, CompletableFuture<String>> lookups = new LinkedHashMap<>();
+        for (String userId : userIds) {
+            lookups.put(userId, CompletableFuture.supplyAsync(() -> getUserEmailOrNull(userId), lookupExecutor));
+        }
+
+        Map<String, String> emails = new HashMap<>();
+        lookups.forEach((userId, lookup) -> {
+            String email = lookup.join();
+            if (email != null) {
+                emails.put(userId, email);
+            }
+        });
+        return emails;
+    }
+
+    private String getUserEmailOrNull(String userId) {
+        try {
+            return getUserEmailByUserId(userId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to fetch email for userId {} from Auth0: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Sends an authenticated GET to the Management API. A 401 means the token was revoked or
+     * expired early (clock drift), so the cached token is dropped and the call retried once.
+     */
+    private <T> ResponseEntity<T> getFromManagementApi(URI uri, ParameterizedTypeReference<T> responseType) {
+        try {
+            return restTemplate.exchange(uri, HttpMethod.GET, bearerEntity(getManagementApiToken()), responseType);
         } catch (HttpClientErrorException.Unauthorized e) {
-            // Token may have expired early (clock drift, early revocation). Invalidate the
-            // cache under the lock so no other thread races to use the stale entry, then
-            // retry once with a freshly-fetched token before giving up.
+            // Invalidate under the lock so no other thread races to use the stale entry.
             tokenRefreshLock.lock();
             try {
                 cachedToken.set(null);
             } finally {
                 tokenRefreshLock.unlock();
             }
-            HttpHeaders retryHeaders = new HttpHeaders();
-            retryHeaders.setBearerAuth(getManagementApiToken());
-            HttpEntity<String> retryEntity = new HttpEntity<>(retryHeaders);
-            try {
-                java.net.URI uri = UriComponentsBuilder
-                        .fromUriString(managementBaseUrl)
-                        .pathSegment("api", "v2", "users", userId)
-                        .build()
-                        .toUri();
-                ResponseEntity<Map<String, Object>> retryResponse = restTemplate.exchange(
-                        uri,
-                        HttpMethod.GET,
-                        retryEntity,
-                        getMapTypeRef()
-                );
-                return extractEmail(retryResponse, userId);
-            } catch (RestClientException retryEx) {
-                throw new Auth0ServiceUnavailableException(
-                        "Failed to retrieve email for user '" + userId + "' from Auth0 Management API after token refresh", retryEx);
-            }
-        } catch (HttpClientErrorException.NotFound e) {
-            throw new Auth0UserNotFoundException(userId, e);
-        } catch (RestClientException e) {
-            throw new Auth0ServiceUnavailableException(
-                    "Failed to retrieve email for user '" + userId + "' from Auth0 Management API", e);
+            return restTemplate.exchange(uri, HttpMethod.GET, bearerEntity(getManagementApiToken()), responseType);
         }
     }
 
+    private static HttpEntity<String> bearerEntity(String managementToken) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(managementToken);
+        return new HttpEntity<>(headers);
+    }
+
+    private void cacheEmail(String userId, String email) {
+        profileCache.put(userId, new CachedProfile(email, Instant.now().plus(PROFILE_TTL)));
+    }
+
     private String getManagementApiToken() {
         // Fast path — lock-free read for the common case of a still-valid token.
         CachedToken cached = cachedToken.get();
@@ -196,4 +359,25 @@ public class Auth0Service {
     private ParameterizedTypeReference<Map<String, Object>> getMapTypeRef() {
         return new ParameterizedTypeReference<>() {};
     }
+
+    private ParameterizedTypeReference<List<Map<String, Object>>> getListTypeRef() {
+        return new ParameterizedTypeReference<>() {};
+    }
+
+    private static final class CachedProfileExpiry implements Expiry<String, CachedProfile> {
+        @Override
+        public long expireAfterCreate(String key, CachedProfile value, long currentTime) {
+            return Math.max(0L, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedProfile value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedProfile value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
\ No newline at end of file
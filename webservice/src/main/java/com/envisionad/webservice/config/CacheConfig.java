@@ -0,0 +1,18 @@
+package com.envisionad.webservice.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the in-process read-through caches for small, rarely changing reference data.
+ * Size and TTL come from {@code spring.cache.caffeine.spec}; hit/miss counters are published
+ * by Actuator under the {@code cache.gets} metric.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String VENUES = "venues";
+    public static final String BUSINESS_NAMES = "businessNames";
+    public static final String APP_SETTINGS = "appSettings";
+}
@@ -0,0 +1,12 @@
+package com.envisionad.webservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} housekeeping jobs.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,5 +1,7 @@
 package com.envisionad.webservice.config;
 
+import com.envisionad.webservice.config.outbound.OutboundHttpClients;
+import com.envisionad.webservice.config.outbound.OutboundHttpProperties;
 import com.stripe.Stripe;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,8 +12,19 @@ public class StripeConfig {
     @Value("${stripe.api-key}")
     private String apiKey;
 
+    private final OutboundHttpProperties outboundHttpProperties;
+
+    public StripeConfig(OutboundHttpProperties outboundHttpProperties) {
+        this.outboundHttpProperties = outboundHttpProperties;
+    }
+
+    // The SDK's client is static, so Stripe only gets the configured timeouts, not a bulkhead.
     @PostConstruct
     public void init() {
         Stripe.apiKey = apiKey;
+        OutboundHttpProperties.DependencySettings settings =
+                outboundHttpProperties.settingsFor(OutboundHttpClients.STRIPE);
+        Stripe.setConnectTimeout((int) settings.connectTimeout().toMillis());
+        Stripe.setReadTimeout((int) settings.readTimeout().toMillis());
     }
 }
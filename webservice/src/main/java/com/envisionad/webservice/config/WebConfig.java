@@ -1,5 +1,6 @@
 package com.envisionad.webservice.config;
 
+import com.envisionad.webservice.config.outbound.OutboundHttpClients;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,8 +24,9 @@ public class WebConfig implements WebMvcConfigurer {
                 .maxAge(86400);
     }
 
+    // Only the Auth0 Management API client uses RestTemplate.
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(OutboundHttpClients outboundHttpClients) {
+        return outboundHttpClients.restTemplate(OutboundHttpClients.AUTH0);
     }
 }
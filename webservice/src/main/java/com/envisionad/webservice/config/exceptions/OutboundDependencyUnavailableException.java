@@ -0,0 +1,14 @@
+package com.envisionad.webservice.config.exceptions;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of calling a dependency whose bulkhead is full or whose circuit is open. It is
+ * an {@link IOException} so HTTP clients report it the same way as a failed connection.
+ */
+public class OutboundDependencyUnavailableException extends IOException {
+
+    public OutboundDependencyUnavailableException(String dependency, String reason) {
+        super("Outbound dependency '" + dependency + "' unavailable: " + reason);
+    }
+}
@@ -0,0 +1,196 @@
+package com.envisionad.webservice.config.outbound;
+
+import com.envisionad.webservice.config.exceptions.OutboundDependencyUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Guards calls to one upstream dependency with a bulkhead and a circuit breaker.
+ * <p>
+ * The bulkhead caps concurrent calls, so a slow upstream ties up at most that many request
+ * threads; callers beyond it are rejected immediately rather than queued. The circuit opens after
+ * {@code failureThreshold} consecutive failures and rejects every call for {@code openDuration},
+ * after which a single trial call decides whether it closes again.
+ */
+@Slf4j
+public class OutboundDependency {
+
+    private enum CircuitState { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final OutboundHttpProperties.DependencySettings settings;
+    private final Semaphore bulkhead;
+
+    // Circuit state, guarded by this.
+    private CircuitState state = CircuitState.CLOSED;
+    private int consecutiveFailures;
+    private long openUntilNanos;
+    private boolean trialInFlight;
+
+    private final Timer successTimer;
+    private final Timer failureTimer;
+    private final Counter bulkheadRejections;
+    private final Counter circuitRejections;
+
+    public OutboundDependency(String name, OutboundHttpProperties.DependencySettings settings, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.settings = settings;
+        this.bulkhead = new Semaphore(settings.maxConcurrentCalls());
+
+        this.successTimer = meterRegistry.timer("outbound.calls", "dependency", name, "outcome", "success");
+        this.failureTimer = meterRegistry.timer("outbound.calls", "dependency", name, "outcome", "failure");
+        this.bulkheadRejections = meterRegistry.counter("outbound.calls.rejected", "dependency", name, "reason", "bulkhead_full");
+        this.circuitRejections = meterRegistry.counter("outbound.calls.rejected", "dependency", name, "reason", "circuit_open");
+        meterRegistry.gauge("outbound.bulkhead.in_use", Tags.of("dependency", name),
+                bulkhead, permits -> settings.maxConcurrentCalls() - permits.availablePermits());
+        meterRegistry.gauge("outbound.circuit.open", Tags.of("dependency", name),
+                this, dependency -> dependency.isCircuitOpen() ? 1 : 0);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public OutboundHttpProperties.DependencySettings getSettings() {
+        return settings;
+    }
+
+    public synchronized boolean isCircuitOpen() {
+        return state != CircuitState.CLOSED;
+    }
+
+    /**
+     * Reserves a slot for one call. The returned permit must be completed exactly once with
+     * {@link Permit#succeeded()}, {@link Permit#failed()} or {@link Permit#abandoned()}.
+     */
+    public Permit acquire() throws OutboundDependencyUnavailableException {
+        boolean trial;
+        synchronized (this) {
+            if (state == CircuitState.OPEN) {
+                if (System.nanoTime() - openUntilNanos < 0) {
+                    circuitRejections.increment();
+                    throw new OutboundDependencyUnavailableException(name, "circuit open");
+                }
+                state = CircuitState.HALF_OPEN;
+            }
+            if (state == CircuitState.HALF_OPEN) {
+                if (trialInFlight) {
+                    circuitRejections.increment();
+                    throw new OutboundDependencyUnavailableException(name, "circuit open");
+                }
+                trialInFlight = true;
+            }
+            trial = state == CircuitState.HALF_OPEN;
+        }
+
+        if (!bulkhead.tryAcquire()) {
+            if (trial) {
+                synchronized (this) {
+                    trialInFlight = false;
+                }
+            }
+            bulkheadRejections.increment();
+            throw new OutboundDependencyUnavailableException(name, "too many concurrent calls");
+        }
+        return new Permit(trial);
+    }
+
+    /**
+     * Runs {@code call} under a permit; any exception it throws counts as a failure.
+     */
+    public <T, E extends Exception> T call(Call<T, E> call) throws E, OutboundDependencyUnavailableException {
+        Permit permit = acquire();
+        try {
+            T result = call.run();
+            permit.succeeded();
+            return result;
+        } catch (Exception e) {
+            permit.failed();
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Call<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    private synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        if (state != CircuitState.CLOSED) {
+            log.info("Circuit for {} closed", name);
+            state = CircuitState.CLOSED;
+        }
+    }
+
+    private synchronized void recordFailure() {
+        trialInFlight = false;
+        consecutiveFailures++;
+        if (state == CircuitState.HALF_OPEN || consecutiveFailures >= settings.failureThreshold()) {
+            if (state != CircuitState.OPEN) {
+                log.warn("Circuit for {} opened after {} consecutive failures", name, consecutiveFailures);
+            }
+            state = CircuitState.OPEN;
+            openUntilNanos = System.nanoTime() + settings.openDuration().toNanos();
+        }
+    }
+
+    private synchronized void recordAbandoned(boolean trial) {
+        if (trial) {
+            trialInFlight = false;
+        }
+    }
+
+    /** One reserved call slot. Completing it more than once has no effect. */
+    public final class Permit {
+
+        private final boolean trial;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Permit(boolean trial) {
+            this.trial = trial;
+        }
+
+        public void succeeded() {
+            if (complete()) {
+                successTimer.record(elapsed());
+                recordSuccess();
+            }
+        }
+
+        public void failed() {
+            if (complete()) {
+                failureTimer.record(elapsed());
+                recordFailure();
+            }
+        }
+
+        /** The caller gave up (for example, cancelled) before the dependency answered. */
+        public void abandoned() {
+            if (complete()) {
+                recordAbandoned(trial);
+            }
+        }
+
+        private boolean complete() {
+            if (!completed.compareAndSet(false, true)) {
+                return false;
+            }
+            bulkhead.release();
+            return true;
+        }
+
+        private Duration elapsed() {
+            return Duration.ofNanos(System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.envisionad.webservice.config.outbound;
+
+import com.envisionad.webservice.config.exceptions.OutboundDependencyUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The one place outbound HTTP clients are built. Every client for a dependency shares that
+ * dependency's pooled keep-alive connections, its connect and read timeouts, and its
+ * {@link OutboundDependency} bulkhead and circuit breaker, so a slow upstream can only tie up
+ * its own share of threads. Call latency and rejections are published under {@code outbound.*};
+ * Reactor Netty pools also publish {@code reactor.netty.connection.provider.*}.
+ */
+@Component
+public class OutboundHttpClients {
+
+    public static final String AUTH0 = "auth0";
+    public static final String NOMINATIM = "nominatim";
+    public static final String CLOUDINARY = "cloudinary";
+    public static final String STRIPE = "stripe";
+
+    private static final Duration MAX_IDLE_TIME = Duration.ofSeconds(30);
+
+    private final OutboundHttpProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, OutboundDependency> dependencies = new ConcurrentHashMap<>();
+    private final List<ConnectionProvider> connectionProviders = new CopyOnWriteArrayList<>();
+
+    public OutboundHttpClients(OutboundHttpProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PreDestroy
+    void disposeConnectionPools() {
+        connectionProviders.forEach(ConnectionProvider::dispose);
+    }
+
+    public OutboundDependency dependency(String name) {
+        return dependencies.computeIfAbsent(name,
+                key -> new OutboundDependency(key, properties.settingsFor(key), meterRegistry));
+    }
+
+    /**
+     * A blocking client for {@code name}. The JDK client keeps connections alive between
+     * requests; the bulkhead bounds how many are in use at once.
+     */
+    public RestTemplate restTemplate(String name) {
+        OutboundDependency dependency = dependency(name);
+        OutboundHttpProperties.DependencySettings settings = dependency.getSettings();
+
+        java.net.http.HttpClient httpClient = java.net.http.HttpClient.newBuilder()
+                .version(java.net.http.HttpClient.Version.HTTP_1_1)
+                .connectTimeout(settings.connectTimeout())
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(settings.readTimeout());
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(guard(dependency));
+        return restTemplate;
+    }
+
+    /**
+     * A reactive client builder for {@code name}, backed by a dedicated connection pool sized to
+     * the bulkhead.
+     */
+    public WebClient.Builder webClientBuilder(String name) {
+        OutboundDependency dependency = dependency(name);
+        OutboundHttpProperties.DependencySettings settings = dependency.getSettings();
+
+        ConnectionProvider connectionProvider = ConnectionProvider.builder(name)
+                .maxConnections(settings.maxConcurrentCalls())
+                .pendingAcquireTimeout(settings.connectTimeout())
+                .maxIdleTime(MAX_IDLE_TIME)
+                .metrics(true)
+                .build();
+        connectionProviders.add(connectionProvider);
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) settings.connectTimeout().toMillis())
+                .responseTimeout(settings.readTimeout());
+
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(reactiveGuard(dependency));
+    }
+
+    // Server errors count against the circuit; client errors are the caller's problem, not the upstream's.
+    static ClientHttpRequestInterceptor guard(OutboundDependency dependency) {
+        return (request, body, execution) -> {
+            OutboundDependency.Permit permit = dependency.acquire();
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                if (response.getStatusCode().is5xxServerError()) {
+                    permit.failed();
+                } else {
+                    permit.succeeded();
+                }
+                return response;
+            } catch (IOException | RuntimeException e) {
+                permit.failed();
+                throw e;
+            }
+        };
+    }
+
+    static ExchangeFilterFunction reactiveGuard(OutboundDependency dependency) {
+        return (request, next) -> Mono.defer(() -> {
+            OutboundDependency.Permit permit;
+            try {
+                permit = dependency.acquire();
+            } catch (OutboundDependencyUnavailableException e) {
+                return Mono.error(e);
+            }
+            return next.exchange(request)
+                    .doOnNext(response -> {
+                        if (response.statusCode().is5xxServerError()) {
+                            permit.failed();
+                        } else {
+                            permit.succeeded();
+                        }
+                    })
+                    .doOnError(error -> permit.failed())
+                    // Cancelled or empty: release the slot without judging the upstream.
+                    .doFinally(signal -> permit.abandoned());
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package com.envisionad.webservice.config.outbound;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Per-dependency settings for outbound HTTP, keyed by dependency name under
+ * {@code outbound.dependencies}. Anything left unset falls back to the defaults below.
+ */
+@ConfigurationProperties(prefix = "outbound")
+public record OutboundHttpProperties(Map<String, DependencySettings> dependencies) {
+
+    static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(2);
+    static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(5);
+    static final int DEFAULT_MAX_CONCURRENT_CALLS = 10;
+    static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+
+    /**
+     * @param connectTimeout     how long to wait for a TCP connection
+     * @param readTimeout        how long to wait for the response once the request is sent
+     * @param maxConcurrentCalls bulkhead size, which also caps pooled connections where the client allows it
+     * @param failureThreshold   consecutive failures that open the circuit
+     * @param openDuration       how long an open circuit rejects calls before letting a trial call through
+     */
+    public record DependencySettings(Duration connectTimeout,
+                                     Duration readTimeout,
+                                     Integer maxConcurrentCalls,
+                                     Integer failureThreshold,
+                                     Duration openDuration) {
+
+        public DependencySettings {
+            connectTimeout = connectTimeout != null ? connectTimeout : DEFAULT_CONNECT_TIMEOUT;
+            readTimeout = readTimeout != null ? readTimeout : DEFAULT_READ_TIMEOUT;
+            maxConcurrentCalls = maxConcurrentCalls != null && maxConcurrentCalls > 0
+                    ? maxConcurrentCalls : DEFAULT_MAX_CONCURRENT_CALLS;
+            failureThreshold = failureThreshold != null && failureThreshold > 0
+                    ? failureThreshold : DEFAULT_FAILURE_THRESHOLD;
+            openDuration = openDuration != null ? openDuration : DEFAULT_OPEN_DURATION;
+        }
+
+        static DependencySettings defaults() {
+            return new DependencySettings(null, null, null, null, null);
+        }
+    }
+
+    public OutboundHttpProperties {
+        dependencies = dependencies != null ? Map.copyOf(dependencies) : Map.of();
+    }
+
+    public DependencySettings settingsFor(String dependency) {
+        DependencySettings settings = dependencies.get(dependency);
+        return settings != null ? settings : DependencySettings.defaults();
+    }
+}
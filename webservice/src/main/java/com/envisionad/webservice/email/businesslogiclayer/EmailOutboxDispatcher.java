@@ -0,0 +1,248 @@
+package com.envisionad.webservice.email.businesslogiclayer;
+
+import com.envisionad.webservice.email.dataaccesslayer.EmailOutboxMessage;
+import com.envisionad.webservice.email.dataaccesslayer.EmailOutboxRepository;
+import com.envisionad.webservice.email.dataaccesslayer.EmailOutboxStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the email outbox on a single background thread. Each batch is handed to the mail
+ * sender in one call, which sends every message over a single SMTP connection; failed
+ * messages are retried with exponential backoff and given up on after a few attempts.
+ */
+@Slf4j
+@Service
+public class EmailOutboxDispatcher {
+
+    static final int BATCH_SIZE = 50;
+    static final int MAX_ATTEMPTS = 6;
+    static final Duration BASE_BACKOFF = Duration.ofSeconds(30);
+    static final Duration MAX_BACKOFF = Duration.ofHours(1);
+    static final Duration SENDING_LEASE = Duration.ofMinutes(5);
+    private static final Duration SENT_RETENTION = Duration.ofDays(14);
+    private static final int MAX_ERROR_LENGTH = 2_000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final boolean enabled;
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "email-outbox-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Collapses the wake-ups of many commits into a single pending drain.
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+    private final AtomicLong queueDepth = new AtomicLong();
+
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer deliveryLatency;
+    private final Timer batchDuration;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository,
+                                 JavaMailSender mailSender,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${email.outbox.dispatcher.enabled:true}") boolean enabled) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mailSender = mailSender;
+        this.enabled = enabled;
+
+        this.sentCounter = meterRegistry.counter("email.outbox.messages", "outcome", "sent");
+        this.retriedCounter = meterRegistry.counter("email.outbox.messages", "outcome", "retried");
+        this.failedCounter = meterRegistry.counter("email.outbox.messages", "outcome", "failed");
+        this.deliveryLatency = meterRegistry.timer("email.outbox.delivery.latency");
+        this.batchDuration = meterRegistry.timer("email.outbox.batch.duration");
+        meterRegistry.gauge("email.outbox.depth", queueDepth);
+    }
+
+    @PreDestroy
+    void shutdownDispatcher() {
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * Asks the dispatcher thread to drain the outbox. Called after a transaction that queued
+     * email commits; returns immediately.
+     */
+    public void wake() {
+        if (!enabled || !drainRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatcher.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; whatever is queued is sent after the next start.
+            drainRequested.set(false);
+        }
+    }
+
+    // Picks up retries that have come due and anything queued while no wake-up was delivered.
+    @Scheduled(initialDelayString = "PT10S", fixedDelayString = "PT10S")
+    public void pollOutbox() {
+        wake();
+    }
+
+    void drain() {
+        // Cleared first so that a commit landing mid-drain schedules another pass.
+        drainRequested.set(false);
+        try {
+            while (sendBatch() == BATCH_SIZE) {
+                // A full batch means more may be waiting.
+            }
+            queueDepth.set(emailOutboxRepository.countByStatus(EmailOutboxStatus.PENDING));
+        } catch (RuntimeException e) {
+            log.error("Email outbox drain failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Claims and sends one batch of due messages.
+     *
+     * @return the number of messages claimed
+     */
+    int sendBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> dueIds = emailOutboxRepository.findDueMessageIds(now, PageRequest.of(0, BATCH_SIZE));
+        if (dueIds.isEmpty()) {
+            return 0;
+        }
+
+        UUID claimToken = UUID.randomUUID();
+        if (emailOutboxRepository.claim(dueIds, now, now.plus(SENDING_LEASE), claimToken) == 0) {
+            return 0;
+        }
+        List<EmailOutboxMessage> claimed = emailOutboxRepository.findAllByClaimToken(claimToken);
+        if (claimed.isEmpty()) {
+            return dueIds.size();
+        }
+
+        SimpleMailMessage[] batch = new SimpleMailMessage[claimed.size()];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = toMailMessage(claimed.get(i));
+        }
+
+        Map<Object, Exception> failures = send(batch);
+
+        LocalDateTime sentAt = LocalDateTime.now();
+        List<Long> sentIds = new ArrayList<>();
+        for (int i = 0; i < batch.length; i++) {
+            EmailOutboxMessage message = claimed.get(i);
+            Exception failure = failures.get(batch[i]);
+            if (failure == null) {
+                sentIds.add(message.getId());
+                deliveryLatency.record(Duration.between(message.getCreatedAt(), sentAt));
+            } else {
+                handleFailure(message, failure);
+            }
+        }
+        if (!sentIds.isEmpty()) {
+            emailOutboxRepository.markSent(sentIds, sentAt);
+            sentCounter.increment(sentIds.size());
+        }
+        return dueIds.size();
+    }
+
+    /**
+     * Sends the whole batch through one SMTP session.
+     *
+     * @return the messages that could not be delivered, with the reason
+     */
+    private Map<Object, Exception> send(SimpleMailMessage[] batch) {
+        Timer.Sample sample = Timer.start();
+        try {
+            mailSender.send(batch);
+            return Map.of();
+        } catch (MailSendException e) {
+            if (!e.getFailedMessages().isEmpty()) {
+                return e.getFailedMessages();
+            }
+            return allFailed(batch, e);
+        } catch (MailException e) {
+            // Connection or authentication failure: nothing in the batch went out.
+            return allFailed(batch, e);
+        } finally {
+            sample.stop(batchDuration);
+        }
+    }
+
+    private static Map<Object, Exception> allFailed(SimpleMailMessage[] batch, Exception e) {
+        Map<Object, Exception> failures = new HashMap<>();
+        for (SimpleMailMessage mail : batch) {
+            failures.put(mail, e);
+        }
+        return failures;
+    }
+
+    private void handleFailure(EmailOutboxMessage message, Exception e) {
+        String error = truncate(e.getClass().getSimpleName() + ": " + e.getMessage());
+        int attempts = message.getAttempts();
+
+        if (attempts >= MAX_ATTEMPTS) {
+            log.error("Giving up on email {} to {} after {} attempts: {}",
+                    message.getId(), message.getToAddress(), attempts, e.getMessage());
+            emailOutboxRepository.markFailed(message.getId(), error);
+            failedCounter.increment();
+            return;
+        }
+
+        Duration delay = backoffFor(attempts);
+        log.warn("Email {} to {} failed on attempt {}, retrying in {}: {}",
+                message.getId(), message.getToAddress(), attempts, delay, e.getMessage());
+        emailOutboxRepository.scheduleRetry(message.getId(), LocalDateTime.now().plus(delay), error);
+        retriedCounter.increment();
+    }
+
+    static Duration backoffFor(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 20);
+        Duration delay = BASE_BACKOFF.multipliedBy(1L << exponent);
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    @Scheduled(initialDelayString = "PT1H", fixedDelayString = "PT24H")
+    public void purgeSentMessages() {
+        int purged = emailOutboxRepository.deleteSentBefore(LocalDateTime.now().minus(SENT_RETENTION));
+        if (purged > 0) {
+            log.info("Purged {} sent emails from the outbox", purged);
+        }
+    }
+
+    private static SimpleMailMessage toMailMessage(EmailOutboxMessage message) {
+        SimpleMailMessage mail = new SimpleMailMessage();
+        mail.setFrom(message.getFromAddress());
+        mail.setTo(message.getToAddress());
+        mail.setSubject(message.getSubject());
+        mail.setText(message.getBody());
+        return mail;
+    }
+
+    private static String truncate(String value) {
+        return value.length() <= MAX_ERROR_LENGTH ? value : value.substring(0, MAX_ERROR_LENGTH);
+    }
+}
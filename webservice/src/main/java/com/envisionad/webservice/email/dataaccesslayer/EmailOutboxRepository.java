@@ -0,0 +1,102 @@
+package com.envisionad.webservice.email.dataaccesslayer;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    // Pending messages that are due, plus messages whose dispatcher died holding them.
+    @Query("""
+            SELECT m.id FROM EmailOutboxMessage m
+            WHERE (m.status = com.envisionad.webservice.email.dataaccesslayer.EmailOutboxStatus.PENDING
+                        AND m.nextAttemptAt <= :now)
+               OR (m.status = com.envisionad.webservice.email.dataaccesslayer.EmailOutboxStatus.SENDING
+                        AND m.lockedUntil < :now)
+            ORDER BY m.nextAttemptAt, m.id
+            """)
+    List<Long> findDueMessageIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Conditional so that a message is only ever held by one batch, on any replica.
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE EmailOutboxMessage m
+            SET m.status = com.envisionad.webservice.email.dataaccesslayer.EmailOutboxStatus.SENDING,
+                m.claimToken = :claimToken,
+                m.lockedUntil = :leaseUntil,
+                m.attempts = m.attempts + 1
+            WHERE m.id IN :ids
+              AND ((m.status = com.envisionad.webservice.email.dataaccesslayer.EmailOutboxStatus.PENDING
+                        AND m.nextAttemptAt <= :now)
+                   OR (m.status = com.envisionad.webservice.email.dataaccesslayer.EmailOutboxStatus.SENDING
+                        AND m.lockedUntil < :now))
+            """)
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil,
+              @Param("claimToken") UUID claimToken);
+
+    List<EmailOutboxMessage> findAllByClaimToken(UUID claimToken);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE EmailOutboxMessage m
+            SET m.status = com.envisionad.webservice.email.dataaccesslayer.EmailOutboxStatus.SENT,
+                m.sentAt = :sentAt,
+                m.claimToken = NULL,
+                m.lockedUntil = NULL,
+                m.lastError = NULL
+            WHERE m.id IN :ids
+            """)
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE EmailOutboxMessage m
+            SET m.status = com.envisionad.webservice.email.dataaccesslayer.EmailOutboxStatus.PENDING,
+                m.nextAttemptAt = :nextAttemptAt,
+                m.claimToken = NULL,
+                m.lockedUntil = NULL,
+                m.lastError = :error
+            WHERE m.id = :id
+            """)
+    int scheduleRetry(@Param("id") Long id,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE EmailOutboxMessage m
+            SET m.status = com.envisionad.webservice.email.dataaccesslayer.EmailOutboxStatus.FAILED,
+                m.claimToken = NULL,
+                m.lockedUntil = NULL,
+                m.lastError = :error
+            WHERE m.id = :id
+            """)
+    int markFailed(@Param("id") Long id, @Param("error") String error);
+
+    long countByStatus(EmailOutboxStatus status);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            DELETE FROM EmailOutboxMessage m
+            WHERE m.status = com.envisionad.webservice.email.dataaccesslayer.EmailOutboxStatus.SENT
+              AND m.sentAt < :cutoff
+            """)
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,8 @@
+package com.envisionad.webservice.email.dataaccesslayer;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
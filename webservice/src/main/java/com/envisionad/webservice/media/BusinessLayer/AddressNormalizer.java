@@ -0,0 +1,194 @@
+package com.envisionad.webservice.media.BusinessLayer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Folds free-text address parts into comparable forms so user input can be checked against
+ * geocoder responses. Folding is a single pass over the characters rather than a chain of
+ * regex replacements, and the only pattern used is compiled once.
+ */
+public final class AddressNormalizer {
+
+    private static final Pattern POSTAL_CODE_SEPARATORS = Pattern.compile("[\\s-]");
+
+    private AddressNormalizer() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Strips accents and case and keeps only ASCII letters and digits,
+     * e.g. {@code "Montréal-Nord"} becomes {@code "montrealnord"}.
+     *
+     * @return the folded value, or {@code null} when nothing comparable remains
+     */
+    public static String comparable(String value) {
+        if (value == null) {
+            return null;
+        }
+        String folded = fold(value, false);
+        return folded.isEmpty() ? null : folded;
+    }
+
+    /**
+     * Splits a street into folded tokens, dropping street types and directions in English and
+     * French so {@code "123 Rue Sainte-Catherine O"} and {@code "123 Sainte Catherine Street West"}
+     * share the same tokens.
+     */
+    public static Set<String> streetTokens(String value) {
+        if (value == null) {
+            return Set.of();
+        }
+
+        String folded = fold(value, true);
+        Set<String> tokens = new LinkedHashSet<>();
+        int start = 0;
+        while (start < folded.length()) {
+            int end = folded.indexOf(' ', start);
+            if (end < 0) {
+                end = folded.length();
+            }
+            String token = canonicalizeStreetToken(folded.substring(start, end));
+            if (token != null) {
+                tokens.add(token);
+            }
+            start = end + 1;
+        }
+        return tokens;
+    }
+
+    /**
+     * Upper-cases a postal code and keeps only ASCII letters and digits.
+     *
+     * @return the folded value, or {@code null} when nothing comparable remains
+     */
+    public static String postalComparable(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        // Full-string upper-casing only matters for characters such as 'ß' that expand
+        String source = isAscii(value) ? value : value.toUpperCase(Locale.ROOT);
+        StringBuilder folded = new StringBuilder(source.length());
+        for (int i = 0; i < source.length(); i++) {
+            char c = Character.toUpperCase(source.charAt(i));
+            if ((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+                folded.append(c);
+            }
+        }
+        return folded.isEmpty() ? null : folded.toString();
+    }
+
+    /**
+     * Removes whitespace and dashes from a postal code, e.g. {@code "H2X 1Y4"} becomes {@code "H2X1Y4"}.
+     */
+    public static String compactPostalCode(String postalCode) {
+        return POSTAL_CODE_SEPARATORS.matcher(postalCode).replaceAll("");
+    }
+
+    /**
+     * Lower-cases, drops combining marks and keeps ASCII letters and digits in one pass. When
+     * {@code tokenize} is set, every run of other characters becomes a single space and the
+     * result carries no leading or trailing space. Pure ASCII input skips decomposition entirely.
+     */
+    private static String fold(String value, boolean tokenize) {
+        String source = isAscii(value) ? value : Normalizer.normalize(value, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(source.length());
+        boolean pendingSeparator = false;
+
+        for (int i = 0; i < source.length(); ) {
+            int codePoint = source.codePointAt(i);
+            i += Character.charCount(codePoint);
+
+            if (isCombiningMark(codePoint)) {
+                continue;
+            }
+
+            int lower = Character.toLowerCase(codePoint);
+            if ((lower >= 'a' && lower <= 'z') || (lower >= '0' && lower <= '9')) {
+                if (pendingSeparator) {
+                    folded.append(' ');
+                    pendingSeparator = false;
+                }
+                folded.append((char) lower);
+            } else if (tokenize && !folded.isEmpty()) {
+                pendingSeparator = true;
+            }
+        }
+        return folded.toString();
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isCombiningMark(int codePoint) {
+        int type = Character.getType(codePoint);
+        return type == Character.NON_SPACING_MARK
+                || type == Character.ENCLOSING_MARK
+                || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    private static String canonicalizeStreetToken(String token) {
+        return switch (token) {
+            // street type variants
+            case "street", "st", "rue", "road", "rd", "avenue", "ave", "av", "boulevard", "blvd", "boul", "chemin",
+                    "ch", "drive", "dr", "lane", "ln", "court", "ct", "place", "pl", "terrace", "ter" -> null;
+            // directions in EN/FR
+            case "north", "n", "nord", "south", "s", "sud", "east", "e", "est", "west", "w", "ouest", "o" -> null;
+            default -> token;
+        };
+    }
+
+    /**
+     * View over one geocoder {@code address} object that folds each value at most once, however
+     * many field checks end up comparing against it.
+     */
+    public static final class NormalizedAddress {
+        private final JsonNode addressNode;
+        private final Map<String, String> comparableByValue = new HashMap<>();
+        private final Map<String, Set<String>> streetTokensByValue = new HashMap<>();
+
+        public NormalizedAddress(JsonNode addressNode) {
+            this.addressNode = addressNode;
+        }
+
+        /**
+         * Raw text of an address field, or {@code null} when the geocoder did not return it.
+         */
+        public String text(String field) {
+            return addressNode.path(field).asText(null);
+        }
+
+        public String comparable(String value) {
+            if (value == null) {
+                return null;
+            }
+            if (comparableByValue.containsKey(value)) {
+                return comparableByValue.get(value);
+            }
+            String folded = AddressNormalizer.comparable(value);
+            comparableByValue.put(value, folded);
+            return folded;
+        }
+
+        public Set<String> streetTokens(String value) {
+            if (value == null) {
+                return Set.of();
+            }
+            return streetTokensByValue.computeIfAbsent(value, AddressNormalizer::streetTokens);
+        }
+    }
+}
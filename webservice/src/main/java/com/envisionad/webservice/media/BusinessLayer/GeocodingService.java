@@ -1,7 +1,14 @@
 package com.envisionad.webservice.media.BusinessLayer;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface GeocodingService {
     Optional<String> geocodeAddress(String address);
+
+    /**
+     * Non-blocking variant of {@link #geocodeAddress(String)}. Cancelling the returned future
+     * abandons the lookup if no other caller is waiting on the same query.
+     */
+    CompletableFuture<Optional<String>> geocodeAddressAsync(String address);
 }
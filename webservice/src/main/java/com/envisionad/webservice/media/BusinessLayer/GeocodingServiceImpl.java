@@ -1,69 +1,243 @@
 package com.envisionad.webservice.media.BusinessLayer;
 
+import com.envisionad.webservice.config.outbound.OutboundHttpClients;
+import com.envisionad.webservice.media.DataAccessLayer.GeocodingCacheRepository;
 import com.envisionad.webservice.media.exceptions.GeocodingServiceUnavailableException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+@Slf4j
 @Service
 public class GeocodingServiceImpl implements GeocodingService {
 
     private final WebClient webClient;
     private static final String NOMINATIM_BASE_URL = "https://nominatim.openstreetmap.org";
+    private static final String UNAVAILABLE_MESSAGE = "Address validation service is temporarily unavailable.";
     private static final Duration GEOCODING_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration MAX_QUEUE_WAIT = Duration.ofSeconds(30);
     private static final Duration CACHE_TTL = Duration.ofHours(24);
-    private static final int MAX_CACHE_ENTRIES = 5_000;
+    private static final int MAX_CACHE_ENTRIES = 10_000;
     private static final long MIN_REQUEST_INTERVAL_MS = 1_000L;
+    private static final int MAX_PENDING_REQUESTS = (int) (MAX_QUEUE_WAIT.toMillis() / MIN_REQUEST_INTERVAL_MS);
 
-    private final Map<String, CacheEntry> geocodingCache = new ConcurrentHashMap<>();
-    private final Object rateLimitLock = new Object();
-    private long lastRequestTimeMs = 0L;
+    // First tier: bounded in-memory cache (W-TinyLFU eviction); second tier: the geocoding_cache table.
+    private final Cache<String, CacheEntry> geocodingCache = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHE_ENTRIES)
+            .expireAfter(new CacheEntryExpiry())
+            .build();
+    private final GeocodingCacheRepository geocodingCacheRepository;
+    private final Map<String, InFlightLookup> inFlightLookups = new ConcurrentHashMap<>();
 
-    public GeocodingServiceImpl(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.baseUrl(NOMINATIM_BASE_URL).build();
+    // Requests waiting for a one-per-second Nominatim slot, in submission order. Guarded by itself.
+    private final Deque<PendingRequest> pendingRequests = new ArrayDeque<>();
+    private long lastDispatchMs;
+    private boolean dispatchScheduled;
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "geocoding-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public GeocodingServiceImpl(WebClient.Builder webClientBuilder, GeocodingCacheRepository geocodingCacheRepository) {
+        this(webClientBuilder, geocodingCacheRepository, NOMINATIM_BASE_URL);
+    }
+
+    // Pooling, timeouts, the bulkhead and the circuit breaker come from the shared outbound client setup.
+    @Autowired
+    public GeocodingServiceImpl(OutboundHttpClients outboundHttpClients,
+                                GeocodingCacheRepository geocodingCacheRepository,
+                                @Value("${geocoding.nominatim.base-url:" + NOMINATIM_BASE_URL + "}") String baseUrl) {
+        this(outboundHttpClients.webClientBuilder(OutboundHttpClients.NOMINATIM), geocodingCacheRepository, baseUrl);
+    }
+
+    public GeocodingServiceImpl(WebClient.Builder webClientBuilder,
+                                GeocodingCacheRepository geocodingCacheRepository,
+                                String baseUrl) {
+        this.geocodingCacheRepository = geocodingCacheRepository;
+        this.webClient = webClientBuilder
+                .baseUrl(baseUrl)
+                .build();
+    }
+
+    private record CacheEntry(Optional<String> value, LocalDateTime expiresAt) {
+    }
+
+    private record PendingRequest(String cacheKey, String address, InFlightLookup lookup) {
     }
 
-    private record CacheEntry(Optional<String> value, long expiresAtMs) {
+    @PreDestroy
+    void shutdownDispatcher() {
+        dispatcher.shutdownNow();
     }
 
     @Override
     public Optional<String> geocodeAddress(String address) {
+        CompletableFuture<Optional<String>> lookup = geocodeAddressAsync(address);
+        try {
+            return lookup.get(MAX_QUEUE_WAIT.plus(GEOCODING_TIMEOUT).toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GeocodingServiceUnavailableException unavailable) {
+                throw unavailable;
+            }
+            throw new GeocodingServiceUnavailableException(UNAVAILABLE_MESSAGE, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            lookup.cancel(true);
+            throw new GeocodingServiceUnavailableException(UNAVAILABLE_MESSAGE, e);
+        } catch (TimeoutException | CancellationException e) {
+            lookup.cancel(true);
+            throw new GeocodingServiceUnavailableException(UNAVAILABLE_MESSAGE, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Optional<String>> geocodeAddressAsync(String address) {
         String cacheKey = normalizeCacheKey(address);
         CacheEntry cachedResponse = getCached(cacheKey);
         if (cachedResponse != null) {
-            return cachedResponse.value();
+            return CompletableFuture.completedFuture(cachedResponse.value());
         }
 
-        try {
-            awaitRateLimitSlot();
-
-            String response = webClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/search")
-                            .queryParam("q", address)
-                            .queryParam("format", "json")
-                            .queryParam("addressdetails", 1)
-                            .queryParam("limit", 1)
-                            .build())
-                    .header("User-Agent", "EnvisionAd/1.0") // Nominatim requires a User-Agent
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(GEOCODING_TIMEOUT)
-                    .block();
-
-            Optional<String> result = (response != null && !response.equals("[]"))
-                    ? Optional.of(response)
-                    : Optional.empty();
-            putCached(cacheKey, result);
-            return result;
-        } catch (Exception e) {
-            throw new GeocodingServiceUnavailableException("Address validation service is temporarily unavailable.", e);
+        // Identical queries already on the wire share one request; each caller gets its own future.
+        while (true) {
+            InFlightLookup lookup = inFlightLookups.get(cacheKey);
+            boolean started = false;
+            if (lookup == null) {
+                InFlightLookup created = new InFlightLookup();
+                lookup = inFlightLookups.putIfAbsent(cacheKey, created);
+                if (lookup == null) {
+                    lookup = created;
+                    started = true;
+                }
+            }
+
+            CompletableFuture<Optional<String>> caller = lookup.attach();
+            if (started) {
+                startLookup(cacheKey, address, lookup);
+            }
+            if (caller != null) {
+                return caller;
+            }
+            // Every previous waiter cancelled this lookup; drop it and start a fresh one.
+            inFlightLookups.remove(cacheKey, lookup);
+        }
+    }
+
+    private void startLookup(String cacheKey, String address, InFlightLookup lookup) {
+        lookup.result.whenComplete((result, error) -> inFlightLookups.remove(cacheKey, lookup));
+
+        boolean accepted;
+        synchronized (pendingRequests) {
+            pendingRequests.removeIf(pending -> pending.lookup().result.isDone());
+            accepted = pendingRequests.size() < MAX_PENDING_REQUESTS;
+            if (accepted) {
+                pendingRequests.addLast(new PendingRequest(cacheKey, address, lookup));
+            }
+        }
+
+        if (!accepted) {
+            lookup.result.completeExceptionally(new GeocodingServiceUnavailableException(UNAVAILABLE_MESSAGE,
+                    new TimeoutException("Geocoding queue wait exceeds " + MAX_QUEUE_WAIT)));
+            return;
         }
+        dispatcher.execute(this::dispatchPending);
+    }
+
+    /**
+     * Sends the oldest pending request once its one-per-second slot is free. Requests cancelled
+     * while queued are skipped without consuming a slot, so speculative lookups cost nothing
+     * once a better answer has arrived.
+     */
+    private void dispatchPending() {
+        PendingRequest next = null;
+        long waitMs;
+        synchronized (pendingRequests) {
+            while (!pendingRequests.isEmpty() && pendingRequests.peekFirst().lookup().result.isDone()) {
+                pendingRequests.pollFirst();
+            }
+            if (pendingRequests.isEmpty()) {
+                return;
+            }
+
+            long nowMs = System.currentTimeMillis();
+            waitMs = lastDispatchMs + MIN_REQUEST_INTERVAL_MS - nowMs;
+            if (waitMs <= 0) {
+                next = pendingRequests.pollFirst();
+                lastDispatchMs = nowMs;
+            } else if (dispatchScheduled) {
+                return;
+            } else {
+                dispatchScheduled = true;
+            }
+        }
+
+        if (next != null) {
+            send(next);
+            dispatcher.execute(this::dispatchPending);
+            return;
+        }
+
+        dispatcher.schedule(() -> {
+            synchronized (pendingRequests) {
+                dispatchScheduled = false;
+            }
+            dispatchPending();
+        }, waitMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void send(PendingRequest pending) {
+        InFlightLookup lookup = pending.lookup();
+        if (lookup.result.isDone()) {
+            return;
+        }
+
+        Mono<Optional<String>> request = webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/search")
+                        .queryParam("q", pending.address())
+                        .queryParam("format", "json")
+                        .queryParam("addressdetails", 1)
+                        .queryParam("limit", 1)
+                        .build())
+                .header("User-Agent", "EnvisionAd/1.0") // Nominatim requires a User-Agent
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(GEOCODING_TIMEOUT)
+                .map(response -> response.equals("[]") ? Optional.<String>empty() : Optional.of(response))
+                .defaultIfEmpty(Optional.empty())
+                .doOnNext(result -> putCached(pending.cacheKey(), result));
+
+        lookup.subscription = request.subscribe(
+                lookup.result::complete,
+                error -> lookup.result.completeExceptionally(
+                        new GeocodingServiceUnavailableException(UNAVAILABLE_MESSAGE, error)));
     }
 
     private String normalizeCacheKey(String address) {
@@ -74,39 +248,98 @@ public class GeocodingServiceImpl implements GeocodingService {
     }
 
     private CacheEntry getCached(String cacheKey) {
-        CacheEntry entry = geocodingCache.get(cacheKey);
-        if (entry == null) {
-            return null;
+        CacheEntry entry = geocodingCache.getIfPresent(cacheKey);
+        if (entry != null) {
+            return entry;
         }
-        if (System.currentTimeMillis() >= entry.expiresAtMs()) {
-            geocodingCache.remove(cacheKey);
+
+        try {
+            entry = geocodingCacheRepository.findByQueryKeyAndExpiresAtAfter(cacheKey, LocalDateTime.now())
+                    .map(stored -> new CacheEntry(Optional.ofNullable(stored.getResponse()), stored.getExpiresAt()))
+                    .orElse(null);
+        } catch (RuntimeException e) {
+            log.warn("Could not read geocoding cache entry for '{}': {}", cacheKey, e.getMessage());
             return null;
         }
+
+        if (entry != null) {
+            geocodingCache.put(cacheKey, entry);
+        }
         return entry;
     }
 
     private void putCached(String cacheKey, Optional<String> result) {
-        evictExpiredEntries();
-        if (geocodingCache.size() >= MAX_CACHE_ENTRIES) {
-            geocodingCache.clear();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(CACHE_TTL);
+        geocodingCache.put(cacheKey, new CacheEntry(result, expiresAt));
+
+        // Persist off the HTTP client's event loop; the durable tier is best effort.
+        Schedulers.boundedElastic().schedule(() -> {
+            try {
+                geocodingCacheRepository.upsert(cacheKey, result.orElse(null), expiresAt, now);
+            } catch (RuntimeException e) {
+                log.warn("Could not persist geocoding cache entry for '{}': {}", cacheKey, e.getMessage());
+            }
+        });
+    }
+
+    @Scheduled(initialDelayString = "PT1H", fixedDelayString = "PT1H")
+    public void purgeExpiredEntries() {
+        int purged = geocodingCacheRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired geocoding cache entries", purged);
         }
-        long expiresAtMs = System.currentTimeMillis() + CACHE_TTL.toMillis();
-        geocodingCache.put(cacheKey, new CacheEntry(result, expiresAtMs));
     }
 
-    private void evictExpiredEntries() {
-        long nowMs = System.currentTimeMillis();
-        geocodingCache.entrySet().removeIf(entry -> entry.getValue().expiresAtMs() <= nowMs);
+    private static final class CacheEntryExpiry implements Expiry<String, CacheEntry> {
+        @Override
+        public long expireAfterCreate(String key, CacheEntry value, long currentTime) {
+            return Math.max(0L, Duration.between(LocalDateTime.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CacheEntry value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CacheEntry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 
-    private void awaitRateLimitSlot() throws InterruptedException {
-        synchronized (rateLimitLock) {
-            long nowMs = System.currentTimeMillis();
-            long waitMs = MIN_REQUEST_INTERVAL_MS - (nowMs - lastRequestTimeMs);
-            if (waitMs > 0) {
-                Thread.sleep(waitMs);
+    /**
+     * One outbound request shared by every caller asking for the same query. The request is
+     * cancelled only once all of its callers have cancelled their futures.
+     */
+    private static final class InFlightLookup {
+        private final CompletableFuture<Optional<String>> result = new CompletableFuture<>();
+        private volatile Disposable subscription;
+        private int waiters;
+
+        synchronized CompletableFuture<Optional<String>> attach() {
+            if (result.isCancelled()) {
+                return null;
+            }
+            waiters++;
+            CompletableFuture<Optional<String>> caller = result.copy();
+            caller.whenComplete((value, error) -> {
+                if (caller.isCancelled()) {
+                    detach();
+                }
+            });
+            return caller;
+        }
+
+        private synchronized void detach() {
+            waiters--;
+            if (waiters == 0 && !result.isDone()) {
+                result.cancel(false);
+                Disposable current = subscription;
+                if (current != null) {
+                    current.dispose();
+                }
             }
-            lastRequestTimeMs = System.currentTimeMillis();
         }
     }
 }
@@ -0,0 +1,143 @@
+package com.envisionad.webservice.media.BusinessLayer;
+
+import com.envisionad.webservice.media.DataAccessLayer.Media;
+import com.envisionad.webservice.media.DataAccessLayer.MediaSpecifications;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One of the orders active media can be scrolled through by cursor, and the cursors for it.
+ * <p>
+ * A cursor is the order, the sort key and the id of the last media a client has, base64url-encoded
+ * so clients treat it as opaque. It is only valid for the order it was issued for; for the distance
+ * order that includes the point distances are measured from.
+ */
+final class MediaKeyset {
+
+    private static final String BY_ID = "id";
+    private static final String BY_DISTANCE = "nearest";
+
+    private final String order;
+    private final String attribute;
+    private final boolean descending;
+    private final Double userLat;
+    private final Double userLng;
+
+    private MediaKeyset(String order, String attribute, boolean descending, Double userLat, Double userLng) {
+        this.order = order;
+        this.attribute = attribute;
+        this.descending = descending;
+        this.userLat = userLat;
+        this.userLng = userLng;
+    }
+
+    /**
+     * The order asked for by the same {@code specialSort} and {@code sort} parameters as offset
+     * paging. Price, weekly impressions and distance are supported; without a sort, media come by id.
+     */
+    static MediaKeyset of(String specialSort, Double userLat, Double userLng, Sort sort) {
+        if ("nearest".equals(specialSort) && userLat != null && userLng != null) {
+            return new MediaKeyset(BY_DISTANCE, null, false, userLat, userLng);
+        }
+        if ("weeklyImpressions,asc".equals(specialSort) || "weeklyImpressions,desc".equals(specialSort)) {
+            return new MediaKeyset(specialSort, "weeklyImpressions", specialSort.endsWith("desc"), null, null);
+        }
+        if ("relevance".equals(specialSort)) {
+            throw new IllegalArgumentException("Cursor paging does not support the relevance sort.");
+        }
+
+        List<Sort.Order> orders = sort.toList();
+        if (orders.isEmpty()) {
+            return new MediaKeyset(BY_ID, null, false, null, null);
+        }
+        if (orders.size() == 1 && "price".equals(orders.get(0).getProperty())) {
+            boolean descending = orders.get(0).isDescending();
+            return new MediaKeyset(descending ? "price,desc" : "price,asc", "price", descending, null, null);
+        }
+        throw new IllegalArgumentException("Cursor paging only supports sorting by price, weeklyImpressions or nearest.");
+    }
+
+    /**
+     * The order, restricted to the media after the cursor's position when one is given.
+     */
+    Specification<Media> after(Position position) {
+        UUID lastId = position == null ? null : position.lastId();
+        if (BY_DISTANCE.equals(order)) {
+            return MediaSpecifications.seekByDistanceFrom(userLat, userLng, lastId);
+        }
+        if (BY_ID.equals(order)) {
+            return MediaSpecifications.seekById(lastId);
+        }
+        Object lastKey = position == null ? null : position.lastKey();
+        return "price".equals(attribute)
+                ? MediaSpecifications.seekBy(attribute, descending, (BigDecimal) lastKey, lastId)
+                : MediaSpecifications.seekBy(attribute, descending, (Integer) lastKey, lastId);
+    }
+
+    /**
+     * The media {@link #after} leaves out because they have no sort key: an ascending seek from a
+     * price stops before the media without one. Null when nothing was left out.
+     */
+    Specification<Media> nullTailAfter(Position position) {
+        if (position == null || descending || position.lastKey() == null || !"price".equals(attribute)) {
+            return null;
+        }
+        return MediaSpecifications.seekNullTail(attribute);
+    }
+
+    Position decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        String[] parts;
+        UUID lastId;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+            lastId = UUID.fromString(parts[parts.length - 1]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor.", e);
+        }
+        if (parts.length != 3 || !parts[0].equals(order) || (BY_DISTANCE.equals(order) && !parts[1].equals(origin()))) {
+            throw new IllegalArgumentException("The cursor was issued for a different sort.");
+        }
+
+        try {
+            return new Position(parseKey(parts[1]), lastId);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor.", e);
+        }
+    }
+
+    String encode(Media last) {
+        String key = switch (order) {
+            case BY_ID -> "";
+            case BY_DISTANCE -> origin();
+            default -> "price".equals(attribute)
+                    ? (last.getPrice() == null ? "" : last.getPrice().toPlainString())
+                    : String.valueOf(last.getWeeklyImpressions());
+        };
+        String payload = order + "|" + key + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String origin() {
+        return userLat + "," + userLng;
+    }
+
+    private Object parseKey(String key) {
+        if (attribute == null || key.isEmpty()) {
+            return null;
+        }
+        return "price".equals(attribute) ? new BigDecimal(key) : Integer.valueOf(key);
+    }
+
+    record Position(Object lastKey, UUID lastId) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.envisionad.webservice.media.BusinessLayer;
 
+import com.envisionad.webservice.media.BusinessLayer.AddressNormalizer.NormalizedAddress;
 import com.envisionad.webservice.media.DataAccessLayer.Media;
 import com.envisionad.webservice.media.DataAccessLayer.MediaLocation;
 import com.envisionad.webservice.media.DataAccessLayer.MediaLocationRepository;
@@ -13,21 +14,27 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.envisionad.webservice.business.businesslogiclayer.BusinessService;
-import com.envisionad.webservice.business.presentationlayer.models.BusinessResponseModel;
+import com.envisionad.webservice.utils.JwtUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.oauth2.jwt.Jwt;
 
-import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.LinkedHashMap;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -50,6 +57,9 @@ public class MediaLocationServiceImpl implements MediaLocationService {
     private static final String INVALID_ADDRESS_ERROR = "Address could not be verified.";
     private static final String COORDINATE_EXTRACTION_ERROR = "Address was matched but coordinates could not be determined. Please check street, city, province/state, country, and postal code.";
     private static final String GEOCODING_UNAVAILABLE_ERROR = "Address validation service is temporarily unavailable. Please try again shortly.";
+    private static final Duration GEOCODING_AWAIT_TIMEOUT = Duration.ofSeconds(40);
+    // Lookups one address resolution may have waiting in the geocoder's shared one-per-second queue.
+    private static final int MAX_QUEUED_LOOKUPS_PER_SESSION = 3;
     private static final String LOCATION_DELETE_BLOCKED_MEDIA_ERROR = "Cannot delete media location while active, pending, or rejected media are assigned. Please delete those media first.";
     private static final Map<String, String> ADDRESS_VERIFICATION_ERRORS = Map.of(
             STREET_FIELD, "Verify the street name or number.",
@@ -59,13 +69,71 @@ public class MediaLocationServiceImpl implements MediaLocationService {
             POSTAL_CODE_FIELD, "Verify the postal code value.");
 
     private final MediaLocationRepository mediaLocationRepository;
-    private final BusinessService businessService;
+    private final JwtUtils jwtUtils;
     private final GeocodingService geocodingService;
     private final ObjectMapper objectMapper;
 
     private record GeocodingLookupResult(String query, String jsonResponse) {
     }
 
+    /**
+     * Geocoding lookups for one address resolution. Planned queries are submitted in priority
+     * order a few at a time, so the geocoder works through them back to back while callers await
+     * them in order, without one resolution filling the queue every other caller shares. Repeated
+     * query strings share one lookup, and closing the session cancels whatever is still queued
+     * once a result has been chosen.
+     */
+    private final class GeocodingSession implements AutoCloseable {
+        private final Map<String, CompletableFuture<Optional<String>>> lookups = new LinkedHashMap<>();
+        private final Deque<String> planned = new ArrayDeque<>();
+
+        private void plan(Collection<String> queries) {
+            planned.addAll(queries);
+            submitPlanned();
+        }
+
+        private void submitPlanned() {
+            long queued = lookups.values().stream().filter(lookup -> !lookup.isDone()).count();
+            while (queued < MAX_QUEUED_LOOKUPS_PER_SESSION && !planned.isEmpty()) {
+                String query = planned.pollFirst();
+                if (!lookups.containsKey(query) && !submit(query).isDone()) {
+                    queued++;
+                }
+            }
+        }
+
+        private CompletableFuture<Optional<String>> submit(String query) {
+            return lookups.computeIfAbsent(query, geocodingService::geocodeAddressAsync);
+        }
+
+        private Optional<String> await(String query) {
+            planned.remove(query);
+            CompletableFuture<Optional<String>> lookup = submit(query);
+            // Topped up when the next answer is asked for rather than when one arrives, so the
+            // answer that settles the resolution leaves no new lookup holding a geocoder slot.
+            submitPlanned();
+            try {
+                return lookup.get(GEOCODING_AWAIT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof GeocodingServiceUnavailableException unavailable) {
+                    throw unavailable;
+                }
+                throw new GeocodingServiceUnavailableException(GEOCODING_UNAVAILABLE_ERROR, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new GeocodingServiceUnavailableException(GEOCODING_UNAVAILABLE_ERROR, e);
+            } catch (TimeoutException | CancellationException e) {
+                throw new GeocodingServiceUnavailableException(GEOCODING_UNAVAILABLE_ERROR, e);
+            }
+        }
+
+        @Override
+        public void close() {
+            planned.clear();
+            lookups.values().forEach(lookup -> lookup.cancel(true));
+        }
+    }
+
     @Override
     public List<MediaLocation> getAllMediaLocations(Jwt jwt, String businessId) {
         UUID resolvedBusinessId = resolveBusinessId(jwt).orElse(null);
@@ -150,11 +218,7 @@ public class MediaLocationServiceImpl implements MediaLocationService {
         }
 
         try {
-            BusinessResponseModel business = businessService.getBusinessByUserId(jwt, jwt.getSubject());
-            if (business == null || business.getBusinessId() == null) {
-                return Optional.empty();
-            }
-            return Optional.of(UUID.fromString(business.getBusinessId()));
+            return jwtUtils.resolveBusinessIdOfUser(jwt.getSubject()).map(UUID::fromString);
         } catch (Exception e) {
             log.error("Error fetching business for user {}: {}", jwt.getSubject(), e.getMessage(), e);
             return Optional.empty();
@@ -164,12 +228,16 @@ public class MediaLocationServiceImpl implements MediaLocationService {
     private void validateAndGeocode(MediaLocation mediaLocation) {
         validateAndNormalizeAddressFields(mediaLocation);
 
-        GeocodingLookupResult lookupResult = geocodeWithFallbacks(
-                mediaLocation.getStreet(),
-                mediaLocation.getCity(),
-                mediaLocation.getProvince(),
-                mediaLocation.getCountry(),
-                mediaLocation.getPostalCode());
+        GeocodingLookupResult lookupResult;
+        try (GeocodingSession session = new GeocodingSession()) {
+            lookupResult = geocodeWithFallbacks(
+                    session,
+                    mediaLocation.getStreet(),
+                    mediaLocation.getCity(),
+                    mediaLocation.getProvince(),
+                    mediaLocation.getCountry(),
+                    mediaLocation.getPostalCode());
+        }
         String address = lookupResult.query();
         String jsonResponse = lookupResult.jsonResponse();
 
@@ -195,16 +263,22 @@ public class MediaLocationServiceImpl implements MediaLocationService {
         }
     }
 
-    private GeocodingLookupResult geocodeWithFallbacks(String street,
+    private GeocodingLookupResult geocodeWithFallbacks(GeocodingSession session,
+            String street,
             String city,
             String province,
             String country,
             String postalCode) {
         List<String> candidates = buildAddressCandidates(street, city, province, country, postalCode);
+        List<Map.Entry<String, String>> diagnosticQueries = buildDiagnosticQueries(street, city, province, country,
+                postalCode);
+        List<String> referenceQueries = buildReferenceQueries(street, city, province, country, postalCode);
+
+        session.plan(candidates);
 
         for (String candidate : candidates) {
             try {
-                var response = geocodingService.geocodeAddress(candidate);
+                var response = session.await(candidate);
                 if (response.isPresent()) {
                     return new GeocodingLookupResult(candidate, response.get());
                 }
@@ -215,7 +289,13 @@ public class MediaLocationServiceImpl implements MediaLocationService {
         }
 
         log.info("Address verification returned no geocoding match for candidates: {}", candidates);
+        // Only now are the diagnostic and reference phases worth a geocoder slot.
+        session.plan(diagnosticQueries.stream().map(Map.Entry::getValue).toList());
+        session.plan(referenceQueries);
         Map<String, String> pinpointErrors = inferAddressFieldErrors(
+                session,
+                diagnosticQueries,
+                referenceQueries,
                 street,
                 city,
                 province,
@@ -247,7 +327,7 @@ public class MediaLocationServiceImpl implements MediaLocationService {
         candidates.add(String.format("%s, %s, %s, %s", street, city, postalCode, country));
         candidates.add(String.format("%s, %s, %s", street, city, country));
 
-        String compactPostalCode = postalCode.replaceAll("[\\s-]", "");
+        String compactPostalCode = AddressNormalizer.compactPostalCode(postalCode);
         if (!compactPostalCode.equals(postalCode)) {
             candidates.add(String.format("%s, %s, %s, %s, %s", street, city, province, country, compactPostalCode));
             candidates.add(String.format("%s, %s, %s, %s", street, city, compactPostalCode, country));
@@ -256,27 +336,44 @@ public class MediaLocationServiceImpl implements MediaLocationService {
         return new ArrayList<>(candidates);
     }
 
-    private Map<String, String> inferAddressFieldErrors(String street,
-            String city,
-            String province,
-            String country,
-            String postalCode,
-            String geocodingUnavailableError) {
-        List<Map.Entry<String, String>> diagnosticQueries = List.of(
+    private List<Map.Entry<String, String>> buildDiagnosticQueries(String street, String city, String province,
+            String country, String postalCode) {
+        return List.of(
                 Map.entry(COUNTRY_FIELD, String.format("%s, %s, %s, %s", street, city, province, postalCode)),
                 Map.entry(PROVINCE_FIELD, String.format("%s, %s, %s, %s", street, city, country, postalCode)),
                 Map.entry(CITY_FIELD, String.format("%s, %s, %s, %s", street, province, country, postalCode)),
                 Map.entry(POSTAL_CODE_FIELD, String.format("%s, %s, %s, %s", street, city, province, country)),
                 Map.entry(STREET_FIELD, String.format("%s, %s, %s, %s", city, province, country, postalCode)));
+    }
+
+    private List<String> buildReferenceQueries(String street, String city, String province, String country,
+            String postalCode) {
+        return List.of(
+                String.format("%s, %s", postalCode, country),
+                String.format("%s, %s, %s", street, postalCode, country),
+                String.format("%s, %s, %s", street, province, country),
+                String.format("%s, %s, %s", city, province, country));
+    }
 
+    private Map<String, String> inferAddressFieldErrors(GeocodingSession session,
+            List<Map.Entry<String, String>> diagnosticQueries,
+            List<String> referenceQueries,
+            String street,
+            String city,
+            String province,
+            String country,
+            String postalCode,
+            String geocodingUnavailableError) {
         for (Map.Entry<String, String> diagnostic : diagnosticQueries) {
-            if (hasGeocodingMatch(diagnostic.getValue(), geocodingUnavailableError)) {
+            if (hasGeocodingMatch(session, diagnostic.getValue(), geocodingUnavailableError)) {
                 String field = diagnostic.getKey();
                 return Map.of(field, ADDRESS_VERIFICATION_ERRORS.get(field));
             }
         }
 
         Map<String, String> referenceMismatches = inferFieldErrorsFromReferenceLookup(
+                session,
+                referenceQueries,
                 street,
                 city,
                 province,
@@ -290,29 +387,25 @@ public class MediaLocationServiceImpl implements MediaLocationService {
         return ADDRESS_VERIFICATION_ERRORS;
     }
 
-    private boolean hasGeocodingMatch(String query, String geocodingUnavailableError) {
+    private boolean hasGeocodingMatch(GeocodingSession session, String query, String geocodingUnavailableError) {
         try {
-            return geocodingService.geocodeAddress(query).isPresent();
+            return session.await(query).isPresent();
         } catch (GeocodingServiceUnavailableException e) {
             log.error("Geocoding service unavailable for diagnostic query '{}': {}", query, e.getMessage(), e);
             throw new GeocodingServiceUnavailableException(geocodingUnavailableError, e);
         }
     }
 
-    private Map<String, String> inferFieldErrorsFromReferenceLookup(String street,
+    private Map<String, String> inferFieldErrorsFromReferenceLookup(GeocodingSession session,
+            List<String> referenceQueries,
+            String street,
             String city,
             String province,
             String country,
             String postalCode,
             String geocodingUnavailableError) {
-        List<String> referenceQueries = List.of(
-                String.format("%s, %s", postalCode, country),
-                String.format("%s, %s, %s", street, postalCode, country),
-                String.format("%s, %s, %s", street, province, country),
-                String.format("%s, %s, %s", city, province, country));
-
         for (String query : referenceQueries) {
-            var reference = lookupFirstGeocodingResult(query, geocodingUnavailableError);
+            var reference = lookupFirstGeocodingResult(session, query, geocodingUnavailableError);
             if (reference.isEmpty()) {
                 continue;
             }
@@ -332,10 +425,11 @@ public class MediaLocationServiceImpl implements MediaLocationService {
         return Map.of();
     }
 
-    private Optional<JsonNode> lookupFirstGeocodingResult(String query,
+    private Optional<JsonNode> lookupFirstGeocodingResult(GeocodingSession session,
+            String query,
             String geocodingUnavailableError) {
         try {
-            var response = geocodingService.geocodeAddress(query);
+            var response = session.await(query);
             if (response.isEmpty()) {
                 return Optional.empty();
             }
@@ -381,20 +475,21 @@ public class MediaLocationServiceImpl implements MediaLocationService {
             String postalCode,
             JsonNode addressNode) {
         Map<String, String> mismatches = new LinkedHashMap<>();
+        NormalizedAddress address = new NormalizedAddress(addressNode);
 
-        if (!matchesCountry(country, addressNode)) {
+        if (!matchesCountry(country, address)) {
             mismatches.put(COUNTRY_FIELD, ADDRESS_VERIFICATION_ERRORS.get(COUNTRY_FIELD));
         }
-        if (!matchesProvince(province, addressNode)) {
+        if (!matchesProvince(province, address)) {
             mismatches.put(PROVINCE_FIELD, ADDRESS_VERIFICATION_ERRORS.get(PROVINCE_FIELD));
         }
-        if (!matchesCity(city, addressNode)) {
+        if (!matchesCity(city, address)) {
             mismatches.put(CITY_FIELD, ADDRESS_VERIFICATION_ERRORS.get(CITY_FIELD));
         }
-        if (!matchesPostalCode(postalCode, addressNode)) {
+        if (!matchesPostalCode(postalCode, address)) {
             mismatches.put(POSTAL_CODE_FIELD, ADDRESS_VERIFICATION_ERRORS.get(POSTAL_CODE_FIELD));
         }
-        if (!matchesStreet(street, addressNode)) {
+        if (!matchesStreet(street, address)) {
             mismatches.put(STREET_FIELD, ADDRESS_VERIFICATION_ERRORS.get(STREET_FIELD));
         }
 
@@ -422,67 +517,67 @@ public class MediaLocationServiceImpl implements MediaLocationService {
         }
     }
 
-    private boolean matchesCountry(String expectedCountry, JsonNode addressNode) {
-        String expected = normalizeComparable(expectedCountry);
-        String country = normalizeComparable(addressNode.path("country").asText(null));
-        String countryCode = normalizeComparable(addressNode.path("country_code").asText(null));
+    private boolean matchesCountry(String expectedCountry, NormalizedAddress address) {
+        String expected = AddressNormalizer.comparable(expectedCountry);
+        String country = address.comparable(address.text("country"));
+        String countryCode = address.comparable(address.text("country_code"));
         if (country != null && country.equals(expected)) {
             return true;
         }
         return countryCode != null && countryCode.equals(expected);
     }
 
-    private boolean matchesProvince(String expectedProvince, JsonNode addressNode) {
-        String expected = normalizeComparable(expectedProvince);
+    private boolean matchesProvince(String expectedProvince, NormalizedAddress address) {
+        String expected = AddressNormalizer.comparable(expectedProvince);
         if (expected == null) {
             return false;
         }
 
         List<String> candidates = new ArrayList<>();
-        candidates.add(addressNode.path("state").asText(null));
-        candidates.add(addressNode.path("province").asText(null));
-        candidates.add(addressNode.path("region").asText(null));
-        candidates.add(addressNode.path("state_district").asText(null));
-        candidates.add(extractSubdivisionCode(addressNode.path("ISO3166-2-lvl4").asText(null)));
-        candidates.add(extractSubdivisionCode(addressNode.path("ISO3166-2-lvl6").asText(null)));
+        candidates.add(address.text("state"));
+        candidates.add(address.text("province"));
+        candidates.add(address.text("region"));
+        candidates.add(address.text("state_district"));
+        candidates.add(extractSubdivisionCode(address.text("ISO3166-2-lvl4")));
+        candidates.add(extractSubdivisionCode(address.text("ISO3166-2-lvl6")));
 
-        return anyCandidateMatches(expected, candidates, false);
+        return anyCandidateMatches(expected, candidates, address, false);
     }
 
-    private boolean matchesCity(String expectedCity, JsonNode addressNode) {
-        String expected = normalizeComparable(expectedCity);
+    private boolean matchesCity(String expectedCity, NormalizedAddress address) {
+        String expected = AddressNormalizer.comparable(expectedCity);
         if (expected == null) {
             return false;
         }
         List<String> candidates = new ArrayList<>();
-        candidates.add(addressNode.path("city").asText(null));
-        candidates.add(addressNode.path("town").asText(null));
-        candidates.add(addressNode.path("village").asText(null));
-        candidates.add(addressNode.path("municipality").asText(null));
-        candidates.add(addressNode.path("suburb").asText(null));
-        candidates.add(addressNode.path("city_district").asText(null));
-        candidates.add(addressNode.path("hamlet").asText(null));
-        candidates.add(addressNode.path("county").asText(null));
-        return anyCandidateMatches(expected, candidates, true);
-    }
-
-    private boolean matchesPostalCode(String expectedPostalCode, JsonNode addressNode) {
-        String expected = normalizePostalComparable(expectedPostalCode);
-        String actual = normalizePostalComparable(addressNode.path("postcode").asText(null));
+        candidates.add(address.text("city"));
+        candidates.add(address.text("town"));
+        candidates.add(address.text("village"));
+        candidates.add(address.text("municipality"));
+        candidates.add(address.text("suburb"));
+        candidates.add(address.text("city_district"));
+        candidates.add(address.text("hamlet"));
+        candidates.add(address.text("county"));
+        return anyCandidateMatches(expected, candidates, address, true);
+    }
+
+    private boolean matchesPostalCode(String expectedPostalCode, NormalizedAddress address) {
+        String expected = AddressNormalizer.postalComparable(expectedPostalCode);
+        String actual = AddressNormalizer.postalComparable(address.text("postcode"));
         if (actual == null) {
             return true;
         }
         return expected.equals(actual);
     }
 
-    private boolean matchesStreet(String expectedStreet, JsonNode addressNode) {
-        Set<String> expectedTokens = normalizeStreetTokens(expectedStreet);
+    private boolean matchesStreet(String expectedStreet, NormalizedAddress address) {
+        Set<String> expectedTokens = AddressNormalizer.streetTokens(expectedStreet);
         if (expectedTokens.isEmpty()) {
             return false;
         }
 
-        String road = addressNode.path("road").asText(null);
-        String houseNumber = addressNode.path("house_number").asText(null);
+        String road = address.text("road");
+        String houseNumber = address.text("house_number");
 
         List<String> candidates = new ArrayList<>();
         candidates.add(road);
@@ -497,8 +592,9 @@ public class MediaLocationServiceImpl implements MediaLocationService {
         }
 
         String expectedNumber = extractNumericToken(expectedTokens);
+        Set<String> expectedWithoutNumber = removeNumericTokens(expectedTokens);
         for (String candidate : candidates) {
-            Set<String> candidateTokens = normalizeStreetTokens(candidate);
+            Set<String> candidateTokens = address.streetTokens(candidate);
             if (candidateTokens.isEmpty()) {
                 continue;
             }
@@ -508,25 +604,24 @@ public class MediaLocationServiceImpl implements MediaLocationService {
                 continue;
             }
 
-            Set<String> expectedWithoutNumber = removeNumericTokens(expectedTokens);
-            Set<String> candidateWithoutNumber = removeNumericTokens(candidateTokens);
-            if (!expectedWithoutNumber.isEmpty()) {
-                for (String token : expectedWithoutNumber) {
-                    if (candidateWithoutNumber.contains(token)) {
-                        return true;
-                    }
+            for (String token : expectedWithoutNumber) {
+                if (candidateTokens.contains(token)) {
+                    return true;
                 }
             }
         }
 
         // Fallback to normalized string comparison as a final permissive check.
-        String expected = normalizeComparable(expectedStreet);
-        return anyCandidateMatches(expected, candidates, true);
+        String expected = AddressNormalizer.comparable(expectedStreet);
+        return anyCandidateMatches(expected, candidates, address, true);
     }
 
-    private boolean anyCandidateMatches(String expectedNormalized, List<String> candidates, boolean allowPartialMatch) {
+    private boolean anyCandidateMatches(String expectedNormalized,
+            List<String> candidates,
+            NormalizedAddress address,
+            boolean allowPartialMatch) {
         for (String candidate : candidates) {
-            String normalizedCandidate = normalizeComparable(candidate);
+            String normalizedCandidate = address.comparable(candidate);
             if (normalizedCandidate == null) {
                 continue;
             }
@@ -548,59 +643,9 @@ public class MediaLocationServiceImpl implements MediaLocationService {
         return isoSubdivision.substring(isoSubdivision.indexOf('-') + 1);
     }
 
-    private String normalizeComparable(String value) {
-        if (value == null) {
-            return null;
-        }
-        String normalized = Normalizer.normalize(value, Normalizer.Form.NFD)
-                .replaceAll("\\p{M}+", "")
-                .toLowerCase(Locale.ROOT)
-                .replaceAll("[^\\p{Alnum}]", "");
-        return normalized.isEmpty() ? null : normalized;
-    }
-
-    private Set<String> normalizeStreetTokens(String value) {
-        if (value == null) {
-            return Set.of();
-        }
-
-        String tokenized = Normalizer.normalize(value, Normalizer.Form.NFD)
-                .replaceAll("\\p{M}+", "")
-                .toLowerCase(Locale.ROOT)
-                .replaceAll("[^\\p{Alnum}]", " ")
-                .trim();
-        if (tokenized.isEmpty()) {
-            return Set.of();
-        }
-
-        Set<String> tokens = new LinkedHashSet<>();
-        for (String rawToken : tokenized.split("\\s+")) {
-            String token = canonicalizeStreetToken(rawToken);
-            if (token == null || token.isBlank()) {
-                continue;
-            }
-            tokens.add(token);
-        }
-        return tokens;
-    }
-
-    private String canonicalizeStreetToken(String token) {
-        if (token == null || token.isBlank()) {
-            return null;
-        }
-        return switch (token) {
-            // street type variants
-            case "street", "st", "rue", "road", "rd", "avenue", "ave", "av", "boulevard", "blvd", "boul", "chemin",
-                    "ch", "drive", "dr", "lane", "ln", "court", "ct", "place", "pl", "terrace", "ter" -> null;
-            // directions in EN/FR
-            case "north", "n", "nord", "south", "s", "sud", "east", "e", "est", "west", "w", "ouest", "o" -> null;
-            default -> token;
-        };
-    }
-
     private String extractNumericToken(Set<String> tokens) {
         for (String token : tokens) {
-            if (token.chars().allMatch(Character::isDigit)) {
+            if (isNumeric(token)) {
                 return token;
             }
         }
@@ -610,17 +655,21 @@ public class MediaLocationServiceImpl implements MediaLocationService {
     private Set<String> removeNumericTokens(Set<String> tokens) {
         Set<String> filtered = new LinkedHashSet<>();
         for (String token : tokens) {
-            if (!token.chars().allMatch(Character::isDigit)) {
+            if (!isNumeric(token)) {
                 filtered.add(token);
             }
         }
         return filtered;
     }
 
-    private String normalizePostalComparable(String value) {
-        if (value == null) {
-            return null;
+    private boolean isNumeric(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (!Character.isDigit(token.charAt(i))) {
+                return false;
+            }
         }
+        return true;
+    }
         String normalized = value.trim().toUpperCase().replaceAll("[^A-Z0-9]", "");
         return normalized.isEmpty() ? null : normalized;
     }
@@ -2,15 +2,19 @@ package com.envisionad.webservice.media.BusinessLayer;
 
 import com.envisionad.webservice.media.DataAccessLayer.Media;
 import com.envisionad.webservice.media.DataAccessLayer.Status;
+import com.envisionad.webservice.media.PresentationLayer.Models.MediaClusterResponseModel;
 import com.envisionad.webservice.media.PresentationLayer.Models.MediaRequestModel;
 import com.envisionad.webservice.media.PresentationLayer.Models.MediaResponseModel;
+import com.envisionad.webservice.media.PresentationLayer.Models.MediaScrollResponseModel;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.oauth2.jwt.Jwt;
 import com.envisionad.webservice.media.PresentationLayer.Models.MediaStatusPatchRequestModel;
 
 import java.util.List;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 public interface MediaService {
@@ -31,7 +35,37 @@ public interface MediaService {
             Double userLng,
             List<Double> bounds,
             String excludedId,
-            List<String> venueIds);
+            List<String> venueIds,
+            LocalDateTime startDate,
+            LocalDateTime endDate);
+
+    /**
+     * Active media matching the same filters as {@link #getAllFilteredActiveMedia}, a slice at a time
+     * after the given cursor instead of by page number. No total is counted unless asked for.
+     */
+    MediaScrollResponseModel scrollFilteredActiveMedia(
+            String cursor,
+            int size,
+            Sort sort,
+            boolean includeEstimatedTotal,
+            String title,
+            String businessId,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Integer minWeeklyImpressions,
+            String specialSort,
+            Double userLat,
+            Double userLng,
+            List<Double> bounds,
+            String excludedId,
+            List<String> venueIds,
+            LocalDateTime startDate,
+            LocalDateTime endDate);
+
+    /**
+     * Active media inside the bounds, aggregated into map clusters sized for the zoom level.
+     */
+    List<MediaClusterResponseModel> getActiveMediaClusters(List<Double> bounds, int zoom);
 
     Media getMediaById(UUID id);
 
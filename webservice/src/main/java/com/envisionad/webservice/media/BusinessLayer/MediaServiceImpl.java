@@ -1,6 +1,5 @@
 package com.envisionad.webservice.media.BusinessLayer;
 
-import com.cloudinary.Cloudinary;
 import com.envisionad.webservice.business.dataaccesslayer.BusinessRepository;
 import com.envisionad.webservice.business.exceptions.BusinessNotFoundException;
 import com.envisionad.webservice.media.DataAccessLayer.Media;
@@ -9,18 +8,21 @@ import com.envisionad.webservice.media.DataAccessLayer.MediaRepository;
 import com.envisionad.webservice.media.DataAccessLayer.MediaSpecifications;
 import com.envisionad.webservice.media.DataAccessLayer.TypeOfDisplay;
 import com.envisionad.webservice.media.MapperLayer.MediaResponseMapper;
+import com.envisionad.webservice.media.PresentationLayer.Models.MediaClusterResponseModel;
 import com.envisionad.webservice.media.PresentationLayer.Models.MediaRequestModel;
 import com.envisionad.webservice.media.PresentationLayer.Models.MediaResponseModel;
+import com.envisionad.webservice.media.PresentationLayer.Models.MediaScrollResponseModel;
 import com.envisionad.webservice.media.PresentationLayer.Models.MediaStatusPatchRequestModel;
 import com.envisionad.webservice.media.exceptions.MediaNotFoundException;
 import com.envisionad.webservice.payment.dataaccesslayer.StripeAccount;
 import com.envisionad.webservice.payment.dataaccesslayer.StripeAccountRepository;
 import com.envisionad.webservice.payment.exceptions.StripeAccountNotOnboardedException;
+import com.envisionad.webservice.utils.CloudinaryClient;
 import com.envisionad.webservice.utils.CloudinaryConfig;
 import com.envisionad.webservice.utils.JwtUtils;
-import com.envisionad.webservice.utils.MathFunctions;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
@@ -29,6 +31,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 import java.util.*;
 
@@ -36,17 +39,25 @@ import java.util.*;
 @Slf4j
 public class MediaServiceImpl implements MediaService {
 
+    static final int MAX_SCROLL_SIZE = 100;
+    // Counting stops here, so asking for the total stays cheap however broad the filters are
+    static final int ESTIMATED_TOTAL_CAP = 1000;
+    static final int MAX_CLUSTER_ZOOM = 22;
+    // A quarter of a 256px map tile, so clusters sit about 64px apart at every zoom
+    private static final int CLUSTER_CELLS_PER_TILE = 4;
+    static final int MAX_CLUSTER_CELLS = 10_000;
+
     private final MediaRepository mediaRepository;
     private final StripeAccountRepository stripeAccountRepository;
     private final MediaResponseMapper mediaResponseMapper;
     private final JwtUtils jwtUtils;
-    private final Cloudinary cloudinary;
+    private final CloudinaryClient cloudinaryClient;
     private final BusinessRepository businessRepository;
 
-    public MediaServiceImpl(MediaRepository mediaRepository, StripeAccountRepository stripeAccountRepository, Cloudinary cloudinary, MediaResponseMapper mediaResponseMapper, BusinessRepository businessRepository, JwtUtils jwtUtils) {
+    public MediaServiceImpl(MediaRepository mediaRepository, StripeAccountRepository stripeAccountRepository, CloudinaryClient cloudinaryClient, MediaResponseMapper mediaResponseMapper, BusinessRepository businessRepository, JwtUtils jwtUtils) {
         this.mediaRepository = mediaRepository;
         this.stripeAccountRepository = stripeAccountRepository;
-        this.cloudinary = cloudinary;
+        this.cloudinaryClient = cloudinaryClient;
         this.mediaResponseMapper = mediaResponseMapper;
         this.businessRepository = businessRepository;
         this.jwtUtils = jwtUtils;
@@ -75,10 +86,123 @@ public class MediaServiceImpl implements MediaService {
             Double userLng,
             List<Double> bounds,
             String excludedId,
-            List<String> venueIds
+            List<String> venueIds,
+            LocalDateTime startDate,
+            LocalDateTime endDate
     ) {
 
-        // FILTERING
+        Specification<Media> spec = activeMediaFilter(title, businessId, minPrice, maxPrice, minWeeklyImpressions,
+                bounds, excludedId, venueIds, startDate, endDate);
+
+        // Sort by Nearest: distance ordering is pushed down to the database so only one page is loaded
+        if ("nearest".equals(specialSort) && userLat != null && userLng != null) {
+            Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+            return mediaRepository.findAll(spec.and(MediaSpecifications.orderByDistanceFrom(userLat, userLng)), unsorted);
+        }
+
+        // Sort by Relevance: closest title matches first, ranked by the database over the trigram index
+        if ("relevance".equals(specialSort) && title != null && !title.isBlank()) {
+            Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+            return mediaRepository.findAll(spec.and(MediaSpecifications.orderByTitleSimilarity(title)), unsorted);
+        }
+
+        if ("weeklyImpressions,asc".equals(specialSort) || "weeklyImpressions,desc".equals(specialSort)) {
+            Sort.Direction direction = specialSort.endsWith("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+            Pageable sorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                    Sort.by(direction, "weeklyImpressions").and(Sort.by("id")));
+            return mediaRepository.findAll(spec, sorted);
+        }
+
+        return mediaRepository.findAll(spec, pageable);
+    }
+
+    @Override
+    public MediaScrollResponseModel scrollFilteredActiveMedia(
+            String cursor,
+            int size,
+            Sort sort,
+            boolean includeEstimatedTotal,
+            String title,
+            String businessId,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Integer minWeeklyImpressions,
+            String specialSort,
+            Double userLat,
+            Double userLng,
+            List<Double> bounds,
+            String excludedId,
+            List<String> venueIds,
+            LocalDateTime startDate,
+            LocalDateTime endDate
+    ) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_SCROLL_SIZE + ".");
+        }
+
+        Specification<Media> filter = activeMediaFilter(title, businessId, minPrice, maxPrice, minWeeklyImpressions,
+                bounds, excludedId, venueIds, startDate, endDate);
+        MediaKeyset keyset = MediaKeyset.of(specialSort, userLat, userLng, sort);
+        MediaKeyset.Position position = keyset.decode(cursor);
+
+        // One extra row tells whether another slice follows, without counting every match
+        List<Media> media = new ArrayList<>(mediaRepository.findAllWithLocation(filter.and(keyset.after(position)), size + 1));
+        Specification<Media> nullTail = keyset.nullTailAfter(position);
+        if (nullTail != null && media.size() <= size) {
+            media.addAll(mediaRepository.findAllWithLocation(filter.and(nullTail), size + 1 - media.size()));
+        }
+
+        boolean hasNext = media.size() > size;
+        List<Media> slice = hasNext ? media.subList(0, size) : media;
+
+        MediaScrollResponseModel response = new MediaScrollResponseModel();
+        response.setContent(mediaResponseMapper.entityListToResponseModelList(slice));
+        response.setHasNext(hasNext);
+        response.setNextCursor(hasNext ? keyset.encode(slice.get(slice.size() - 1)) : null);
+        if (includeEstimatedTotal) {
+            long total = mediaRepository.countUpTo(filter, ESTIMATED_TOTAL_CAP + 1);
+            response.setEstimatedTotal(Math.min(total, ESTIMATED_TOTAL_CAP));
+            response.setEstimatedTotalCapped(total > ESTIMATED_TOTAL_CAP);
+        }
+        return response;
+    }
+
+    @Override
+    public List<MediaClusterResponseModel> getActiveMediaClusters(List<Double> bounds, int zoom) {
+        if (zoom < 0 || zoom > MAX_CLUSTER_ZOOM) {
+            throw new IllegalArgumentException("zoom must be between 0 and " + MAX_CLUSTER_ZOOM + ".");
+        }
+
+        double south = Math.min(bounds.get(0), bounds.get(1));
+        double north = Math.max(bounds.get(0), bounds.get(1));
+        double west = bounds.get(2);
+        double east = bounds.get(3);
+
+        double cellDegrees = 360.0 / (1L << zoom) / CLUSTER_CELLS_PER_TILE;
+        double width = west <= east ? east - west : east - west + 360;
+        double cells = Math.ceil((north - south) / cellDegrees + 1) * Math.ceil(width / cellDegrees + 1);
+        if (cells > MAX_CLUSTER_CELLS) {
+            throw new IllegalArgumentException("bounds are too large to cluster at zoom " + zoom + ".");
+        }
+
+        return mediaRepository.findActiveMediaClusters(south, north, west, east, cellDegrees).stream()
+                .map(cluster -> new MediaClusterResponseModel(cluster.getLatitude(), cluster.getLongitude(),
+                        cluster.getCount(), cluster.getMinPrice(), cluster.getMediaId()))
+                .toList();
+    }
+
+    private Specification<Media> activeMediaFilter(
+            String title,
+            String businessId,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Integer minWeeklyImpressions,
+            List<Double> bounds,
+            String excludedId,
+            List<String> venueIds,
+            LocalDateTime startDate,
+            LocalDateTime endDate
+    ) {
         Specification<Media> spec = MediaSpecifications.hasStatus(Status.ACTIVE);
 
         if (title != null) {
@@ -109,56 +233,10 @@ public class MediaServiceImpl implements MediaService {
             spec = spec.and(MediaSpecifications.venueIdIn(venueIds));
         }
 
-        // Sort by Nearest
-        if ("nearest".equals(specialSort) && userLat != null && userLng != null) {
-            List<Media> list = mediaRepository.findAll(spec);
-
-            list.sort(Comparator.comparingDouble(
-                    m -> {
-                        if (m.getMediaLocation() == null) {
-                            return Double.POSITIVE_INFINITY;
-                        }
-                        return MathFunctions.distance(
-                                userLat,
-                                userLng,
-                                m.getMediaLocation().getLatitude(),
-                                m.getMediaLocation().getLongitude());
-                    }));
-
-            int pageStart = (int) pageable.getOffset();
-            int pageEnd = Math.min(pageStart + pageable.getPageSize(), list.size());
-
-            if (pageStart >= list.size()) {
-                return Page.empty(pageable);
-            }
-            List<Media> paged = list.subList(pageStart, pageEnd);
-
-            return new PageImpl<>(paged, pageable, list.size());
-        }
-
-        if ("weeklyImpressions,asc".equals(specialSort)) {
-            List<Media> list = mediaRepository.findAll(spec);
-
-            list.sort(Comparator.comparingInt(
-                    m -> (m.getDailyImpressions() == null ? 0 : m.getDailyImpressions())
-                            * (m.getActiveDays() == null ? 0 : m.getActiveDays())
-            ));
-
-            return paginate(list, pageable);
-        }
-
-        if ("weeklyImpressions,desc".equals(specialSort)) {
-            List<Media> list = mediaRepository.findAll(spec);
-
-            list.sort(Comparator.comparingInt(
-                    (Media m) -> (m.getDailyImpressions() == null ? 0 : m.getDailyImpressions())
-                            * (m.getActiveDays() == null ? 0 : m.getActiveDays())
-            ).reversed());
-
-            return paginate(list, pageable);
+        if (startDate != null && endDate != null) {
+            spec = spec.and(MediaSpecifications.availableBetween(startDate, endDate));
         }
-
-        return mediaRepository.findAll(spec, pageable);
+        return spec;
     }
 
     @Override
@@ -184,7 +262,7 @@ public class MediaServiceImpl implements MediaService {
 
         List<Media> mediaList = mediaRepository.findMediaByBusinessId(businessUuid);
 
-        return mediaList.stream().map(mediaResponseMapper::entityToResponseModel).toList();
+        return mediaResponseMapper.entityListToResponseModelList(mediaList);
     }
 
     @Override
@@ -236,7 +314,7 @@ public class MediaServiceImpl implements MediaService {
             if (oldPublicId != null) {
                 try {
                     log.info("Update: Deleting old {} asset: {}", oldResourceType, oldPublicId);
-                    cloudinary.uploader().destroy(oldPublicId, Map.of(
+                    cloudinaryClient.destroy(oldPublicId, Map.of(
                             "invalidate", true,
                             "resource_type", oldResourceType));
                 } catch (Exception e) {
@@ -289,7 +367,7 @@ public class MediaServiceImpl implements MediaService {
 
         if (publicId != null) {
             try {
-                cloudinary.uploader().destroy(publicId, Map.of(
+                cloudinaryClient.destroy(publicId, Map.of(
                         "invalidate", true,
                         "resource_type", resourceType
                 ));
@@ -301,17 +379,6 @@ public class MediaServiceImpl implements MediaService {
         mediaRepository.delete(media);
     }
 
-    private Page<Media> paginate(List<Media> list, Pageable pageable) {
-        int pageStart = (int) pageable.getOffset();
-        int pageEnd = Math.min(pageStart + pageable.getPageSize(), list.size());
-
-        if (pageStart >= list.size()) {
-            return Page.empty(pageable);
-        }
-
-        return new PageImpl<>(list.subList(pageStart, pageEnd), pageable, list.size());
-    }
-
     @Override
     public MediaResponseModel patchMediaStatusById(Jwt jwt, String id, MediaStatusPatchRequestModel request) {
 
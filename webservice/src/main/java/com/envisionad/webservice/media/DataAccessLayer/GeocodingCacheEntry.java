@@ -0,0 +1,30 @@
+package com.envisionad.webservice.media.DataAccessLayer;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "geocoding_cache", indexes = @Index(name = "idx_geocoding_cache_expires_at", columnList = "expires_at"))
+public class GeocodingCacheEntry {
+
+    @Id
+    @Column(name = "query_key", columnDefinition = "TEXT")
+    private String queryKey;
+
+    // Null when the geocoder returned no match for the query.
+    @Column(name = "response", columnDefinition = "TEXT")
+    private String response;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
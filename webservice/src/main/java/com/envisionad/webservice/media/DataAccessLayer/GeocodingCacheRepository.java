@@ -0,0 +1,38 @@
+package com.envisionad.webservice.media.DataAccessLayer;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface GeocodingCacheRepository extends JpaRepository<GeocodingCacheEntry, String> {
+
+    Optional<GeocodingCacheEntry> findByQueryKeyAndExpiresAtAfter(String queryKey, LocalDateTime now);
+
+    // Replicas may resolve the same query concurrently, so insert-or-refresh in one statement.
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO geocoding_cache (query_key, response, expires_at, updated_at)
+            VALUES (:queryKey, :response, :expiresAt, :updatedAt)
+            ON CONFLICT (query_key) DO UPDATE
+                SET response = EXCLUDED.response,
+                    expires_at = EXCLUDED.expires_at,
+                    updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    void upsert(@Param("queryKey") String queryKey,
+                @Param("response") String response,
+                @Param("expiresAt") LocalDateTime expiresAt,
+                @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM GeocodingCacheEntry e WHERE e.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -64,6 +64,9 @@ public class Media {
     @Column(name = "active_days")
     private Integer activeDays;
 
+    @Column(name = "weekly_impressions", nullable = false)
+    private Integer weeklyImpressions = 0;
+
     @Column(name = "status", nullable = false)
     @Enumerated(EnumType.STRING)
     private Status status;
@@ -94,12 +97,14 @@ public class Media {
     private void recalculateActiveDays() {
         if (schedule == null || schedule.getWeeklySchedule() == null) {
             this.activeDays = 0;
-            return;
+        } else {
+            this.activeDays = (int) schedule.getWeeklySchedule()
+                    .stream()
+                    .filter(WeeklyScheduleEntry::isActive)
+                    .count();
         }
 
-        this.activeDays = (int) schedule.getWeeklySchedule()
-                .stream()
-                .filter(WeeklyScheduleEntry::isActive)
-                .count();
+        // Persisted so weekly-impressions sorting and filtering can use an index
+        this.weeklyImpressions = (dailyImpressions == null ? 0 : dailyImpressions) * activeDays;
     }
 }
@@ -0,0 +1,19 @@
+package com.envisionad.webservice.media.DataAccessLayer;
+
+import java.math.BigDecimal;
+
+/**
+ * One grid cell of active media, as aggregated by {@link MediaRepository#findActiveMediaClusters}.
+ */
+public interface MediaCluster {
+    Long getCount();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+    BigDecimal getMinPrice();
+
+    // Only set when the cell holds a single media
+    String getMediaId();
+}
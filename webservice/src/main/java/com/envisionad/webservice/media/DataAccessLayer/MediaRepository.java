@@ -1,5 +1,8 @@
 package com.envisionad.webservice.media.DataAccessLayer;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -9,9 +12,18 @@ import org.springframework.data.repository.query.Param;
 import java.util.List;
 import java.util.UUID;
 
-public interface MediaRepository extends JpaRepository<Media, UUID>, JpaSpecificationExecutor<Media>{
+public interface MediaRepository extends JpaRepository<Media, UUID>, JpaSpecificationExecutor<Media>, MediaRepositoryCustom {
+    @EntityGraph(attributePaths = "mediaLocation")
     List<Media> findMediaByBusinessId(UUID businessId);
 
+    @Override
+    @EntityGraph(attributePaths = "mediaLocation")
+    List<Media> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "mediaLocation")
+    Page<Media> findAll(Specification<Media> spec, Pageable pageable);
+
     @Query("SELECT DISTINCT m FROM Media m LEFT JOIN FETCH m.mediaLocation WHERE m.id IN :mediaIds")
     List<Media> findAllByIdWithLocation(@Param("mediaIds") List<UUID> mediaIds);
 
@@ -19,4 +31,29 @@ public interface MediaRepository extends JpaRepository<Media, UUID>, JpaSpecific
     List<Media> findByStatus(Status status);
 
     long countByVenueId(String venueId);
+
+    /**
+     * Active media inside the bounds, grouped into square cells {@code cellDegrees} wide. The grid is
+     * anchored at 0,0 rather than at the bounds, so a media stays in the same cell as the map pans.
+     * Bounds with {@code west > east} cross the International Date Line.
+     */
+    @Query(value = """
+            SELECT COUNT(*)                                                         AS "count",
+                   AVG(l.latitude)                                                  AS "latitude",
+                   AVG(l.longitude)                                                 AS "longitude",
+                   MIN(m.price)                                                     AS "minPrice",
+                   CASE WHEN COUNT(*) = 1 THEN MIN(CAST(m.media_id AS TEXT)) END   AS "mediaId"
+            FROM media m
+                     JOIN media_location l ON l.media_location_id = m.media_location_id
+            WHERE m.status = 'ACTIVE'
+              AND l.latitude BETWEEN :south AND :north
+              AND ((:west <= :east AND l.longitude BETWEEN :west AND :east)
+                OR (:west > :east AND (l.longitude >= :west OR l.longitude <= :east)))
+            GROUP BY FLOOR(l.latitude / :cellDegrees), FLOOR(l.longitude / :cellDegrees)
+            """, nativeQuery = true)
+    List<MediaCluster> findActiveMediaClusters(@Param("south") double south,
+                                               @Param("north") double north,
+                                               @Param("west") double west,
+                                               @Param("east") double east,
+                                               @Param("cellDegrees") double cellDegrees);
 }
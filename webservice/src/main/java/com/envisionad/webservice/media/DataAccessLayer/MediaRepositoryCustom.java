@@ -0,0 +1,19 @@
+package com.envisionad.webservice.media.DataAccessLayer;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface MediaRepositoryCustom {
+
+    /**
+     * The first {@code limit} media matching the specification, in the order it sets, with their
+     * locations. Unlike a {@code Page}, no count query is run.
+     */
+    List<Media> findAllWithLocation(Specification<Media> spec, int limit);
+
+    /**
+     * How many media match the specification, counting no further than {@code limit}.
+     */
+    long countUpTo(Specification<Media> spec, int limit);
+}
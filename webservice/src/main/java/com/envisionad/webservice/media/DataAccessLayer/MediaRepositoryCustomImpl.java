@@ -0,0 +1,57 @@
+package com.envisionad.webservice.media.DataAccessLayer;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.UUID;
+
+public class MediaRepositoryCustomImpl implements MediaRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<Media> findAllWithLocation(Specification<Media> spec, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Media> query = cb.createQuery(Media.class);
+        Root<Media> root = query.from(Media.class);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        EntityGraph<Media> withLocation = em.createEntityGraph(Media.class);
+        withLocation.addAttributeNodes("mediaLocation");
+        return em.createQuery(query.select(root))
+                .setHint("jakarta.persistence.loadgraph", withLocation)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Reads at most {@code limit} ids instead of running COUNT(*), so the cost stays bounded however
+     * many media match.
+     */
+    @Override
+    public long countUpTo(Specification<Media> spec, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = cb.createQuery(UUID.class);
+        Root<Media> root = query.from(Media.class);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return em.createQuery(query.select(root.get("id")))
+                .setMaxResults(limit)
+                .getResultList()
+                .size();
+    }
+}
@@ -2,12 +2,20 @@ package com.envisionad.webservice.media.DataAccessLayer;
 
 import com.envisionad.webservice.media.DataAccessLayer.Media;
 import com.envisionad.webservice.media.DataAccessLayer.Status;
+import com.envisionad.webservice.reservation.dataaccesslayer.Reservation;
+import com.envisionad.webservice.reservation.dataaccesslayer.ReservationStatus;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -28,6 +36,28 @@ public class MediaSpecifications {
         };
     }
 
+    /**
+     * Orders title matches by trigram similarity to the search, best match first. The title filter
+     * arrives LIKE-escaped, so the escapes are removed before comparing. Skipped for count queries.
+     */
+    public static Specification<Media> orderByTitleSimilarity(String title) {
+        return (root, query, cb) -> {
+            if (title == null || title.isBlank() || query == null) {
+                return null;
+            }
+
+            if (isCountQuery(query)) {
+                return null;
+            }
+
+            String term = title.replaceAll("\\\\(.)", "$1").toLowerCase();
+            Expression<Double> similarity = cb.function("similarity", Double.class,
+                    cb.lower(root.get("title")), cb.literal(term));
+            query.orderBy(cb.desc(similarity), cb.asc(root.get("id")));
+            return null;
+        };
+    }
+
     public static Specification<Media> priceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
         return (root, query, cb) -> {
             if (minPrice == null && maxPrice == null) {
@@ -52,12 +82,7 @@ public class MediaSpecifications {
                 return null;
             }
 
-            Expression<Integer> weekly = cb.prod(cb.coalesce(
-                root.get("dailyImpressions"), 0),
-                cb.coalesce(root.get("activeDays"), 0)
-            );
-
-            return cb.greaterThanOrEqualTo(weekly, minWeeklyImpressions);
+            return cb.greaterThanOrEqualTo(root.get("weeklyImpressions"), minWeeklyImpressions);
         };
     }
 
@@ -79,6 +104,171 @@ public class MediaSpecifications {
         };
     }
 
+    /**
+     * Keeps media that no pending, approved or confirmed reservation holds for any part of
+     * [startDate, endDate). Written as NOT EXISTS so PostgreSQL runs it as an anti-join on
+     * idx_reservations_media_id_period, within the same query as the other filters and the page.
+     */
+    public static Specification<Media> availableBetween(LocalDateTime startDate, LocalDateTime endDate) {
+        return (root, query, cb) -> {
+            if (startDate == null || endDate == null || query == null) {
+                return null;
+            }
+
+            Subquery<Integer> overlapping = query.subquery(Integer.class);
+            Root<Reservation> reservation = overlapping.from(Reservation.class);
+            overlapping.select(cb.literal(1)).where(
+                    cb.equal(reservation.get("mediaId"), root.get("id")),
+                    reservation.get("status").in(ReservationStatus.PENDING, ReservationStatus.APPROVED, ReservationStatus.CONFIRMED),
+                    cb.lessThan(reservation.get("startDate"), endDate),
+                    cb.greaterThan(reservation.get("endDate"), startDate));
+            return cb.not(cb.exists(overlapping));
+        };
+    }
+
+    /**
+     * Orders results by great-circle distance from the given point so that the database
+     * can apply LIMIT/OFFSET directly instead of sorting every row in memory.
+     * Only the haversine term {@code a} is computed, since the final distance is
+     * monotonic in it. The ordering is skipped for count queries.
+     */
+    public static Specification<Media> orderByDistanceFrom(Double userLat, Double userLng) {
+        return (root, query, cb) -> {
+            if (userLat == null || userLng == null || query == null) {
+                return null;
+            }
+
+            if (isCountQuery(query)) {
+                return null;
+            }
+
+            Join<Media, MediaLocation> location = root.join("mediaLocation", JoinType.LEFT);
+
+            // Media without a location compute to NULL, which PostgreSQL sorts last in ascending order.
+            query.orderBy(cb.asc(haversine(cb, location, userLat, userLng)), cb.asc(root.get("id")));
+            return null;
+        };
+    }
+
+    /**
+     * Orders by id and keeps the media after {@code lastId}, the last one a client already has.
+     * With no {@code lastId} only the order is applied.
+     */
+    public static Specification<Media> seekById(UUID lastId) {
+        return (root, query, cb) -> {
+            Path<UUID> id = root.get("id");
+            if (query != null && !isCountQuery(query)) {
+                query.orderBy(cb.asc(id));
+            }
+            return lastId == null ? null : cb.greaterThan(id, lastId);
+        };
+    }
+
+    /**
+     * Orders by the attribute, then by id in the same direction so one index serves both directions,
+     * and keeps the media after the last one a client already has. With no {@code lastId} only the
+     * order is applied.
+     * <p>
+     * A later row has {@code key >= last AND (key > last OR id > lastId)}; the first half bounds the
+     * index range scan. PostgreSQL sorts NULL above every value, so after a NULL key come the NULLs
+     * with a later id, plus every non-null key when descending. An ascending seek from a non-null key
+     * stops short of the NULL keys; page on into them with {@link #seekNullTail}.
+     */
+    public static <T extends Comparable<? super T>> Specification<Media> seekBy(
+            String attribute, boolean descending, T lastKey, UUID lastId) {
+        return (root, query, cb) -> {
+            Expression<T> key = root.get(attribute);
+            Path<UUID> id = root.get("id");
+            if (query != null && !isCountQuery(query)) {
+                query.orderBy(descending ? cb.desc(key) : cb.asc(key), descending ? cb.desc(id) : cb.asc(id));
+            }
+            if (lastId == null) {
+                return null;
+            }
+
+            Predicate laterId = descending ? cb.lessThan(id, lastId) : cb.greaterThan(id, lastId);
+            if (lastKey == null) {
+                Predicate laterNull = cb.and(cb.isNull(key), laterId);
+                return descending ? cb.or(laterNull, cb.isNotNull(key)) : laterNull;
+            }
+            return descending
+                    ? cb.and(cb.lessThanOrEqualTo(key, lastKey), cb.or(cb.lessThan(key, lastKey), laterId))
+                    : cb.and(cb.greaterThanOrEqualTo(key, lastKey), cb.or(cb.greaterThan(key, lastKey), laterId));
+        };
+    }
+
+    /**
+     * The media with no value for the attribute, by id: where an ascending {@link #seekBy} ends.
+     */
+    public static Specification<Media> seekNullTail(String attribute) {
+        return (root, query, cb) -> {
+            if (query != null && !isCountQuery(query)) {
+                query.orderBy(cb.asc(root.get("id")));
+            }
+            return cb.isNull(root.get(attribute));
+        };
+    }
+
+    /**
+     * Orders by distance from the given point like {@link #orderByDistanceFrom} and keeps the media
+     * after {@code lastId}. The last distance is recomputed by the database in a subquery rather than
+     * carried in the cursor, so ties between media at the same location compare exactly; if that
+     * media has since been removed, nothing follows it.
+     */
+    public static Specification<Media> seekByDistanceFrom(Double userLat, Double userLng, UUID lastId) {
+        return (root, query, cb) -> {
+            if (userLat == null || userLng == null || query == null) {
+                return null;
+            }
+
+            Expression<Double> distance = haversine(cb, root.join("mediaLocation", JoinType.INNER), userLat, userLng);
+            Path<UUID> id = root.get("id");
+            if (!isCountQuery(query)) {
+                query.orderBy(cb.asc(distance), cb.asc(id));
+            }
+            if (lastId == null) {
+                return null;
+            }
+
+            Subquery<Double> lastDistance = query.subquery(Double.class);
+            Root<Media> last = lastDistance.from(Media.class);
+            lastDistance.select(haversine(cb, last.join("mediaLocation", JoinType.INNER), userLat, userLng))
+                    .where(cb.equal(last.get("id"), lastId));
+            return cb.or(
+                    cb.greaterThan(distance, lastDistance),
+                    cb.and(cb.equal(distance, lastDistance), cb.greaterThan(id, lastId)));
+        };
+    }
+
+    /**
+     * The haversine term {@code a} between the location and the given point. Only this term is
+     * computed, since the final distance is monotonic in it.
+     */
+    private static Expression<Double> haversine(CriteriaBuilder cb, Join<Media, MediaLocation> location,
+                                                double userLat, double userLng) {
+        double userLatRad = Math.toRadians(userLat);
+        double userLngRad = Math.toRadians(userLng);
+
+        Expression<Double> latRad = cb.prod(location.<Double>get("latitude"), Math.PI / 180);
+        Expression<Double> lngRad = cb.prod(location.<Double>get("longitude"), Math.PI / 180);
+
+        Expression<Double> sinHalfDLat = cb.function("sin", Double.class,
+                cb.prod(cb.diff(latRad, userLatRad), 0.5));
+        Expression<Double> sinHalfDLng = cb.function("sin", Double.class,
+                cb.prod(cb.diff(lngRad, userLngRad), 0.5));
+        Expression<Double> cosLat = cb.function("cos", Double.class, latRad);
+
+        return cb.sum(
+                cb.prod(sinHalfDLat, sinHalfDLat),
+                cb.prod(cb.prod(cosLat, Math.cos(userLatRad)), cb.prod(sinHalfDLng, sinHalfDLng))
+        );
+    }
+
+    private static boolean isCountQuery(CriteriaQuery<?> query) {
+        Class<?> resultType = query.getResultType();
+        return Long.class.equals(resultType) || long.class.equals(resultType);
+    }
+
     public static Specification<Media> withinBounds(List<Double> bounds) {
         return (root, query, cb) -> {
             if (bounds == null || bounds.size() != 4) {
@@ -1,6 +1,8 @@
 package com.envisionad.webservice.media.MapperLayer;
 
+import com.envisionad.webservice.business.dataaccesslayer.Business;
 import com.envisionad.webservice.business.dataaccesslayer.BusinessRepository;
+import com.envisionad.webservice.config.CacheConfig;
 import com.envisionad.webservice.media.DataAccessLayer.Media;
 import com.envisionad.webservice.media.PresentationLayer.Models.MediaLocationResponseModel;
 import com.envisionad.webservice.media.PresentationLayer.Models.MediaResponseModel;
@@ -8,21 +10,48 @@ import com.envisionad.webservice.venue.dataaccesslayer.Venue;
 import com.envisionad.webservice.venue.dataaccesslayer.VenueRepository;
 import com.envisionad.webservice.venue.presentationlayer.models.VenueResponseModel;
 
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 public class MediaResponseMapper {
     private final BusinessRepository businessRepository;
     private final VenueRepository venueRepository;
+    private final CacheManager cacheManager;
 
-    public MediaResponseMapper(BusinessRepository businessRepository, VenueRepository venueRepository) {
+    public MediaResponseMapper(BusinessRepository businessRepository, VenueRepository venueRepository, CacheManager cacheManager) {
         this.businessRepository = businessRepository;
         this.venueRepository = venueRepository;
+        this.cacheManager = cacheManager;
     }
 
     public MediaResponseModel entityToResponseModel(Media media) {
+        return toResponseModel(
+                media,
+                businessId -> resolveAll(CacheConfig.BUSINESS_NAMES, String.class, List.of(businessId), ids -> {
+                    var business = businessRepository.findByBusinessId_BusinessId(businessId);
+                    return business != null ? Map.of(businessId, business.getName()) : Map.of();
+                }).get(businessId),
+                venueId -> resolveAll(CacheConfig.VENUES, Venue.class, List.of(venueId), ids ->
+                        venueRepository.findByVenueId(venueId)
+                                .map(venue -> Map.of(venueId, venue))
+                                .orElse(Map.of())
+                ).get(venueId));
+    }
+
+    private MediaResponseModel toResponseModel(Media media,
+                                               Function<String, String> businessNameLookup,
+                                               Function<String, Venue> venueLookup) {
 
         MediaResponseModel response = new MediaResponseModel();
 
@@ -44,24 +73,20 @@ public class MediaResponseMapper {
 
             response.setBusinessId(media.getBusinessId().toString());
 
-            var business = businessRepository.findByBusinessId_BusinessId(media.getBusinessId().toString());
-
-            if (business != null) {
-                response.setBusinessName(business.getName());
-            } else {
-                response.setBusinessName("");
-            }
+            String businessName = businessNameLookup.apply(media.getBusinessId().toString());
+            response.setBusinessName(businessName != null ? businessName : "");
         }
 
         if (media.getVenueId() != null) {
-            venueRepository.findByVenueId(media.getVenueId()).ifPresent(venue -> {
+            Venue venue = venueLookup.apply(media.getVenueId());
+            if (venue != null) {
                 VenueResponseModel venueResponse = new VenueResponseModel();
                 venueResponse.setVenueId(venue.getVenueId());
                 venueResponse.setNameEn(venue.getNameEn());
                 venueResponse.setNameFr(venue.getNameFr());
                 venueResponse.setColorCode(venue.getColorCode());
                 response.setVenue(venueResponse);
-            });
+            }
         }
 
         // Using Cloudinary URL
@@ -92,10 +117,77 @@ public class MediaResponseMapper {
         return mediaLocationResponseModel;
     }
 
+    /**
+     * Maps a list of media while resolving business names and venues with one
+     * query each for the whole list, instead of two lookups per media item.
+     */
     public List<MediaResponseModel> entityListToResponseModelList(List<Media> list) {
+        if (list == null || list.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> businessIds = list.stream()
+                .map(Media::getBusinessId)
+                .filter(Objects::nonNull)
+                .map(UUID::toString)
+                .distinct()
+                .toList();
+
+        List<String> venueIds = list.stream()
+                .map(Media::getVenueId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        Map<String, String> businessNameById = resolveAll(CacheConfig.BUSINESS_NAMES, String.class, businessIds, misses ->
+                businessRepository.findAllByBusinessId_BusinessIdIn(misses).stream()
+                        .collect(Collectors.toMap(
+                                business -> business.getBusinessId().getBusinessId(),
+                                Business::getName,
+                                (left, right) -> left)));
+
+        Map<String, Venue> venueById = resolveAll(CacheConfig.VENUES, Venue.class, venueIds, misses ->
+                venueRepository.findAllByVenueIdIn(misses).stream()
+                        .collect(Collectors.toMap(Venue::getVenueId, venue -> venue, (left, right) -> left)));
+
         return list.stream()
-                .map(this::entityToResponseModel)
+                .map(media -> toResponseModel(media, businessNameById::get, venueById::get))
                 .toList();
     }
 
+    /**
+     * Read-through lookup against the given cache: ids already cached are served from memory
+     * and only the misses are handed to {@code loader} in a single call.
+     */
+    private <V> Map<String, V> resolveAll(String cacheName, Class<V> type, List<String> ids,
+                                          Function<List<String>, Map<String, V>> loader) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        Cache cache = cacheManager.getCache(cacheName);
+        Map<String, V> resolved = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+
+        for (String id : ids) {
+            V cached = cache != null ? cache.get(id, type) : null;
+            if (cached != null) {
+                resolved.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            loader.apply(misses).forEach((id, value) -> {
+                resolved.put(id, value);
+                if (cache != null) {
+                    cache.put(id, value);
+                }
+            });
+        }
+
+        return resolved;
+    }
+
 }
@@ -5,18 +5,24 @@ import com.envisionad.webservice.media.DataAccessLayer.Media;
 import com.envisionad.webservice.media.DataAccessLayer.Status;
 import com.envisionad.webservice.media.MapperLayer.MediaRequestMapper;
 import com.envisionad.webservice.media.MapperLayer.MediaResponseMapper;
+import com.envisionad.webservice.media.PresentationLayer.Models.MediaClusterResponseModel;
 import com.envisionad.webservice.media.PresentationLayer.Models.MediaRequestModel;
 import com.envisionad.webservice.media.PresentationLayer.Models.MediaResponseModel;
+import com.envisionad.webservice.media.PresentationLayer.Models.MediaScrollResponseModel;
 import com.envisionad.webservice.media.PresentationLayer.Models.MediaStatusPatchRequestModel;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import com.envisionad.webservice.media.BusinessLayer.MediaRequestValidator;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 import java.util.List;
 import java.util.UUID;
@@ -54,7 +60,7 @@ public class MediaController {
     }
 
     @GetMapping("/active")
-    public ResponseEntity<?> getAllFilteredActiveMedia(
+    public ResponseEntity<Page<MediaResponseModel>> getAllFilteredActiveMedia(
             Pageable pageable,
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String businessId,
@@ -66,9 +72,85 @@ public class MediaController {
             @RequestParam(required = false) Double userLng,
             @RequestParam(required = false) List<Double> bounds,
             @RequestParam(required = false) String excludedId,
-            @RequestParam(required = false) List<String> venueIds
+            @RequestParam(required = false) List<String> venueIds,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate
             ) {
 
+        validateActiveMediaFilters(minPrice, maxPrice, minWeeklyImpressions, bounds, startDate, endDate);
+
+        Page<Media> mediaPage = mediaService.getAllFilteredActiveMedia(
+                pageable,
+                title,
+                businessId,
+                minPrice,
+                maxPrice,
+                minWeeklyImpressions,
+                specialSort,
+                userLat,
+                userLng,
+                bounds,
+                excludedId,
+                venueIds,
+                startDate,
+                endDate);
+
+        // Map the whole page at once so business names and venues are batch-loaded
+        Page<MediaResponseModel> responsePage = new PageImpl<>(
+                responseMapper.entityListToResponseModelList(mediaPage.getContent()),
+                mediaPage.getPageable(),
+                mediaPage.getTotalElements());
+
+        return ResponseEntity.ok(responsePage);
+    }
+
+    // Keyset paging for infinite scroll and map clients: a slice after the cursor with no COUNT(*).
+    // Ask for the first slice without a cursor, then pass back each nextCursor received.
+    @GetMapping("/active/scroll")
+    public ResponseEntity<MediaScrollResponseModel> scrollFilteredActiveMedia(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") int size,
+            Sort sort,
+            @RequestParam(required = false, defaultValue = "false") boolean estimateTotal,
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String businessId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Integer minWeeklyImpressions,
+            @RequestParam(required = false) String specialSort,
+            @RequestParam(required = false) Double userLat,
+            @RequestParam(required = false) Double userLng,
+            @RequestParam(required = false) List<Double> bounds,
+            @RequestParam(required = false) String excludedId,
+            @RequestParam(required = false) List<String> venueIds,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate
+            ) {
+
+        validateActiveMediaFilters(minPrice, maxPrice, minWeeklyImpressions, bounds, startDate, endDate);
+
+        return ResponseEntity.ok(mediaService.scrollFilteredActiveMedia(
+                cursor,
+                size,
+                sort,
+                estimateTotal,
+                title,
+                businessId,
+                minPrice,
+                maxPrice,
+                minWeeklyImpressions,
+                specialSort,
+                userLat,
+                userLng,
+                bounds,
+                excludedId,
+                venueIds,
+                startDate,
+                endDate));
+    }
+
+    private static void validateActiveMediaFilters(BigDecimal minPrice, BigDecimal maxPrice,
+            Integer minWeeklyImpressions, List<Double> bounds, LocalDateTime startDate, LocalDateTime endDate) {
         if (minPrice != null && minPrice.compareTo(BigDecimal.ZERO) < 0) {
             throw new IllegalArgumentException("minPrice must be non-negative.");
         }
@@ -86,21 +168,23 @@ public class MediaController {
             throw new IllegalArgumentException("bounds must have a length of exactly 4.");
         }
 
-        Page<MediaResponseModel> responsePage = mediaService.getAllFilteredActiveMedia(
-                pageable,
-                title,
-                businessId,
-                minPrice,
-                maxPrice,
-                minWeeklyImpressions,
-                specialSort,
-                userLat,
-                userLng,
-                bounds,
-                excludedId,
-                venueIds).map(responseMapper::entityToResponseModel);
+        if ((startDate == null) != (endDate == null)) {
+            throw new IllegalArgumentException("startDate and endDate must be given together.");
+        }
+        if (startDate != null && !startDate.isBefore(endDate)) {
+            throw new IllegalArgumentException("startDate must be before endDate.");
+        }
+    }
 
-        return ResponseEntity.ok(responsePage);
+    // Zoomed-out map loads: counts per cell instead of every listing in the viewport
+    @GetMapping("/clusters")
+    public ResponseEntity<List<MediaClusterResponseModel>> getActiveMediaClusters(
+            @RequestParam List<Double> bounds,
+            @RequestParam int zoom) {
+        if (bounds.size() != 4) {
+            throw new IllegalArgumentException("bounds must have a length of exactly 4.");
+        }
+        return ResponseEntity.ok(mediaService.getActiveMediaClusters(bounds, zoom));
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,22 @@
+package com.envisionad.webservice.media.PresentationLayer.Models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * A map marker standing for {@code count} active media, placed at their centroid. A marker for a
+ * single media carries its id so it can link straight to the listing.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaClusterResponseModel {
+    private double latitude;
+    private double longitude;
+    private long count;
+    private BigDecimal minPrice;
+    private String mediaId;
+}
@@ -0,0 +1,18 @@
+package com.envisionad.webservice.media.PresentationLayer.Models;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class MediaScrollResponseModel {
+    private List<MediaResponseModel> content;
+    private boolean hasNext;
+    // Pass back as the cursor to fetch the media after this slice; null on the last one.
+    private String nextCursor;
+    // Only filled in when asked for: the number of matches, counted no further than a cap.
+    private Long estimatedTotal;
+    private boolean estimatedTotalCapped;
+}
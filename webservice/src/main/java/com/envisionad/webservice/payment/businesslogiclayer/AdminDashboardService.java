@@ -4,4 +4,10 @@ import com.envisionad.webservice.payment.presentationlayer.models.AdminOverviewR
 
 public interface AdminDashboardService {
     AdminOverviewResponse getOverview();
+
+    /**
+     * Records that a write changed the overview's figures, so the snapshot is refreshed on the next
+     * scheduled check rather than once it reaches its staleness bound.
+     */
+    void overviewChanged();
 }
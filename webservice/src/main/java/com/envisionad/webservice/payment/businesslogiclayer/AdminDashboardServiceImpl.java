@@ -1,25 +1,88 @@
 package com.envisionad.webservice.payment.businesslogiclayer;
 
 import com.envisionad.webservice.payment.dataaccesslayer.AdminDashboardRepository;
+import com.envisionad.webservice.payment.dataaccesslayer.PlatformOverviewSnapshot;
 import com.envisionad.webservice.payment.presentationlayer.models.AdminOverviewResponse;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves the admin overview from {@link PlatformOverviewSnapshot}. The snapshot is refreshed in the
+ * background after writes that change it and once it is half way to {@code maxStaleness}, so a request
+ * normally costs one primary-key read; a request that finds it older than the bound refreshes it first.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class AdminDashboardServiceImpl implements AdminDashboardService {
 
     private final AdminDashboardRepository repo;
+    private final Duration maxStaleness;
+    private final boolean refreshEnabled;
+    private final Timer refreshTimer;
+    private final AtomicBoolean changed = new AtomicBoolean();
+
+    public AdminDashboardServiceImpl(AdminDashboardRepository repo,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${dashboard.admin-overview.max-staleness:PT5M}") Duration maxStaleness,
+                                     @Value("${dashboard.admin-overview.refresh.enabled:true}") boolean refreshEnabled) {
+        this.repo = repo;
+        this.maxStaleness = maxStaleness;
+        this.refreshEnabled = refreshEnabled;
+        this.refreshTimer = meterRegistry.timer("admin.overview.refresh");
+    }
 
     @Override
     public AdminOverviewResponse getOverview() {
+        LocalDateTime now = LocalDateTime.now();
+        PlatformOverviewSnapshot snapshot = repo.findSnapshot()
+                .filter(existing -> !olderThan(existing, maxStaleness, now))
+                .orElseGet(this::refresh);
         return new AdminOverviewResponse(
-                repo.sumPlatformRevenue(),
-                repo.countOrganizations(),
-                repo.countMediaListings(),
-                repo.countDistinctKnownUsers(),
-                repo.countMediaOwners(),
-                repo.countAdvertisers()
+                snapshot.getTotalPlatformRevenue(),
+                snapshot.getTotalOrganizations(),
+                snapshot.getTotalMediaListings(),
+                snapshot.getTotalUsers(),
+                snapshot.getTotalMediaOwners(),
+                snapshot.getTotalAdvertisers(),
+                snapshot.getRefreshedAt(),
+                Math.max(0L, Duration.between(snapshot.getRefreshedAt(), now).toSeconds())
         );
     }
+
+    @Override
+    public void overviewChanged() {
+        changed.set(true);
+    }
+
+    @Scheduled(initialDelayString = "PT30S", fixedDelayString = "PT30S")
+    public void refreshIfDue() {
+        if (!refreshEnabled) {
+            return;
+        }
+        boolean dirty = changed.getAndSet(false);
+        boolean due = repo.findSnapshot()
+                .map(snapshot -> olderThan(snapshot, maxStaleness.dividedBy(2), LocalDateTime.now()))
+                .orElse(true);
+        if (dirty || due) {
+            refresh();
+        }
+    }
+
+    private PlatformOverviewSnapshot refresh() {
+        PlatformOverviewSnapshot snapshot = refreshTimer.record(() -> repo.refreshSnapshot(LocalDateTime.now()));
+        log.debug("Refreshed platform overview snapshot");
+        return snapshot;
+    }
+
+    private static boolean olderThan(PlatformOverviewSnapshot snapshot, Duration age, LocalDateTime now) {
+        return snapshot.getRefreshedAt().plus(age).isBefore(now);
+    }
 }
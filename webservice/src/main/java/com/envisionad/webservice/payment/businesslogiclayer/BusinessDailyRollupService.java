@@ -0,0 +1,79 @@
+package com.envisionad.webservice.payment.businesslogiclayer;
+
+import com.envisionad.webservice.payment.dataaccesslayer.BusinessDailyRollup;
+import com.envisionad.webservice.payment.dataaccesslayer.BusinessDailyRollupRepository;
+import com.envisionad.webservice.payment.dataaccesslayer.PaymentIntent;
+import com.envisionad.webservice.reservation.dataaccesslayer.Reservation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+/**
+ * Keeps {@link BusinessDailyRollup} current for the dashboards. Whenever a reservation changes
+ * status or a payment succeeds, the days it touches are recomputed for the business concerned;
+ * a daily rebuild from scratch backfills history and corrects anything those refreshes missed.
+ */
+@Slf4j
+@Service
+public class BusinessDailyRollupService {
+
+    private final BusinessDailyRollupRepository rollupRepository;
+    private final boolean rebuildEnabled;
+    private final int platformFeePercent;
+    private final Timer rebuildTimer;
+
+    public BusinessDailyRollupService(BusinessDailyRollupRepository rollupRepository,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${dashboard.rollups.rebuild.enabled:true}") boolean rebuildEnabled,
+                                      @Value("${stripe.platform-fee-percent}") int platformFeePercent) {
+        this.rollupRepository = rollupRepository;
+        this.rebuildEnabled = rebuildEnabled;
+        this.platformFeePercent = platformFeePercent;
+        this.rebuildTimer = meterRegistry.timer("dashboard.rollups.rebuild");
+    }
+
+    /**
+     * Recomputes the advertiser's days the reservation runs on. Called on every status change,
+     * so a reservation that is cancelled after being confirmed drops out again.
+     */
+    public void reservationChanged(Reservation reservation) {
+        if (reservation.getAdvertiserId() == null || reservation.getStartDate() == null) {
+            return;
+        }
+        LocalDate firstDay = reservation.getStartDate().toLocalDate();
+        LocalDate lastDay = firstDay;
+        if (reservation.getEndDate() != null && reservation.getEndDate().toLocalDate().minusDays(1).isAfter(firstDay)) {
+            lastDay = reservation.getEndDate().toLocalDate().minusDays(1);
+        }
+        rollupRepository.refreshAdvertiserDays(reservation.getAdvertiserId(), firstDay, lastDay);
+    }
+
+    /**
+     * Recomputes the receiving business's revenue for the day the payment was created.
+     */
+    public void paymentChanged(PaymentIntent payment) {
+        if (payment.getBusinessId() == null) {
+            return;
+        }
+        LocalDate day = payment.getCreatedAt() != null ? payment.getCreatedAt().toLocalDate() : LocalDate.now();
+        rollupRepository.refreshRevenueDays(payment.getBusinessId(), day, day, platformFeePercent);
+    }
+
+    @Scheduled(initialDelayString = "PT1M", fixedDelayString = "PT24H")
+    public void rebuildDaily() {
+        if (!rebuildEnabled) {
+            return;
+        }
+        rebuildAll();
+    }
+
+    public void rebuildAll() {
+        rebuildTimer.record(() -> rollupRepository.rebuildAll(platformFeePercent));
+        log.info("Rebuilt business daily rollups");
+    }
+}
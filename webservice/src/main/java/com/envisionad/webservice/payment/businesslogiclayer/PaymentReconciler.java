@@ -0,0 +1,220 @@
+package com.envisionad.webservice.payment.businesslogiclayer;
+
+import com.envisionad.webservice.config.outbound.OutboundDependency;
+import com.envisionad.webservice.config.outbound.OutboundHttpClients;
+import com.envisionad.webservice.payment.dataaccesslayer.PaymentIntent;
+import com.envisionad.webservice.payment.dataaccesslayer.PaymentIntentRepository;
+import com.envisionad.webservice.payment.dataaccesslayer.PaymentReconciliationCheckpoint;
+import com.envisionad.webservice.payment.dataaccesslayer.PaymentReconciliationCheckpointRepository;
+import com.envisionad.webservice.payment.dataaccesslayer.PaymentStatus;
+import com.stripe.exception.StripeException;
+import com.stripe.model.checkout.Session;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Settles PENDING payments whose checkout session finished without a webhook reaching us. A
+ * scheduled sweep walks stale PENDING payments platform-wide in id order, looks up a few sessions
+ * at a time, and records a checkpoint after each page so a restart resumes where it stopped.
+ * Only one replica sweeps at a time, on a thread of its own so waiting on Stripe never holds up the
+ * other scheduled jobs.
+ */
+@Slf4j
+@Service
+public class PaymentReconciler {
+
+    static final String JOB_NAME = "pending-payments";
+    static final int PAGE_SIZE = 50;
+    static final int MAX_PAYMENTS_PER_SWEEP = 500;
+    static final int CONCURRENT_LOOKUPS = 4;
+    // Webhooks normally settle a payment within seconds; only payments quiet for longer are swept.
+    static final Duration STALE_AFTER = Duration.ofMinutes(15);
+    private static final Duration SWEEP_LEASE = Duration.ofMinutes(10);
+
+    private final PaymentIntentRepository paymentIntentRepository;
+    private final PaymentReconciliationCheckpointRepository checkpointRepository;
+    private final BusinessDailyRollupService businessDailyRollupService;
+    private final OutboundDependency stripe;
+    private final boolean enabled;
+
+    private final ExecutorService sweepExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "payment-reconciler-sweep");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Set while a sweep is queued or running, so a slow sweep is not stacked up behind itself.
+    private final AtomicBoolean sweepRunning = new AtomicBoolean();
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final ExecutorService lookupExecutor = Executors.newFixedThreadPool(CONCURRENT_LOOKUPS, runnable -> {
+        Thread thread = new Thread(runnable, "payment-reconciler-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter succeededCounter;
+    private final Counter failedCounter;
+    private final Counter unchangedCounter;
+    private final Counter errorCounter;
+    private final Timer sweepTimer;
+
+    public PaymentReconciler(PaymentIntentRepository paymentIntentRepository,
+                             PaymentReconciliationCheckpointRepository checkpointRepository,
+                             BusinessDailyRollupService businessDailyRollupService,
+                             OutboundHttpClients outboundHttpClients,
+                             MeterRegistry meterRegistry,
+                             @Value("${stripe.reconciler.enabled:true}") boolean enabled) {
+        this.paymentIntentRepository = paymentIntentRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.businessDailyRollupService = businessDailyRollupService;
+        this.stripe = outboundHttpClients.dependency(OutboundHttpClients.STRIPE);
+        this.enabled = enabled;
+
+        this.succeededCounter = meterRegistry.counter("payment.reconciler.payments", "outcome", "succeeded");
+        this.failedCounter = meterRegistry.counter("payment.reconciler.payments", "outcome", "failed");
+        this.unchangedCounter = meterRegistry.counter("payment.reconciler.payments", "outcome", "unchanged");
+        this.errorCounter = meterRegistry.counter("payment.reconciler.payments", "outcome", "error");
+        this.sweepTimer = meterRegistry.timer("payment.reconciler.sweep");
+    }
+
+    @PreDestroy
+    void shutdownExecutors() {
+        sweepExecutor.shutdownNow();
+        lookupExecutor.shutdownNow();
+    }
+
+    @Scheduled(initialDelayString = "PT1M", fixedDelayString = "PT5M")
+    public void reconcilePendingPayments() {
+        if (!enabled || !sweepRunning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sweepExecutor.execute(() -> {
+                try {
+                    sweep();
+                } catch (RuntimeException e) {
+                    log.error("Payment reconciliation sweep failed: {}", e.getMessage(), e);
+                } finally {
+                    sweepRunning.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the next start sweeps from the checkpoint.
+            sweepRunning.set(false);
+        }
+    }
+
+    /**
+     * Reconciles up to {@link #MAX_PAYMENTS_PER_SWEEP} stale payments from the checkpoint on.
+     *
+     * @return how many payments were looked up, or -1 if another replica holds the sweep
+     */
+    int sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        checkpointRepository.insertIfAbsent(JOB_NAME, now);
+        if (checkpointRepository.tryLock(JOB_NAME, now, now.plus(SWEEP_LEASE)) == 0) {
+            return -1;
+        }
+
+        Timer.Sample sample = Timer.start();
+        int swept = 0;
+        try {
+            long cursor = checkpointRepository.findById(JOB_NAME)
+                    .map(PaymentReconciliationCheckpoint::getLastPaymentId)
+                    .orElse(0L);
+            LocalDateTime staleBefore = now.minus(STALE_AFTER);
+
+            while (swept < MAX_PAYMENTS_PER_SWEEP) {
+                List<PaymentIntent> page = paymentIntentRepository.findStalePendingPayments(
+                        cursor, staleBefore, PageRequest.of(0, PAGE_SIZE));
+                reconcilePage(page);
+                swept += page.size();
+
+                if (page.size() < PAGE_SIZE) {
+                    // Reached the end; the next sweep starts again from the lowest id.
+                    cursor = 0;
+                    checkpointRepository.advance(JOB_NAME, cursor, LocalDateTime.now());
+                    break;
+                }
+                cursor = page.get(page.size() - 1).getId();
+                checkpointRepository.advance(JOB_NAME, cursor, LocalDateTime.now());
+            }
+
+            if (swept > 0) {
+                log.info("Reconciled {} pending payments with Stripe", swept);
+            }
+            return swept;
+        } finally {
+            sample.stop(sweepTimer);
+            checkpointRepository.unlock(JOB_NAME, LocalDateTime.now());
+        }
+    }
+
+    private void reconcilePage(List<PaymentIntent> page) {
+        CompletableFuture<?>[] lookups = page.stream()
+                .map(payment -> CompletableFuture.runAsync(() -> reconcile(payment), lookupExecutor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(lookups).join();
+    }
+
+    void reconcile(PaymentIntent payment) {
+        String sessionId = payment.getStripeSessionId();
+        try {
+            Session session = stripe.call(() -> retrieveSession(sessionId));
+            String sessionStatus = session.getStatus();
+
+            PaymentStatus resolved;
+            String stripePaymentIntentId = payment.getStripePaymentIntentId();
+            if ("complete".equals(sessionStatus)) {
+                resolved = PaymentStatus.SUCCEEDED;
+                if (session.getPaymentIntent() != null) {
+                    stripePaymentIntentId = session.getPaymentIntent();
+                }
+            } else if ("expired".equals(sessionStatus)) {
+                resolved = PaymentStatus.FAILED;
+            } else {
+                unchangedCounter.increment();
+                return;
+            }
+
+            int updated = paymentIntentRepository.resolvePending(
+                    payment.getId(), sessionId, resolved, stripePaymentIntentId, LocalDateTime.now());
+            if (updated == 0) {
+                // A webhook or a new checkout attempt changed the payment in the meantime.
+                unchangedCounter.increment();
+                return;
+            }
+            log.info("Reconciled pending payment {} (session {}) to {}", payment.getId(), sessionId, resolved);
+            if (resolved == PaymentStatus.SUCCEEDED) {
+                succeededCounter.increment();
+                businessDailyRollupService.paymentChanged(payment);
+            } else {
+                failedCounter.increment();
+            }
+        } catch (StripeException | IOException | RuntimeException e) {
+            log.warn("Failed to reconcile payment {} (session {}): {}", payment.getId(), sessionId, e.getMessage());
+            errorCounter.increment();
+        }
+    }
+
+    Session retrieveSession(String sessionId) throws StripeException {
+        return Session.retrieve(sessionId);
+    }
+}
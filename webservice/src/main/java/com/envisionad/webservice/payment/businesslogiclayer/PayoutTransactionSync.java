@@ -0,0 +1,226 @@
+package com.envisionad.webservice.payment.businesslogiclayer;
+
+import com.envisionad.webservice.config.outbound.OutboundDependency;
+import com.envisionad.webservice.config.outbound.OutboundHttpClients;
+import com.envisionad.webservice.payment.dataaccesslayer.PayoutSyncStateRepository;
+import com.envisionad.webservice.payment.dataaccesslayer.PayoutTransaction;
+import com.envisionad.webservice.payment.dataaccesslayer.PayoutTransactionRepository;
+import com.stripe.exception.StripeException;
+import com.stripe.model.BalanceTransaction;
+import com.stripe.model.BalanceTransactionCollection;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.BalanceTransactionListParams;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps {@link PayoutTransaction} in step with each connected account's Stripe balance
+ * transactions. Stripe lists them newest first, so a sync pages back with {@code starting_after}
+ * until it reaches a transaction it already has, re-saving that last page to pick up status
+ * changes. The pages are saved together once the sync gets there: if a later page fails, nothing
+ * new is stored and the next sync pages back over the same range. Accounts are synced when a balance webhook asks for it and otherwise every
+ * {@link #REFRESH_INTERVAL}, on a thread of their own so paging through Stripe never holds up
+ * the other scheduled jobs.
+ */
+@Slf4j
+@Service
+public class PayoutTransactionSync {
+
+    static final long PAGE_SIZE = 100;
+    // Caps the first sync of an account with a long history; later syncs only fetch what is new.
+    static final int MAX_PAGES_PER_SYNC = 10;
+    static final int ACCOUNTS_PER_POLL = 20;
+    static final Duration REFRESH_INTERVAL = Duration.ofMinutes(15);
+    private static final Duration SYNC_LEASE = Duration.ofMinutes(5);
+
+    private final PayoutTransactionRepository payoutTransactionRepository;
+    private final PayoutSyncStateRepository syncStateRepository;
+    private final OutboundDependency stripe;
+    private final boolean enabled;
+
+    private final ExecutorService syncExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "payout-transaction-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Set while a pass is queued or running, so a slow pass is not stacked up behind itself.
+    private final AtomicBoolean syncRunning = new AtomicBoolean();
+
+    private final Counter syncedCounter;
+    private final Counter failedCounter;
+    private final Counter transactionsCounter;
+    private final Timer syncTimer;
+
+    public PayoutTransactionSync(PayoutTransactionRepository payoutTransactionRepository,
+                                 PayoutSyncStateRepository syncStateRepository,
+                                 OutboundHttpClients outboundHttpClients,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${stripe.payouts.sync.enabled:true}") boolean enabled) {
+        this.payoutTransactionRepository = payoutTransactionRepository;
+        this.syncStateRepository = syncStateRepository;
+        this.stripe = outboundHttpClients.dependency(OutboundHttpClients.STRIPE);
+        this.enabled = enabled;
+
+        this.syncedCounter = meterRegistry.counter("stripe.payouts.sync", "outcome", "succeeded");
+        this.failedCounter = meterRegistry.counter("stripe.payouts.sync", "outcome", "failed");
+        this.transactionsCounter = meterRegistry.counter("stripe.payouts.sync.transactions");
+        this.syncTimer = meterRegistry.timer("stripe.payouts.sync.duration");
+    }
+
+    @PreDestroy
+    void shutdownSync() {
+        syncExecutor.shutdownNow();
+    }
+
+    /**
+     * Asks for the account's transactions to be synced on the next poll. Called from webhooks,
+     * so it only touches the database.
+     */
+    public void requestRefresh(String stripeAccountId) {
+        if (stripeAccountId == null || stripeAccountId.isBlank()) {
+            return;
+        }
+        syncStateRepository.requestRefresh(stripeAccountId, LocalDateTime.now());
+    }
+
+    @Scheduled(initialDelayString = "PT30S", fixedDelayString = "PT30S")
+    public void pollDueAccounts() {
+        if (!enabled || !syncRunning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            syncExecutor.execute(() -> {
+                try {
+                    syncDueAccounts();
+                } catch (RuntimeException e) {
+                    log.error("Payout transaction sync failed: {}", e.getMessage(), e);
+                } finally {
+                    syncRunning.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; due accounts are picked up after the next start.
+            syncRunning.set(false);
+        }
+    }
+
+    /**
+     * Syncs up to {@link #ACCOUNTS_PER_POLL} accounts that are due, skipping any another replica
+     * has claimed.
+     */
+    void syncDueAccounts() {
+        LocalDateTime now = LocalDateTime.now();
+        syncStateRepository.enrollOnboardedAccounts(now);
+
+        List<String> dueAccountIds = syncStateRepository.findDueAccountIds(
+                now, now.minus(REFRESH_INTERVAL), PageRequest.of(0, ACCOUNTS_PER_POLL));
+        for (String stripeAccountId : dueAccountIds) {
+            if (syncStateRepository.claim(stripeAccountId, now, now.plus(SYNC_LEASE)) == 0) {
+                continue;
+            }
+            try {
+                sync(stripeAccountId);
+                syncStateRepository.markSynced(stripeAccountId, LocalDateTime.now());
+                syncedCounter.increment();
+            } catch (StripeException | IOException | RuntimeException e) {
+                // The lease expires and the account is picked up again after it.
+                log.warn("Failed to sync payouts for Stripe account {}: {}", stripeAccountId, e.getMessage());
+                failedCounter.increment();
+            }
+        }
+    }
+
+    /**
+     * Fetches the account's transactions newer than what is stored, plus the page that
+     * overlaps the stored ones, and saves them once every page has been fetched.
+     *
+     * @return how many transactions were saved
+     */
+    int sync(String stripeAccountId) throws StripeException, IOException {
+        Timer.Sample sample = Timer.start();
+        RequestOptions requestOptions = RequestOptions.builder().setStripeAccount(stripeAccountId).build();
+        String startingAfter = null;
+        List<BalanceTransaction> fetched = new ArrayList<>();
+        try {
+            for (int page = 0; page < MAX_PAGES_PER_SYNC; page++) {
+                BalanceTransactionListParams.Builder params = BalanceTransactionListParams.builder().setLimit(PAGE_SIZE);
+                if (startingAfter != null) {
+                    params.setStartingAfter(startingAfter);
+                }
+                BalanceTransactionListParams listParams = params.build();
+                BalanceTransactionCollection collection = stripe.call(() -> listBalanceTransactions(listParams, requestOptions));
+                List<BalanceTransaction> transactions = collection.getData();
+                if (transactions == null || transactions.isEmpty()) {
+                    break;
+                }
+                fetched.addAll(transactions);
+
+                boolean reachedStored = !payoutTransactionRepository.findExistingIds(
+                        transactions.stream().map(BalanceTransaction::getId).toList()).isEmpty();
+                if (reachedStored || !Boolean.TRUE.equals(collection.getHasMore())) {
+                    break;
+                }
+                startingAfter = transactions.get(transactions.size() - 1).getId();
+            }
+
+            if (!fetched.isEmpty()) {
+                LocalDateTime syncedAt = LocalDateTime.now();
+                payoutTransactionRepository.saveAll(fetched.stream()
+                        .map(transaction -> toEntity(stripeAccountId, transaction, syncedAt))
+                        .toList());
+            }
+            transactionsCounter.increment(fetched.size());
+            return fetched.size();
+        } finally {
+            sample.stop(syncTimer);
+        }
+    }
+
+    BalanceTransactionCollection listBalanceTransactions(BalanceTransactionListParams params,
+                                                         RequestOptions requestOptions) throws StripeException {
+        return BalanceTransaction.list(params, requestOptions);
+    }
+
+    private static PayoutTransaction toEntity(String stripeAccountId, BalanceTransaction transaction, LocalDateTime syncedAt) {
+        PayoutTransaction entity = new PayoutTransaction();
+        entity.setTransactionId(transaction.getId());
+        entity.setStripeAccountId(stripeAccountId);
+        entity.setType(transaction.getType());
+        entity.setAmount(valueOrZero(transaction.getAmount()));
+        entity.setFee(valueOrZero(transaction.getFee()));
+        entity.setNet(valueOrZero(transaction.getNet()));
+        entity.setCurrency(transaction.getCurrency());
+        entity.setStatus(transaction.getStatus());
+        entity.setCreatedAt(toLocalDateTime(transaction.getCreated()));
+        entity.setAvailableOn(transaction.getAvailableOn() != null ? toLocalDateTime(transaction.getAvailableOn()) : null);
+        entity.setSyncedAt(syncedAt);
+        return entity;
+    }
+
+    private static long valueOrZero(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private static LocalDateTime toLocalDateTime(Long epochSeconds) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSeconds != null ? epochSeconds : 0L), ZoneId.systemDefault());
+    }
+}
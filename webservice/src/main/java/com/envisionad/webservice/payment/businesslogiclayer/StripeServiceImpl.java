@@ -13,6 +13,7 @@ import com.envisionad.webservice.payment.exceptions.DuplicatePaymentException;
 import com.envisionad.webservice.payment.exceptions.InvalidPricingException;
 import com.envisionad.webservice.payment.exceptions.StripeAccountNotFoundException;
 import com.envisionad.webservice.payment.exceptions.StripeOnboardingIncompleteException;
+import com.envisionad.webservice.payment.presentationlayer.models.PayoutTransactionResponseModel;
 import com.envisionad.webservice.utils.JwtUtils;
 import com.stripe.exception.StripeException;
 import com.stripe.model.*;
@@ -27,11 +28,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import java.util.*;
-import com.envisionad.webservice.reservation.dataaccesslayer.Reservation;
-import com.envisionad.webservice.reservation.dataaccesslayer.ReservationRepository;
 
 @Slf4j
 @Service
@@ -40,7 +40,8 @@ public class StripeServiceImpl implements StripeService {
     private final PaymentIntentRepository paymentIntentRepository;
     private final AdCampaignRepository adCampaignRepository;
     private final MediaRepository mediaRepository;
-    private final ReservationRepository reservationRepository;
+    private final BusinessDailyRollupRepository businessDailyRollupRepository;
+    private final PayoutTransactionRepository payoutTransactionRepository;
     private final JwtUtils jwtUtils;
 
     @Value("${stripe.platform-fee-percent}")
@@ -50,13 +51,15 @@ public class StripeServiceImpl implements StripeService {
             PaymentIntentRepository paymentIntentRepository,
             AdCampaignRepository adCampaignRepository,
             MediaRepository mediaRepository,
-            ReservationRepository reservationRepository,
+            BusinessDailyRollupRepository businessDailyRollupRepository,
+            PayoutTransactionRepository payoutTransactionRepository,
             JwtUtils jwtUtils) {
         this.stripeAccountRepository = stripeAccountRepository;
         this.paymentIntentRepository = paymentIntentRepository;
         this.adCampaignRepository = adCampaignRepository;
         this.mediaRepository = mediaRepository;
-        this.reservationRepository = reservationRepository;
+        this.businessDailyRollupRepository = businessDailyRollupRepository;
+        this.payoutTransactionRepository = payoutTransactionRepository;
         this.jwtUtils = jwtUtils;
     }
 
@@ -216,6 +219,8 @@ public class StripeServiceImpl implements StripeService {
                         .setMode(SessionCreateParams.Mode.PAYMENT)
                         .setUiMode(SessionCreateParams.UiMode.EMBEDDED)
                         .setRedirectOnCompletion(SessionCreateParams.RedirectOnCompletion.NEVER)
+                        // Lets webhook events for the session be ordered with those of its PaymentIntent
+                        .putMetadata("reservationId", reservationId)
                         .addLineItem(
                                 SessionCreateParams.LineItem.builder()
                                         .setPriceData(
@@ -372,84 +377,49 @@ public class StripeServiceImpl implements StripeService {
         Optional<StripeAccount> accountOpt = stripeAccountRepository.findByBusinessId(businessId);
         Map<String, Object> dashboard = new HashMap<>();
 
-        // SYNC: Check for pending payments
-        log.info("Checking for pending payments for advertiser: {}", businessId);
-        syncPendingPayments(businessId);
+        // Pending payments are settled by PaymentReconciler in the background, so this is database-only
+        // 1. Determine Date Range, in whole days
+        LocalDate startDay = calculateStartDate(period).toLocalDate();
+        LocalDate endDay = LocalDate.now();
 
-        // 1. Determine Date Range
-        LocalDateTime startDate = calculateStartDate(period);
-        LocalDateTime endDate = LocalDateTime.now();
-
-        // 2. Calculate Estimated Impressions and CPM
-        List<Reservation> reservations = reservationRepository.findConfirmedReservationsByAdvertiserIdAndDateRange(
-                businessId, startDate, endDate);
-
-        // Batch fetch Media to avoid N+1 query
-        Set<UUID> mediaIds = new HashSet<>();
-        for (Reservation r : reservations) {
-            mediaIds.add(r.getMediaId());
-        }
-        List<Media> medias = mediaRepository.findAllById(mediaIds);
-        Map<UUID, Media> mediaMap = new HashMap<>();
-        for (Media m : medias) {
-            mediaMap.put(m.getId(), m);
-        }
+        // 2. Sum the pre-aggregated days kept by BusinessDailyRollupService
+        List<BusinessDailyRollup> rollups = businessDailyRollupRepository.findByBusinessIdAndDateRange(
+                businessId, startDay, endDay);
 
         long totalImpressions = 0;
-        for (Reservation reservation : reservations) {
-            // Calculate intersection of reservation duration and selected period
-            LocalDateTime effectiveStart = reservation.getStartDate().isAfter(startDate) ? reservation.getStartDate()
-                    : startDate;
-            LocalDateTime effectiveEnd = reservation.getEndDate().isBefore(endDate) ? reservation.getEndDate()
-                    : endDate;
-
-            if (effectiveEnd.isAfter(effectiveStart)) {
-                long days = java.time.Duration.between(effectiveStart, effectiveEnd).toDays();
-                if (days == 0 && java.time.Duration.between(effectiveStart, effectiveEnd).toHours() > 0) {
-                    days = 1;
-                }
-
-                // Use batched Media map
-                Media media = mediaMap.get(reservation.getMediaId());
-                if (media != null) {
-                    Integer dailyImpressions = media.getDailyImpressions();
-                    if (dailyImpressions != null) {
-                        totalImpressions += (days * dailyImpressions);
-                    }
-                }
+        BigDecimal totalSpend = BigDecimal.ZERO;
+        int reservationCount = 0;
+        BigDecimal grossEarnings = BigDecimal.ZERO;
+        BigDecimal netEarnings = BigDecimal.ZERO;
+        int revenuePaymentCount = 0;
+        // One graph point per day, as the frontend buckets the points by date anyway
+        List<Map<String, Object>> advertiserPaymentList = new ArrayList<>();
+        List<Map<String, Object>> revenuePaymentList = new ArrayList<>();
+
+        for (BusinessDailyRollup rollup : rollups) {
+            totalImpressions += rollup.getImpressions();
+            totalSpend = totalSpend.add(rollup.getSpend());
+            reservationCount += rollup.getReservationCount();
+            grossEarnings = grossEarnings.add(rollup.getGrossRevenue());
+            netEarnings = netEarnings.add(rollup.getNetRevenue());
+            revenuePaymentCount += rollup.getPaymentCount();
+
+            long created = rollup.getId().getRollupDate().atStartOfDay(java.time.ZoneId.systemDefault()).toEpochSecond();
+            if (rollup.getReservationCount() > 0) {
+                advertiserPaymentList.add(dailyAmount(rollup.getSpend(), created));
+            }
+            if (rollup.getPaymentCount() > 0) {
+                revenuePaymentList.add(dailyAmount(rollup.getGrossRevenue(), created));
             }
         }
 
         dashboard.put("estimatedImpressions", totalImpressions);
 
-        // 3. Always calculate Advertiser Spend (Outgoing Payments)
-        // REPLACEMENT: Use Reservations instead of PaymentIntents per user request
-
-        // Filter reservations that "started" in this period (Booking Basis)
-        List<Reservation> newReservations = reservations.stream()
-                // Inclusive check: startDate <= r.startDate <= endDate
-                .filter(r -> !r.getStartDate().isBefore(startDate) && !r.getStartDate().isAfter(endDate))
-                .toList();
-
-        BigDecimal totalSpend = newReservations.stream()
-                .map(Reservation::getTotalPrice)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Map to "payments" structure for frontend graph
-        List<Map<String, Object>> advertiserPaymentList = newReservations.stream().map(r -> {
-            Map<String, Object> map = new HashMap<>();
-            map.put("amount", r.getTotalPrice());
-            map.put("created", r.getStartDate().atZone(java.time.ZoneId.systemDefault()).toEpochSecond());
-            map.put("currency", "CAD"); // Default currency
-            return map;
-        }).toList();
-
+        // 3. Always include Advertiser Spend, on a booking basis (reservations that started in the period)
         dashboard.put("totalSpend", totalSpend);
         dashboard.put("payments", advertiserPaymentList);
 
-        log.info("Dashboard data for {}: totalSpend={}, paymentCount={}", businessId, totalSpend,
-                advertiserPaymentList.size());
+        log.info("Dashboard data for {}: totalSpend={}, paymentCount={}", businessId, totalSpend, reservationCount);
 
         // Default to not media owner unless found below
         dashboard.put("isMediaOwner", false);
@@ -458,64 +428,32 @@ public class StripeServiceImpl implements StripeService {
             // SCENARIO: Media Owner - Show Earnings and Payouts
             StripeAccount stripeAccount = accountOpt.get();
 
-            // Get all successful payments REVENUE for this media owner
-            List<PaymentIntent> revenuePayments = paymentIntentRepository
-                    .findSuccessfulPaymentsByBusinessIdAndDateRange(
-                            businessId,
-                            startDate,
-                            LocalDateTime.now());
-
-            // Calculate gross earnings (total before platform fee)
-            BigDecimal grossEarnings = revenuePayments.stream()
-                    .map(PaymentIntent::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            // Calculate net earnings (after platform fee)
-            BigDecimal netEarnings = grossEarnings
-                    .multiply(BigDecimal.valueOf(100 - platformFeePercent))
-                    .divide(BigDecimal.valueOf(100), java.math.RoundingMode.HALF_UP);
-
-            List<Map<String, Object>> revenuePaymentList = revenuePayments.stream().map(p -> {
-                Map<String, Object> map = new HashMap<>();
-                map.put("amount", p.getAmount());
-                map.put("created", p.getCreatedAt().atZone(java.time.ZoneId.systemDefault()).toEpochSecond());
-                map.put("currency", p.getCurrency());
-                return map;
-            }).toList();
             dashboard.put("revenuePayments", revenuePaymentList);
 
-            // Fetch payout history from Stripe
-            try {
-                BalanceTransactionCollection payouts = BalanceTransaction.list(
-                        BalanceTransactionListParams.builder()
-                                .setLimit(100L)
-                                .build(),
-                        RequestOptions.builder()
-                                .setStripeAccount(stripeAccount.getStripeAccountId())
-                                .build());
-                dashboard.put("payouts", payouts.getData());
-            } catch (StripeException e) {
-                log.warn("Failed to fetch payouts for business {}: {}", businessId, e.getMessage());
-                dashboard.put("payouts", Collections.emptyList());
-            }
+            // Payout history from the local copy kept by PayoutTransactionSync
+            List<PayoutTransactionResponseModel> payouts = payoutTransactionRepository
+                    .findTop100ByStripeAccountIdOrderByCreatedAtDesc(stripeAccount.getStripeAccountId())
+                    .stream()
+                    .map(StripeServiceImpl::toPayoutResponse)
+                    .toList();
+            dashboard.put("payouts", payouts);
 
             dashboard.put("grossEarnings", grossEarnings);
             dashboard.put("netEarnings", netEarnings);
             dashboard.put("platformFee", grossEarnings.subtract(netEarnings));
-            dashboard.put("paymentCount", revenuePayments.size());
-            dashboard.put("advertiserPaymentCount", newReservations.size());
+            dashboard.put("paymentCount", revenuePaymentCount);
+            dashboard.put("advertiserPaymentCount", reservationCount);
             dashboard.put("isMediaOwner", true);
 
         }
 
         // Finalize CPM
-        BigDecimal totalSpendVal = (BigDecimal) dashboard.getOrDefault("totalSpend", BigDecimal.ZERO);
         BigDecimal cpm = BigDecimal.ZERO;
-        if (totalImpressions > 0 && totalSpendVal.compareTo(BigDecimal.ZERO) > 0) {
+        if (totalImpressions > 0 && totalSpend.compareTo(BigDecimal.ZERO) > 0) {
             // CPM (cost per 1000 impressions) with spend in dollars:
             // CPM = (spendInDollars / impressions) * 1000
             try {
-                cpm = totalSpendVal.multiply(BigDecimal.valueOf(1000))
+                cpm = totalSpend.multiply(BigDecimal.valueOf(1000))
                         .divide(BigDecimal.valueOf(totalImpressions), 2, java.math.RoundingMode.HALF_UP);
             } catch (Exception e) {
                 log.error("Error calculating CPM", e);
@@ -526,6 +464,27 @@ public class StripeServiceImpl implements StripeService {
         return dashboard;
     }
 
+    private static Map<String, Object> dailyAmount(BigDecimal amount, long created) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("amount", amount);
+        map.put("created", created);
+        map.put("currency", "CAD"); // Default currency
+        return map;
+    }
+
+    private static PayoutTransactionResponseModel toPayoutResponse(PayoutTransaction transaction) {
+        java.time.ZoneId zone = java.time.ZoneId.systemDefault();
+        return new PayoutTransactionResponseModel(
+                transaction.getTransactionId(),
+                transaction.getType(),
+                transaction.getAmount(),
+                transaction.getNet(),
+                transaction.getCurrency(),
+                transaction.getStatus(),
+                transaction.getCreatedAt().atZone(zone).toEpochSecond(),
+                transaction.getAvailableOn() != null ? transaction.getAvailableOn().atZone(zone).toEpochSecond() : null);
+    }
+
     private LocalDateTime calculateStartDate(String period) {
         return switch (period.toLowerCase()) {
             case "weekly" -> LocalDateTime.now().minusWeeks(1);
@@ -534,42 +493,4 @@ public class StripeServiceImpl implements StripeService {
             default -> LocalDateTime.now().minusMonths(1);
         };
     }
-
-    private void syncPendingPayments(String businessId) {
-        log.info("Starting syncPendingPayments for businessId: {}", businessId);
-        try {
-            List<PaymentIntent> pendingPayments = paymentIntentRepository.findPendingPaymentsByAdvertiserId(businessId);
-            log.info("Found {} pending payments for businessId: {}", pendingPayments.size(), businessId);
-
-            for (PaymentIntent p : pendingPayments) {
-                log.info("Checking Stripe session for payment: {}", p.getId());
-                if (p.getStripeSessionId() != null) {
-                    try {
-                        Session session = Session.retrieve(p.getStripeSessionId());
-                        log.info("Stripe session status for {}: {}", p.getStripeSessionId(), session.getStatus());
-
-                        if ("complete".equals(session.getStatus())) {
-                            p.setStatus(PaymentStatus.SUCCEEDED);
-                            // If we have the PI ID now, save it
-                            if (session.getPaymentIntent() != null) {
-                                p.setStripePaymentIntentId(session.getPaymentIntent());
-                            }
-                            paymentIntentRepository.save(p);
-                            log.info("Synced pending payment {} to SUCCEEDED", p.getId());
-                        } else if ("expired".equals(session.getStatus())) {
-                            p.setStatus(PaymentStatus.FAILED);
-                            paymentIntentRepository.save(p);
-                            log.info("Synced pending payment {} to FAILED", p.getId());
-                        }
-                    } catch (StripeException e) {
-                        log.warn("Failed to sync Stripe session {}: {}", p.getStripeSessionId(), e.getMessage());
-                    }
-                } else {
-                    log.warn("PaymentIntent {} has no Stripe Session ID", p.getId());
-                }
-            }
-        } catch (Exception e) {
-            log.error("Error verifying pending payments for business {}:", businessId, e);
-        }
-    }
 }
@@ -0,0 +1,259 @@
+package com.envisionad.webservice.payment.businesslogiclayer;
+
+import com.envisionad.webservice.payment.dataaccesslayer.StripeWebhookEvent;
+import com.envisionad.webservice.payment.dataaccesslayer.StripeWebhookEventRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stripe.model.Account;
+import com.stripe.model.Event;
+import com.stripe.model.StripeObject;
+import com.stripe.model.checkout.Session;
+import com.stripe.net.ApiResource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Durable inbox for Stripe webhooks. The controller only stores each verified event, so Stripe
+ * is acknowledged without waiting on the database work, Auth0 calls and emails the handlers do.
+ * A bounded worker pool then drains the inbox, retrying failures with exponential backoff and
+ * never running two events for the same reservation at once or out of Stripe order.
+ */
+@Slf4j
+@Service
+public class StripeWebhookInbox {
+
+    static final int WORKER_THREADS = 4;
+    static final int MAX_ATTEMPTS = 8;
+    static final Duration BASE_BACKOFF = Duration.ofSeconds(10);
+    static final Duration MAX_BACKOFF = Duration.ofHours(1);
+    static final Duration PROCESSING_LEASE = Duration.ofMinutes(5);
+    private static final Duration PROCESSED_RETENTION = Duration.ofDays(30);
+    private static final int MAX_RECENT_EVENT_IDS = 10_000;
+    private static final int MAX_ERROR_LENGTH = 2_000;
+
+    private final StripeWebhookEventRepository webhookEventRepository;
+    private final StripeWebhookService webhookService;
+    private final boolean enabled;
+
+    // Dedupe fast path: Stripe retries of an event this instance already stored skip the insert.
+    private final Cache<String, Boolean> recentEventIds = Caffeine.newBuilder()
+            .maximumSize(MAX_RECENT_EVENT_IDS)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    // One permit per worker thread, so events are only claimed when a worker is free to run them.
+    private final Semaphore workerPermits = new Semaphore(WORKER_THREADS);
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final ExecutorService workers = Executors.newFixedThreadPool(WORKER_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "stripe-webhook-worker-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter acceptedCounter;
+    private final Counter duplicateCounter;
+    private final Counter processedCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer processingTimer;
+
+    public StripeWebhookInbox(StripeWebhookEventRepository webhookEventRepository,
+                              StripeWebhookService webhookService,
+                              MeterRegistry meterRegistry,
+                              @Value("${stripe.webhook.inbox.enabled:true}") boolean enabled) {
+        this.webhookEventRepository = webhookEventRepository;
+        this.webhookService = webhookService;
+        this.enabled = enabled;
+
+        this.acceptedCounter = meterRegistry.counter("stripe.webhook.inbox.received", "result", "accepted");
+        this.duplicateCounter = meterRegistry.counter("stripe.webhook.inbox.received", "result", "duplicate");
+        this.processedCounter = meterRegistry.counter("stripe.webhook.inbox.processed", "outcome", "succeeded");
+        this.retriedCounter = meterRegistry.counter("stripe.webhook.inbox.processed", "outcome", "retried");
+        this.failedCounter = meterRegistry.counter("stripe.webhook.inbox.processed", "outcome", "failed");
+        this.processingTimer = meterRegistry.timer("stripe.webhook.inbox.processing");
+        meterRegistry.gauge("stripe.webhook.inbox.busy_workers", workerPermits,
+                permits -> WORKER_THREADS - permits.availablePermits());
+    }
+
+    @PreDestroy
+    void shutdownWorkers() {
+        workers.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Stores a verified event for asynchronous processing.
+     *
+     * @return {@code false} when the event had already been received
+     */
+    public boolean accept(Event event, String payload) {
+        String eventId = event.getId();
+        if (recentEventIds.getIfPresent(eventId) != null) {
+            duplicateCounter.increment();
+            return false;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int inserted = webhookEventRepository.insertIfAbsent(
+                eventId, event.getType(), payload, orderingKeyOf(event), createdAt(event, now), now);
+        recentEventIds.put(eventId, Boolean.TRUE);
+
+        if (inserted == 0) {
+            log.info("Ignoring duplicate Stripe webhook event: {}", eventId);
+            duplicateCounter.increment();
+            return false;
+        }
+        acceptedCounter.increment();
+        return true;
+    }
+
+    @Scheduled(initialDelayString = "PT5S", fixedDelayString = "PT1S")
+    public void pollInbox() {
+        if (!enabled) {
+            return;
+        }
+        int freeWorkers = workerPermits.availablePermits();
+        if (freeWorkers == 0) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<String> dueEventIds = webhookEventRepository.findClaimableEventIds(now, PageRequest.of(0, freeWorkers));
+        for (String eventId : dueEventIds) {
+            if (!workerPermits.tryAcquire()) {
+                return;
+            }
+            if (webhookEventRepository.claim(eventId, now, now.plus(PROCESSING_LEASE)) == 0) {
+                // Another replica got there first.
+                workerPermits.release();
+                continue;
+            }
+            try {
+                workers.execute(() -> {
+                    try {
+                        process(eventId);
+                    } finally {
+                        workerPermits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the lease expires and the event is picked up again.
+                workerPermits.release();
+                return;
+            }
+        }
+    }
+
+    void process(String eventId) {
+        Optional<StripeWebhookEvent> stored = webhookEventRepository.findById(eventId);
+        if (stored.isEmpty()) {
+            return;
+        }
+
+        StripeWebhookEvent inboxEvent = stored.get();
+        Timer.Sample sample = Timer.start();
+        try {
+            Event event = ApiResource.GSON.fromJson(inboxEvent.getPayload(), Event.class);
+            webhookService.handleEvent(event);
+            webhookEventRepository.markProcessed(eventId, LocalDateTime.now());
+            processedCounter.increment();
+        } catch (Exception e) {
+            handleFailure(inboxEvent, e);
+        } finally {
+            sample.stop(processingTimer);
+        }
+    }
+
+    private void handleFailure(StripeWebhookEvent inboxEvent, Exception e) {
+        String error = truncate(e.getClass().getSimpleName() + ": " + e.getMessage());
+        int attempts = inboxEvent.getAttempts();
+
+        if (attempts >= MAX_ATTEMPTS) {
+            log.error("Giving up on Stripe webhook event {} ({}) after {} attempts",
+                    inboxEvent.getEventId(), inboxEvent.getEventType(), attempts, e);
+            webhookEventRepository.markFailed(inboxEvent.getEventId(), error);
+            failedCounter.increment();
+            return;
+        }
+
+        Duration delay = backoffFor(attempts);
+        log.warn("Stripe webhook event {} ({}) failed on attempt {}, retrying in {}: {}",
+                inboxEvent.getEventId(), inboxEvent.getEventType(), attempts, delay, e.getMessage());
+        webhookEventRepository.scheduleRetry(inboxEvent.getEventId(), LocalDateTime.now().plus(delay), error);
+        retriedCounter.increment();
+    }
+
+    static Duration backoffFor(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 20);
+        Duration delay = BASE_BACKOFF.multipliedBy(1L << exponent);
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    @Scheduled(initialDelayString = "PT1H", fixedDelayString = "PT24H")
+    public void purgeProcessedEvents() {
+        int purged = webhookEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(PROCESSED_RETENTION));
+        if (purged > 0) {
+            log.info("Purged {} processed Stripe webhook events", purged);
+        }
+    }
+
+    /**
+     * Payment events are keyed by the reservation they pay for, account events by the connected
+     * account, so that, for example, a payment failure can't overtake the success before it.
+     */
+    static String orderingKeyOf(Event event) {
+        StripeObject object = event.getDataObjectDeserializer().getObject().orElse(null);
+        if (object instanceof com.stripe.model.PaymentIntent paymentIntent) {
+            return reservationKey(paymentIntent.getMetadata(), paymentIntent.getId());
+        }
+        if (object instanceof Session session) {
+            return reservationKey(session.getMetadata(), session.getPaymentIntent());
+        }
+        if (object instanceof Account account) {
+            return "account:" + account.getId();
+        }
+        return null;
+    }
+
+    private static String reservationKey(Map<String, String> metadata, String fallbackId) {
+        String reservationId = metadata != null ? metadata.get("reservationId") : null;
+        if (reservationId != null && !reservationId.isBlank()) {
+            return "reservation:" + reservationId;
+        }
+        return fallbackId != null ? "payment_intent:" + fallbackId : null;
+    }
+
+    private static LocalDateTime createdAt(Event event, LocalDateTime fallback) {
+        Long created = event.getCreated();
+        return created != null
+                ? LocalDateTime.ofInstant(Instant.ofEpochSecond(created), ZoneId.systemDefault())
+                : fallback;
+    }
+
+    private static String truncate(String value) {
+        return value.length() <= MAX_ERROR_LENGTH ? value : value.substring(0, MAX_ERROR_LENGTH);
+    }
+}
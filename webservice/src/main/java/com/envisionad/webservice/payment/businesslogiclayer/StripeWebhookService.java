@@ -15,6 +15,7 @@ import com.envisionad.webservice.payment.dataaccesslayer.PaymentIntentRepository
 import com.envisionad.webservice.payment.dataaccesslayer.PaymentStatus;
 import com.envisionad.webservice.payment.dataaccesslayer.StripeAccount;
 import com.envisionad.webservice.payment.dataaccesslayer.StripeAccountRepository;
+import com.envisionad.webservice.reservation.businesslogiclayer.MediaAvailabilityService;
 import com.envisionad.webservice.reservation.dataaccesslayer.Reservation;
 import com.envisionad.webservice.reservation.dataaccesslayer.ReservationRepository;
 import com.envisionad.webservice.reservation.dataaccesslayer.ReservationStatus;
@@ -46,10 +47,14 @@ public class StripeWebhookService {
     private final AdCampaignService adCampaignService;
     private final StripeAccountRepository stripeAccountRepository;
     private final Auth0Service auth0Service;
+    private final PayoutTransactionSync payoutTransactionSync;
+    private final BusinessDailyRollupService businessDailyRollupService;
+    private final AdminDashboardService adminDashboardService;
+    private final MediaAvailabilityService mediaAvailabilityService;
 
 
     public StripeWebhookService(PaymentIntentRepository paymentIntentRepository,
-                                ReservationRepository reservationRepository, EmailService emailService, EmployeeRepository employeeRepository, MediaRepository mediaRepository, AdCampaignRepository adCampaignRepository, AdCampaignService adCampaignService, StripeAccountRepository stripeAccountRepository, Auth0Service auth0Service) {
+                                ReservationRepository reservationRepository, EmailService emailService, EmployeeRepository employeeRepository, MediaRepository mediaRepository, AdCampaignRepository adCampaignRepository, AdCampaignService adCampaignService, StripeAccountRepository stripeAccountRepository, Auth0Service auth0Service, PayoutTransactionSync payoutTransactionSync, BusinessDailyRollupService businessDailyRollupService, AdminDashboardService adminDashboardService, MediaAvailabilityService mediaAvailabilityService) {
         this.paymentIntentRepository = paymentIntentRepository;
         this.reservationRepository = reservationRepository;
         this.emailService = emailService;
@@ -59,6 +64,26 @@ public class StripeWebhookService {
         this.adCampaignService = adCampaignService;
         this.stripeAccountRepository = stripeAccountRepository;
         this.auth0Service = auth0Service;
+        this.payoutTransactionSync = payoutTransactionSync;
+        this.businessDailyRollupService = businessDailyRollupService;
+        this.adminDashboardService = adminDashboardService;
+        this.mediaAvailabilityService = mediaAvailabilityService;
+    }
+
+    /**
+     * Routes a verified event to its handler. Transactional itself because the handlers
+     * are invoked directly rather than through the Spring proxy.
+     */
+    @Transactional
+    public void handleEvent(Event event) {
+        switch (event.getType()) {
+            case "checkout.session.completed" -> handleCheckoutSessionCompleted(event);
+            case "payment_intent.succeeded" -> handlePaymentIntentSucceeded(event);
+            case "payment_intent.payment_failed" -> handlePaymentIntentFailed(event);
+            case "account.updated" -> handleAccountUpdated(event);
+            case "balance.available", "payout.created", "payout.paid", "payout.failed" -> handleConnectedBalanceChanged(event);
+            default -> log.debug("Unhandled event type: {}", event.getType());
+        }
     }
 
     @Transactional
@@ -98,11 +123,28 @@ public class StripeWebhookService {
 
         log.info("Updated payment record: reservationId={}, status=SUCCEEDED",
                 payment.getReservationId());
+        businessDailyRollupService.paymentChanged(payment);
+
+        // The payment lands in the media owner's balance, so their payout history changes
+        stripeAccountRepository.findByBusinessId(payment.getBusinessId())
+                .ifPresent(account -> payoutTransactionSync.requestRefresh(account.getStripeAccountId()));
 
         // Update reservation status to CONFIRMED
         updateReservationStatus(payment.getReservationId(), ReservationStatus.CONFIRMED);
     }
 
+    /**
+     * Balance and payout events arrive for the connected account they concern; its stored
+     * payout history is refreshed in the background.
+     */
+    public void handleConnectedBalanceChanged(Event event) {
+        if (event.getAccount() == null) {
+            log.debug("Ignoring {} event for the platform account", event.getType());
+            return;
+        }
+        payoutTransactionSync.requestRefresh(event.getAccount());
+    }
+
     @Transactional
     public void handlePaymentIntentSucceeded(Event event) {
         EventDataObjectDeserializer dataObjectDeserializer = event.getDataObjectDeserializer();
@@ -133,6 +175,7 @@ public class StripeWebhookService {
 
             log.info("Updated payment record from webhook: reservationId={}",
                     payment.getReservationId());
+            businessDailyRollupService.paymentChanged(payment);
 
             // Update reservation status to CONFIRMED
             updateReservationStatus(payment.getReservationId(), ReservationStatus.CONFIRMED);
@@ -170,6 +213,8 @@ public class StripeWebhookService {
             paymentIntentRepository.save(payment);
 
             log.info("Marked payment as failed: reservationId={}", payment.getReservationId());
+            // Drops the payment from the revenue rollup if it had been counted as succeeded
+            businessDailyRollupService.paymentChanged(payment);
 
             // Update reservation status to CANCELLED due to payment failure
             updateReservationStatus(payment.getReservationId(), ReservationStatus.CANCELLED);
@@ -242,6 +287,9 @@ public class StripeWebhookService {
             reservationRepository.save(reservation);
             log.info("Updated reservation status: id={}, {} -> {}",
                     reservationId, oldStatus, newStatus);
+            businessDailyRollupService.reservationChanged(reservation);
+            adminDashboardService.overviewChanged();
+            mediaAvailabilityService.reservationChanged(reservation);
             if (newStatus == ReservationStatus.CONFIRMED) {
                 Media media = mediaRepository.findById(reservation.getMediaId())
                         .orElseThrow(() -> new MediaNotFoundException(reservation.getMediaId().toString()));
@@ -264,20 +312,13 @@ public class StripeWebhookService {
                                         AdCampaign campaign, BigDecimal totalPrice) {
         String mediaOwnerBusinessId = media.getBusinessId().toString();
         List<Employee> mediaOwners = employeeRepository.findAllByBusinessId_BusinessId(mediaOwnerBusinessId);
-        List<String> mediaOwnerEmailAddresses = mediaOwners.stream()
+        List<String> mediaOwnerUserIds = mediaOwners.stream()
                 .map(Employee::getUserId)
                 .filter(uid -> uid != null && !uid.isBlank())
                 .distinct()
-                .map(uid -> {
-                    try {
-                        return auth0Service.getUserEmailByUserId(uid);
-                    } catch (Exception e) {
-                        log.warn("Failed to fetch email for userId {} from Auth0: {}", uid, e.getMessage());
-                        return null;
-                    }
-                })
-                .filter(email -> email != null && !email.isEmpty())
                 .toList();
+        List<String> mediaOwnerEmailAddresses = List.copyOf(
+                auth0Service.getUserEmailsByUserIds(mediaOwnerUserIds).values());
 
         if (!mediaOwnerEmailAddresses.isEmpty()) {
             for (String ownerEmailAddress : mediaOwnerEmailAddresses) {
@@ -1,12 +1,9 @@
 package com.envisionad.webservice.payment.dataaccesslayer;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 public interface AdminDashboardRepository {
-    long countOrganizations();
-    long countMediaListings();
-    BigDecimal sumPlatformRevenue();
-    long countDistinctKnownUsers();
-    long countMediaOwners();
-    long countAdvertisers();
+    Optional<PlatformOverviewSnapshot> findSnapshot();
+    PlatformOverviewSnapshot refreshSnapshot(LocalDateTime refreshedAt);
 }
@@ -3,8 +3,10 @@ package com.envisionad.webservice.payment.dataaccesslayer;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 @Repository
 public class AdminDashboardRepositoryImpl implements AdminDashboardRepository {
@@ -13,57 +15,55 @@ public class AdminDashboardRepositoryImpl implements AdminDashboardRepository {
     private EntityManager em;
 
     @Override
-    public long countOrganizations() {
-        return ((Number) em.createNativeQuery("SELECT COUNT(*) FROM business").getSingleResult()).longValue();
+    public Optional<PlatformOverviewSnapshot> findSnapshot() {
+        return Optional.ofNullable(em.find(PlatformOverviewSnapshot.class, PlatformOverviewSnapshot.ID));
     }
 
+    /**
+     * Recomputes every figure in one statement: business and reservations are each aggregated in a single
+     * pass, and known users are the non-null ids left after the UNION has already removed duplicates, so no
+     * separate COUNT(DISTINCT) is needed on top of it.
+     */
     @Override
-    public long countMediaListings() {
-        return ((Number) em.createNativeQuery("""
-            SELECT COUNT(*)
-            FROM media
-            WHERE status = 'ACTIVE'
-            """).getSingleResult()).longValue();
-    }
-
-
-    @Override
-    public BigDecimal sumPlatformRevenue() {
-        Object result = em.createNativeQuery("""
-                SELECT COALESCE(SUM(total_price), 0)
-                FROM reservations
-                WHERE status = 'CONFIRMED'
-                """).getSingleResult();
-        return (result instanceof BigDecimal bd) ? bd : new BigDecimal(result.toString());
-    }
-
-    @Override
-    public long countDistinctKnownUsers() {
-        return ((Number) em.createNativeQuery("""
-                SELECT COUNT(DISTINCT user_id) FROM (
-                    SELECT owner_id AS user_id FROM business
-                    UNION
-                    SELECT user_id AS user_id FROM employee
-                    UNION
-                    SELECT advertiser_id AS user_id FROM reservations
-                ) u
-                """).getSingleResult()).longValue();
-    }
-
-    @Override
-    public long countMediaOwners() {
-        return ((Number) em.createNativeQuery("""
-                SELECT COUNT(DISTINCT owner_id)
-                FROM business
-                WHERE media_owner = true
-                """).getSingleResult()).longValue();
-    }
-
-    @Override
-    public long countAdvertisers() {
-        return ((Number) em.createNativeQuery("""
-                SELECT COUNT(DISTINCT advertiser_id)
-                FROM reservations
-                """).getSingleResult()).longValue();
+    @Transactional
+    public PlatformOverviewSnapshot refreshSnapshot(LocalDateTime refreshedAt) {
+        em.createNativeQuery("""
+                INSERT INTO platform_overview_snapshot (id, total_platform_revenue, total_organizations,
+                                                        total_media_listings, total_users, total_media_owners,
+                                                        total_advertisers, refreshed_at)
+                SELECT :id, r.revenue, b.organizations, m.listings, u.users, b.media_owners, r.advertisers,
+                       :refreshedAt
+                FROM (SELECT COUNT(*)                                           AS organizations,
+                             COUNT(DISTINCT owner_id) FILTER (WHERE media_owner) AS media_owners
+                      FROM business) b
+                         CROSS JOIN (SELECT COALESCE(SUM(total_price) FILTER (WHERE status = 'CONFIRMED'), 0) AS revenue,
+                                            COUNT(DISTINCT advertiser_id)                                  AS advertisers
+                                     FROM reservations) r
+                         CROSS JOIN (SELECT COUNT(*) AS listings
+                                     FROM media
+                                     WHERE status = 'ACTIVE') m
+                         CROSS JOIN (SELECT COUNT(*) AS users
+                                     FROM (SELECT owner_id AS user_id FROM business
+                                           UNION
+                                           SELECT user_id FROM employee
+                                           UNION
+                                           SELECT advertiser_id FROM reservations) known
+                                     WHERE user_id IS NOT NULL) u
+                ON CONFLICT (id) DO UPDATE
+                    SET total_platform_revenue = EXCLUDED.total_platform_revenue,
+                        total_organizations    = EXCLUDED.total_organizations,
+                        total_media_listings   = EXCLUDED.total_media_listings,
+                        total_users            = EXCLUDED.total_users,
+                        total_media_owners     = EXCLUDED.total_media_owners,
+                        total_advertisers      = EXCLUDED.total_advertisers,
+                        refreshed_at           = EXCLUDED.refreshed_at
+                """)
+                .setParameter("id", PlatformOverviewSnapshot.ID)
+                .setParameter("refreshedAt", refreshedAt)
+                .executeUpdate();
+        // The persistence context may already hold the row from before the update
+        PlatformOverviewSnapshot snapshot = em.find(PlatformOverviewSnapshot.class, PlatformOverviewSnapshot.ID);
+        em.refresh(snapshot);
+        return snapshot;
     }
 }
@@ -0,0 +1,41 @@
+package com.envisionad.webservice.payment.dataaccesslayer;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One business's dashboard figures for one day. Written only by the native statements in
+ * {@link BusinessDailyRollupRepository}.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "business_daily_rollups")
+public class BusinessDailyRollup {
+
+    @EmbeddedId
+    private BusinessDailyRollupId id;
+
+    // As the business's advertiser: confirmed reservations running or starting that day
+    @Column(nullable = false)
+    private long impressions;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal spend = BigDecimal.ZERO;
+
+    @Column(name = "reservation_count", nullable = false)
+    private int reservationCount;
+
+    // As a media owner: successful payments received that day
+    @Column(name = "gross_revenue", nullable = false, precision = 12, scale = 2)
+    private BigDecimal grossRevenue = BigDecimal.ZERO;
+
+    @Column(name = "net_revenue", nullable = false, precision = 12, scale = 2)
+    private BigDecimal netRevenue = BigDecimal.ZERO;
+
+    @Column(name = "payment_count", nullable = false)
+    private int paymentCount;
+}
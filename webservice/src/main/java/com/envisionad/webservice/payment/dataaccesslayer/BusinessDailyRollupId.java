@@ -0,0 +1,23 @@
+package com.envisionad.webservice.payment.dataaccesslayer;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusinessDailyRollupId implements Serializable {
+
+    @Column(name = "business_id", length = 36)
+    private String businessId;
+
+    @Column(name = "rollup_date")
+    private LocalDate rollupDate;
+}
@@ -0,0 +1,142 @@
+package com.envisionad.webservice.payment.dataaccesslayer;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rows are recomputed from reservations and payment_intents rather than incremented, so
+ * replaying a webhook or refreshing the same days twice leaves them unchanged. The advertiser
+ * and revenue columns are written by separate statements that leave each other's columns alone.
+ */
+@Repository
+public interface BusinessDailyRollupRepository extends JpaRepository<BusinessDailyRollup, BusinessDailyRollupId> {
+
+    @Query("""
+            SELECT r FROM BusinessDailyRollup r
+            WHERE r.id.businessId = :businessId
+              AND r.id.rollupDate >= :fromDay AND r.id.rollupDate <= :toDay
+            ORDER BY r.id.rollupDate
+            """)
+    List<BusinessDailyRollup> findByBusinessIdAndDateRange(@Param("businessId") String businessId,
+                                                           @Param("fromDay") LocalDate fromDay,
+                                                           @Param("toDay") LocalDate toDay);
+
+    // A reservation counts impressions on every day from its start up to the day before it ends
+    // (at least its start day), and its spend on its start day.
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = """
+            INSERT INTO business_daily_rollups (business_id, rollup_date, impressions, spend, reservation_count,
+                                                gross_revenue, net_revenue, payment_count)
+            SELECT :businessId, d.rollup_date,
+                   COALESCE(SUM(m.daily_impressions), 0),
+                   COALESCE(SUM(r.total_price) FILTER (WHERE CAST(r.start_date AS DATE) = d.rollup_date), 0),
+                   COUNT(r.id) FILTER (WHERE CAST(r.start_date AS DATE) = d.rollup_date),
+                   0, 0, 0
+            FROM (SELECT CAST(g AS DATE) AS rollup_date
+                  FROM generate_series(CAST(:fromDay AS DATE), CAST(:toDay AS DATE), INTERVAL '1 day') g) d
+                     LEFT JOIN reservations r
+                               ON r.advertiser_id = :businessId
+                                   AND r.status = 'CONFIRMED'
+                                   AND d.rollup_date >= CAST(r.start_date AS DATE)
+                                   AND d.rollup_date <= GREATEST(CAST(r.end_date AS DATE) - 1, CAST(r.start_date AS DATE))
+                     LEFT JOIN media m ON m.media_id = r.media_id
+            GROUP BY d.rollup_date
+            ON CONFLICT (business_id, rollup_date) DO UPDATE
+                SET impressions       = EXCLUDED.impressions,
+                    spend             = EXCLUDED.spend,
+                    reservation_count = EXCLUDED.reservation_count
+            """, nativeQuery = true)
+    int refreshAdvertiserDays(@Param("businessId") String businessId,
+                              @Param("fromDay") LocalDate fromDay,
+                              @Param("toDay") LocalDate toDay);
+
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = """
+            INSERT INTO business_daily_rollups (business_id, rollup_date, impressions, spend, reservation_count,
+                                                gross_revenue, net_revenue, payment_count)
+            SELECT :businessId, d.rollup_date, 0, 0, 0,
+                   COALESCE(SUM(p.amount), 0),
+                   ROUND(COALESCE(SUM(p.amount), 0) * (100 - :feePercent) / 100, 2),
+                   COUNT(p.id)
+            FROM (SELECT CAST(g AS DATE) AS rollup_date
+                  FROM generate_series(CAST(:fromDay AS DATE), CAST(:toDay AS DATE), INTERVAL '1 day') g) d
+                     LEFT JOIN payment_intents p
+                               ON p.business_id = :businessId
+                                   AND p.status = 'SUCCEEDED'
+                                   AND p.created_at >= d.rollup_date
+                                   AND p.created_at < d.rollup_date + 1
+            GROUP BY d.rollup_date
+            ON CONFLICT (business_id, rollup_date) DO UPDATE
+                SET gross_revenue = EXCLUDED.gross_revenue,
+                    net_revenue   = EXCLUDED.net_revenue,
+                    payment_count = EXCLUDED.payment_count
+            """, nativeQuery = true)
+    int refreshRevenueDays(@Param("businessId") String businessId,
+                           @Param("fromDay") LocalDate fromDay,
+                           @Param("toDay") LocalDate toDay,
+                           @Param("feePercent") int feePercent);
+
+    @Modifying
+    @Query("DELETE FROM BusinessDailyRollup r")
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO business_daily_rollups (business_id, rollup_date, impressions, spend, reservation_count,
+                                                gross_revenue, net_revenue, payment_count)
+            SELECT r.advertiser_id, CAST(d AS DATE),
+                   COALESCE(SUM(m.daily_impressions), 0),
+                   COALESCE(SUM(r.total_price) FILTER (WHERE CAST(d AS DATE) = CAST(r.start_date AS DATE)), 0),
+                   COUNT(*) FILTER (WHERE CAST(d AS DATE) = CAST(r.start_date AS DATE)),
+                   0, 0, 0
+            FROM reservations r
+                     LEFT JOIN media m ON m.media_id = r.media_id
+                     CROSS JOIN LATERAL generate_series(
+                             CAST(r.start_date AS DATE),
+                             GREATEST(CAST(r.end_date AS DATE) - 1, CAST(r.start_date AS DATE)),
+                             INTERVAL '1 day') d
+            WHERE r.status = 'CONFIRMED'
+              AND r.advertiser_id IS NOT NULL
+              AND r.start_date IS NOT NULL
+            GROUP BY r.advertiser_id, CAST(d AS DATE)
+            """, nativeQuery = true)
+    int insertAllAdvertiserRows();
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO business_daily_rollups (business_id, rollup_date, impressions, spend, reservation_count,
+                                                gross_revenue, net_revenue, payment_count)
+            SELECT p.business_id, CAST(p.created_at AS DATE), 0, 0, 0,
+                   SUM(p.amount),
+                   ROUND(SUM(p.amount) * (100 - :feePercent) / 100, 2),
+                   COUNT(*)
+            FROM payment_intents p
+            WHERE p.status = 'SUCCEEDED'
+            GROUP BY p.business_id, CAST(p.created_at AS DATE)
+            ON CONFLICT (business_id, rollup_date) DO UPDATE
+                SET gross_revenue = EXCLUDED.gross_revenue,
+                    net_revenue   = EXCLUDED.net_revenue,
+                    payment_count = EXCLUDED.payment_count
+            """, nativeQuery = true)
+    int insertAllRevenueRows(@Param("feePercent") int feePercent);
+
+    /**
+     * Replaces every row with ones computed from scratch, in one transaction so dashboards keep
+     * reading the previous rows until it commits.
+     */
+    @Transactional
+    default void rebuildAll(int feePercent) {
+        deleteAllRows();
+        insertAllAdvertiserRows();
+        insertAllRevenueRows(feePercent);
+    }
+}
@@ -1,8 +1,11 @@
 package com.envisionad.webservice.payment.dataaccesslayer;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -31,8 +34,31 @@ public interface PaymentIntentRepository extends JpaRepository<PaymentIntent, Lo
                         @Param("startDate") LocalDateTime startDate,
                         @Param("endDate") LocalDateTime endDate);
 
-        @Query("SELECT p FROM PaymentIntent p JOIN Reservation r ON p.reservationId = r.reservationId " +
-                        "WHERE r.advertiserId = :businessId " +
+        /**
+         * PENDING payments with a checkout session that have not changed since {@code staleBefore},
+         * in id order starting after {@code afterId}.
+         */
+        @Query("SELECT p FROM PaymentIntent p " +
+                        "WHERE p.status = com.envisionad.webservice.payment.dataaccesslayer.PaymentStatus.PENDING " +
+                        "AND p.stripeSessionId IS NOT NULL " +
+                        "AND p.id > :afterId AND p.updatedAt < :staleBefore " +
+                        "ORDER BY p.id")
+        List<PaymentIntent> findStalePendingPayments(
+                        @Param("afterId") long afterId,
+                        @Param("staleBefore") LocalDateTime staleBefore,
+                        Pageable pageable);
+
+        // Only applies while the payment is still PENDING on the same session, so it never
+        // overwrites a webhook that got there first or a retry that opened a new session.
+        @Modifying
+        @Transactional
+        @Query("UPDATE PaymentIntent p SET p.status = :status, " +
+                        "p.stripePaymentIntentId = :stripePaymentIntentId, p.updatedAt = :now " +
+                        "WHERE p.id = :id AND p.stripeSessionId = :stripeSessionId " +
                         "AND p.status = com.envisionad.webservice.payment.dataaccesslayer.PaymentStatus.PENDING")
-        List<PaymentIntent> findPendingPaymentsByAdvertiserId(@Param("businessId") String businessId);
+        int resolvePending(@Param("id") Long id,
+                        @Param("stripeSessionId") String stripeSessionId,
+                        @Param("status") PaymentStatus status,
+                        @Param("stripePaymentIntentId") String stripePaymentIntentId,
+                        @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,31 @@
+package com.envisionad.webservice.payment.dataaccesslayer;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * How far the pending-payment reconciliation sweep has got, and which replica currently holds it.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "payment_reconciliation_checkpoints")
+public class PaymentReconciliationCheckpoint {
+
+    @Id
+    @Column(name = "job_name", length = 64)
+    private String jobName;
+
+    // Highest payment id the sweep has finished with; the next pass starts after it.
+    @Column(name = "last_payment_id", nullable = false)
+    private long lastPaymentId;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,56 @@
+package com.envisionad.webservice.payment.dataaccesslayer;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface PaymentReconciliationCheckpointRepository extends JpaRepository<PaymentReconciliationCheckpoint, String> {
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO payment_reconciliation_checkpoints (job_name, last_payment_id, updated_at)
+            VALUES (:jobName, 0, :now)
+            ON CONFLICT (job_name) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("jobName") String jobName, @Param("now") LocalDateTime now);
+
+    // Conditional update so that only one replica runs the sweep at a time.
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE PaymentReconciliationCheckpoint c
+            SET c.lockedUntil = :lockedUntil, c.updatedAt = :now
+            WHERE c.jobName = :jobName
+              AND (c.lockedUntil IS NULL OR c.lockedUntil < :now)
+            """)
+    int tryLock(@Param("jobName") String jobName,
+                @Param("now") LocalDateTime now,
+                @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE PaymentReconciliationCheckpoint c
+            SET c.lastPaymentId = :lastPaymentId, c.updatedAt = :now
+            WHERE c.jobName = :jobName
+            """)
+    int advance(@Param("jobName") String jobName,
+                @Param("lastPaymentId") long lastPaymentId,
+                @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE PaymentReconciliationCheckpoint c
+            SET c.lockedUntil = NULL, c.updatedAt = :now
+            WHERE c.jobName = :jobName
+            """)
+    int unlock(@Param("jobName") String jobName, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,31 @@
+package com.envisionad.webservice.payment.dataaccesslayer;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sync bookkeeping for one connected account's {@link PayoutTransaction}s.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "payout_sync_state")
+public class PayoutSyncState {
+
+    @Id
+    @Column(name = "stripe_account_id")
+    private String stripeAccountId;
+
+    @Column(name = "last_synced_at")
+    private LocalDateTime lastSyncedAt;
+
+    // Set by webhooks that change the account's balance; cleared when a sync starts.
+    @Column(name = "refresh_requested_at")
+    private LocalDateTime refreshRequestedAt;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+}
@@ -0,0 +1,72 @@
+package com.envisionad.webservice.payment.dataaccesslayer;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PayoutSyncStateRepository extends JpaRepository<PayoutSyncState, String> {
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO payout_sync_state (stripe_account_id, refresh_requested_at)
+            VALUES (:stripeAccountId, :now)
+            ON CONFLICT (stripe_account_id) DO UPDATE SET refresh_requested_at = EXCLUDED.refresh_requested_at
+            """, nativeQuery = true)
+    int requestRefresh(@Param("stripeAccountId") String stripeAccountId, @Param("now") LocalDateTime now);
+
+    // Onboarded accounts that have never been synced get a state row asking for their first sync.
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO payout_sync_state (stripe_account_id, refresh_requested_at)
+            SELECT a.stripe_account_id, :now FROM stripe_accounts a
+            WHERE a.onboarding_complete = TRUE
+            ON CONFLICT (stripe_account_id) DO NOTHING
+            """, nativeQuery = true)
+    int enrollOnboardedAccounts(@Param("now") LocalDateTime now);
+
+    /**
+     * Unlocked accounts with a requested refresh or a sync older than {@code staleBefore};
+     * requested refreshes first.
+     */
+    @Query("""
+            SELECT s.stripeAccountId FROM PayoutSyncState s
+            WHERE (s.lockedUntil IS NULL OR s.lockedUntil < :now)
+              AND (s.refreshRequestedAt IS NOT NULL OR s.lastSyncedAt IS NULL OR s.lastSyncedAt < :staleBefore)
+            ORDER BY s.refreshRequestedAt ASC NULLS LAST, s.lastSyncedAt ASC NULLS FIRST
+            """)
+    List<String> findDueAccountIds(@Param("now") LocalDateTime now,
+                                   @Param("staleBefore") LocalDateTime staleBefore,
+                                   Pageable pageable);
+
+    // Conditional update so that only one replica syncs an account at a time.
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE PayoutSyncState s
+            SET s.lockedUntil = :lockedUntil, s.refreshRequestedAt = NULL
+            WHERE s.stripeAccountId = :stripeAccountId
+              AND (s.lockedUntil IS NULL OR s.lockedUntil < :now)
+            """)
+    int claim(@Param("stripeAccountId") String stripeAccountId,
+              @Param("now") LocalDateTime now,
+              @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE PayoutSyncState s
+            SET s.lastSyncedAt = :now, s.lockedUntil = NULL
+            WHERE s.stripeAccountId = :stripeAccountId
+            """)
+    int markSynced(@Param("stripeAccountId") String stripeAccountId, @Param("now") LocalDateTime now);
+}
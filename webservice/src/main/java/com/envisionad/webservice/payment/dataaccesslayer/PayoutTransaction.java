@@ -0,0 +1,54 @@
+package com.envisionad.webservice.payment.dataaccesslayer;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A Stripe balance transaction on a connected account, copied locally for the media-owner
+ * dashboard. Amounts are in minor units.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "payout_transactions", indexes = {
+        @Index(name = "idx_payout_transactions_account_created", columnList = "stripe_account_id, created_at")
+})
+public class PayoutTransaction {
+
+    @Id
+    @Column(name = "transaction_id")
+    private String transactionId;
+
+    @Column(name = "stripe_account_id", nullable = false)
+    private String stripeAccountId;
+
+    @Column(nullable = false, length = 64)
+    private String type;
+
+    @Column(nullable = false)
+    private long amount;
+
+    @Column(nullable = false)
+    private long fee;
+
+    @Column(nullable = false)
+    private long net;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(nullable = false, length = 32)
+    private String status;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "available_on")
+    private LocalDateTime availableOn;
+
+    @Column(name = "synced_at", nullable = false)
+    private LocalDateTime syncedAt;
+}
@@ -0,0 +1,18 @@
+package com.envisionad.webservice.payment.dataaccesslayer;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PayoutTransactionRepository extends JpaRepository<PayoutTransaction, String> {
+
+    List<PayoutTransaction> findTop100ByStripeAccountIdOrderByCreatedAtDesc(String stripeAccountId);
+
+    @Query("SELECT t.transactionId FROM PayoutTransaction t WHERE t.transactionId IN :transactionIds")
+    List<String> findExistingIds(@Param("transactionIds") Collection<String> transactionIds);
+}
@@ -0,0 +1,45 @@
+package com.envisionad.webservice.payment.dataaccesslayer;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The admin overview's platform-wide figures as of {@link #refreshedAt}. There is only ever the one row with
+ * {@link #ID}, written by {@link AdminDashboardRepository#refreshSnapshot}.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "platform_overview_snapshot")
+public class PlatformOverviewSnapshot {
+
+    public static final short ID = 1;
+
+    @Id
+    private Short id;
+
+    @Column(name = "total_platform_revenue", nullable = false, precision = 38, scale = 2)
+    private BigDecimal totalPlatformRevenue = BigDecimal.ZERO;
+
+    @Column(name = "total_organizations", nullable = false)
+    private long totalOrganizations;
+
+    @Column(name = "total_media_listings", nullable = false)
+    private long totalMediaListings;
+
+    @Column(name = "total_users", nullable = false)
+    private long totalUsers;
+
+    @Column(name = "total_media_owners", nullable = false)
+    private long totalMediaOwners;
+
+    @Column(name = "total_advertisers", nullable = false)
+    private long totalAdvertisers;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
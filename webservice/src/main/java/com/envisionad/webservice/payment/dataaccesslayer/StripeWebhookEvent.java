@@ -0,0 +1,60 @@
+package com.envisionad.webservice.payment.dataaccesslayer;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A verified Stripe webhook event waiting in, or already drained from, the inbox.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "stripe_webhook_events", indexes = {
+        @Index(name = "idx_stripe_webhook_events_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_stripe_webhook_events_ordering", columnList = "ordering_key, stripe_created_at")
+})
+public class StripeWebhookEvent {
+
+    @Id
+    @Column(name = "event_id")
+    private String eventId;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    // Events sharing a key (the reservation, or the Stripe account) are processed one at a time in Stripe order.
+    @Column(name = "ordering_key")
+    private String orderingKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WebhookEventStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "stripe_created_at", nullable = false)
+    private LocalDateTime stripeCreatedAt;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Set while a worker holds the event; an expired lease makes it claimable again.
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+}
@@ -0,0 +1,117 @@
+package com.envisionad.webservice.payment.dataaccesslayer;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StripeWebhookEventRepository extends JpaRepository<StripeWebhookEvent, String> {
+
+    // Stripe redelivers anything it did not see acknowledged, so duplicates are dropped on the primary key.
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO stripe_webhook_events (event_id, event_type, payload, ordering_key, status, attempts,
+                                               stripe_created_at, received_at, next_attempt_at)
+            VALUES (:eventId, :eventType, :payload, :orderingKey, 'PENDING', 0,
+                    :stripeCreatedAt, :receivedAt, :receivedAt)
+            ON CONFLICT (event_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("eventId") String eventId,
+                       @Param("eventType") String eventType,
+                       @Param("payload") String payload,
+                       @Param("orderingKey") String orderingKey,
+                       @Param("stripeCreatedAt") LocalDateTime stripeCreatedAt,
+                       @Param("receivedAt") LocalDateTime receivedAt);
+
+    /**
+     * Due events (pending, or holding an expired lease) that are not queued behind an
+     * earlier unfinished event with the same ordering key, oldest first.
+     */
+    @Query("""
+            SELECT e.eventId FROM StripeWebhookEvent e
+            WHERE ((e.status = com.envisionad.webservice.payment.dataaccesslayer.WebhookEventStatus.PENDING
+                        AND e.nextAttemptAt <= :now)
+                    OR (e.status = com.envisionad.webservice.payment.dataaccesslayer.WebhookEventStatus.PROCESSING
+                        AND e.lockedUntil < :now))
+              AND NOT EXISTS (
+                    SELECT prior.eventId FROM StripeWebhookEvent prior
+                    WHERE prior.orderingKey = e.orderingKey
+                      AND prior.status IN (com.envisionad.webservice.payment.dataaccesslayer.WebhookEventStatus.PENDING,
+                                           com.envisionad.webservice.payment.dataaccesslayer.WebhookEventStatus.PROCESSING)
+                      AND (prior.stripeCreatedAt < e.stripeCreatedAt
+                           OR (prior.stripeCreatedAt = e.stripeCreatedAt AND prior.eventId < e.eventId)))
+            ORDER BY e.stripeCreatedAt, e.eventId
+            """)
+    List<String> findClaimableEventIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Conditional update so that only one worker, on any replica, wins the event.
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE StripeWebhookEvent e
+            SET e.status = com.envisionad.webservice.payment.dataaccesslayer.WebhookEventStatus.PROCESSING,
+                e.attempts = e.attempts + 1,
+                e.lockedUntil = :leaseUntil
+            WHERE e.eventId = :eventId
+              AND (e.status = com.envisionad.webservice.payment.dataaccesslayer.WebhookEventStatus.PENDING
+                   OR (e.status = com.envisionad.webservice.payment.dataaccesslayer.WebhookEventStatus.PROCESSING
+                       AND e.lockedUntil < :now))
+            """)
+    int claim(@Param("eventId") String eventId,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE StripeWebhookEvent e
+            SET e.status = com.envisionad.webservice.payment.dataaccesslayer.WebhookEventStatus.PROCESSED,
+                e.processedAt = :processedAt,
+                e.lockedUntil = NULL,
+                e.lastError = NULL
+            WHERE e.eventId = :eventId
+            """)
+    int markProcessed(@Param("eventId") String eventId, @Param("processedAt") LocalDateTime processedAt);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE StripeWebhookEvent e
+            SET e.status = com.envisionad.webservice.payment.dataaccesslayer.WebhookEventStatus.PENDING,
+                e.nextAttemptAt = :nextAttemptAt,
+                e.lockedUntil = NULL,
+                e.lastError = :error
+            WHERE e.eventId = :eventId
+            """)
+    int scheduleRetry(@Param("eventId") String eventId,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE StripeWebhookEvent e
+            SET e.status = com.envisionad.webservice.payment.dataaccesslayer.WebhookEventStatus.FAILED,
+                e.lockedUntil = NULL,
+                e.lastError = :error
+            WHERE e.eventId = :eventId
+            """)
+    int markFailed(@Param("eventId") String eventId, @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            DELETE FROM StripeWebhookEvent e
+            WHERE e.status = com.envisionad.webservice.payment.dataaccesslayer.WebhookEventStatus.PROCESSED
+              AND e.processedAt < :cutoff
+            """)
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
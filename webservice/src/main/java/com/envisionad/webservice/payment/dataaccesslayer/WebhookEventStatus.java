@@ -0,0 +1,8 @@
+package com.envisionad.webservice.payment.dataaccesslayer;
+
+public enum WebhookEventStatus {
+    PENDING,
+    PROCESSING,
+    PROCESSED,
+    FAILED
+}
@@ -1,5 +1,6 @@
 package com.envisionad.webservice.payment.presentationlayer;
 
+import com.envisionad.webservice.payment.businesslogiclayer.StripeWebhookInbox;
 import com.envisionad.webservice.payment.businesslogiclayer.StripeWebhookService;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.model.Event;
@@ -16,12 +17,14 @@ import org.springframework.web.bind.annotation.*;
 public class WebhookController {
 
     private final StripeWebhookService webhookService;
+    private final StripeWebhookInbox webhookInbox;
 
     @Value("${stripe.webhook-secret}")
     private String webhookSecret;
 
-    public WebhookController(StripeWebhookService webhookService) {
+    public WebhookController(StripeWebhookService webhookService, StripeWebhookInbox webhookInbox) {
         this.webhookService = webhookService;
+        this.webhookInbox = webhookInbox;
     }
 
     @PostMapping("/stripe")
@@ -41,29 +44,21 @@ public class WebhookController {
 
         log.info("Received Stripe webhook event: {}", event.getType());
 
-        try {
-            // Handle different event types
-            switch (event.getType()) {
-                case "checkout.session.completed":
-                    webhookService.handleCheckoutSessionCompleted(event);
-                    break;
-
-                case "payment_intent.succeeded":
-                    webhookService.handlePaymentIntentSucceeded(event);
-                    break;
-
-                case "payment_intent.payment_failed":
-                    webhookService.handlePaymentIntentFailed(event);
-                    break;
-
-                case "account.updated":
-                    webhookService.handleAccountUpdated(event);
-                    break;
-
-                default:
-                    log.debug("Unhandled event type: {}", event.getType());
+        if (webhookInbox.isEnabled()) {
+            try {
+                // Acknowledge as soon as the event is stored; workers process it from the inbox
+                boolean stored = webhookInbox.accept(event, payload);
+                return ResponseEntity.ok(stored ? "Webhook received" : "Webhook already received");
+            } catch (Exception e) {
+                log.error("Error storing webhook event {}: {}", event.getId(), e.getMessage(), e);
+                // Return 500 to trigger Stripe retry mechanism
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body("Webhook processing failed");
             }
+        }
 
+        try {
+            webhookService.handleEvent(event);
             return ResponseEntity.ok("Webhook handled");
 
         } catch (Exception e) {
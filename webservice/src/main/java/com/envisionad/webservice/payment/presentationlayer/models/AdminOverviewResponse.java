@@ -1,6 +1,7 @@
 package com.envisionad.webservice.payment.presentationlayer.models;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 public record AdminOverviewResponse(
         BigDecimal totalPlatformRevenue,
@@ -8,6 +9,7 @@ public record AdminOverviewResponse(
         long totalMediaListings,
         long totalUsers,
         long totalMediaOwners,
-        long totalAdvertisers
+        long totalAdvertisers,
+        LocalDateTime refreshedAt,
+        long snapshotAgeSeconds
 ) {}
-
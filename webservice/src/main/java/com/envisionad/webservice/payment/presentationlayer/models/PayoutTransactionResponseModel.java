@@ -0,0 +1,15 @@
+package com.envisionad.webservice.payment.presentationlayer.models;
+
+/**
+ * One entry of a media owner's payout history. Amounts are in minor units; times are epoch seconds.
+ */
+public record PayoutTransactionResponseModel(
+        String id,
+        String type,
+        long amount,
+        long net,
+        String currency,
+        String status,
+        long created,
+        Long availableOn
+) {}
@@ -0,0 +1,229 @@
+package com.envisionad.webservice.reservation.businesslogiclayer;
+
+import com.envisionad.webservice.reservation.dataaccesslayer.Reservation;
+import com.envisionad.webservice.reservation.dataaccesslayer.ReservationRepository;
+import com.envisionad.webservice.reservation.dataaccesslayer.ReservationStatus;
+import com.envisionad.webservice.reservation.presentationlayer.models.AvailabilityWeekResponseModel;
+import com.envisionad.webservice.reservation.presentationlayer.models.MediaAvailabilityResponseModel;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers which weeks a media is free from an in-memory index of the reservations holding it, so a
+ * whole page of search results can show its calendars without a query per media.
+ * <p>
+ * A media's reservations are loaded the first time its calendar is asked for, then kept current as
+ * reservations are created, approved, denied, confirmed or cancelled on this instance. Changes made
+ * by other instances show up once the entry expires after {@code reservation.availability.ttl}.
+ */
+@Service
+public class MediaAvailabilityService {
+
+    static final int MAX_MONTHS = 12;
+    static final int MAX_MEDIA_PER_REQUEST = 100;
+    private static final int MAX_INDEXED_MEDIA = 10_000;
+    private static final Set<ReservationStatus> HOLDING_STATUSES =
+            EnumSet.of(ReservationStatus.PENDING, ReservationStatus.APPROVED, ReservationStatus.CONFIRMED);
+
+    private record Booking(String reservationId, LocalDateTime startDate, LocalDateTime endDate) {
+    }
+
+    private final ReservationRepository reservationRepository;
+    private final Cache<UUID, MediaIntervals> index;
+
+    /**
+     * Counts the changes applied to the index. A load that raced one of them may have read the
+     * reservations from before it, so it is returned to its caller but not kept.
+     */
+    private final AtomicLong changes = new AtomicLong();
+
+    public MediaAvailabilityService(ReservationRepository reservationRepository,
+                                    @Value("${reservation.availability.ttl:PT2M}") Duration ttl) {
+        this.reservationRepository = reservationRepository;
+        this.index = Caffeine.newBuilder()
+                .maximumSize(MAX_INDEXED_MEDIA)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * The weeks from {@code from} over the next {@code months} months for each media, in the order
+     * asked. A week is booked when a reservation of any campaign holds the media for any part of it,
+     * matching the conflict check on booking.
+     */
+    public List<MediaAvailabilityResponseModel> getAvailability(List<String> mediaIds, LocalDate from, int months) {
+        if (mediaIds == null || mediaIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one mediaId is required.");
+        }
+        if (months < 1 || months > MAX_MONTHS) {
+            throw new IllegalArgumentException("months must be between 1 and " + MAX_MONTHS + ".");
+        }
+        List<UUID> ids = mediaIds.stream().map(UUID::fromString).distinct().toList();
+        if (ids.size() > MAX_MEDIA_PER_REQUEST) {
+            throw new IllegalArgumentException("At most " + MAX_MEDIA_PER_REQUEST + " media can be looked up at once.");
+        }
+
+        List<LocalDate> weekStarts = new ArrayList<>();
+        LocalDate until = from.plusMonths(months);
+        for (LocalDate weekStart = from; weekStart.isBefore(until); weekStart = weekStart.plusWeeks(1)) {
+            weekStarts.add(weekStart);
+        }
+        LocalDateTime rangeStart = from.atStartOfDay();
+        LocalDateTime rangeEnd = weekStarts.get(weekStarts.size() - 1).plusWeeks(1).atStartOfDay();
+
+        Map<UUID, MediaIntervals> intervals = intervalsOf(ids, rangeStart, rangeEnd);
+
+        List<MediaAvailabilityResponseModel> availability = new ArrayList<>(ids.size());
+        for (UUID mediaId : ids) {
+            MediaIntervals mediaIntervals = intervals.get(mediaId);
+            List<AvailabilityWeekResponseModel> weeks = new ArrayList<>(weekStarts.size());
+            for (LocalDate weekStart : weekStarts) {
+                LocalDate weekEnd = weekStart.plusWeeks(1);
+                boolean booked = mediaIntervals.isHeld(weekStart.atStartOfDay(), weekEnd.atStartOfDay());
+                weeks.add(new AvailabilityWeekResponseModel(weekStart, weekEnd, booked));
+            }
+            MediaAvailabilityResponseModel response = new MediaAvailabilityResponseModel();
+            response.setMediaId(mediaId.toString());
+            response.setWeeks(weeks);
+            availability.add(response);
+        }
+        return availability;
+    }
+
+    /**
+     * Brings the reservation's media up to date in the index once the surrounding transaction
+     * commits, or straight away outside of one. Call after every status change.
+     */
+    public void reservationChanged(Reservation reservation) {
+        if (reservation.getMediaId() == null || reservation.getReservationId() == null) {
+            return;
+        }
+        UUID mediaId = reservation.getMediaId();
+        String reservationId = reservation.getReservationId();
+        Booking booking = HOLDING_STATUSES.contains(reservation.getStatus())
+                && reservation.getStartDate() != null && reservation.getEndDate() != null
+                ? new Booking(reservationId, reservation.getStartDate(), reservation.getEndDate())
+                : null;
+
+        runAfterCommit(() -> {
+            changes.incrementAndGet();
+            MediaIntervals mediaIntervals = index.getIfPresent(mediaId);
+            if (mediaIntervals == null) {
+                return;
+            }
+            if (booking == null) {
+                mediaIntervals.remove(reservationId);
+            } else {
+                mediaIntervals.put(booking);
+            }
+        });
+    }
+
+    private Map<UUID, MediaIntervals> intervalsOf(List<UUID> mediaIds, LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+        Map<UUID, MediaIntervals> intervals = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID mediaId : mediaIds) {
+            MediaIntervals cached = index.getIfPresent(mediaId);
+            if (cached != null && cached.covers(rangeStart, rangeEnd)) {
+                intervals.put(mediaId, cached);
+            } else {
+                missing.add(mediaId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return intervals;
+        }
+
+        long changesBeforeLoad = changes.get();
+        Map<UUID, MediaIntervals> loaded = new HashMap<>();
+        for (UUID mediaId : missing) {
+            loaded.put(mediaId, new MediaIntervals(rangeStart, rangeEnd));
+        }
+        for (Reservation reservation : reservationRepository.findAllHoldingReservationsByMediaIdInAndDateRange(missing, rangeStart, rangeEnd)) {
+            loaded.get(reservation.getMediaId()).put(new Booking(reservation.getReservationId(),
+                    reservation.getStartDate(), reservation.getEndDate()));
+        }
+        if (changes.get() == changesBeforeLoad) {
+            index.putAll(loaded);
+        }
+        intervals.putAll(loaded);
+        return intervals;
+    }
+
+    private static void runAfterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    /**
+     * The bookings of one media over the range it was loaded for, ordered by start. The database
+     * keeps a media's bookings apart, but a lookup still scans back by the longest booking seen so
+     * rows written before that constraint existed are not missed.
+     */
+    private static final class MediaIntervals {
+
+        private static final Comparator<Booking> BY_START =
+                Comparator.comparing(Booking::startDate).thenComparing(Booking::reservationId);
+
+        private final LocalDateTime coveredFrom;
+        private final LocalDateTime coveredTo;
+        private final Map<String, Booking> byReservationId = new HashMap<>();
+        private final NavigableSet<Booking> byStart = new TreeSet<>(BY_START);
+        private Duration longest = Duration.ZERO;
+
+        MediaIntervals(LocalDateTime coveredFrom, LocalDateTime coveredTo) {
+            this.coveredFrom = coveredFrom;
+            this.coveredTo = coveredTo;
+        }
+
+        boolean covers(LocalDateTime from, LocalDateTime to) {
+            return !from.isBefore(coveredFrom) && !to.isAfter(coveredTo);
+        }
+
+        synchronized void put(Booking booking) {
+            remove(booking.reservationId());
+            byReservationId.put(booking.reservationId(), booking);
+            byStart.add(booking);
+            Duration length = Duration.between(booking.startDate(), booking.endDate());
+            if (length.compareTo(longest) > 0) {
+                longest = length;
+            }
+        }
+
+        synchronized void remove(String reservationId) {
+            Booking booking = byReservationId.remove(reservationId);
+            if (booking != null) {
+                byStart.remove(booking);
+            }
+        }
+
+        synchronized boolean isHeld(LocalDateTime from, LocalDateTime to) {
+            Booking lowest = new Booking("", from.minus(longest), null);
+            Booking beyond = new Booking("", to, null);
+            for (Booking booking : byStart.subSet(lowest, true, beyond, false)) {
+                if (booking.endDate().isAfter(from)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -3,8 +3,10 @@ package com.envisionad.webservice.reservation.businesslogiclayer;
 import com.envisionad.webservice.reservation.presentationlayer.models.DenialDetailsRequestModel;
 import com.envisionad.webservice.reservation.presentationlayer.models.ReservationRequestModel;
 import com.envisionad.webservice.reservation.presentationlayer.models.ReservationResponseModel;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.oauth2.jwt.Jwt;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ReservationService {
@@ -13,6 +15,6 @@ public interface ReservationService {
     ReservationResponseModel createReservation(Jwt jwt, String mediaId, ReservationRequestModel requestModel);
     ReservationResponseModel approveReservation(Jwt jwt, String mediaId, String reservationId);
     ReservationResponseModel denyReservation(Jwt jwt, String mediaId, String reservationId, DenialDetailsRequestModel denialDetailsRequestModel);
-    List<ReservationResponseModel> getAllReservationByMediaOwnerBusinessId(Jwt jwt, String businessId);
-    List<ReservationResponseModel> getAllReservationByAdvertiserBusinessId(Jwt jwt, String businessId);
+    List<ReservationResponseModel> getAllReservationByMediaOwnerBusinessId(Jwt jwt, String businessId, LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
+    List<ReservationResponseModel> getAllReservationByAdvertiserBusinessId(Jwt jwt, String businessId, String cursor, Pageable pageable);
 }
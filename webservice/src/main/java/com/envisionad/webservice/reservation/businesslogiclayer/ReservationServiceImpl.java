@@ -10,6 +10,7 @@ import com.envisionad.webservice.business.dataaccesslayer.EmployeeRepository;
 import com.envisionad.webservice.media.DataAccessLayer.Media;
 import com.envisionad.webservice.media.DataAccessLayer.MediaRepository;
 import com.envisionad.webservice.media.exceptions.MediaNotFoundException;
+import com.envisionad.webservice.payment.businesslogiclayer.BusinessDailyRollupService;
 import com.envisionad.webservice.payment.dataaccesslayer.PaymentIntent;
 import com.envisionad.webservice.payment.dataaccesslayer.PaymentIntentRepository;
 import com.envisionad.webservice.payment.dataaccesslayer.PaymentStatus;
@@ -24,13 +25,21 @@ import com.envisionad.webservice.reservation.utils.ReservationValidator;
 import com.envisionad.webservice.utils.JwtUtils;
 import com.stripe.exception.StripeException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -40,6 +49,11 @@ import java.util.UUID;
 @Slf4j
 @Service
 public class ReservationServiceImpl implements ReservationService {
+    static final int MAX_BOOKING_ATTEMPTS = 3;
+    static final int MAX_PAGE_SIZE = 100;
+    // SQLSTATE of an exclusion constraint violation, raised by reservations_no_overlapping_bookings
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final ReservationRepository reservationRepository;
     private final MediaRepository mediaRepository;
     private final AdCampaignRepository adCampaignRepository;
@@ -49,12 +63,18 @@ public class ReservationServiceImpl implements ReservationService {
     private final PaymentIntentRepository paymentIntentRepository;
     private final BusinessRepository businessRepository;
     private final EmployeeRepository employeeRepository;
+    private final BusinessDailyRollupService businessDailyRollupService;
+    private final MediaAvailabilityService mediaAvailabilityService;
+    private final TransactionTemplate transactionTemplate;
 
     public ReservationServiceImpl(ReservationRepository reservationRepository, MediaRepository mediaRepository,
                                   AdCampaignRepository adCampaignRepository, ReservationRequestMapper reservationRequestMapper,
                                   ReservationResponseMapper reservationResponseMapper, JwtUtils jwtUtils,
                                   PaymentIntentRepository paymentIntentRepository,
-                                  BusinessRepository businessRepository, EmployeeRepository employeeRepository) {
+                                  BusinessRepository businessRepository, EmployeeRepository employeeRepository,
+                                  BusinessDailyRollupService businessDailyRollupService,
+                                  MediaAvailabilityService mediaAvailabilityService,
+                                  PlatformTransactionManager transactionManager) {
         this.reservationRepository = reservationRepository;
         this.mediaRepository = mediaRepository;
         this.adCampaignRepository = adCampaignRepository;
@@ -64,6 +84,9 @@ public class ReservationServiceImpl implements ReservationService {
         this.paymentIntentRepository = paymentIntentRepository;
         this.businessRepository = businessRepository;
         this.employeeRepository = employeeRepository;
+        this.businessDailyRollupService = businessDailyRollupService;
+        this.mediaAvailabilityService = mediaAvailabilityService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -110,9 +133,27 @@ public class ReservationServiceImpl implements ReservationService {
         return reservationResponseMapper.entityToResponseModel(reservation);
     }
 
+    /**
+     * Books without locking anything up front. Two overlapping bookings that both pass the conflict
+     * check are settled by the reservations_no_overlapping_bookings exclusion constraint, which fails
+     * the later insert with a {@link ReservationConflictException}. An attempt that loses a deadlock or
+     * lock wait to a concurrent booking is retried in a fresh transaction.
+     */
     @Override
-    @Transactional
     public ReservationResponseModel createReservation(Jwt jwt, String mediaId, ReservationRequestModel requestModel) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> bookReservation(jwt, mediaId, requestModel));
+            } catch (TransientDataAccessException e) {
+                if (attempt >= MAX_BOOKING_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Booking media {} failed on attempt {} ({}), retrying", mediaId, attempt, e.getMessage());
+            }
+        }
+    }
+
+    private ReservationResponseModel bookReservation(Jwt jwt, String mediaId, ReservationRequestModel requestModel) {
         // 1. Validate input and authentication
         ReservationValidator.validateReservation(requestModel, mediaId);
         String userId = jwtUtils.extractUserId(jwt);
@@ -137,9 +178,9 @@ public class ReservationServiceImpl implements ReservationService {
 //            throw new IllegalStateException("A business cannot reserve its own media");
 //        }
 
-        // 4. Validate non-conflicting reservation with same ad campaign, media and date range
-        boolean hasConflict = reservationRepository.existsByMediaIdAndCampaignIdAndDateRange(
-                media.getId(), requestModel.getCampaignId(), requestModel.getStartDate(), requestModel.getEndDate());
+        // 4. Validate no other active reservation, of any campaign, holds the media over the date range
+        boolean hasConflict = reservationRepository.existsByMediaIdAndDateRange(
+                media.getId(), requestModel.getStartDate(), requestModel.getEndDate());
 
         if (hasConflict) {
             throw new ReservationConflictException();
@@ -160,9 +201,21 @@ public class ReservationServiceImpl implements ReservationService {
             reservation = createPendingReservation(requestModel, media, advertiserOrganizationId, totalPrice);
         }
 
-        // 7. Save reservation
-        Reservation savedReservation = reservationRepository.save(reservation);
+        // 7. Save reservation, flushing so an overlap the check above missed is reported here
+        Reservation savedReservation;
+        try {
+            savedReservation = reservationRepository.saveAndFlush(reservation);
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlappingBooking(e)) {
+                throw e;
+            }
+            throw new ReservationConflictException();
+        }
         log.info("Reservation {} created with status: {}", savedReservation.getReservationId(), savedReservation.getStatus());
+        mediaAvailabilityService.reservationChanged(savedReservation);
+        if (savedReservation.getStatus() == ReservationStatus.CONFIRMED) {
+            businessDailyRollupService.reservationChanged(savedReservation);
+        }
 
         return reservationResponseMapper.entityToResponseModel(savedReservation);
     }
@@ -179,6 +232,7 @@ public class ReservationServiceImpl implements ReservationService {
 
         reservation.setStatus(ReservationStatus.APPROVED);
         reservationRepository.save(reservation);
+        mediaAvailabilityService.reservationChanged(reservation);
 
         return reservationResponseMapper.entityToResponseModel(reservation);
     }
@@ -209,20 +263,23 @@ public class ReservationServiceImpl implements ReservationService {
         reservation.setStatus(ReservationStatus.DENIED);
         reservation.setDenialDetails(details);
         reservationRepository.save(reservation);
+        mediaAvailabilityService.reservationChanged(reservation);
 
         return reservationResponseMapper.entityToResponseModel(reservation);
     }
 
     @Override
-    public List<ReservationResponseModel> getAllReservationByMediaOwnerBusinessId(Jwt jwt, String businessId) {
+    public List<ReservationResponseModel> getAllReservationByMediaOwnerBusinessId(Jwt jwt, String businessId,
+                                                                                  LocalDateTime startDate, LocalDateTime endDate,
+                                                                                  Pageable pageable) {
         jwtUtils.validateUserIsEmployeeOfBusiness(jwt, businessId);
-        UUID businessUuid = UUID.fromString(businessId);
 
-        List<Reservation> mediaOwnerReservations = reservationRepository.findAll().stream()
-                .filter(reservation -> mediaRepository.findById(reservation.getMediaId())
-                        .stream()
-                        .anyMatch(media -> media.getBusinessId().equals(businessUuid)))
-                .toList();
+        if (startDate != null && endDate != null && !startDate.isBefore(endDate)) {
+            throw new BadReservationRequestException();
+        }
+
+        List<Reservation> mediaOwnerReservations = reservationRepository.findAllByMediaOwnerBusinessId(
+                UUID.fromString(businessId), startDate, endDate, capPageSize(pageable));
 
         List<ReservationResponseModel> responses =
                 reservationResponseMapper.entitiesToResponseModelList(mediaOwnerReservations);
@@ -307,9 +364,20 @@ public class ReservationServiceImpl implements ReservationService {
     }
 
     @Override
-    public List<ReservationResponseModel> getAllReservationByAdvertiserBusinessId(Jwt jwt, String businessId) {
+    public List<ReservationResponseModel> getAllReservationByAdvertiserBusinessId(Jwt jwt, String businessId,
+                                                                                  String cursor, Pageable pageable) {
         jwtUtils.validateUserIsEmployeeOfBusiness(jwt, businessId);
-        List<ReservationResponseModel> reservations = reservationRepository.findAll().stream().filter(reservation -> adCampaignRepository.findByCampaignId_CampaignId(reservation.getCampaignId()).getBusinessId().getBusinessId().equals(businessId)).map(reservationResponseMapper::entityToResponseModel).toList();
+
+        // The cursor is the reservationId of the last row the client already has
+        Integer beforeId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            beforeId = reservationRepository.findByReservationId(cursor)
+                    .orElseThrow(() -> new ReservationNotFoundException(cursor))
+                    .getId();
+        }
+
+        List<ReservationResponseModel> reservations = reservationResponseMapper.entitiesToResponseModelList(
+                reservationRepository.findAllByAdvertiserBusinessId(businessId, beforeId, capPageSize(pageable)));
 
         List<String> campaignIds = reservations.stream()
                 .map(ReservationResponseModel::getCampaignId)
@@ -317,6 +385,8 @@ public class ReservationServiceImpl implements ReservationService {
                 .distinct()
                 .toList();
 
+        if (campaignIds.isEmpty()) return reservations;
+
         var campaigns = adCampaignRepository.findAllByCampaignId_CampaignIdIn(campaignIds);
 
         var campaignNameById = campaigns.stream()
@@ -330,6 +400,14 @@ public class ReservationServiceImpl implements ReservationService {
         return reservations;
     }
 
+    // The controllers reject larger pages; this keeps other callers from asking for them too
+    private static Pageable capPageSize(Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getPageSize() <= MAX_PAGE_SIZE) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), MAX_PAGE_SIZE, pageable.getSort());
+    }
+
     private Media loadAndValidateMedia(String mediaId) {
         Media media = mediaRepository.findById(UUID.fromString(mediaId))
                 .orElseThrow(() -> new MediaNotFoundException(mediaId));
@@ -475,6 +553,7 @@ public class ReservationServiceImpl implements ReservationService {
                     payment.setReservationId(reservationId);
                     payment.setStatus(PaymentStatus.SUCCEEDED);
                     paymentIntentRepository.save(payment);
+                    businessDailyRollupService.paymentChanged(payment);
                     log.info("Updated existing payment record {} with reservation {}", paymentIntentId, reservationId);
                 }
             } else {
@@ -487,6 +566,7 @@ public class ReservationServiceImpl implements ReservationService {
                 newPayment.setStatus(PaymentStatus.SUCCEEDED);
                 newPayment.setCreatedAt(java.time.LocalDateTime.now());
                 paymentIntentRepository.save(newPayment);
+                businessDailyRollupService.paymentChanged(newPayment);
                 log.info("Created payment record for PaymentIntent {} and reservation {}", paymentIntentId, reservationId);
             }
 
@@ -498,6 +578,11 @@ public class ReservationServiceImpl implements ReservationService {
         }
     }
 
+    private static boolean isOverlappingBooking(DataIntegrityViolationException e) {
+        return NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLException sqlException
+                && EXCLUSION_VIOLATION.equals(sqlException.getSQLState());
+    }
+
     private Reservation createPendingReservation(ReservationRequestModel requestModel, Media media,
                                                  String advertiserOrganizationId, BigDecimal totalPrice) {
         log.info("Creating new PENDING reservation (no payment provided, webhook will confirm)");
@@ -1,11 +1,13 @@
 package com.envisionad.webservice.reservation.dataaccesslayer;
 
 import jakarta.validation.constraints.NotNull;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -34,6 +36,19 @@ public interface ReservationRepository extends JpaRepository<Reservation, Intege
                         @Param("startDate") @NotNull LocalDateTime startDate,
                         @Param("endDate") @NotNull LocalDateTime endDate);
 
+        /**
+         * Reservations holding any of the given media for part of the range: the pending, approved and
+         * confirmed ones that reservations_no_overlapping_bookings keeps apart.
+         */
+        @Query("SELECT r FROM Reservation r WHERE r.mediaId IN :mediaIds " +
+                        "AND r.status IN ('CONFIRMED', 'APPROVED', 'PENDING') " +
+                        "AND r.startDate < :endDate " +
+                        "AND r.endDate > :startDate")
+        List<Reservation> findAllHoldingReservationsByMediaIdInAndDateRange(
+                        @Param("mediaIds") Collection<UUID> mediaIds,
+                        @Param("startDate") LocalDateTime startDate,
+                        @Param("endDate") LocalDateTime endDate);
+
         Optional<Reservation> findByReservationId(String reservationId);
 
         @Query("SELECT COUNT(DISTINCT r.campaignId) FROM Reservation r WHERE r.advertiserId = :advertiserId " +
@@ -67,13 +82,44 @@ public interface ReservationRepository extends JpaRepository<Reservation, Intege
         @Query("""
             SELECT (COUNT(r) > 0)
             FROM Reservation r
-            WHERE r.mediaId = :mediaId AND r.campaignId = :campaignId
+            WHERE r.mediaId = :mediaId
               AND r.status IN ('CONFIRMED', 'APPROVED', 'PENDING')
               AND r.startDate < :endDate AND r.endDate > :startDate
         """)
-    boolean existsByMediaIdAndCampaignIdAndDateRange(
+    boolean existsByMediaIdAndDateRange(
             @Param("mediaId") UUID mediaId,
-            @Param("campaignId") String campaignId,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
+
+        @Query("""
+            SELECT r
+            FROM Reservation r
+            JOIN Media m ON m.id = r.mediaId
+            WHERE m.businessId = :businessId
+              AND (:startDate IS NULL OR r.endDate > :startDate)
+              AND (:endDate IS NULL OR r.startDate < :endDate)
+            ORDER BY r.startDate DESC, r.id DESC
+        """)
+    List<Reservation> findAllByMediaOwnerBusinessId(
+            @Param("businessId") UUID businessId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            Pageable pageable);
+
+        /**
+         * Keyset page of an advertiser's reservations, newest first. Pass the internal id of the
+         * last reservation already returned as {@code beforeId}, or null for the first page.
+         */
+        @Query("""
+            SELECT r
+            FROM Reservation r
+            JOIN AdCampaign c ON c.campaignId.campaignId = r.campaignId
+            WHERE c.businessId.businessId = :businessId
+              AND (:beforeId IS NULL OR r.id < :beforeId)
+            ORDER BY r.id DESC
+        """)
+    List<Reservation> findAllByAdvertiserBusinessId(
+            @Param("businessId") String businessId,
+            @Param("beforeId") Integer beforeId,
+            Pageable pageable);
 }
\ No newline at end of file
@@ -1,9 +1,16 @@
 package com.envisionad.webservice.reservation.presentationlayer;
 
+import com.envisionad.webservice.reservation.businesslogiclayer.MediaAvailabilityService;
 import com.envisionad.webservice.reservation.businesslogiclayer.ReservationService;
 import com.envisionad.webservice.reservation.presentationlayer.models.DenialDetailsRequestModel;
+import com.envisionad.webservice.reservation.presentationlayer.models.MediaAvailabilityResponseModel;
 import com.envisionad.webservice.reservation.presentationlayer.models.ReservationRequestModel;
 import com.envisionad.webservice.reservation.presentationlayer.models.ReservationResponseModel;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -11,6 +18,8 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -18,9 +27,33 @@ import java.util.List;
 @CrossOrigin(origins = {"http://localhost:3000", "https://envision-ad.ca"})
 public class ReservationController {
     private final ReservationService reservationService;
+    private final MediaAvailabilityService mediaAvailabilityService;
 
-    public ReservationController(ReservationService reservationService) {
+    public ReservationController(ReservationService reservationService, MediaAvailabilityService mediaAvailabilityService) {
         this.reservationService = reservationService;
+        this.mediaAvailabilityService = mediaAvailabilityService;
+    }
+
+    /**
+     * Free and booked weeks of every media on a page of search results. Weeks start on {@code from},
+     * by default tomorrow, the first day a reservation can start.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<List<MediaAvailabilityResponseModel>> getMediaAvailability(
+            @RequestParam List<String> mediaIds,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false, defaultValue = "3") int months) {
+        LocalDate firstWeek = from != null ? from : LocalDate.now().plusDays(1);
+        return ResponseEntity.ok(mediaAvailabilityService.getAvailability(mediaIds, firstWeek, months));
+    }
+
+    @GetMapping("/{mediaId}/availability")
+    public ResponseEntity<MediaAvailabilityResponseModel> getMediaAvailabilityById(
+            @PathVariable String mediaId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false, defaultValue = "3") int months) {
+        LocalDate firstWeek = from != null ? from : LocalDate.now().plusDays(1);
+        return ResponseEntity.ok(mediaAvailabilityService.getAvailability(List.of(mediaId), firstWeek, months).get(0));
     }
 
     @GetMapping("/{mediaId}/reservations")
@@ -55,13 +88,27 @@ public class ReservationController {
 
     @GetMapping("/reservations/media-owner")
     @PreAuthorize("hasAuthority('readAll:reservation')")
-    public ResponseEntity<List<ReservationResponseModel>> getAllReservationByMediaOwnerBusinessId(@AuthenticationPrincipal Jwt jwt, @RequestParam String businessId){
-        return ResponseEntity.ok(reservationService.getAllReservationByMediaOwnerBusinessId(jwt, businessId));
+    public ResponseEntity<List<ReservationResponseModel>> getAllReservationByMediaOwnerBusinessId(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam String businessId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) @Min(0) Integer page,
+            @RequestParam(required = false, defaultValue = "50") @Min(1) @Max(100) int size){
+        // Without a page the whole (date-filtered) list is returned, as existing dashboards expect.
+        Pageable pageable = page == null ? Pageable.unpaged() : PageRequest.of(page, size);
+        return ResponseEntity.ok(reservationService.getAllReservationByMediaOwnerBusinessId(jwt, businessId, startDate, endDate, pageable));
     }
 
     @GetMapping("/reservations/advertiser")
     @PreAuthorize("hasAuthority('readAll:reservation')")
-    public ResponseEntity<List<ReservationResponseModel>> getAllReservationByAdvertiserBusinessId(@AuthenticationPrincipal Jwt jwt, @RequestParam String businessId){
-        return ResponseEntity.ok(reservationService.getAllReservationByAdvertiserBusinessId(jwt, businessId));
+    public ResponseEntity<List<ReservationResponseModel>> getAllReservationByAdvertiserBusinessId(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam String businessId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @Min(1) @Max(100) Integer size){
+        // Pass the last reservationId received as the cursor to fetch the next page.
+        Pageable pageable = size == null ? Pageable.unpaged() : PageRequest.of(0, size);
+        return ResponseEntity.ok(reservationService.getAllReservationByAdvertiserBusinessId(jwt, businessId, cursor, pageable));
     }
 }
@@ -0,0 +1,19 @@
+package com.envisionad.webservice.reservation.presentationlayer.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * A bookable week, from {@code startDate} up to but not including {@code endDate}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityWeekResponseModel {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private boolean booked;
+}
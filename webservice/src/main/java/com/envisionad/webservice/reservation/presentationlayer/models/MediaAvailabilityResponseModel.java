@@ -0,0 +1,13 @@
+package com.envisionad.webservice.reservation.presentationlayer.models;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class MediaAvailabilityResponseModel {
+    private String mediaId;
+    private List<AvailabilityWeekResponseModel> weeks;
+}
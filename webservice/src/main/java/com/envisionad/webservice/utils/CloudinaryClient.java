@@ -0,0 +1,34 @@
+package com.envisionad.webservice.utils;
+
+import com.cloudinary.Cloudinary;
+import com.envisionad.webservice.config.outbound.OutboundDependency;
+import com.envisionad.webservice.config.outbound.OutboundHttpClients;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cloudinary calls made by the services, run under the {@code cloudinary} outbound dependency's
+ * bulkhead and circuit breaker. The SDK keeps its own connection pool, so only its request
+ * timeout can be set from here.
+ */
+@Component
+public class CloudinaryClient {
+
+    private final Cloudinary cloudinary;
+    private final OutboundDependency dependency;
+
+    public CloudinaryClient(Cloudinary cloudinary, OutboundHttpClients outboundHttpClients) {
+        this.cloudinary = cloudinary;
+        this.dependency = outboundHttpClients.dependency(OutboundHttpClients.CLOUDINARY);
+    }
+
+    public Map destroy(String publicId, Map<String, Object> options) throws IOException {
+        Map<String, Object> callOptions = new HashMap<>(options);
+        // The SDK takes its timeout in whole seconds.
+        callOptions.putIfAbsent("timeout", (int) Math.max(1, dependency.getSettings().readTimeout().toSeconds()));
+        return dependency.call(() -> cloudinary.uploader().destroy(publicId, callOptions));
+    }
+}
@@ -1,23 +1,49 @@
 package com.envisionad.webservice.utils;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import com.envisionad.webservice.email.businesslogiclayer.EmailOutboxDispatcher;
+import com.envisionad.webservice.email.dataaccesslayer.EmailOutboxMessage;
+import com.envisionad.webservice.email.dataaccesslayer.EmailOutboxRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+/**
+ * Queues email in the outbox as part of the caller's transaction, so an email is sent only if
+ * the change it announces commits, and callers never wait on SMTP. The
+ * {@link EmailOutboxDispatcher} delivers it once the transaction has committed.
+ */
 @Service
 public class EmailService {
 
-    @Autowired
-    private JavaMailSender mailSender;
+    private static final String FROM_ADDRESS = "envisionadinc@gmail.com";
 
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailOutboxDispatcher emailOutboxDispatcher;
+
+    public EmailService(EmailOutboxRepository emailOutboxRepository, EmailOutboxDispatcher emailOutboxDispatcher) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailOutboxDispatcher = emailOutboxDispatcher;
+    }
+
+    @Transactional
     public void sendSimpleEmail(String to, String subject, String body) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom("envisionadinc@gmail.com");
-        message.setTo(to);
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setFromAddress(FROM_ADDRESS);
+        message.setToAddress(to);
         message.setSubject(subject);
-        message.setText(body);
+        message.setBody(body);
+        emailOutboxRepository.save(message);
 
-        mailSender.send(message);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    emailOutboxDispatcher.wake();
+                }
+            });
+        } else {
+            emailOutboxDispatcher.wake();
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,20 +1,57 @@
 package com.envisionad.webservice.utils;
 
 import com.envisionad.webservice.advertisement.dataaccesslayer.AdCampaign;
+import com.envisionad.webservice.business.dataaccesslayer.BusinessIdentifier;
+import com.envisionad.webservice.business.dataaccesslayer.Employee;
 import com.envisionad.webservice.business.dataaccesslayer.EmployeeRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Component;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 @Component
 public class JwtUtils {
 
+    private static final int MAX_CACHED_USERS = 10_000;
+    private static final String REQUEST_MEMBERSHIPS = JwtUtils.class.getName() + ".memberships";
+    private static final String REQUEST_BUSINESS_IDS = JwtUtils.class.getName() + ".businessIds";
+
+    private record Membership(String userId, String businessId) {
+    }
+
     private final EmployeeRepository employeeRepository;
 
-    public JwtUtils(EmployeeRepository employeeRepository) {
+    /**
+     * Employee lookups are answered once per request, and from these shared caches for
+     * {@code security.membership-cache.ttl} across requests. Adding or removing an employee on this
+     * instance evicts the user straight away; other instances see the change once their entries expire.
+     */
+    private final Cache<Membership, Boolean> memberships;
+    private final Cache<String, Optional<String>> businessIdsByUser;
+
+    public JwtUtils(EmployeeRepository employeeRepository,
+                    @Value("${security.membership-cache.ttl:PT30S}") Duration membershipTtl) {
         this.employeeRepository = employeeRepository;
+        this.memberships = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_USERS)
+                .expireAfterWrite(membershipTtl)
+                .build();
+        this.businessIdsByUser = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_USERS)
+                .expireAfterWrite(membershipTtl)
+                .build();
     }
 
     public String extractUserId(Jwt jwt) {
@@ -25,17 +62,48 @@ public class JwtUtils {
         return userId;
     }
 
+    public boolean isEmployeeOfBusiness(String userId, String businessId) {
+        return cached(REQUEST_MEMBERSHIPS, memberships, new Membership(userId, businessId),
+                membership -> employeeRepository.existsByUserIdAndBusinessId_BusinessId(membership.userId(), membership.businessId()));
+    }
+
     public void validateUserIsEmployeeOfBusiness(String userId, String businessId) {
-        boolean isEmployee = employeeRepository.existsByUserIdAndBusinessId_BusinessId(userId, businessId);
-        if (!isEmployee)
+        if (!isEmployeeOfBusiness(userId, businessId))
             throw new AccessDeniedException("Access Denied");
     }
 
     public void validateUserIsEmployeeOfBusiness(Jwt jwt, String businessId) {
-        String userId = extractUserId(jwt);
-        boolean isEmployee = employeeRepository.existsByUserIdAndBusinessId_BusinessId(userId, businessId);
-        if (!isEmployee)
-            throw new AccessDeniedException("Access Denied");
+        validateUserIsEmployeeOfBusiness(extractUserId(jwt), businessId);
+    }
+
+    /**
+     * The business the user works for, if any.
+     */
+    public Optional<String> resolveBusinessIdOfUser(String userId) {
+        return cached(REQUEST_BUSINESS_IDS, businessIdsByUser, userId,
+                id -> Optional.ofNullable(employeeRepository.findByUserId(id))
+                        .map(Employee::getBusinessId)
+                        .map(BusinessIdentifier::getBusinessId));
+    }
+
+    public Optional<String> resolveBusinessId(Jwt jwt) {
+        return resolveBusinessIdOfUser(extractUserId(jwt));
+    }
+
+    /**
+     * Forgets what is cached about the user's employment, on this request and across requests.
+     * Call after adding or removing an employee.
+     */
+    public void evictMembership(String userId, String businessId) {
+        Membership membership = new Membership(userId, businessId);
+        memberships.invalidate(membership);
+        businessIdsByUser.invalidate(userId);
+        Map<Object, Object> requestMemberships = requestCache(REQUEST_MEMBERSHIPS);
+        if (requestMemberships != null)
+            requestMemberships.remove(membership);
+        Map<Object, Object> requestBusinessIds = requestCache(REQUEST_BUSINESS_IDS);
+        if (requestBusinessIds != null)
+            requestBusinessIds.remove(userId);
     }
 
     public void validateBusinessOwnsCampaign(String businessId, AdCampaign campaign) {
@@ -56,6 +124,28 @@ public class JwtUtils {
                                 a.equals("SCOPE_" + authority)
                 );
     }
-}
 
+    @SuppressWarnings("unchecked")
+    private <K, V> V cached(String requestAttribute, Cache<K, V> shared, K key, Function<K, V> loader) {
+        Map<Object, Object> request = requestCache(requestAttribute);
+        if (request == null)
+            return shared.get(key, loader);
+        return (V) request.computeIfAbsent(key, k -> shared.get(key, loader));
+    }
 
+    /**
+     * A map that lives as long as the current HTTP request, or {@code null} outside of one.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Object> requestCache(String attribute) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null)
+            return null;
+        Map<Object, Object> cache = (Map<Object, Object>) attributes.getAttribute(attribute, RequestAttributes.SCOPE_REQUEST);
+        if (cache == null) {
+            cache = new ConcurrentHashMap<>();
+            attributes.setAttribute(attribute, cache, RequestAttributes.SCOPE_REQUEST);
+        }
+        return cache;
+    }
+}
@@ -1,10 +1,12 @@
 package com.envisionad.webservice.venue.businesslogiclayer;
 
+import com.envisionad.webservice.config.CacheConfig;
 import com.envisionad.webservice.media.DataAccessLayer.MediaRepository;
 import com.envisionad.webservice.venue.dataaccesslayer.Venue;
 import com.envisionad.webservice.venue.dataaccesslayer.VenueRepository;
 import com.envisionad.webservice.venue.exceptions.VenueNotFoundException;
 import com.envisionad.webservice.venue.presentationlayer.models.VenueRequestModel;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -40,6 +42,7 @@ public class VenueServiceImpl implements VenueService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.VENUES, key = "#venueId")
     public Venue updateVenue(String venueId, VenueRequestModel request) {
         Venue existing = venueRepository.findByVenueId(venueId)
                 .orElseThrow(() -> new VenueNotFoundException(venueId));
@@ -52,6 +55,7 @@ public class VenueServiceImpl implements VenueService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.VENUES, key = "#venueId")
     public void deleteVenue(String venueId) {
         Venue venue = venueRepository.findByVenueId(venueId)
                 .orElseThrow(() -> new VenueNotFoundException(venueId));
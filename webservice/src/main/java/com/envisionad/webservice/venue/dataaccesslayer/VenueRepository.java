@@ -2,6 +2,7 @@ package com.envisionad.webservice.venue.dataaccesslayer;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,6 +10,8 @@ public interface VenueRepository extends JpaRepository<Venue, Integer> {
 
     Optional<Venue> findByVenueId(String venueId);
 
+    List<Venue> findAllByVenueIdIn(Collection<String> venueIds);
+
     List<Venue> findAllByOrderByNameEnAsc();
 
     List<Venue> findAllByOrderByNameFrAsc();
@@ -0,0 +1,5 @@
+-- Supports the "nearest" sort and bounds filter on the active media search,
+-- which join media to media_location and filter/order on coordinates.
+CREATE INDEX IF NOT EXISTS idx_media_location_lat_lng ON media_location (latitude, longitude);
+CREATE INDEX IF NOT EXISTS idx_media_media_location_id ON media (media_location_id);
+CREATE INDEX IF NOT EXISTS idx_media_status ON media (status);
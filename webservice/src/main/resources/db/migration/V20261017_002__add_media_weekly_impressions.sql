@@ -0,0 +1,8 @@
+-- weekly_impressions = daily_impressions * active_days, maintained by the Media entity
+-- so the active media search can sort and filter on it with ORDER BY ... LIMIT.
+ALTER TABLE media ADD COLUMN weekly_impressions INTEGER NOT NULL DEFAULT 0;
+
+UPDATE media
+SET weekly_impressions = COALESCE(daily_impressions, 0) * COALESCE(active_days, 0);
+
+CREATE INDEX IF NOT EXISTS idx_media_status_weekly_impressions ON media (status, weekly_impressions, media_id);
@@ -0,0 +1,4 @@
+-- Supports the media-owner reservation listing, which joins reservations to
+-- media on media_id and filters on the owning business and date range.
+CREATE INDEX IF NOT EXISTS idx_reservations_media_id_start_date ON reservations (media_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_media_business_id ON media (business_id);
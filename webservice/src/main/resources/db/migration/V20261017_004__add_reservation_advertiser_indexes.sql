@@ -0,0 +1,4 @@
+-- Supports the advertiser reservation listing, which joins reservations to
+-- ad_campaigns on campaign_id and pages by reservation id.
+CREATE INDEX IF NOT EXISTS idx_ad_campaigns_business_id ON ad_campaigns (business_id);
+CREATE INDEX IF NOT EXISTS idx_reservations_campaign_id_id ON reservations (campaign_id, id);
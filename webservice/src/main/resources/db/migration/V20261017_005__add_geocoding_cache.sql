@@ -0,0 +1,11 @@
+-- Durable second tier of the geocoding cache, shared across restarts and replicas.
+-- A NULL response records that Nominatim had no match for the query.
+CREATE TABLE IF NOT EXISTS geocoding_cache
+(
+    query_key  TEXT PRIMARY KEY,
+    response   TEXT,
+    expires_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_geocoding_cache_expires_at ON geocoding_cache (expires_at);
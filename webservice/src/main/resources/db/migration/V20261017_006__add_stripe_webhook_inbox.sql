@@ -0,0 +1,20 @@
+-- Inbox of verified Stripe webhook events. The controller only records the event and acknowledges it;
+-- a worker pool drains the table with retries. event_id is Stripe's id, so redeliveries collapse.
+CREATE TABLE IF NOT EXISTS stripe_webhook_events
+(
+    event_id          VARCHAR(255) PRIMARY KEY,
+    event_type        VARCHAR(255) NOT NULL,
+    payload           TEXT         NOT NULL,
+    ordering_key      VARCHAR(255),
+    status            VARCHAR(20)  NOT NULL,
+    attempts          INTEGER      NOT NULL DEFAULT 0,
+    stripe_created_at TIMESTAMP    NOT NULL,
+    received_at       TIMESTAMP    NOT NULL,
+    next_attempt_at   TIMESTAMP    NOT NULL,
+    locked_until      TIMESTAMP,
+    processed_at      TIMESTAMP,
+    last_error        TEXT
+);
+
+CREATE INDEX IF NOT EXISTS idx_stripe_webhook_events_due ON stripe_webhook_events (status, next_attempt_at);
+CREATE INDEX IF NOT EXISTS idx_stripe_webhook_events_ordering ON stripe_webhook_events (ordering_key, stripe_created_at);
@@ -0,0 +1,21 @@
+-- Transactional outbox for outgoing email. Rows are written alongside the business change and
+-- sent by a background dispatcher after commit, so no SMTP exchange happens inside a transaction.
+CREATE TABLE IF NOT EXISTS email_outbox
+(
+    id              BIGSERIAL PRIMARY KEY,
+    from_address    VARCHAR(255) NOT NULL,
+    to_address      VARCHAR(255) NOT NULL,
+    subject         TEXT,
+    body            TEXT,
+    status          VARCHAR(20)  NOT NULL,
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    created_at      TIMESTAMP    NOT NULL,
+    next_attempt_at TIMESTAMP    NOT NULL,
+    claim_token     UUID,
+    locked_until    TIMESTAMP,
+    sent_at         TIMESTAMP,
+    last_error      TEXT
+);
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_due ON email_outbox (status, next_attempt_at);
+CREATE INDEX IF NOT EXISTS idx_email_outbox_claim_token ON email_outbox (claim_token);
@@ -0,0 +1,13 @@
+-- Checkpoint for the background sweep that reconciles stale PENDING payments with Stripe. The sweep walks
+-- payment_intents by id and records how far it got, so a restart resumes where it stopped; locked_until
+-- keeps two replicas from sweeping at the same time.
+CREATE TABLE IF NOT EXISTS payment_reconciliation_checkpoints
+(
+    job_name        VARCHAR(64) PRIMARY KEY,
+    last_payment_id BIGINT      NOT NULL DEFAULT 0,
+    locked_until    TIMESTAMP,
+    updated_at      TIMESTAMP   NOT NULL
+);
+
+-- Only PENDING payments are ever swept, so the partial index stays small.
+CREATE INDEX IF NOT EXISTS idx_payment_intents_pending ON payment_intents (id) WHERE status = 'PENDING';
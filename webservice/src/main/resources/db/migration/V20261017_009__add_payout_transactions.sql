@@ -0,0 +1,28 @@
+-- Local copy of each connected account's Stripe balance transactions, so the media-owner dashboard reads
+-- payouts from the database instead of calling Stripe. Amounts are in minor units, as Stripe reports them.
+CREATE TABLE IF NOT EXISTS payout_transactions
+(
+    transaction_id    VARCHAR(255) PRIMARY KEY,
+    stripe_account_id VARCHAR(255) NOT NULL,
+    type              VARCHAR(64)  NOT NULL,
+    amount            BIGINT       NOT NULL,
+    fee               BIGINT       NOT NULL,
+    net               BIGINT       NOT NULL,
+    currency          VARCHAR(3)   NOT NULL,
+    status            VARCHAR(32)  NOT NULL,
+    created_at        TIMESTAMP    NOT NULL,
+    available_on      TIMESTAMP,
+    synced_at         TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_payout_transactions_account_created ON payout_transactions (stripe_account_id, created_at DESC);
+
+-- When each account was last synced and whether a webhook asked for a refresh since. locked_until keeps two
+-- replicas from syncing the same account at once.
+CREATE TABLE IF NOT EXISTS payout_sync_state
+(
+    stripe_account_id    VARCHAR(255) PRIMARY KEY,
+    last_synced_at       TIMESTAMP,
+    refresh_requested_at TIMESTAMP,
+    locked_until         TIMESTAMP
+);
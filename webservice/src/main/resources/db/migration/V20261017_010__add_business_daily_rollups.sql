@@ -0,0 +1,24 @@
+-- Per-business, per-day dashboard figures. Advertiser columns come from the business's CONFIRMED reservations
+-- (impressions on each day a reservation runs, spend and count on its start day); revenue columns come from
+-- SUCCEEDED payments to the business on the day they were created. Rows are refreshed from those tables for
+-- the days a change touches and rebuilt from scratch by BusinessDailyRollupService, which also fills them in
+-- for existing history, so the dashboard only range-scans this table.
+CREATE TABLE IF NOT EXISTS business_daily_rollups
+(
+    business_id       VARCHAR(36)    NOT NULL,
+    rollup_date       DATE           NOT NULL,
+    impressions       BIGINT         NOT NULL DEFAULT 0,
+    spend             DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    reservation_count INTEGER        NOT NULL DEFAULT 0,
+    gross_revenue     DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    net_revenue       DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    payment_count     INTEGER        NOT NULL DEFAULT 0,
+    PRIMARY KEY (business_id, rollup_date)
+);
+
+-- The refresh and rebuild statements look up a business's confirmed reservations and successful payments.
+CREATE INDEX IF NOT EXISTS idx_reservations_advertiser_id_start_date ON reservations (advertiser_id, start_date)
+    WHERE status = 'CONFIRMED';
+CREATE INDEX IF NOT EXISTS idx_payment_intents_business_id_created_at ON payment_intents (business_id, created_at)
+    WHERE status = 'SUCCEEDED';
+
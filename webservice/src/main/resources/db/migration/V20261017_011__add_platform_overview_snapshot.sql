@@ -0,0 +1,15 @@
+-- The admin overview's platform-wide figures, computed by a single statement in AdminDashboardRepositoryImpl and
+-- kept as one row so the overview page reads it by primary key instead of scanning business, employee, media and
+-- reservations on every request. AdminDashboardServiceImpl refreshes it on a schedule, after reservation status
+-- changes, and on read once it is older than dashboard.admin-overview.max-staleness.
+CREATE TABLE IF NOT EXISTS platform_overview_snapshot
+(
+    id                     SMALLINT       NOT NULL PRIMARY KEY CHECK (id = 1),
+    total_platform_revenue DECIMAL(38, 2) NOT NULL DEFAULT 0,
+    total_organizations    BIGINT         NOT NULL DEFAULT 0,
+    total_media_listings   BIGINT         NOT NULL DEFAULT 0,
+    total_users            BIGINT         NOT NULL DEFAULT 0,
+    total_media_owners     BIGINT         NOT NULL DEFAULT 0,
+    total_advertisers      BIGINT         NOT NULL DEFAULT 0,
+    refreshed_at           TIMESTAMP      NOT NULL
+);
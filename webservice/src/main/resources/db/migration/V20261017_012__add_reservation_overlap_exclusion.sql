@@ -0,0 +1,71 @@
+-- A media can hold only one active (PENDING, APPROVED or CONFIRMED) reservation at a time, whatever campaign it is for.
+-- The check in ReservationServiceImpl runs before the insert, so two concurrent bookings could both pass it; this
+-- constraint makes the database reject the second one instead, without either booking taking a lock up front.
+-- Re-runnable so integration tests, whose schema Hibernate creates, can apply it too.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- The booked period as a half-open range, or NULL for a reservation without valid dates, which then never conflicts.
+ALTER TABLE reservations
+    ADD COLUMN IF NOT EXISTS booked_period TSRANGE
+        GENERATED ALWAYS AS (CASE WHEN start_date < end_date THEN tsrange(start_date, end_date, '[)') END) STORED;
+
+-- Overlapping active reservations were allowed across campaigns, and the racy check let some through within one.
+-- Resolve them first: going through the overlapping reservations CONFIRMED first, then oldest first, each PENDING or
+-- APPROVED one that overlaps a reservation kept before it is CANCELLED. Paid reservations are never cancelled here;
+-- if two CONFIRMED ones overlap, the migration stops and lists them so they can be refunded by hand.
+DO $$
+DECLARE
+    candidate RECORD;
+    conflicts TEXT;
+BEGIN
+    FOR candidate IN
+        SELECT r.id, r.status
+        FROM reservations r
+        WHERE r.status IN ('PENDING', 'APPROVED', 'CONFIRMED')
+          AND EXISTS (SELECT 1
+                      FROM reservations other
+                      WHERE other.id <> r.id
+                        AND other.media_id = r.media_id
+                        AND other.status IN ('PENDING', 'APPROVED', 'CONFIRMED')
+                        AND other.booked_period && r.booked_period)
+        ORDER BY r.status = 'CONFIRMED' DESC, r.created_at NULLS LAST, r.id
+    LOOP
+        CONTINUE WHEN candidate.status = 'CONFIRMED';
+
+        -- Reservations ranked before this one are already settled, so the ones still active are the ones kept
+        UPDATE reservations r
+        SET status = 'CANCELLED'
+        WHERE r.id = candidate.id
+          AND EXISTS (SELECT 1
+                      FROM reservations kept
+                      WHERE kept.id <> r.id
+                        AND kept.media_id = r.media_id
+                        AND kept.status IN ('PENDING', 'APPROVED', 'CONFIRMED')
+                        AND kept.booked_period && r.booked_period
+                        AND (kept.status = 'CONFIRMED'
+                            OR (kept.created_at, kept.id) < (r.created_at, r.id)
+                            OR (kept.created_at IS NOT NULL AND r.created_at IS NULL)
+                            OR (kept.created_at IS NULL AND r.created_at IS NULL AND kept.id < r.id)));
+    END LOOP;
+
+    SELECT string_agg(format('%s overlaps %s on media %s', a.reservation_id, b.reservation_id, a.media_id), '; ')
+    INTO conflicts
+    FROM reservations a
+             JOIN reservations b
+                  ON b.media_id = a.media_id
+                      AND b.id > a.id
+                      AND b.booked_period && a.booked_period
+    WHERE a.status = 'CONFIRMED'
+      AND b.status = 'CONFIRMED';
+
+    IF conflicts IS NOT NULL THEN
+        RAISE EXCEPTION 'Confirmed reservations overlap and must be resolved by hand before this migration: %', conflicts;
+    END IF;
+END
+$$;
+
+ALTER TABLE reservations DROP CONSTRAINT IF EXISTS reservations_no_overlapping_bookings;
+ALTER TABLE reservations
+    ADD CONSTRAINT reservations_no_overlapping_bookings
+        EXCLUDE USING gist (media_id WITH =, booked_period WITH &&)
+        WHERE (status IN ('PENDING', 'APPROVED', 'CONFIRMED'));
@@ -0,0 +1,7 @@
+-- Supports the "available between dates" media search, which anti-joins media against reservations
+-- holding them for part of the requested range. The range columns follow media_id so the probe for each
+-- media is one index range scan, and status is included so it is answered from the index alone.
+-- This supersedes the (media_id, start_date) index, which is a prefix of it.
+CREATE INDEX IF NOT EXISTS idx_reservations_media_id_period ON reservations (media_id, start_date, end_date)
+    INCLUDE (status);
+DROP INDEX IF EXISTS idx_reservations_media_id_start_date;
@@ -0,0 +1,5 @@
+-- Title search filters on lower(title) LIKE '%term%', which no B-tree index can serve. A trigram GIN
+-- index on the same expression answers it for terms of three or more characters, and lets the
+-- relevance sort rank the matches by similarity() without scanning the rest of the table.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_media_title_trgm ON media USING gin (lower(title) gin_trgm_ops);
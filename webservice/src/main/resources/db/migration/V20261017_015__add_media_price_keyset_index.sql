@@ -0,0 +1,4 @@
+-- Cursor paging by price seeks to (price, media_id) past the last listing a client has, so it needs
+-- both in one index after status; scanned backwards it serves the descending order too. Weekly
+-- impressions already have the equivalent idx_media_status_weekly_impressions.
+CREATE INDEX IF NOT EXISTS idx_media_status_price ON media (status, price, media_id);
@@ -1,13 +1,12 @@
 package com.envisionad.webservice.advertisement.businesslogiclayer;
 
-import com.cloudinary.Cloudinary;
-import com.cloudinary.Uploader;
 import com.envisionad.webservice.advertisement.dataaccesslayer.*;
 import com.envisionad.webservice.advertisement.datamapperlayer.AdResponseMapper;
 import com.envisionad.webservice.advertisement.datamapperlayer.AdCampaignResponseMapper;
 import com.envisionad.webservice.advertisement.exceptions.*;
 import com.envisionad.webservice.advertisement.presentationlayer.models.AdRequestModel;
 import com.envisionad.webservice.reservation.dataaccesslayer.ReservationRepository;
+import com.envisionad.webservice.utils.CloudinaryClient;
 import com.envisionad.webservice.utils.JwtUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,8 +30,7 @@ class AdCampaignServiceUnitTest {
     @Mock private AdCampaignResponseMapper adCampaignResponseMapper;
     @Mock private ReservationRepository reservationRepository;
 
-    @Mock private Cloudinary cloudinary;
-    @Mock private Uploader uploader;
+    @Mock private CloudinaryClient cloudinaryClient;
     @Mock private JwtUtils jwtUtils;
 
     @InjectMocks private AdCampaignServiceImpl service;
@@ -40,7 +38,6 @@ class AdCampaignServiceUnitTest {
     private Jwt advertiserToken;
     @BeforeEach
     void setUp() {
-        lenient().when(cloudinary.uploader()).thenReturn(uploader);
         advertiserToken = createJwtToken(
                 List.of("read:campaign", "create:campaign", "update:campaign", "update:business",
                         "read:employee", "create:employee", "delete:employee", "read:verification", "create:verification",
@@ -98,7 +95,7 @@ class AdCampaignServiceUnitTest {
         service.deleteAdFromCampaign(campaignId, data.adId);
 
         // Assert
-        verify(uploader, never()).destroy(anyString(), anyMap());
+        verify(cloudinaryClient, never()).destroy(anyString(), anyMap());
         verify(adCampaignRepository).save(data.campaign);
         assertEquals(0, data.campaign.getAds().size());
     }
@@ -121,7 +118,7 @@ class AdCampaignServiceUnitTest {
         service.deleteAdFromCampaign(campaignId, data.adId);
 
         // Assert
-        verify(uploader, never()).destroy(anyString(), anyMap());
+        verify(cloudinaryClient, never()).destroy(anyString(), anyMap());
         verify(adCampaignRepository).save(data.campaign);
         assertEquals(0, data.campaign.getAds().size());
     }
@@ -141,14 +138,14 @@ class AdCampaignServiceUnitTest {
         when(adResponseMapper.entityToResponseModel(any()))
                 .thenReturn(null);
 
-        when(uploader.destroy(anyString(), anyMap()))
+        when(cloudinaryClient.destroy(anyString(), anyMap()))
                 .thenReturn(Map.of("result", "ok"));
 
         // Act
         service.deleteAdFromCampaign(campaignId, data.adId);
 
         // Assert
-        verify(uploader).destroy(anyString(), argThat(opts ->
+        verify(cloudinaryClient).destroy(anyString(), argThat(opts ->
                 Boolean.TRUE.equals(opts.get("invalidate")) &&
                         opts.get("resource_type") != null
         ));
@@ -173,7 +170,7 @@ class AdCampaignServiceUnitTest {
         when(adResponseMapper.entityToResponseModel(any()))
                 .thenReturn(null);
 
-        when(uploader.destroy(anyString(), anyMap()))
+        when(cloudinaryClient.destroy(anyString(), anyMap()))
                 .thenReturn(Map.of("result", "ok"));
 
         // Act
@@ -184,7 +181,7 @@ class AdCampaignServiceUnitTest {
         @SuppressWarnings("unchecked")
         ArgumentCaptor<Map<String, Object>> optionsCaptor = ArgumentCaptor.forClass(Map.class);
 
-        verify(uploader).destroy(publicIdCaptor.capture(), optionsCaptor.capture());
+        verify(cloudinaryClient).destroy(publicIdCaptor.capture(), optionsCaptor.capture());
 
         assertNotNull(publicIdCaptor.getValue());
         assertFalse(publicIdCaptor.getValue().isBlank());
@@ -212,14 +209,14 @@ class AdCampaignServiceUnitTest {
         when(adResponseMapper.entityToResponseModel(any()))
                 .thenReturn(null);
 
-        when(uploader.destroy(anyString(), anyMap()))
+        when(cloudinaryClient.destroy(anyString(), anyMap()))
                 .thenReturn(Map.of("result", "ok"));
 
         // Act
         service.deleteAdFromCampaign(campaignId, data.adId);
 
         // Assert
-        verify(uploader).destroy(anyString(), argThat(opts ->
+        verify(cloudinaryClient).destroy(anyString(), argThat(opts ->
                 Boolean.TRUE.equals(opts.get("invalidate")) &&
                         opts.get("resource_type") != null
         ));
@@ -240,14 +237,14 @@ class AdCampaignServiceUnitTest {
         when(adResponseMapper.entityToResponseModel(any()))
                 .thenReturn(null);
 
-        when(uploader.destroy(anyString(), anyMap()))
+        when(cloudinaryClient.destroy(anyString(), anyMap()))
                 .thenReturn(Map.of("result", "ok"));
 
         // Act
         service.deleteAdFromCampaign(campaignId, data.adId);
 
         // Assert
-        verify(uploader).destroy(anyString(), argThat(opts ->
+        verify(cloudinaryClient).destroy(anyString(), argThat(opts ->
                 Boolean.TRUE.equals(opts.get("invalidate")) &&
                         "video".equals(opts.get("resource_type"))
         ));
@@ -268,14 +265,14 @@ class AdCampaignServiceUnitTest {
         when(adResponseMapper.entityToResponseModel(any()))
                 .thenReturn(null);
 
-        when(uploader.destroy(anyString(), anyMap()))
+        when(cloudinaryClient.destroy(anyString(), anyMap()))
                 .thenThrow(new RuntimeException("Cloudinary down"));
 
         // Act
         service.deleteAdFromCampaign(campaignId, data.adId);
 
         // Assert
-        verify(uploader, times(1)).destroy(anyString(), anyMap());
+        verify(cloudinaryClient, times(1)).destroy(anyString(), anyMap());
         verify(adCampaignRepository).save(data.campaign);
         assertEquals(0, data.campaign.getAds().size());
 
@@ -295,7 +292,7 @@ class AdCampaignServiceUnitTest {
         assertThrows(AdCampaignNotFoundException.class,
                 () -> service.deleteAdFromCampaign(campaignId, adId));
 
-        verify(uploader, never()).destroy(anyString(), anyMap());
+        verify(cloudinaryClient, never()).destroy(anyString(), anyMap());
         verify(adCampaignRepository, never()).save(any());
     }
 
@@ -317,7 +314,7 @@ class AdCampaignServiceUnitTest {
         assertThrows(AdNotFoundException.class,
                 () -> service.deleteAdFromCampaign(campaignId, missingAdId));
 
-        verify(uploader, never()).destroy(anyString(), anyMap());
+        verify(cloudinaryClient, never()).destroy(anyString(), anyMap());
         verify(adCampaignRepository, never()).save(any());
     }
 
@@ -394,7 +391,7 @@ class AdCampaignServiceUnitTest {
                 any(LocalDateTime.class)
         )).thenReturn(false);
 
-        when(uploader.destroy(anyString(), anyMap())).thenReturn(Map.of("result", "ok"));
+        when(cloudinaryClient.destroy(anyString(), anyMap())).thenReturn(Map.of("result", "ok"));
 
         when(adCampaignResponseMapper.entityToResponseModel(campaignWithAd)).thenReturn(null);
 
@@ -405,7 +402,7 @@ class AdCampaignServiceUnitTest {
         verify(adCampaignRepository).delete(campaignWithAd);
         verify(adCampaignResponseMapper).entityToResponseModel(campaignWithAd);
         // Verify that the Cloudinary asset tied to the ad was scheduled for deletion
-        verify(uploader, atLeastOnce()).destroy(anyString(), anyMap());
+        verify(cloudinaryClient, atLeastOnce()).destroy(anyString(), anyMap());
     }
 
     @Test
@@ -556,6 +553,6 @@ class AdCampaignServiceUnitTest {
 
         // No persistence or Cloudinary side effects
         verify(adCampaignRepository, never()).save(any());
-        verify(uploader, never()).destroy(anyString(), anyMap());
+        verify(cloudinaryClient, never()).destroy(anyString(), anyMap());
     }
 }
@@ -0,0 +1,143 @@
+package com.envisionad.webservice.config;
+
+import com.envisionad.webservice.config.exceptions.Auth0UserNotFoundException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises the Auth0 client against a local HTTP server standing in for the token endpoint
+ * and the Management API user endpoints.
+ */
+class Auth0ServiceStubServerTest {
+
+    // Users the stub knows about; "auth0|fresh" exists but is not in the search index yet.
+    private static final Map<String, String> USERS = IntStream.rangeClosed(1, 60).boxed()
+            .collect(Collectors.toMap(i -> "auth0|user" + i, i -> "user" + i + "@example.com"));
+    private static final String FRESH_USER_ID = "auth0|fresh";
+
+    private HttpServer server;
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+    private final AtomicInteger searchRequests = new AtomicInteger();
+    private final List<String> userRequests = Collections.synchronizedList(new ArrayList<>());
+    private Auth0Service auth0Service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/oauth/token", exchange -> {
+            tokenRequests.incrementAndGet();
+            respond(exchange, 200, "{\"access_token\":\"stub-token\",\"expires_in\":86400}");
+        });
+        server.createContext("/api/v2/users", this::handleUsers);
+        server.start();
+
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        auth0Service = new Auth0Service(new RestTemplate());
+        ReflectionTestUtils.setField(auth0Service, "managementTokenUrl", baseUrl + "oauth/token");
+        ReflectionTestUtils.setField(auth0Service, "managementBaseUrl", baseUrl);
+        ReflectionTestUtils.setField(auth0Service, "managementClientId", "client-id");
+        ReflectionTestUtils.setField(auth0Service, "managementClientSecret", "client-secret");
+        ReflectionTestUtils.setField(auth0Service, "managementAudience", baseUrl + "api/v2/");
+    }
+
+    @AfterEach
+    void tearDown() {
+        auth0Service.shutdownLookups();
+        server.stop(0);
+    }
+
+    @Test
+    void getUserEmailsByUserIds_resolvesManyUsersWithOneSearchPerBatch() {
+        List<String> userIds = new ArrayList<>(USERS.keySet());
+        userIds.add(FRESH_USER_ID);
+        userIds.add("auth0|unknown");
+
+        Map<String, String> emails = auth0Service.getUserEmailsByUserIds(userIds);
+
+        assertEquals(61, emails.size());
+        assertEquals("user42@example.com", emails.get("auth0|user42"));
+        assertEquals("fresh@example.com", emails.get(FRESH_USER_ID));
+        assertFalse(emails.containsKey("auth0|unknown"));
+
+        // 62 ids → two searches of at most 50; only the two ids the search missed are fetched singly
+        assertEquals(2, searchRequests.get());
+        assertEquals(List.of(FRESH_USER_ID, "auth0|unknown"), userRequests.stream().sorted().toList());
+        assertEquals(1, tokenRequests.get());
+
+        // Everything is cached now, including the miss
+        auth0Service.getUserEmailsByUserIds(userIds);
+        assertEquals(2, searchRequests.get());
+        assertEquals(2, userRequests.size());
+    }
+
+    @Test
+    void getUserEmailByUserId_cachesPositiveAndNegativeResults() {
+        assertEquals("user1@example.com", auth0Service.getUserEmailByUserId("auth0|user1"));
+        assertEquals("user1@example.com", auth0Service.getUserEmailByUserId("auth0|user1"));
+        assertThrows(Auth0UserNotFoundException.class,
+                () -> auth0Service.getUserEmailByUserId("auth0|unknown"));
+        assertThrows(Auth0UserNotFoundException.class,
+                () -> auth0Service.getUserEmailByUserId("auth0|unknown"));
+
+        assertEquals(List.of("auth0|user1", "auth0|unknown"), userRequests);
+    }
+
+    // ==================== Auth0 stub ====================
+
+    private void handleUsers(HttpExchange exchange) throws IOException {
+        if (!"Bearer stub-token".equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+            respond(exchange, 401, "{\"error\":\"Unauthorized\"}");
+            return;
+        }
+
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals("/api/v2/users")) {
+            searchRequests.incrementAndGet();
+            String query = exchange.getRequestURI().getQuery();
+            String results = USERS.entrySet().stream()
+                    .filter(user -> query.contains("\"" + user.getKey() + "\""))
+                    .map(user -> "{\"user_id\":\"" + user.getKey() + "\",\"email\":\"" + user.getValue() + "\"}")
+                    .collect(Collectors.joining(",", "[", "]"));
+            respond(exchange, 200, results);
+            return;
+        }
+
+        String userId = path.substring("/api/v2/users/".length());
+        userRequests.add(userId);
+        if (FRESH_USER_ID.equals(userId)) {
+            respond(exchange, 200, "{\"user_id\":\"" + userId + "\",\"email\":\"fresh@example.com\"}");
+        } else if (USERS.containsKey(userId)) {
+            respond(exchange, 200, "{\"user_id\":\"" + userId + "\",\"email\":\"" + USERS.get(userId) + "\"}");
+        } else {
+            respond(exchange, 404, "{\"error\":\"Not Found\"}");
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.envisionad.webservice.config;
 
 import com.envisionad.webservice.config.exceptions.Auth0ServiceUnavailableException;
 import com.envisionad.webservice.config.exceptions.Auth0UserNotFoundException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,6 +22,7 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -47,13 +49,22 @@ class Auth0ServiceUnitTest {
 
     /** The URI that Auth0Service actually builds via UriComponentsBuilder.pathSegment(). */
     private static URI userUri() {
+        return userUri(Auth0ServiceUnitTest.USER_ID);
+    }
+
+    private static URI userUri(String userId) {
         return UriComponentsBuilder
                 .fromUriString(BASE_URL)
-                .pathSegment("api", "v2", "users", Auth0ServiceUnitTest.USER_ID)
+                .pathSegment("api", "v2", "users", userId)
                 .build()
                 .toUri();
     }
 
+    @AfterEach
+    void tearDown() {
+        auth0Service.shutdownLookups();
+    }
+
     @BeforeEach
     void setUp() {
         ReflectionTestUtils.setField(auth0Service, "managementTokenUrl",    TOKEN_URL);
@@ -208,7 +219,7 @@ class Auth0ServiceUnitTest {
     // =========================================================================
 
     @Test
-    void whenGetUserEmailByUserId_calledMultipleTimes_thenTokenEndpointCalledOnlyOnce() {
+    void whenGetUserEmailByUserId_calledMultipleTimes_thenTokenAndProfileFetchedOnlyOnce() {
         // Arrange
         stubTokenEndpoint();
         stubUserEndpoint();
@@ -218,14 +229,14 @@ class Auth0ServiceUnitTest {
         auth0Service.getUserEmailByUserId(USER_ID);
         auth0Service.getUserEmailByUserId(USER_ID);
 
-        // Assert — token fetched exactly once despite three email lookups
+        // Assert — token fetched once, and the profile cache answers the repeat lookups
         verify(restTemplate, times(1)).exchange(
                 eq(TOKEN_URL),
                 eq(HttpMethod.POST),
                 any(),
                 ArgumentMatchers.<ParameterizedTypeReference<Map<String, Object>>>any()
         );
-        verify(restTemplate, times(3)).exchange(
+        verify(restTemplate, times(1)).exchange(
                 eq(userUri()),
                 eq(HttpMethod.GET),
                 any(),
@@ -298,5 +309,130 @@ class Auth0ServiceUnitTest {
                 ArgumentMatchers.<ParameterizedTypeReference<Map<String, Object>>>any()
         );
     }
-}
 
+    // =========================================================================
+    // Profile caching — missing users are remembered briefly
+    // =========================================================================
+
+    @Test
+    void whenGetUserEmailByUserId_andUserNotFound_thenRepeatLookupIsAnsweredFromCache() {
+        // Arrange
+        stubTokenEndpoint();
+        when(restTemplate.exchange(
+                eq(userUri()),
+                eq(HttpMethod.GET),
+                any(),
+                ArgumentMatchers.<ParameterizedTypeReference<Map<String, Object>>>any()
+        )).thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+
+        // Act & Assert
+        assertThrows(Auth0UserNotFoundException.class, () -> auth0Service.getUserEmailByUserId(USER_ID));
+        assertThrows(Auth0UserNotFoundException.class, () -> auth0Service.getUserEmailByUserId(USER_ID));
+
+        verify(restTemplate, times(1)).exchange(
+                eq(userUri()),
+                eq(HttpMethod.GET),
+                any(),
+                ArgumentMatchers.<ParameterizedTypeReference<Map<String, Object>>>any()
+        );
+    }
+
+    @Test
+    void whenGetUserEmailByUserId_andNetworkFailure_thenFailureIsNotCached() {
+        // Arrange — first call fails, second succeeds
+        stubTokenEndpoint();
+        when(restTemplate.exchange(
+                eq(userUri()),
+                eq(HttpMethod.GET),
+                any(),
+                ArgumentMatchers.<ParameterizedTypeReference<Map<String, Object>>>any()
+        )).thenThrow(new ResourceAccessException("Connection refused"))
+                .thenReturn(new ResponseEntity<>(Map.of("email", USER_EMAIL), HttpStatus.OK));
+
+        // Act & Assert
+        assertThrows(Auth0ServiceUnavailableException.class, () -> auth0Service.getUserEmailByUserId(USER_ID));
+        assertEquals(USER_EMAIL, auth0Service.getUserEmailByUserId(USER_ID));
+    }
+
+    // =========================================================================
+    // getUserEmailsByUserIds — batch lookup
+    // =========================================================================
+
+    @Test
+    void whenGetUserEmailsByUserIds_thenSearchesOnceAndFetchesOnlyUsersTheSearchMissed() {
+        // Arrange — the search index has not caught up with the second user yet
+        String otherUserId = "auth0|def456";
+        stubTokenEndpoint();
+        when(restTemplate.exchange(
+                argThat((URI uri) -> uri != null && uri.getPath().equals("/api/v2/users")),
+                eq(HttpMethod.GET),
+                any(),
+                ArgumentMatchers.<ParameterizedTypeReference<List<Map<String, Object>>>>any()
+        )).thenReturn(new ResponseEntity<>(List.of(Map.of("user_id", USER_ID, "email", USER_EMAIL)), HttpStatus.OK));
+        when(restTemplate.exchange(
+                eq(userUri(otherUserId)),
+                eq(HttpMethod.GET),
+                any(),
+                ArgumentMatchers.<ParameterizedTypeReference<Map<String, Object>>>any()
+        )).thenReturn(new ResponseEntity<>(Map.of("email", "other@example.com"), HttpStatus.OK));
+
+        // Act
+        Map<String, String> emails = auth0Service.getUserEmailsByUserIds(List.of(otherUserId, USER_ID, otherUserId, " "));
+
+        // Assert — order follows the input, duplicates and blanks are dropped
+        assertEquals(List.of(otherUserId, USER_ID), List.copyOf(emails.keySet()));
+        assertEquals(USER_EMAIL, emails.get(USER_ID));
+        assertEquals("other@example.com", emails.get(otherUserId));
+
+        // Both users are now cached
+        assertEquals(USER_EMAIL, auth0Service.getUserEmailByUserId(USER_ID));
+        verify(restTemplate, never()).exchange(
+                eq(userUri()),
+                eq(HttpMethod.GET),
+                any(),
+                ArgumentMatchers.<ParameterizedTypeReference<Map<String, Object>>>any()
+        );
+    }
+
+    @Test
+    void whenGetUserEmailsByUserIds_andSearchFails_thenFallsBackToIndividualLookupsAndSkipsMissingUsers() {
+        // Arrange
+        String missingUserId = "auth0|gone";
+        stubTokenEndpoint();
+        when(restTemplate.exchange(
+                argThat((URI uri) -> uri != null && uri.getPath().equals("/api/v2/users")),
+                eq(HttpMethod.GET),
+                any(),
+                ArgumentMatchers.<ParameterizedTypeReference<List<Map<String, Object>>>>any()
+        )).thenThrow(new ResourceAccessException("Connection reset"));
+        stubUserEndpoint();
+        when(restTemplate.exchange(
+                eq(userUri(missingUserId)),
+                eq(HttpMethod.GET),
+                any(),
+                ArgumentMatchers.<ParameterizedTypeReference<Map<String, Object>>>any()
+        )).thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+
+        // Act
+        Map<String, String> emails = auth0Service.getUserEmailsByUserIds(List.of(USER_ID, missingUserId));
+
+        // Assert
+        assertEquals(Map.of(USER_ID, USER_EMAIL), emails);
+    }
+
+    @Test
+    void whenGetUserEmailsByUserIds_withEveryUserCached_thenNoCallsAreMade() {
+        // Arrange
+        stubTokenEndpoint();
+        stubUserEndpoint();
+        auth0Service.getUserEmailByUserId(USER_ID);
+        clearInvocations(restTemplate);
+
+        // Act
+        Map<String, String> emails = auth0Service.getUserEmailsByUserIds(List.of(USER_ID));
+
+        // Assert
+        assertEquals(Map.of(USER_ID, USER_EMAIL), emails);
+        verifyNoInteractions(restTemplate);
+    }
+}
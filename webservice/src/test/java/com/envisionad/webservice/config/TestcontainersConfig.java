@@ -1,10 +1,17 @@
 package com.envisionad.webservice.config;
 
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
 import org.testcontainers.containers.PostgreSQLContainer;
 
+import javax.sql.DataSource;
+
 @TestConfiguration(proxyBeanMethods = false)
 public class TestcontainersConfig {
 
@@ -23,4 +30,22 @@ public class TestcontainersConfig {
     public PostgreSQLContainer<?> postgresContainer() {
         return postgres;
     }
+
+    /**
+     * Hibernate creates the test schema from the entities, which leaves out what only the Flyway
+     * migrations add. Apply the migrations tests rely on right after Hibernate, so every integration
+     * class runs against the same schema whatever order the classes run in.
+     */
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public InitializingBean migrationOnlySchemaObjects(DataSource dataSource) {
+        return () -> {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(
+                    new ClassPathResource("db/migration/V20261017_012__add_reservation_overlap_exclusion.sql"),
+                    new ClassPathResource("db/migration/V20261017_014__add_media_title_trigram_index.sql"));
+            // Send each script whole; the driver splits it and understands the dollar-quoted block in 012
+            populator.setSeparator(ScriptUtils.EOF_STATEMENT_SEPARATOR);
+            populator.execute(dataSource);
+        };
+    }
 }
@@ -0,0 +1,142 @@
+package com.envisionad.webservice.config.outbound;
+
+import com.envisionad.webservice.config.exceptions.OutboundDependencyUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundDependencyTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private OutboundDependency dependency(int maxConcurrentCalls, int failureThreshold, Duration openDuration) {
+        return new OutboundDependency("test",
+                new OutboundHttpProperties.DependencySettings(null, null, maxConcurrentCalls, failureThreshold, openDuration),
+                meterRegistry);
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("dependency", "test").gauge().value();
+    }
+
+    private double rejections(String reason) {
+        return meterRegistry.get("outbound.calls.rejected").tag("dependency", "test").tag("reason", reason).counter().count();
+    }
+
+    @Test
+    void acquire_WhenBulkheadIsFull_ShouldRejectImmediately() throws Exception {
+        OutboundDependency dependency = dependency(2, 5, Duration.ofSeconds(30));
+
+        OutboundDependency.Permit first = dependency.acquire();
+        OutboundDependency.Permit second = dependency.acquire();
+        assertEquals(2.0, gauge("outbound.bulkhead.in_use"));
+
+        assertThrows(OutboundDependencyUnavailableException.class, dependency::acquire);
+        assertEquals(1.0, rejections("bulkhead_full"));
+
+        first.succeeded();
+        second.abandoned();
+        assertEquals(0.0, gauge("outbound.bulkhead.in_use"));
+        assertNotNull(dependency.acquire());
+    }
+
+    @Test
+    void permit_WhenCompletedTwice_ShouldReleaseItsSlotOnce() throws Exception {
+        OutboundDependency dependency = dependency(1, 5, Duration.ofSeconds(30));
+
+        OutboundDependency.Permit permit = dependency.acquire();
+        permit.succeeded();
+        permit.failed();
+
+        assertEquals(0.0, gauge("outbound.bulkhead.in_use"));
+        assertEquals(1, meterRegistry.get("outbound.calls").tag("outcome", "success").timer().count());
+        assertEquals(0, meterRegistry.get("outbound.calls").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    void call_AfterConsecutiveFailures_ShouldOpenCircuitAndRejectWithoutCalling() {
+        OutboundDependency dependency = dependency(10, 3, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IOException.class, () -> dependency.call(() -> {
+                throw new IOException("boom");
+            }));
+        }
+
+        assertTrue(dependency.isCircuitOpen());
+        assertEquals(1.0, gauge("outbound.circuit.open"));
+        OutboundDependencyUnavailableException rejected = assertThrows(OutboundDependencyUnavailableException.class,
+                () -> dependency.call(() -> fail("circuit should reject before calling")));
+        assertTrue(rejected.getMessage().contains("circuit open"));
+        assertEquals(1.0, rejections("circuit_open"));
+    }
+
+    @Test
+    void call_WhenASuccessInterruptsTheFailures_ShouldKeepCircuitClosed() throws Exception {
+        OutboundDependency dependency = dependency(10, 2, Duration.ofMinutes(1));
+
+        assertThrows(IllegalStateException.class, () -> dependency.call(() -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("ok", dependency.call(() -> "ok"));
+        assertThrows(IllegalStateException.class, () -> dependency.call(() -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertFalse(dependency.isCircuitOpen());
+    }
+
+    @Test
+    void acquire_AfterOpenDuration_ShouldAllowOneTrialThatClosesTheCircuit() throws Exception {
+        OutboundDependency dependency = dependency(10, 1, Duration.ofMillis(50));
+        assertThrows(IOException.class, () -> dependency.call(() -> {
+            throw new IOException("boom");
+        }));
+        assertTrue(dependency.isCircuitOpen());
+
+        Thread.sleep(80);
+        OutboundDependency.Permit trial = dependency.acquire();
+        // Only the trial goes through while the circuit is half open.
+        assertThrows(OutboundDependencyUnavailableException.class, dependency::acquire);
+
+        trial.succeeded();
+        assertFalse(dependency.isCircuitOpen());
+        assertEquals(0.0, gauge("outbound.circuit.open"));
+        dependency.acquire().succeeded();
+    }
+
+    @Test
+    void acquire_WhenTrialFails_ShouldReopenCircuit() throws Exception {
+        OutboundDependency dependency = dependency(10, 1, Duration.ofMillis(50));
+        dependency.acquire().failed();
+
+        Thread.sleep(80);
+        dependency.acquire().failed();
+
+        assertTrue(dependency.isCircuitOpen());
+        assertThrows(OutboundDependencyUnavailableException.class, dependency::acquire);
+    }
+
+    @Test
+    void acquire_WhenTrialIsAbandoned_ShouldLetAnotherTrialThrough() throws Exception {
+        OutboundDependency dependency = dependency(10, 1, Duration.ofMillis(50));
+        dependency.acquire().failed();
+
+        Thread.sleep(80);
+        dependency.acquire().abandoned();
+
+        OutboundDependency.Permit nextTrial = dependency.acquire();
+        nextTrial.succeeded();
+        assertFalse(dependency.isCircuitOpen());
+    }
+}
@@ -0,0 +1,138 @@
+package com.envisionad.webservice.config.outbound;
+
+import com.envisionad.webservice.config.exceptions.OutboundDependencyUnavailableException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises the pooled clients against a local HTTP server with a fast endpoint, a slow one and
+ * a failing one.
+ */
+class OutboundHttpClientsStubServerTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger failingRequests = new AtomicInteger();
+    private OutboundHttpClients clients;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/ok", exchange -> respond(exchange, 200, "ok"));
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(1_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "late");
+        });
+        server.createContext("/fail", exchange -> {
+            failingRequests.incrementAndGet();
+            respond(exchange, 503, "unavailable");
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        OutboundHttpProperties.DependencySettings settings = new OutboundHttpProperties.DependencySettings(
+                Duration.ofSeconds(1), Duration.ofMillis(200), 4, 2, Duration.ofMinutes(1));
+        clients = new OutboundHttpClients(
+                new OutboundHttpProperties(Map.of("stub", settings)), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.disposeConnectionPools();
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Test
+    void restTemplate_ShouldUseTheDependencysSettings() {
+        RestTemplate restTemplate = clients.restTemplate("stub");
+
+        assertEquals("ok", restTemplate.getForObject(baseUrl + "/ok", String.class));
+        assertSame(clients.dependency("stub"), clients.dependency("stub"));
+        assertEquals(4, clients.dependency("stub").getSettings().maxConcurrentCalls());
+    }
+
+    @Test
+    void restTemplate_WhenUpstreamIsSlow_ShouldTimeOutAndCountAFailure() {
+        RestTemplate restTemplate = clients.restTemplate("stub");
+
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(baseUrl + "/slow", String.class));
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(baseUrl + "/slow", String.class));
+
+        assertTrue(clients.dependency("stub").isCircuitOpen());
+    }
+
+    @Test
+    void restTemplate_WhenUpstreamKeepsFailing_ShouldStopCallingIt() {
+        RestTemplate restTemplate = clients.restTemplate("stub");
+
+        assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject(baseUrl + "/fail", String.class));
+        assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject(baseUrl + "/fail", String.class));
+
+        ResourceAccessException rejected = assertThrows(ResourceAccessException.class,
+                () -> restTemplate.getForObject(baseUrl + "/fail", String.class));
+        assertInstanceOf(OutboundDependencyUnavailableException.class, rejected.getCause());
+        assertEquals(2, failingRequests.get());
+    }
+
+    @Test
+    void webClient_WhenUpstreamKeepsFailing_ShouldStopCallingIt() {
+        WebClient webClient = clients.webClientBuilder("stub").baseUrl(baseUrl).build();
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(WebClientResponseException.class, () -> webClient.get().uri("/fail")
+                    .retrieve().bodyToMono(String.class).block());
+        }
+
+        RuntimeException rejected = assertThrows(RuntimeException.class, () -> webClient.get().uri("/fail")
+                .retrieve().bodyToMono(String.class).block());
+        assertInstanceOf(OutboundDependencyUnavailableException.class, Exceptions.unwrap(rejected));
+        assertEquals(2, failingRequests.get());
+    }
+
+    @Test
+    void webClient_WhenCallsSucceed_ShouldReleaseEverySlot() {
+        WebClient webClient = clients.webClientBuilder("stub").baseUrl(baseUrl).build();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("ok", webClient.get().uri("/ok").retrieve().bodyToMono(String.class).block());
+        }
+
+        assertFalse(clients.dependency("stub").isCircuitOpen());
+        // More calls than the bulkhead holds went through, so no slot leaked.
+        assertDoesNotThrow(() -> clients.dependency("stub").acquire().abandoned());
+    }
+}
@@ -0,0 +1,189 @@
+package com.envisionad.webservice.email.businesslogiclayer;
+
+import com.envisionad.webservice.email.dataaccesslayer.EmailOutboxMessage;
+import com.envisionad.webservice.email.dataaccesslayer.EmailOutboxRepository;
+import com.envisionad.webservice.email.dataaccesslayer.EmailOutboxStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Exercises the dispatcher with a real mail sender against a local server that speaks just
+ * enough SMTP to accept or reject messages.
+ */
+class EmailOutboxDispatcherSmtpStubTest {
+
+    private ServerSocket server;
+    private Thread serverThread;
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final List<String> deliveredRecipients = Collections.synchronizedList(new ArrayList<>());
+
+    private final EmailOutboxRepository emailOutboxRepository = mock(EmailOutboxRepository.class);
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        serverThread = new Thread(this::acceptConnections, "smtp-stub");
+        serverThread.setDaemon(true);
+        serverThread.start();
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(server.getLocalPort());
+        Properties properties = new Properties();
+        properties.put("mail.smtp.connectiontimeout", "5000");
+        properties.put("mail.smtp.timeout", "5000");
+        mailSender.setJavaMailProperties(properties);
+
+        dispatcher = new EmailOutboxDispatcher(emailOutboxRepository, mailSender, new SimpleMeterRegistry(), true);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        dispatcher.shutdownDispatcher();
+        server.close();
+    }
+
+    @Test
+    void sendBatch_deliversWholeBatchOverOneConnection() {
+        stubClaim(List.of(outboxMessage(1L, "first@example.com"),
+                outboxMessage(2L, "second@example.com"),
+                outboxMessage(3L, "third@example.com")));
+
+        assertEquals(3, dispatcher.sendBatch());
+
+        assertEquals(1, connectionCount.get());
+        assertEquals(List.of("first@example.com", "second@example.com", "third@example.com"), deliveredRecipients);
+        verify(emailOutboxRepository).markSent(eq(List.of(1L, 2L, 3L)), any());
+        verify(emailOutboxRepository, never()).scheduleRetry(any(), any(), anyString());
+    }
+
+    @Test
+    void sendBatch_rejectedRecipient_isRetriedWhileTheRestAreSent() {
+        stubClaim(List.of(outboxMessage(1L, "first@example.com"),
+                outboxMessage(2L, "reject@example.com"),
+                outboxMessage(3L, "third@example.com")));
+
+        dispatcher.sendBatch();
+
+        assertEquals(List.of("first@example.com", "third@example.com"), deliveredRecipients);
+        verify(emailOutboxRepository).markSent(eq(List.of(1L, 3L)), any());
+        verify(emailOutboxRepository).scheduleRetry(eq(2L), any(), anyString());
+    }
+
+    @Test
+    void sendBatch_serverUnreachable_retriesEveryMessage() throws IOException {
+        server.close();
+        stubClaim(List.of(outboxMessage(1L, "first@example.com"), outboxMessage(2L, "second@example.com")));
+
+        dispatcher.sendBatch();
+
+        verify(emailOutboxRepository).scheduleRetry(eq(1L), any(), anyString());
+        verify(emailOutboxRepository).scheduleRetry(eq(2L), any(), anyString());
+        verify(emailOutboxRepository, never()).markSent(any(), any());
+    }
+
+    // ==================== SMTP stub ====================
+
+    private void acceptConnections() {
+        while (!server.isClosed()) {
+            try (Socket socket = server.accept()) {
+                connectionCount.incrementAndGet();
+                converse(socket);
+            } catch (IOException e) {
+                // Server closed or client went away.
+            }
+        }
+    }
+
+    private void converse(Socket socket) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII);
+        reply(out, "220 localhost stub SMTP");
+
+        String recipient = null;
+        String line;
+        while ((line = in.readLine()) != null) {
+            String command = line.toUpperCase();
+            if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                reply(out, "250 localhost");
+            } else if (command.startsWith("RCPT TO")) {
+                if (command.contains("REJECT")) {
+                    reply(out, "550 5.1.1 Mailbox unavailable");
+                } else {
+                    recipient = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+                    reply(out, "250 OK");
+                }
+            } else if (command.startsWith("DATA")) {
+                reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                while ((line = in.readLine()) != null && !line.equals(".")) {
+                    // Message content is not inspected.
+                }
+                deliveredRecipients.add(recipient);
+                recipient = null;
+                reply(out, "250 Queued");
+            } else if (command.startsWith("RSET")) {
+                recipient = null;
+                reply(out, "250 OK");
+            } else if (command.startsWith("QUIT")) {
+                reply(out, "221 Bye");
+                return;
+            } else {
+                // MAIL FROM, NOOP
+                reply(out, "250 OK");
+            }
+        }
+    }
+
+    private static void reply(PrintWriter out, String response) {
+        out.print(response + "\r\n");
+        out.flush();
+    }
+
+    // ==================== Helper Methods ====================
+
+    private void stubClaim(List<EmailOutboxMessage> claimed) {
+        List<Long> ids = claimed.stream().map(EmailOutboxMessage::getId).toList();
+        when(emailOutboxRepository.findDueMessageIds(any(), any())).thenReturn(ids);
+        when(emailOutboxRepository.claim(eq(ids), any(), any(), any(UUID.class))).thenReturn(ids.size());
+        when(emailOutboxRepository.findAllByClaimToken(any(UUID.class))).thenReturn(claimed);
+    }
+
+    private static EmailOutboxMessage outboxMessage(Long id, String to) {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setId(id);
+        message.setFromAddress("envisionadinc@gmail.com");
+        message.setToAddress(to);
+        message.setSubject("Subject " + id);
+        message.setBody("Body " + id);
+        message.setStatus(EmailOutboxStatus.SENDING);
+        message.setAttempts(1);
+        message.setCreatedAt(LocalDateTime.now());
+        return message;
+    }
+}
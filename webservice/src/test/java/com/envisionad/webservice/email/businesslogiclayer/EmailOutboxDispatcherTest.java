@@ -0,0 +1,236 @@
+package com.envisionad.webservice.email.businesslogiclayer;
+
+import com.envisionad.webservice.email.dataaccesslayer.EmailOutboxMessage;
+import com.envisionad.webservice.email.dataaccesslayer.EmailOutboxRepository;
+import com.envisionad.webservice.email.dataaccesslayer.EmailOutboxStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxDispatcherTest {
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new EmailOutboxDispatcher(emailOutboxRepository, mailSender, meterRegistry, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdownDispatcher();
+    }
+
+    // ==================== sendBatch Tests ====================
+
+    @Test
+    void sendBatch_nothingDue_sendsNothing() {
+        when(emailOutboxRepository.findDueMessageIds(any(), any())).thenReturn(List.of());
+
+        assertEquals(0, dispatcher.sendBatch());
+
+        verifyNoInteractions(mailSender);
+        verify(emailOutboxRepository, never()).claim(any(), any(), any(), any());
+    }
+
+    @Test
+    void sendBatch_sendsClaimedMessagesInOneCallAndMarksThemSent() {
+        List<EmailOutboxMessage> claimed = List.of(outboxMessage(1L, "a@example.com", 1),
+                outboxMessage(2L, "b@example.com", 1));
+        stubClaim(claimed);
+
+        assertEquals(2, dispatcher.sendBatch());
+
+        ArgumentCaptor<SimpleMailMessage[]> batch = ArgumentCaptor.forClass(SimpleMailMessage[].class);
+        verify(mailSender, times(1)).send(batch.capture());
+        assertEquals(2, batch.getValue().length);
+        assertEquals("envisionadinc@gmail.com", batch.getValue()[0].getFrom());
+
+        ArgumentCaptor<List<Long>> sentIds = ArgumentCaptor.forClass(List.class);
+        verify(emailOutboxRepository).markSent(sentIds.capture(), any());
+        assertEquals(List.of(1L, 2L), sentIds.getValue().stream().sorted().toList());
+        assertEquals(2.0, meterRegistry.counter("email.outbox.messages", "outcome", "sent").count());
+        assertEquals(2, meterRegistry.timer("email.outbox.delivery.latency").count());
+        assertEquals(1, meterRegistry.timer("email.outbox.batch.duration").count());
+    }
+
+    @Test
+    void sendBatch_claimLostToAnotherReplica_sendsNothing() {
+        when(emailOutboxRepository.findDueMessageIds(any(), any())).thenReturn(List.of(1L));
+        when(emailOutboxRepository.claim(any(), any(), any(), any())).thenReturn(0);
+
+        assertEquals(0, dispatcher.sendBatch());
+
+        verify(emailOutboxRepository, never()).findAllByClaimToken(any());
+        verifyNoInteractions(mailSender);
+    }
+
+    @Test
+    void sendBatch_oneRecipientRejected_retriesOnlyThatMessage() {
+        stubClaim(List.of(outboxMessage(1L, "good@example.com", 1), outboxMessage(2L, "bad@example.com", 2)));
+        doAnswer(invocation -> {
+            SimpleMailMessage rejected = null;
+            for (Object argument : invocation.getRawArguments()) {
+                for (SimpleMailMessage mail : (SimpleMailMessage[]) argument) {
+                    if ("bad@example.com".equals(mail.getTo()[0])) {
+                        rejected = mail;
+                    }
+                }
+            }
+            throw new MailSendException(Map.of(rejected, new RuntimeException("550 mailbox unavailable")));
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.sendBatch();
+
+        verify(emailOutboxRepository).markSent(eq(List.of(1L)), any());
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(emailOutboxRepository).scheduleRetry(eq(2L), nextAttempt.capture(),
+                eq("RuntimeException: 550 mailbox unavailable"));
+        assertFalse(nextAttempt.getValue().isBefore(before.plus(EmailOutboxDispatcher.backoffFor(2))));
+        assertEquals(1.0, meterRegistry.counter("email.outbox.messages", "outcome", "retried").count());
+    }
+
+    @Test
+    void sendBatch_connectionFails_retriesWholeBatch() {
+        stubClaim(List.of(outboxMessage(1L, "a@example.com", 1), outboxMessage(2L, "b@example.com", 1)));
+        doThrow(new MailAuthenticationException("535 authentication failed"))
+                .when(mailSender).send(any(SimpleMailMessage[].class));
+
+        dispatcher.sendBatch();
+
+        verify(emailOutboxRepository).scheduleRetry(eq(1L), any(), anyString());
+        verify(emailOutboxRepository).scheduleRetry(eq(2L), any(), anyString());
+        verify(emailOutboxRepository, never()).markSent(any(), any());
+    }
+
+    @Test
+    void sendBatch_failureOnLastAttempt_marksMessageFailed() {
+        stubClaim(List.of(outboxMessage(1L, "a@example.com", EmailOutboxDispatcher.MAX_ATTEMPTS)));
+        doThrow(new MailSendException("Mail server connection failed"))
+                .when(mailSender).send(any(SimpleMailMessage[].class));
+
+        dispatcher.sendBatch();
+
+        verify(emailOutboxRepository).markFailed(1L, "MailSendException: Mail server connection failed");
+        verify(emailOutboxRepository, never()).scheduleRetry(anyLong(), any(), anyString());
+        assertEquals(1.0, meterRegistry.counter("email.outbox.messages", "outcome", "failed").count());
+    }
+
+    // ==================== drain / wake Tests ====================
+
+    @Test
+    void drain_keepsSendingWhileBatchesAreFullAndRecordsQueueDepth() {
+        List<Long> fullBatch = LongStream.rangeClosed(1, EmailOutboxDispatcher.BATCH_SIZE).boxed().toList();
+        when(emailOutboxRepository.findDueMessageIds(any(), any())).thenReturn(fullBatch, List.of(99L), List.of());
+        when(emailOutboxRepository.claim(any(), any(), any(), any())).thenReturn(1);
+        when(emailOutboxRepository.findAllByClaimToken(any())).thenReturn(List.of());
+        when(emailOutboxRepository.countByStatus(EmailOutboxStatus.PENDING)).thenReturn(7L);
+
+        dispatcher.drain();
+
+        verify(emailOutboxRepository, times(2)).findDueMessageIds(any(), any());
+        assertEquals(7.0, meterRegistry.get("email.outbox.depth").gauge().value());
+    }
+
+    @Test
+    void drain_repositoryFailure_isLoggedNotThrown() {
+        when(emailOutboxRepository.findDueMessageIds(any(), any())).thenThrow(new RuntimeException("DB down"));
+
+        assertDoesNotThrow(() -> dispatcher.drain());
+    }
+
+    @Test
+    void wake_drainsOnTheDispatcherThread() {
+        when(emailOutboxRepository.findDueMessageIds(any(), any())).thenReturn(List.of());
+
+        dispatcher.wake();
+
+        verify(emailOutboxRepository, timeout(2_000)).countByStatus(EmailOutboxStatus.PENDING);
+    }
+
+    @Test
+    void pollOutbox_whenDisabled_doesNotTouchTheOutbox() {
+        EmailOutboxDispatcher disabled = new EmailOutboxDispatcher(emailOutboxRepository, mailSender, meterRegistry, false);
+
+        disabled.pollOutbox();
+        disabled.wake();
+
+        verifyNoInteractions(emailOutboxRepository, mailSender);
+        disabled.shutdownDispatcher();
+    }
+
+    @Test
+    void backoffFor_doublesUpToTheCap() {
+        assertEquals(EmailOutboxDispatcher.BASE_BACKOFF, EmailOutboxDispatcher.backoffFor(1));
+        assertEquals(EmailOutboxDispatcher.BASE_BACKOFF.multipliedBy(4), EmailOutboxDispatcher.backoffFor(3));
+        assertEquals(EmailOutboxDispatcher.MAX_BACKOFF, EmailOutboxDispatcher.backoffFor(50));
+    }
+
+    @Test
+    void purgeSentMessages_deletesOldSentMessages() {
+        when(emailOutboxRepository.deleteSentBefore(any())).thenReturn(3);
+
+        dispatcher.purgeSentMessages();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(emailOutboxRepository).deleteSentBefore(cutoff.capture());
+        assertTrue(cutoff.getValue().isBefore(LocalDateTime.now().minus(Duration.ofDays(13))));
+    }
+
+    // ==================== Helper Methods ====================
+
+    private void stubClaim(List<EmailOutboxMessage> claimed) {
+        List<Long> ids = new ArrayList<>();
+        claimed.forEach(message -> ids.add(message.getId()));
+        when(emailOutboxRepository.findDueMessageIds(any(), any())).thenReturn(ids);
+        when(emailOutboxRepository.claim(eq(ids), any(), any(), any(UUID.class))).thenReturn(ids.size());
+        when(emailOutboxRepository.findAllByClaimToken(any(UUID.class))).thenReturn(claimed);
+    }
+
+    private static EmailOutboxMessage outboxMessage(Long id, String to, int attempts) {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setId(id);
+        message.setFromAddress("envisionadinc@gmail.com");
+        message.setToAddress(to);
+        message.setSubject("Subject " + id);
+        message.setBody("Body " + id);
+        message.setStatus(EmailOutboxStatus.SENDING);
+        message.setAttempts(attempts);
+        message.setCreatedAt(LocalDateTime.now().minusSeconds(5));
+        return message;
+    }
+}
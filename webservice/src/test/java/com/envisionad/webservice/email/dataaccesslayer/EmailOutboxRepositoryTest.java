@@ -0,0 +1,98 @@
+package com.envisionad.webservice.email.dataaccesslayer;
+
+import com.envisionad.webservice.config.BaseIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailOutboxRepositoryTest extends BaseIntegrationTest {
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void save_queuesMessageAsPendingAndDueImmediately() {
+        EmailOutboxMessage saved = queue("user@example.com", now.minusMinutes(1));
+
+        assertEquals(EmailOutboxStatus.PENDING, saved.getStatus());
+        assertEquals(saved.getCreatedAt(), saved.getNextAttemptAt());
+        assertEquals(1, emailOutboxRepository.countByStatus(EmailOutboxStatus.PENDING));
+    }
+
+    @Test
+    void claim_holdsMessagesForOneBatchUntilTheLeaseExpires() {
+        Long first = queue("first@example.com", now.minusMinutes(2)).getId();
+        Long second = queue("second@example.com", now.minusMinutes(1)).getId();
+
+        List<Long> due = emailOutboxRepository.findDueMessageIds(now, PageRequest.of(0, 10));
+        assertEquals(List.of(first, second), due);
+
+        UUID token = UUID.randomUUID();
+        assertEquals(2, emailOutboxRepository.claim(due, now, now.plusMinutes(5), token));
+        assertEquals(0, emailOutboxRepository.claim(due, now, now.plusMinutes(5), UUID.randomUUID()));
+        assertEquals(2, emailOutboxRepository.findAllByClaimToken(token).size());
+        assertTrue(emailOutboxRepository.findDueMessageIds(now, PageRequest.of(0, 10)).isEmpty());
+
+        // A dispatcher that died leaves an expired lease behind
+        LocalDateTime later = now.plusMinutes(10);
+        assertEquals(List.of(first, second), emailOutboxRepository.findDueMessageIds(later, PageRequest.of(0, 10)));
+        assertEquals(2, emailOutboxRepository.claim(due, later, later.plusMinutes(5), UUID.randomUUID()));
+        assertEquals(2, emailOutboxRepository.findById(first).orElseThrow().getAttempts());
+    }
+
+    @Test
+    void scheduleRetry_defersMessageUntilNextAttempt() {
+        Long id = queue("user@example.com", now.minusMinutes(1)).getId();
+        emailOutboxRepository.claim(List.of(id), now, now.plusMinutes(5), UUID.randomUUID());
+
+        emailOutboxRepository.scheduleRetry(id, now.plusMinutes(1), "MailSendException: 550");
+
+        assertTrue(emailOutboxRepository.findDueMessageIds(now, PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of(id), emailOutboxRepository.findDueMessageIds(now.plusMinutes(1), PageRequest.of(0, 10)));
+        EmailOutboxMessage stored = emailOutboxRepository.findById(id).orElseThrow();
+        assertEquals(EmailOutboxStatus.PENDING, stored.getStatus());
+        assertNull(stored.getClaimToken());
+        assertEquals("MailSendException: 550", stored.getLastError());
+    }
+
+    @Test
+    void markSentAndMarkFailed_leaveTheQueueAndOnlySentMessagesArePurged() {
+        Long sent = queue("sent@example.com", now.minusMinutes(2)).getId();
+        Long failed = queue("failed@example.com", now.minusMinutes(1)).getId();
+        emailOutboxRepository.claim(List.of(sent, failed), now, now.plusMinutes(5), UUID.randomUUID());
+
+        emailOutboxRepository.markSent(List.of(sent), now.minusDays(15));
+        emailOutboxRepository.markFailed(failed, "MailSendException: 550");
+
+        assertTrue(emailOutboxRepository.findDueMessageIds(now.plusHours(1), PageRequest.of(0, 10)).isEmpty());
+        assertEquals(0, emailOutboxRepository.countByStatus(EmailOutboxStatus.PENDING));
+
+        assertEquals(1, emailOutboxRepository.deleteSentBefore(now.minusDays(14)));
+        assertTrue(emailOutboxRepository.findById(sent).isEmpty());
+        assertEquals(EmailOutboxStatus.FAILED, emailOutboxRepository.findById(failed).orElseThrow().getStatus());
+    }
+
+    private EmailOutboxMessage queue(String to, LocalDateTime createdAt) {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setFromAddress("envisionadinc@gmail.com");
+        message.setToAddress(to);
+        message.setSubject("Subject");
+        message.setBody("Body");
+        message.setCreatedAt(createdAt);
+        return emailOutboxRepository.save(message);
+    }
+}
@@ -0,0 +1,129 @@
+package com.envisionad.webservice.media.BusinessLayer;
+
+import com.envisionad.webservice.media.BusinessLayer.AddressNormalizer.NormalizedAddress;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AddressNormalizerTest {
+
+    // Inputs covering accents, punctuation, mixed case and scripts the folding drops entirely
+    private static final List<String> SAMPLES = List.of(
+            "Montréal",
+            "  Montréal-Nord ",
+            "QUÉBEC",
+            "Saint-Jean-sur-Richelieu",
+            "123 Rue Sainte-Catherine O",
+            "123 Sainte Catherine Street West",
+            "Boul. René-Lévesque E.",
+            "São Paulo",
+            "Zürich",
+            "Straße",
+            "İstanbul",
+            "東京",
+            "H2X 1Y4",
+            "h2x-1y4",
+            "---",
+            "",
+            "école",
+            "1600 Amphitheatre Pkwy");
+
+    @Test
+    void comparable_MatchesRegexBasedFolding() {
+        for (String sample : SAMPLES) {
+            assertEquals(legacyComparable(sample), AddressNormalizer.comparable(sample), sample);
+        }
+        assertNull(AddressNormalizer.comparable(null));
+    }
+
+    @Test
+    void streetTokens_MatchesRegexBasedTokenizing() {
+        for (String sample : SAMPLES) {
+            assertEquals(legacyStreetTokens(sample), AddressNormalizer.streetTokens(sample), sample);
+        }
+        assertEquals(Set.of(), AddressNormalizer.streetTokens(null));
+    }
+
+    @Test
+    void streetTokens_DropsStreetTypesAndDirections() {
+        assertEquals(List.of("123", "sainte", "catherine"),
+                List.copyOf(AddressNormalizer.streetTokens("123 Rue Sainte-Catherine O")));
+        assertEquals(AddressNormalizer.streetTokens("123 Rue Sainte-Catherine O"),
+                AddressNormalizer.streetTokens("123 Sainte Catherine Street West"));
+    }
+
+    @Test
+    void postalComparable_MatchesRegexBasedFolding() {
+        for (String sample : SAMPLES) {
+            assertEquals(legacyPostalComparable(sample), AddressNormalizer.postalComparable(sample), sample);
+        }
+        assertNull(AddressNormalizer.postalComparable(null));
+    }
+
+    @Test
+    void compactPostalCode_RemovesWhitespaceAndDashes() {
+        assertEquals("H2X1Y4", AddressNormalizer.compactPostalCode("H2X 1Y4"));
+        assertEquals("H2X1Y4", AddressNormalizer.compactPostalCode("H2X-1Y4"));
+        assertEquals("H2X1Y4", AddressNormalizer.compactPostalCode("H2X1Y4"));
+    }
+
+    @Test
+    void normalizedAddress_ReadsFieldsAndReusesFoldedValues() throws Exception {
+        JsonNode node = new ObjectMapper().readTree("{\"city\":\"Montréal\",\"road\":\"Rue Sainte-Catherine\"}");
+        NormalizedAddress address = new NormalizedAddress(node);
+
+        assertEquals("Montréal", address.text("city"));
+        assertNull(address.text("town"));
+        assertNull(address.comparable(null));
+        assertNull(address.comparable("---"));
+        assertNull(address.comparable("---"));
+        assertEquals("montreal", address.comparable(address.text("city")));
+        assertSame(address.comparable("Montréal"), address.comparable("Montréal"));
+        assertEquals(Set.of("sainte", "catherine"), address.streetTokens(address.text("road")));
+        assertSame(address.streetTokens("Rue Sainte-Catherine"), address.streetTokens("Rue Sainte-Catherine"));
+        assertEquals(Set.of(), address.streetTokens(null));
+    }
+
+    private static String legacyComparable(String value) {
+        String normalized = Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{Alnum}]", "");
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    private static Set<String> legacyStreetTokens(String value) {
+        String tokenized = Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{Alnum}]", " ")
+                .trim();
+        if (tokenized.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : tokenized.split("\\s+")) {
+            switch (token) {
+                case "street", "st", "rue", "road", "rd", "avenue", "ave", "av", "boulevard", "blvd", "boul", "chemin",
+                        "ch", "drive", "dr", "lane", "ln", "court", "ct", "place", "pl", "terrace", "ter",
+                        "north", "n", "nord", "south", "s", "sud", "east", "e", "est", "west", "w", "ouest", "o" -> {
+                }
+                default -> tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String legacyPostalComparable(String value) {
+        String normalized = value.trim().toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "");
+        return normalized.isEmpty() ? null : normalized;
+    }
+}
@@ -0,0 +1,119 @@
+package com.envisionad.webservice.media.BusinessLayer;
+
+import com.envisionad.webservice.media.DataAccessLayer.GeocodingCacheRepository;
+import com.envisionad.webservice.media.exceptions.GeocodingServiceUnavailableException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Exercises the geocoding client against a local HTTP server standing in for Nominatim.
+ */
+class GeocodingServiceImplStubServerTest {
+
+    private static final String RESPONSE = "[{\"lat\":\"45.5017\",\"lon\":\"-73.5673\"}]";
+
+    private HttpServer server;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private GeocodingServiceImpl geocodingService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/search", exchange -> {
+            requestCount.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = RESPONSE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        geocodingService = new GeocodingServiceImpl(WebClient.builder(), mock(GeocodingCacheRepository.class), baseUrl);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void geocodeAddressAsync_IdenticalInFlightQueries_ShareOneRequest() throws Exception {
+        CompletableFuture<Optional<String>> first = geocodingService.geocodeAddressAsync("1 Main St, Montreal");
+        CompletableFuture<Optional<String>> second = geocodingService.geocodeAddressAsync("  1 main st,   Montreal ");
+
+        assertEquals(Optional.of(RESPONSE), first.get(5, TimeUnit.SECONDS));
+        assertEquals(Optional.of(RESPONSE), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, requestCount.get());
+
+        // Served from cache afterwards
+        assertEquals(Optional.of(RESPONSE), geocodingService.geocodeAddress("1 Main St, Montreal"));
+        assertEquals(1, requestCount.get());
+    }
+
+    @Test
+    void geocodeAddressAsync_CancelledWhileQueued_NeverHitsServer() throws Exception {
+        CompletableFuture<Optional<String>> first = geocodingService.geocodeAddressAsync("1 Main St, Montreal");
+        // Second distinct query waits for the next one-per-second slot
+        CompletableFuture<Optional<String>> queued = geocodingService.geocodeAddressAsync("2 Main St, Montreal");
+
+        assertTrue(queued.cancel(true));
+        first.get(5, TimeUnit.SECONDS);
+        Thread.sleep(1_500);
+
+        assertEquals(1, requestCount.get());
+    }
+
+    @Test
+    void geocodeAddressAsync_OneCallerCancels_OtherCallerStillCompletes() throws Exception {
+        geocodingService.geocodeAddressAsync("warm up the rate limiter").get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<Optional<String>> cancelled = geocodingService.geocodeAddressAsync("3 Main St, Montreal");
+        CompletableFuture<Optional<String>> kept = geocodingService.geocodeAddressAsync("3 Main St, Montreal");
+        cancelled.cancel(true);
+
+        assertEquals(Optional.of(RESPONSE), kept.get(5, TimeUnit.SECONDS));
+        assertEquals(2, requestCount.get());
+    }
+
+    @Test
+    void geocodeAddressAsync_WhenQueueWaitWouldExceedBound_FailsFast() {
+        List<CompletableFuture<Optional<String>>> queued = new ArrayList<>();
+        // Thirty pending requests fill the 30-second queue bound
+        for (int i = 0; i < 31; i++) {
+            queued.add(geocodingService.geocodeAddressAsync(i + " Queue St, Montreal"));
+        }
+
+        CompletableFuture<Optional<String>> rejected = geocodingService.geocodeAddressAsync("overflow, Montreal");
+
+        assertTrue(rejected.isCompletedExceptionally());
+        ExecutionException exception = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(GeocodingServiceUnavailableException.class, exception.getCause());
+
+        queued.forEach(future -> future.cancel(true));
+    }
+}
@@ -1,5 +1,7 @@
 package com.envisionad.webservice.media.BusinessLayer;
 
+import com.envisionad.webservice.media.DataAccessLayer.GeocodingCacheEntry;
+import com.envisionad.webservice.media.DataAccessLayer.GeocodingCacheRepository;
 import com.envisionad.webservice.media.exceptions.GeocodingServiceUnavailableException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,17 +13,15 @@ import org.springframework.web.util.UriBuilder;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import java.time.LocalDateTime;
 import java.util.Optional;
-import java.util.Map;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +40,8 @@ class GeocodingServiceImplTest {
     private WebClient.ResponseSpec responseSpec;
     @Mock
     private UriBuilder uriBuilder;
+    @Mock
+    private GeocodingCacheRepository geocodingCacheRepository;
 
     private GeocodingServiceImpl geocodingService;
 
@@ -47,7 +49,7 @@ class GeocodingServiceImplTest {
     void setUp() {
         when(webClientBuilder.baseUrl(anyString())).thenReturn(webClientBuilder);
         when(webClientBuilder.build()).thenReturn(webClient);
-        geocodingService = new GeocodingServiceImpl(webClientBuilder);
+        geocodingService = new GeocodingServiceImpl(webClientBuilder, geocodingCacheRepository);
     }
 
     @Test
@@ -160,42 +162,74 @@ class GeocodingServiceImplTest {
     }
 
     @Test
-    void getCached_WhenEntryMissing_ReturnsNull() throws Exception {
-        Method getCached = GeocodingServiceImpl.class.getDeclaredMethod("getCached", String.class);
-        getCached.setAccessible(true);
-
-        Object result = getCached.invoke(geocodingService, "missing-key");
+    void geocodeAddress_WhenStoredInDurableCache_SkipsHttpCall() {
+        String jsonResponse = "[{\"lat\":\"45.5017\", \"lon\":\"-73.5673\"}]";
+        GeocodingCacheEntry stored = new GeocodingCacheEntry(
+                "montreal, qc", jsonResponse, LocalDateTime.now().plusHours(1), LocalDateTime.now());
+        when(geocodingCacheRepository.findByQueryKeyAndExpiresAtAfter(eq("montreal, qc"), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(stored));
+
+        Optional<String> first = geocodingService.geocodeAddress("  Montreal,   QC ");
+        Optional<String> second = geocodingService.geocodeAddress("Montreal, QC");
+
+        assertEquals(Optional.of(jsonResponse), first);
+        assertEquals(Optional.of(jsonResponse), second);
+        verifyNoInteractions(webClient);
+        // Second read is served by the in-memory tier
+        verify(geocodingCacheRepository, times(1)).findByQueryKeyAndExpiresAtAfter(anyString(), any(LocalDateTime.class));
+    }
 
-        assertNull(result);
+    @Test
+    void geocodeAddress_WhenStoredAsNoMatch_ReturnsEmptyWithoutHttpCall() {
+        GeocodingCacheEntry stored = new GeocodingCacheEntry(
+                "nowhere", null, LocalDateTime.now().plusHours(1), LocalDateTime.now());
+        when(geocodingCacheRepository.findByQueryKeyAndExpiresAtAfter(eq("nowhere"), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(stored));
+
+        assertTrue(geocodingService.geocodeAddress("Nowhere").isEmpty());
+        verifyNoInteractions(webClient);
     }
 
     @Test
-    void getCached_WhenEntryExpired_RemovesEntryAndReturnsNull() throws Exception {
-        Field cacheField = GeocodingServiceImpl.class.getDeclaredField("geocodingCache");
-        cacheField.setAccessible(true);
+    void geocodeAddress_AfterHttpLookup_PersistsResultAndServesFromMemory() {
+        String jsonResponse = "[{\"lat\":\"45.5017\", \"lon\":\"-73.5673\"}]";
+
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.header(anyString(), anyString())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(String.class)).thenReturn(Mono.just(jsonResponse));
 
-        @SuppressWarnings("unchecked")
-        Map<String, Object> cache = (Map<String, Object>) cacheField.get(geocodingService);
+        geocodingService.geocodeAddress("Montreal, QC");
+        Optional<String> cached = geocodingService.geocodeAddress("Montreal, QC");
 
-        Class<?> cacheEntryClass = Class.forName(
-                "com.envisionad.webservice.media.BusinessLayer.GeocodingServiceImpl$CacheEntry"
-        );
-        Constructor<?> cacheEntryCtor = cacheEntryClass.getDeclaredConstructor(Optional.class, long.class);
-        cacheEntryCtor.setAccessible(true);
-        Object expiredEntry = cacheEntryCtor.newInstance(
-                Optional.of("{\"lat\":\"45.0\",\"lon\":\"-73.0\"}"),
-                System.currentTimeMillis() - 1
-        );
+        assertEquals(Optional.of(jsonResponse), cached);
+        verify(webClient, times(1)).get();
+        verify(geocodingCacheRepository, timeout(2_000)).upsert(
+                eq("montreal, qc"), eq(jsonResponse), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void geocodeAddress_WhenDurableCacheUnavailable_FallsBackToHttp() {
+        String jsonResponse = "[{\"lat\":\"45.5017\", \"lon\":\"-73.5673\"}]";
+        when(geocodingCacheRepository.findByQueryKeyAndExpiresAtAfter(anyString(), any(LocalDateTime.class)))
+                .thenThrow(new RuntimeException("connection refused"));
+
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.header(anyString(), anyString())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(String.class)).thenReturn(Mono.just(jsonResponse));
 
-        String cacheKey = "expired-key";
-        cache.put(cacheKey, expiredEntry);
+        assertEquals(Optional.of(jsonResponse), geocodingService.geocodeAddress("Montreal, QC"));
+    }
 
-        Method getCached = GeocodingServiceImpl.class.getDeclaredMethod("getCached", String.class);
-        getCached.setAccessible(true);
+    @Test
+    void purgeExpiredEntries_DeletesExpiredRows() {
+        when(geocodingCacheRepository.deleteExpired(any(LocalDateTime.class))).thenReturn(3);
 
-        Object result = getCached.invoke(geocodingService, cacheKey);
+        geocodingService.purgeExpiredEntries();
 
-        assertNull(result);
-        assertFalse(cache.containsKey(cacheKey));
+        verify(geocodingCacheRepository).deleteExpired(any(LocalDateTime.class));
     }
 }
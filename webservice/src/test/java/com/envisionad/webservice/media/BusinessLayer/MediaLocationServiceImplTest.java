@@ -1,7 +1,5 @@
 package com.envisionad.webservice.media.BusinessLayer;
 
-import com.envisionad.webservice.business.businesslogiclayer.BusinessService;
-import com.envisionad.webservice.business.presentationlayer.models.BusinessResponseModel;
 import com.envisionad.webservice.media.DataAccessLayer.Media;
 import com.envisionad.webservice.media.DataAccessLayer.MediaLocation;
 import com.envisionad.webservice.media.DataAccessLayer.MediaLocationRepository;
@@ -10,6 +8,7 @@ import com.envisionad.webservice.media.exceptions.GeocodingServiceUnavailableExc
 import com.envisionad.webservice.media.exceptions.MediaLocationDeletionNotAllowedException;
 import com.envisionad.webservice.media.exceptions.MediaLocationValidationException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.envisionad.webservice.utils.JwtUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,6 +23,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -37,7 +38,7 @@ class MediaLocationServiceImplTest {
     @Mock
     private MediaLocationRepository mediaLocationRepository;
     @Mock
-    private BusinessService businessService;
+    private JwtUtils jwtUtils;
     @Mock
     private GeocodingService geocodingService;
     @Mock
@@ -58,15 +59,22 @@ class MediaLocationServiceImplTest {
         mediaLocation.setProvince("Province");
         mediaLocation.setCountry("Country");
         mediaLocation.setPostalCode("12345");
+
+        // The service resolves queries through geocodeAddressAsync; answer with the synchronous stubs below.
+        lenient().when(geocodingService.geocodeAddressAsync(anyString())).thenAnswer(invocation -> {
+            try {
+                return CompletableFuture.completedFuture(geocodingService.geocodeAddress(invocation.getArgument(0)));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        });
     }
 
     @Test
     void createMediaLocation_ValidAddress_SavesLocationWithCoordinates() throws Exception {
         Jwt jwt = mock(Jwt.class);
         when(jwt.getSubject()).thenReturn("auth0|123");
-        BusinessResponseModel businessModel = new BusinessResponseModel();
-        businessModel.setBusinessId(businessId.toString());
-        when(businessService.getBusinessByUserId(any(), anyString())).thenReturn(businessModel);
+        when(jwtUtils.resolveBusinessIdOfUser(anyString())).thenReturn(Optional.of(businessId.toString()));
 
         when(geocodingService.geocodeAddress(anyString())).thenReturn(Optional.of(geocodingJson));
         when(mediaLocationRepository.save(any(MediaLocation.class))).thenReturn(mediaLocation);
@@ -96,15 +104,58 @@ class MediaLocationServiceImplTest {
         verify(mediaLocationRepository).save(mediaLocation);
     }
 
+    @Test
+    void createMediaLocation_WhenFirstCandidateMatches_CancelsQueuedSpeculativeLookups() throws Exception {
+        Jwt jwt = mock(Jwt.class);
+        when(jwt.getSubject()).thenReturn("auth0|123");
+        when(jwtUtils.resolveBusinessIdOfUser(anyString())).thenReturn(Optional.of(businessId.toString()));
+
+        // Only the first candidate resolves, shortly after being queued; everything behind it stays pending.
+        List<CompletableFuture<Optional<String>>> submitted = new java.util.ArrayList<>();
+        doAnswer(invocation -> {
+            CompletableFuture<Optional<String>> future = submitted.isEmpty()
+                    ? CompletableFuture.supplyAsync(() -> Optional.of(geocodingJson),
+                            CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS))
+                    : new CompletableFuture<>();
+            submitted.add(future);
+            return future;
+        }).when(geocodingService).geocodeAddressAsync(anyString());
+        when(mediaLocationRepository.save(any(MediaLocation.class))).thenReturn(mediaLocation);
+
+        JsonNode rootNode = mock(JsonNode.class);
+        JsonNode firstResult = mock(JsonNode.class);
+        JsonNode latNode = mock(JsonNode.class);
+        JsonNode lonNode = mock(JsonNode.class);
+
+        when(objectMapper.readTree(anyString())).thenReturn(rootNode);
+        when(rootNode.isArray()).thenReturn(true);
+        when(rootNode.size()).thenReturn(1);
+        when(rootNode.get(0)).thenReturn(firstResult);
+        when(firstResult.has("lat")).thenReturn(true);
+        when(firstResult.get("lat")).thenReturn(latNode);
+        when(latNode.asText()).thenReturn("10.0");
+        when(firstResult.has("lon")).thenReturn(true);
+        when(firstResult.get("lon")).thenReturn(lonNode);
+        when(lonNode.asText()).thenReturn("20.0");
+
+        mediaLocationService.createMediaLocation(mediaLocation, jwt);
+
+        // The window of three candidates, and nothing submitted once the first one matched;
+        // diagnostics and references wait for every candidate to fail
+        assertEquals(3, submitted.size());
+        assertTrue(submitted.stream().skip(1).allMatch(CompletableFuture::isCancelled));
+        verify(geocodingService, times(1)).geocodeAddressAsync("123 Main St, City, Province, Country");
+        verify(geocodingService, never()).geocodeAddress(anyString());
+    }
+
     @Test
     void createMediaLocation_FallbackAddressQuery_SavesLocationWithCoordinates() throws Exception {
         Jwt jwt = mock(Jwt.class);
         when(jwt.getSubject()).thenReturn("auth0|123");
-        BusinessResponseModel businessModel = new BusinessResponseModel();
-        businessModel.setBusinessId(businessId.toString());
-        when(businessService.getBusinessByUserId(any(), anyString())).thenReturn(businessModel);
+        when(jwtUtils.resolveBusinessIdOfUser(anyString())).thenReturn(Optional.of(businessId.toString()));
 
         // First candidate (strict full format) fails, fallback candidate succeeds.
+        when(geocodingService.geocodeAddress(anyString())).thenReturn(Optional.empty());
         when(geocodingService.geocodeAddress(eq("123 Main St, City, Province, Country, 12345")))
                 .thenReturn(Optional.empty());
         when(geocodingService.geocodeAddress(eq("123 Main St, City, Province, 12345, Country")))
@@ -141,9 +192,7 @@ class MediaLocationServiceImplTest {
     void createMediaLocation_InvalidAddress_ThrowsException() {
         Jwt jwt = mock(Jwt.class);
         when(jwt.getSubject()).thenReturn("auth0|123");
-        BusinessResponseModel businessModel = new BusinessResponseModel();
-        businessModel.setBusinessId(businessId.toString());
-        when(businessService.getBusinessByUserId(any(), anyString())).thenReturn(businessModel);
+        when(jwtUtils.resolveBusinessIdOfUser(anyString())).thenReturn(Optional.of(businessId.toString()));
 
         when(geocodingService.geocodeAddress(anyString())).thenReturn(Optional.empty());
         when(geocodingService.geocodeAddress(eq("123 Main St, City, Province, 12345"))).thenReturn(Optional.of(geocodingJson));
@@ -160,9 +209,7 @@ class MediaLocationServiceImplTest {
     void createMediaLocation_GeocodedAddressHasDifferentProvince_ThrowsProvinceValidationError() throws Exception {
         Jwt jwt = mock(Jwt.class);
         when(jwt.getSubject()).thenReturn("auth0|123");
-        BusinessResponseModel businessModel = new BusinessResponseModel();
-        businessModel.setBusinessId(businessId.toString());
-        when(businessService.getBusinessByUserId(any(), anyString())).thenReturn(businessModel);
+        when(jwtUtils.resolveBusinessIdOfUser(anyString())).thenReturn(Optional.of(businessId.toString()));
 
         mediaLocation.setProvince("WrongProvince");
         String geocodingWithAddress = "[{\"lat\":\"10.0\",\"lon\":\"20.0\",\"address\":{\"country\":\"Country\",\"state\":\"Province\",\"city\":\"City\",\"postcode\":\"12345\",\"road\":\"Main St\",\"house_number\":\"123\"}}]";
@@ -184,9 +231,7 @@ class MediaLocationServiceImplTest {
     void createMediaLocation_ValidBilingualAddressConsistency_SavesSuccessfully() throws Exception {
         Jwt jwt = mock(Jwt.class);
         when(jwt.getSubject()).thenReturn("auth0|123");
-        BusinessResponseModel businessModel = new BusinessResponseModel();
-        businessModel.setBusinessId(businessId.toString());
-        when(businessService.getBusinessByUserId(any(), anyString())).thenReturn(businessModel);
+        when(jwtUtils.resolveBusinessIdOfUser(anyString())).thenReturn(Optional.of(businessId.toString()));
 
         mediaLocation.setStreet("3040 Sherbrooke St W");
         mediaLocation.setCity("Montreal");
@@ -211,9 +256,7 @@ class MediaLocationServiceImplTest {
     void createMediaLocation_WrongCity_PinpointsCityOnly() throws Exception {
         Jwt jwt = mock(Jwt.class);
         when(jwt.getSubject()).thenReturn("auth0|123");
-        BusinessResponseModel businessModel = new BusinessResponseModel();
-        businessModel.setBusinessId(businessId.toString());
-        when(businessService.getBusinessByUserId(any(), anyString())).thenReturn(businessModel);
+        when(jwtUtils.resolveBusinessIdOfUser(anyString())).thenReturn(Optional.of(businessId.toString()));
 
         mediaLocation.setStreet("4873 Westmount Ave");
         mediaLocation.setCity("Brossard");
@@ -242,9 +285,7 @@ class MediaLocationServiceImplTest {
     void createMediaLocation_GeocodingUnavailable_ThrowsServiceUnavailableException() {
         Jwt jwt = mock(Jwt.class);
         when(jwt.getSubject()).thenReturn("auth0|123");
-        BusinessResponseModel businessModel = new BusinessResponseModel();
-        businessModel.setBusinessId(businessId.toString());
-        when(businessService.getBusinessByUserId(any(), anyString())).thenReturn(businessModel);
+        when(jwtUtils.resolveBusinessIdOfUser(anyString())).thenReturn(Optional.of(businessId.toString()));
 
         when(geocodingService.geocodeAddress(anyString()))
                 .thenThrow(new GeocodingServiceUnavailableException("Address validation service is temporarily unavailable.",
@@ -262,9 +303,7 @@ class MediaLocationServiceImplTest {
     void createMediaLocation_InvalidCoordinateFormat_ThrowsExceptionAndDoesNotSave() throws Exception {
         Jwt jwt = mock(Jwt.class);
         when(jwt.getSubject()).thenReturn("auth0|123");
-        BusinessResponseModel businessModel = new BusinessResponseModel();
-        businessModel.setBusinessId(businessId.toString());
-        when(businessService.getBusinessByUserId(any(), anyString())).thenReturn(businessModel);
+        when(jwtUtils.resolveBusinessIdOfUser(anyString())).thenReturn(Optional.of(businessId.toString()));
 
         when(geocodingService.geocodeAddress(anyString())).thenReturn(Optional.of(geocodingJson));
 
@@ -299,9 +338,7 @@ class MediaLocationServiceImplTest {
     void createMediaLocation_MissingPostalCode_ThrowsValidationException() {
         Jwt jwt = mock(Jwt.class);
         when(jwt.getSubject()).thenReturn("auth0|123");
-        BusinessResponseModel businessModel = new BusinessResponseModel();
-        businessModel.setBusinessId(businessId.toString());
-        when(businessService.getBusinessByUserId(any(), anyString())).thenReturn(businessModel);
+        when(jwtUtils.resolveBusinessIdOfUser(anyString())).thenReturn(Optional.of(businessId.toString()));
         mediaLocation.setPostalCode("   ");
 
         MediaLocationValidationException exception = assertThrows(MediaLocationValidationException.class,
@@ -318,7 +355,7 @@ class MediaLocationServiceImplTest {
     void createMediaLocation_WhenResolvedBusinessIdIsNull_ThrowsIllegalArgumentException() {
         Jwt jwt = mock(Jwt.class);
         when(jwt.getSubject()).thenReturn("auth0|123");
-        when(businessService.getBusinessByUserId(any(), anyString())).thenReturn(null);
+        when(jwtUtils.resolveBusinessIdOfUser(anyString())).thenReturn(Optional.empty());
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
                 () -> mediaLocationService.createMediaLocation(mediaLocation, jwt));
@@ -332,9 +369,7 @@ class MediaLocationServiceImplTest {
     void createMediaLocation_WhenProvidedBusinessIdDiffersFromJwt_ThrowsIllegalArgumentException() {
         Jwt jwt = mock(Jwt.class);
         when(jwt.getSubject()).thenReturn("auth0|123");
-        BusinessResponseModel businessModel = new BusinessResponseModel();
-        businessModel.setBusinessId(businessId.toString());
-        when(businessService.getBusinessByUserId(any(), anyString())).thenReturn(businessModel);
+        when(jwtUtils.resolveBusinessIdOfUser(anyString())).thenReturn(Optional.of(businessId.toString()));
 
         mediaLocation.setBusinessId(UUID.randomUUID());
 
@@ -349,9 +384,7 @@ class MediaLocationServiceImplTest {
     void getAllMediaLocations_WithJwtAndMatchingBusinessId_ReturnsLocations() {
         Jwt jwt = mock(Jwt.class);
         when(jwt.getSubject()).thenReturn("auth0|123");
-        BusinessResponseModel businessModel = new BusinessResponseModel();
-        businessModel.setBusinessId(businessId.toString());
-        when(businessService.getBusinessByUserId(jwt, "auth0|123")).thenReturn(businessModel);
+        when(jwtUtils.resolveBusinessIdOfUser("auth0|123")).thenReturn(Optional.of(businessId.toString()));
 
         List<MediaLocation> expected = List.of(new MediaLocation());
         when(mediaLocationRepository.findAllByBusinessId(businessId)).thenReturn(expected);
@@ -359,16 +392,14 @@ class MediaLocationServiceImplTest {
         List<MediaLocation> result = mediaLocationService.getAllMediaLocations(jwt, businessId.toString());
 
         assertSame(expected, result);
-        verify(businessService).getBusinessByUserId(jwt, "auth0|123");
+        verify(jwtUtils).resolveBusinessIdOfUser("auth0|123");
     }
 
     @Test
     void getAllMediaLocations_WithJwtAndNoBusinessId_ResolvesBusinessAndReturnsLocations() {
         Jwt jwt = mock(Jwt.class);
         when(jwt.getSubject()).thenReturn("auth0|123");
-        BusinessResponseModel businessModel = new BusinessResponseModel();
-        businessModel.setBusinessId(businessId.toString());
-        when(businessService.getBusinessByUserId(jwt, "auth0|123")).thenReturn(businessModel);
+        when(jwtUtils.resolveBusinessIdOfUser("auth0|123")).thenReturn(Optional.of(businessId.toString()));
 
         List<MediaLocation> expected = List.of(new MediaLocation());
         when(mediaLocationRepository.findAllByBusinessId(businessId)).thenReturn(expected);
@@ -376,7 +407,7 @@ class MediaLocationServiceImplTest {
         List<MediaLocation> result = mediaLocationService.getAllMediaLocations(jwt, null);
 
         assertSame(expected, result);
-        verify(businessService).getBusinessByUserId(jwt, "auth0|123");
+        verify(jwtUtils).resolveBusinessIdOfUser("auth0|123");
     }
 
     @Test
@@ -403,9 +434,7 @@ class MediaLocationServiceImplTest {
     void getAllMediaLocations_WithJwtAndMismatchedBusinessId_ThrowsIllegalArgumentException() {
         Jwt jwt = mock(Jwt.class);
         when(jwt.getSubject()).thenReturn("auth0|123");
-        BusinessResponseModel businessModel = new BusinessResponseModel();
-        businessModel.setBusinessId(businessId.toString());
-        when(businessService.getBusinessByUserId(jwt, "auth0|123")).thenReturn(businessModel);
+        when(jwtUtils.resolveBusinessIdOfUser("auth0|123")).thenReturn(Optional.of(businessId.toString()));
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
                 () -> mediaLocationService.getAllMediaLocations(jwt, UUID.randomUUID().toString()));
@@ -418,7 +447,7 @@ class MediaLocationServiceImplTest {
     void getAllMediaLocations_WhenBusinessLookupThrows_ThrowsIllegalArgumentException() {
         Jwt jwt = mock(Jwt.class);
         when(jwt.getSubject()).thenReturn("auth0|123");
-        when(businessService.getBusinessByUserId(jwt, "auth0|123"))
+        when(jwtUtils.resolveBusinessIdOfUser("auth0|123"))
                 .thenThrow(new RuntimeException("lookup failed"));
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
@@ -432,7 +461,7 @@ class MediaLocationServiceImplTest {
     void getAllMediaLocations_WhenBusinessLookupReturnsNull_ThrowsIllegalArgumentException() {
         Jwt jwt = mock(Jwt.class);
         when(jwt.getSubject()).thenReturn("auth0|123");
-        when(businessService.getBusinessByUserId(jwt, "auth0|123")).thenReturn(null);
+        when(jwtUtils.resolveBusinessIdOfUser("auth0|123")).thenReturn(Optional.empty());
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
                 () -> mediaLocationService.getAllMediaLocations(jwt, null));
@@ -587,9 +616,7 @@ class MediaLocationServiceImplTest {
     void createMediaLocation_InvalidAddress_WrongPostalCode_PinpointsPostalCodeOnly() {
         Jwt jwt = mock(Jwt.class);
         when(jwt.getSubject()).thenReturn("auth0|123");
-        BusinessResponseModel businessModel = new BusinessResponseModel();
-        businessModel.setBusinessId(businessId.toString());
-        when(businessService.getBusinessByUserId(any(), anyString())).thenReturn(businessModel);
+        when(jwtUtils.resolveBusinessIdOfUser(anyString())).thenReturn(Optional.of(businessId.toString()));
 
         String geocodingWithWrongPostal = "[{\"lat\":\"10.0\",\"lon\":\"20.0\",\"address\":{\"country\":\"Country\",\"state\":\"Province\",\"city\":\"City\",\"postcode\":\"99999\",\"road\":\"Main St\",\"house_number\":\"123\"}}]";
         when(geocodingService.geocodeAddress(anyString())).thenReturn(Optional.of(geocodingWithWrongPostal));
@@ -613,9 +640,7 @@ class MediaLocationServiceImplTest {
     void createMediaLocation_InvalidAddress_WrongStreet_PinpointsStreetOnly() {
         Jwt jwt = mock(Jwt.class);
         when(jwt.getSubject()).thenReturn("auth0|123");
-        BusinessResponseModel businessModel = new BusinessResponseModel();
-        businessModel.setBusinessId(businessId.toString());
-        when(businessService.getBusinessByUserId(any(), anyString())).thenReturn(businessModel);
+        when(jwtUtils.resolveBusinessIdOfUser(anyString())).thenReturn(Optional.of(businessId.toString()));
 
         when(geocodingService.geocodeAddress(anyString())).thenReturn(Optional.empty());
         when(geocodingService.geocodeAddress(eq("City, Province, Country, 12345")))
@@ -634,9 +659,7 @@ class MediaLocationServiceImplTest {
     void createMediaLocation_InvalidAddress_WithReferenceLookupParseError_ReturnsAllFieldErrors() throws Exception {
         Jwt jwt = mock(Jwt.class);
         when(jwt.getSubject()).thenReturn("auth0|123");
-        BusinessResponseModel businessModel = new BusinessResponseModel();
-        businessModel.setBusinessId(businessId.toString());
-        when(businessService.getBusinessByUserId(any(), anyString())).thenReturn(businessModel);
+        when(jwtUtils.resolveBusinessIdOfUser(anyString())).thenReturn(Optional.of(businessId.toString()));
 
         when(geocodingService.geocodeAddress(anyString())).thenReturn(Optional.empty());
         when(geocodingService.geocodeAddress(eq("12345, Country"))).thenReturn(Optional.of("not-json"));
@@ -659,9 +682,7 @@ class MediaLocationServiceImplTest {
     void createMediaLocation_InvalidAddress_WhenReferenceLookupUnavailable_ThrowsServiceUnavailable() {
         Jwt jwt = mock(Jwt.class);
         when(jwt.getSubject()).thenReturn("auth0|123");
-        BusinessResponseModel businessModel = new BusinessResponseModel();
-        businessModel.setBusinessId(businessId.toString());
-        when(businessService.getBusinessByUserId(any(), anyString())).thenReturn(businessModel);
+        when(jwtUtils.resolveBusinessIdOfUser(anyString())).thenReturn(Optional.of(businessId.toString()));
 
         when(geocodingService.geocodeAddress(anyString())).thenReturn(Optional.empty());
         when(geocodingService.geocodeAddress(eq("12345, Country")))
@@ -679,9 +700,7 @@ class MediaLocationServiceImplTest {
     void createMediaLocation_InvalidAddress_WhenDiagnosticQueryUnavailable_ThrowsServiceUnavailable() {
         Jwt jwt = mock(Jwt.class);
         when(jwt.getSubject()).thenReturn("auth0|123");
-        BusinessResponseModel businessModel = new BusinessResponseModel();
-        businessModel.setBusinessId(businessId.toString());
-        when(businessService.getBusinessByUserId(any(), anyString())).thenReturn(businessModel);
+        when(jwtUtils.resolveBusinessIdOfUser(anyString())).thenReturn(Optional.of(businessId.toString()));
 
         // Initial address candidates all miss, then first diagnostic query throws in hasGeocodingMatch(...).
         when(geocodingService.geocodeAddress(anyString())).thenReturn(Optional.empty());
@@ -1,17 +1,21 @@
 package com.envisionad.webservice.media.BusinessLayer;
 
-import com.cloudinary.Cloudinary;
 import com.envisionad.webservice.business.dataaccesslayer.Business;
 import com.envisionad.webservice.business.dataaccesslayer.BusinessIdentifier;
 import com.envisionad.webservice.media.DataAccessLayer.Media;
+import com.envisionad.webservice.media.DataAccessLayer.MediaCluster;
 import com.envisionad.webservice.media.DataAccessLayer.MediaLocation;
 import com.envisionad.webservice.media.DataAccessLayer.MediaRepository;
 import com.envisionad.webservice.media.DataAccessLayer.Status;
 import com.envisionad.webservice.media.DataAccessLayer.TypeOfDisplay;
 import com.envisionad.webservice.media.MapperLayer.MediaResponseMapper;
+import com.envisionad.webservice.media.PresentationLayer.Models.MediaClusterResponseModel;
 import com.envisionad.webservice.media.PresentationLayer.Models.MediaRequestModel;
+import com.envisionad.webservice.media.PresentationLayer.Models.MediaResponseModel;
+import com.envisionad.webservice.media.PresentationLayer.Models.MediaScrollResponseModel;
 import com.envisionad.webservice.media.PresentationLayer.Models.ScheduleModel;
 import com.envisionad.webservice.media.PresentationLayer.Models.WeeklyScheduleEntry;
+import com.envisionad.webservice.utils.CloudinaryClient;
 import com.envisionad.webservice.utils.JwtUtils;
 import com.envisionad.webservice.utils.MathFunctions;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,8 +26,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.oauth2.jwt.Jwt;
 
@@ -32,6 +38,9 @@ import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,10 +53,7 @@ class MediaServiceUnitTest {
         private MediaRepository mediaRepository;
 
     @Mock
-    private Cloudinary cloudinary;
-
-    @Mock
-    private com.cloudinary.Uploader uploader;
+    private CloudinaryClient cloudinaryClient;
 
     @Mock
     private JwtUtils jwtUtils;
@@ -120,7 +126,6 @@ class MediaServiceUnitTest {
                                 10000,
                                 Status.ACTIVE
                 );
-            lenient().when(cloudinary.uploader()).thenReturn(uploader);
         }
 
         // ==================== getAllFilteredActiveMedia Tests ====================
@@ -134,7 +139,7 @@ class MediaServiceUnitTest {
 
                 // Act
                 Page<Media> result = mediaService.getAllFilteredActiveMedia(
-                                pageable, null, null, null, null, null, null, null, null, null, null, null);
+                                pageable, null, null, null, null, null, null, null, null, null, null, null, null, null);
 
                 // Assert
                 assertNotNull(result);
@@ -151,7 +156,7 @@ class MediaServiceUnitTest {
 
                 // Act
                 mediaService.getAllFilteredActiveMedia(
-                                pageable, titleFilter, null, null, null, null, null, null, null, null, null, null);
+                                pageable, titleFilter, null, null, null, null, null, null, null, null, null, null, null, null);
 
                 // Assert
                 ArgumentCaptor<Specification<Media>> specCaptor = ArgumentCaptor.forClass(Specification.class);
@@ -170,7 +175,7 @@ class MediaServiceUnitTest {
 
                 // Act
                 mediaService.getAllFilteredActiveMedia(
-                                pageable, null, null, minPrice, maxPrice, null, null, null, null, null, null, null);
+                                pageable, null, null, minPrice, maxPrice, null, null, null, null, null, null, null, null, null);
 
                 // Assert
                 verify(mediaRepository).findAll(any(Specification.class), eq(pageable));
@@ -186,7 +191,7 @@ class MediaServiceUnitTest {
 
                 // Act
                 mediaService.getAllFilteredActiveMedia(
-                                pageable, null, null, minPrice, null, null, null, null, null, null, null, null);
+                                pageable, null, null, minPrice, null, null, null, null, null, null, null, null, null, null);
 
                 // Assert
                 verify(mediaRepository).findAll(any(Specification.class), eq(pageable));
@@ -202,7 +207,7 @@ class MediaServiceUnitTest {
 
                 // Act
                 mediaService.getAllFilteredActiveMedia(
-                                pageable, null, null, null, maxPrice, null, null, null, null, null, null, null);
+                                pageable, null, null, null, maxPrice, null, null, null, null, null, null, null, null, null);
 
                 // Assert
                 verify(mediaRepository).findAll(any(Specification.class), eq(pageable));
@@ -218,7 +223,7 @@ class MediaServiceUnitTest {
 
                 // Act
                 mediaService.getAllFilteredActiveMedia(
-                                pageable, null, null, null, null, minImpressions, null, null, null, null, null, null);
+                                pageable, null, null, null, null, minImpressions, null, null, null, null, null, null, null, null);
 
                 // Assert
                 verify(mediaRepository).findAll(any(Specification.class), eq(pageable));
@@ -234,7 +239,7 @@ class MediaServiceUnitTest {
 
                 // Act
                 mediaService.getAllFilteredActiveMedia(
-                                pageable, null, null, null, null, null, null, null, null, bounds, null, null);
+                                pageable, null, null, null, null, null, null, null, null, bounds, null, null, null, null);
 
                 // Assert - Should use regular pagination
                 verify(mediaRepository).findAll(any(Specification.class), eq(pageable));
@@ -255,123 +260,77 @@ class MediaServiceUnitTest {
                 // Act
                 mediaService.getAllFilteredActiveMedia(
                                 pageable, title, business1Id, minPrice, maxPrice, minImpressions, null, null, null,
-                                bounds, media2.getId().toString(), null);
+                                bounds, media2.getId().toString(), null, null, null);
 
                 // Assert
                 verify(mediaRepository).findAll(any(Specification.class), eq(pageable));
         }
 
         @Test
-        void getAllFilteredActiveMedia_WithNearestSort_ShouldSortByDistance() {
+        void getAllFilteredActiveMedia_WithNearestSort_ShouldDelegateOrderingToRepository() {
                 // Arrange
                 Pageable pageable = PageRequest.of(0, 10);
                 Double userLat = 43.651070;
                 Double userLng = -79.347015;
-                List<Media> mediaList = new ArrayList<>(List.of(media3, media2, media1)); // Mutable list
+                Page<Media> page = new PageImpl<>(List.of(media1, media2, media3), pageable, 3);
 
-                when(mediaRepository.findAll(any(Specification.class)))
-                                .thenReturn(mediaList);
+                when(mediaRepository.findAll(any(Specification.class), any(Pageable.class)))
+                                .thenReturn(page);
 
                 // Act
                 Page<Media> result = mediaService.getAllFilteredActiveMedia(
-                                pageable, null, null, null, null, null, "nearest", userLat, userLng, null, null, null);
+                                pageable, null, null, null, null, null, "nearest", userLat, userLng, null, null, null, null, null);
 
                 // Assert
                 assertNotNull(result);
-                List<Media> content = result.getContent();
-                // First should be media1 (closest to user location which is same as location1)
-                assertEquals("Premium Downtown Screen", content.get(0).getTitle());
-                verify(mediaRepository).findAll(any(Specification.class));
+                assertEquals("Premium Downtown Screen", result.getContent().get(0).getTitle());
+                verify(mediaRepository, never()).findAll(any(Specification.class));
         }
 
         @Test
-        void getAllFilteredActiveMedia_WithNearestSort_AndPagination_ShouldReturnCorrectPage() {
+        void getAllFilteredActiveMedia_WithNearestSort_ShouldRequestOnlyTheCurrentPageUnsorted() {
                 // Arrange
-                Pageable pageable = PageRequest.of(1, 1); // Second page, 1 item per page
+                Pageable pageable = PageRequest.of(1, 1, Sort.by("price"));
                 Double userLat = 43.651070;
                 Double userLng = -79.347015;
-                List<Media> mediaList = new ArrayList<>(List.of(media1, media2, media3));
 
-                when(mediaRepository.findAll(any(Specification.class)))
-                                .thenReturn(mediaList);
+                when(mediaRepository.findAll(any(Specification.class), any(Pageable.class)))
+                                .thenReturn(new PageImpl<>(List.of(media2), PageRequest.of(1, 1), 3));
 
                 // Act
                 Page<Media> result = mediaService.getAllFilteredActiveMedia(
-                                pageable, null, null, null, null, null, "nearest", userLat, userLng, null, null, null);
-
-                // Assert
-                assertNotNull(result);
+                                pageable, null, null, null, null, null, "nearest", userLat, userLng, null, null, null, null, null);
+
+                // Assert - distance ordering replaces any client sort, count comes from the repository
+                ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+                verify(mediaRepository).findAll(any(Specification.class), pageableCaptor.capture());
+                assertEquals(1, pageableCaptor.getValue().getPageNumber());
+                assertEquals(1, pageableCaptor.getValue().getPageSize());
+                assertTrue(pageableCaptor.getValue().getSort().isUnsorted());
                 assertEquals(1, result.getContent().size());
                 assertEquals(3, result.getTotalElements());
                 assertEquals(3, result.getTotalPages());
         }
 
         @Test
-        void getAllFilteredActiveMedia_WithNearestSort_AndEmptyList_ShouldReturnEmptyPage() {
+        void getAllFilteredActiveMedia_WithNearestSort_AndEmptyPage_ShouldReturnEmptyPage() {
                 // Arrange
-                Pageable pageable = PageRequest.of(0, 10);
+                Pageable pageable = PageRequest.of(10, 10);
                 Double userLat = 43.651070;
                 Double userLng = -79.347015;
-                List<Media> mediaList = new ArrayList<>();
 
-                when(mediaRepository.findAll(any(Specification.class)))
-                                .thenReturn(mediaList);
+                when(mediaRepository.findAll(any(Specification.class), any(Pageable.class)))
+                                .thenReturn(Page.empty(pageable));
 
                 // Act
                 Page<Media> result = mediaService.getAllFilteredActiveMedia(
-                                pageable, null, null, null, null, null, "nearest", userLat, userLng, null, null, null);
+                                pageable, null, null, null, null, null, "nearest", userLat, userLng, null, null, null, null, null);
 
                 // Assert
                 assertNotNull(result);
                 assertTrue(result.isEmpty());
         }
 
-        @Test
-        void getAllFilteredActiveMedia_WithNearestSort_AndPageBeyondSize_ShouldReturnEmptyPage() {
-                // Arrange
-                Pageable pageable = PageRequest.of(10, 10); // Way beyond available data
-                Double userLat = 43.651070;
-                Double userLng = -79.347015;
-                List<Media> mediaList = new ArrayList<>(List.of(media1, media2));
-
-                when(mediaRepository.findAll(any(Specification.class)))
-                                .thenReturn(mediaList);
-
-                // Act
-                Page<Media> result = mediaService.getAllFilteredActiveMedia(
-                                pageable, null, null, null, null, null, "nearest", userLat, userLng, null, null, null);
-
-                // Assert
-                assertNotNull(result);
-                assertTrue(result.isEmpty());
-        }
-
-        @Test
-        void getAllFilteredActiveMedia_WithNearestSort_MediaWithNullLocation_ShouldBeSortedLast() {
-                // Arrange
-                Pageable pageable = PageRequest.of(0, 10);
-                Double userLat = 43.651070;
-                Double userLng = -79.347015;
-
-                Media mediaWithNullLocation = createMedia("No Location Media", business1Id, null,
-                                new BigDecimal("150.00"), 15000, Status.ACTIVE);
-
-                List<Media> mediaList = new ArrayList<>(List.of(mediaWithNullLocation, media2, media1));
-
-                when(mediaRepository.findAll(any(Specification.class)))
-                                .thenReturn(mediaList);
-
-                // Act
-                Page<Media> result = mediaService.getAllFilteredActiveMedia(
-                                pageable, null, null, null, null, null, "nearest", userLat, userLng, null, null, null);
-
-                // Assert
-                assertNotNull(result);
-                List<Media> content = result.getContent();
-                // Media with null location should be last
-                assertEquals("No Location Media", content.get(content.size() - 1).getTitle());
-        }
-
         @Test
         void getAllFilteredActiveMedia_WithNearestSort_MissingUserCoordinates_ShouldNotSortByDistance() {
                 // Arrange
@@ -381,7 +340,7 @@ class MediaServiceUnitTest {
 
                 // Act - Missing userLat
                 mediaService.getAllFilteredActiveMedia(
-                                pageable, null, null, null, null, null, "nearest", null, -79.347015, null, null, null);
+                                pageable, null, null, null, null, null, "nearest", null, -79.347015, null, null, null, null, null);
 
                 // Assert - Should use regular pagination instead of distance sorting
                 verify(mediaRepository).findAll(any(Specification.class), eq(pageable));
@@ -396,7 +355,7 @@ class MediaServiceUnitTest {
 
                 // Act - Missing userLng
                 mediaService.getAllFilteredActiveMedia(
-                                pageable, null, null, null, null, null, "nearest", 43.651070, null, null, null, null);
+                                pageable, null, null, null, null, null, "nearest", 43.651070, null, null, null, null, null, null);
 
                 // Assert - Should use regular pagination instead of distance sorting
                 verify(mediaRepository).findAll(any(Specification.class), eq(pageable));
@@ -411,127 +370,223 @@ class MediaServiceUnitTest {
 
                 // Act
                 mediaService.getAllFilteredActiveMedia(
-                                pageable, null, null, null, null, null, "price", 43.651070, -79.347015, null, null, null);
+                                pageable, null, null, null, null, null, "price", 43.651070, -79.347015, null, null, null, null, null);
 
                 // Assert - Should use regular pagination
                 verify(mediaRepository).findAll(any(Specification.class), eq(pageable));
         }
 
     @Test
-    void getAllFilteredActiveMedia_WithWeeklyImpressionsAsc_ShouldSortCorrectly() {
+    void getAllFilteredActiveMedia_WithWeeklyImpressionsAsc_ShouldSortInDatabase() {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10);
 
-        media1.setDailyImpressions(60);
-        media1.setActiveDays(7);
-
-        media2.setDailyImpressions(70);
-        media2.setActiveDays(2);
-
-        List<Media> mediaList = new ArrayList<>(List.of(media1, media2));
-
-        when(mediaRepository.findAll(any(Specification.class)))
-                .thenReturn(mediaList);
+        when(mediaRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(media2, media1), pageable, 2));
 
         // Act
         Page<Media> result = mediaService.getAllFilteredActiveMedia(
                 pageable, null, null, null, null,
                 null, "weeklyImpressions,asc",
                 null, null, null, null
-        , null);
+        , null, null, null);
 
         // Assert
-        List<Media> content = result.getContent();
-        assertEquals(media2.getTitle(), content.get(0).getTitle()); // 140 first
-        assertEquals(media1.getTitle(), content.get(1).getTitle()); // 420 second
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(mediaRepository).findAll(any(Specification.class), pageableCaptor.capture());
+        Sort.Order order = pageableCaptor.getValue().getSort().getOrderFor("weeklyImpressions");
+        assertNotNull(order);
+        assertTrue(order.isAscending());
+        assertNotNull(pageableCaptor.getValue().getSort().getOrderFor("id"));
+        assertEquals(media2.getTitle(), result.getContent().get(0).getTitle());
+        verify(mediaRepository, never()).findAll(any(Specification.class));
     }
 
     @Test
-    void getAllFilteredActiveMedia_WithWeeklyImpressionsDesc_ShouldSortCorrectly() {
+    void getAllFilteredActiveMedia_WithWeeklyImpressionsDesc_ShouldSortInDatabase() {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10);
 
-        media1.setDailyImpressions(60);
-        media1.setActiveDays(7);   // 420
-
-        media2.setDailyImpressions(70);
-        media2.setActiveDays(2);   // 140
-
-        List<Media> mediaList = new ArrayList<>(List.of(media2, media1));
-
-        when(mediaRepository.findAll(any(Specification.class)))
-                .thenReturn(mediaList);
+        when(mediaRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(media1, media2), pageable, 2));
 
         // Act
         Page<Media> result = mediaService.getAllFilteredActiveMedia(
                 pageable, null, null, null, null,
                 null, "weeklyImpressions,desc",
                 null, null, null, null
-        , null);
+        , null, null, null);
 
         // Assert
-        List<Media> content = result.getContent();
-        assertEquals(media1.getTitle(), content.get(0).getTitle()); // 420 first
-        assertEquals(media2.getTitle(), content.get(1).getTitle()); // 140 second
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(mediaRepository).findAll(any(Specification.class), pageableCaptor.capture());
+        Sort.Order order = pageableCaptor.getValue().getSort().getOrderFor("weeklyImpressions");
+        assertNotNull(order);
+        assertTrue(order.isDescending());
+        assertEquals(2, result.getContent().size());
     }
 
     @Test
-    void getAllFilteredActiveMedia_WithWeeklyImpressionsDesc_AndPagination_ShouldReturnCorrectPage() {
+    void getAllFilteredActiveMedia_WithWeeklyImpressionsDesc_AndPagination_ShouldKeepRequestedPage() {
         // Arrange
         Pageable pageable = PageRequest.of(1, 1); // second page, 1 per page
 
-        media1.setDailyImpressions(60);
-        media1.setActiveDays(7);   // 420
-
-        media2.setDailyImpressions(70);
-        media2.setActiveDays(2);   // 140
-
-        List<Media> mediaList = new ArrayList<>(List.of(media1, media2));
-
-        when(mediaRepository.findAll(any(Specification.class)))
-                .thenReturn(mediaList);
+        when(mediaRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(media2), pageable, 2));
 
         // Act
         Page<Media> result = mediaService.getAllFilteredActiveMedia(
                 pageable, null, null, null, null,
                 null, "weeklyImpressions,desc",
                 null, null, null, null
-        , null);
+        , null, null, null);
 
         // Assert
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(mediaRepository).findAll(any(Specification.class), pageableCaptor.capture());
+        assertEquals(1, pageableCaptor.getValue().getPageNumber());
+        assertEquals(1, pageableCaptor.getValue().getPageSize());
         assertEquals(1, result.getContent().size());
         assertEquals(2, result.getTotalElements());
     }
 
-    @Test
-    void getAllFilteredActiveMedia_WithWeeklyImpressionsAndNullValues_ShouldHandleGracefully() {
-        // Arrange
-        Pageable pageable = PageRequest.of(0, 10);
 
-        media1.setDailyImpressions(null);
-        media1.setActiveDays(7);
 
-        media2.setDailyImpressions(50);
-        media2.setActiveDays(null);
+    // ==================== Cursor Paging Tests ====================
 
-        List<Media> mediaList = new ArrayList<>(List.of(media1, media2));
+    private MediaScrollResponseModel scroll(String cursor, int size, Sort sort, String specialSort, boolean estimateTotal) {
+        return mediaService.scrollFilteredActiveMedia(cursor, size, sort, estimateTotal,
+                null, null, null, null, null, specialSort,
+                null, null, null, null, null, null, null);
+    }
 
-        when(mediaRepository.findAll(any(Specification.class)))
-                .thenReturn(mediaList);
+    @Test
+    void scrollFilteredActiveMedia_WithMoreMatchesThanSize_ShouldReturnASliceAndCursorWithoutCounting() {
+        when(mediaRepository.findAllWithLocation(any(Specification.class), eq(3)))
+                .thenReturn(List.of(media2, media1, media3));
+        when(mediaResponseMapper.entityListToResponseModelList(List.of(media2, media1)))
+                .thenReturn(List.of(new MediaResponseModel(), new MediaResponseModel()));
 
-        // Act
-        Page<Media> result = mediaService.getAllFilteredActiveMedia(
-                pageable, null, null, null, null,
-                null, "weeklyImpressions,asc",
-                null, null, null, null
-        , null);
+        MediaScrollResponseModel result = scroll(null, 2, Sort.by("price"), null, false);
 
-        // Assert
-        assertNotNull(result);
         assertEquals(2, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertNotNull(result.getNextCursor());
+        assertNull(result.getEstimatedTotal());
+        verify(mediaRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+        verify(mediaRepository, never()).countUpTo(any(), anyInt());
     }
 
+    @Test
+    void scrollFilteredActiveMedia_OnTheLastSlice_ShouldNotReturnACursor() {
+        when(mediaRepository.findAllWithLocation(any(Specification.class), eq(3)))
+                .thenReturn(List.of(media1));
+        when(mediaResponseMapper.entityListToResponseModelList(List.of(media1)))
+                .thenReturn(List.of(new MediaResponseModel()));
 
+        MediaScrollResponseModel result = scroll(null, 2, Sort.unsorted(), null, false);
+
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void scrollFilteredActiveMedia_AscendingByPrice_ShouldContinueIntoMediaWithoutAPrice() {
+        Media unpriced = createMedia("Unpriced Screen", business1Id, location1, null, 100, Status.ACTIVE);
+        when(mediaRepository.findAllWithLocation(any(Specification.class), anyInt()))
+                .thenReturn(List.of(media2, media1))
+                .thenReturn(List.of())
+                .thenReturn(List.of(unpriced));
+        when(mediaResponseMapper.entityListToResponseModelList(any())).thenReturn(List.of());
+
+        String cursor = scroll(null, 1, Sort.by("price"), null, false).getNextCursor();
+        scroll(cursor, 1, Sort.by("price"), null, false);
+
+        // The seek from the last price finds nothing, so the media without a price are read next
+        verify(mediaRepository, times(3)).findAllWithLocation(any(Specification.class), eq(2));
+    }
+
+    @Test
+    void scrollFilteredActiveMedia_WithACursorFromAnotherSort_ShouldThrow() {
+        when(mediaRepository.findAllWithLocation(any(Specification.class), anyInt()))
+                .thenReturn(List.of(media2, media1));
+        when(mediaResponseMapper.entityListToResponseModelList(any())).thenReturn(List.of());
+        String cursor = scroll(null, 1, Sort.by("price"), null, false).getNextCursor();
+
+        assertThrows(IllegalArgumentException.class, () -> scroll(cursor, 1, Sort.unsorted(), "weeklyImpressions,desc", false));
+        assertThrows(IllegalArgumentException.class, () -> scroll("not-a-cursor", 1, Sort.by("price"), null, false));
+    }
+
+    @Test
+    void scrollFilteredActiveMedia_WithUnsupportedArguments_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> scroll(null, 1, Sort.unsorted(), "relevance", false));
+        assertThrows(IllegalArgumentException.class, () -> scroll(null, 1, Sort.by("loopDuration"), null, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> scroll(null, MediaServiceImpl.MAX_SCROLL_SIZE + 1, Sort.unsorted(), null, false));
+
+        verifyNoInteractions(mediaRepository);
+    }
+
+    @Test
+    void scrollFilteredActiveMedia_WithEstimateTotal_ShouldCapTheCount() {
+        when(mediaRepository.findAllWithLocation(any(Specification.class), anyInt())).thenReturn(List.of(media1));
+        when(mediaResponseMapper.entityListToResponseModelList(any())).thenReturn(List.of());
+        when(mediaRepository.countUpTo(any(), eq(MediaServiceImpl.ESTIMATED_TOTAL_CAP + 1)))
+                .thenReturn((long) MediaServiceImpl.ESTIMATED_TOTAL_CAP + 1);
+
+        MediaScrollResponseModel result = scroll(null, 10, Sort.unsorted(), null, true);
+
+        assertEquals(Long.valueOf(MediaServiceImpl.ESTIMATED_TOTAL_CAP), result.getEstimatedTotal());
+        assertTrue(result.isEstimatedTotalCapped());
+    }
+
+    // ==================== Map Cluster Tests ====================
+
+    private static MediaCluster cluster(long count, double latitude, double longitude, String minPrice, String mediaId) {
+        return new MediaCluster() {
+            public Long getCount() { return count; }
+            public Double getLatitude() { return latitude; }
+            public Double getLongitude() { return longitude; }
+            public BigDecimal getMinPrice() { return new BigDecimal(minPrice); }
+            public String getMediaId() { return mediaId; }
+        };
+    }
+
+    @Test
+    void getActiveMediaClusters_ShouldSizeCellsForTheZoomAndMapEachCluster() {
+        when(mediaRepository.findActiveMediaClusters(40.0, 50.0, -80.0, -70.0, 22.5))
+                .thenReturn(List.of(cluster(3, 43.65, -79.35, "100.00", null)));
+
+        // South and north may come in either order
+        List<MediaClusterResponseModel> clusters = mediaService.getActiveMediaClusters(List.of(50.0, 40.0, -80.0, -70.0), 2);
+
+        assertEquals(1, clusters.size());
+        assertEquals(3, clusters.get(0).getCount());
+        assertEquals(43.65, clusters.get(0).getLatitude());
+        assertEquals(new BigDecimal("100.00"), clusters.get(0).getMinPrice());
+        assertNull(clusters.get(0).getMediaId());
+    }
+
+    @Test
+    void getActiveMediaClusters_AcrossTheDateLine_ShouldMeasureTheWrappedWidth() {
+        when(mediaRepository.findActiveMediaClusters(anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+                .thenReturn(List.of());
+
+        // 20 degrees across the date line fits at zoom 7; the other 340 degrees of longitude do not
+        assertTrue(mediaService.getActiveMediaClusters(List.of(-10.0, 10.0, 170.0, -170.0), 7).isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> mediaService.getActiveMediaClusters(List.of(-10.0, 10.0, -170.0, 170.0), 7));
+    }
+
+    @Test
+    void getActiveMediaClusters_WithZoomOutOfRange_ShouldThrow() {
+        List<Double> bounds = List.of(40.0, 50.0, -80.0, -70.0);
+
+        assertThrows(IllegalArgumentException.class, () -> mediaService.getActiveMediaClusters(bounds, -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> mediaService.getActiveMediaClusters(bounds, MediaServiceImpl.MAX_CLUSTER_ZOOM + 1));
+        verifyNoInteractions(mediaRepository);
+    }
 
     // ==================== Distance Calculation Tests ====================
 
@@ -626,60 +681,6 @@ class MediaServiceUnitTest {
                 assertTrue(distance > 11000, "Distance should be over 11,000 km");
         }
 
-        // ==================== Lambda Function Tests (Implicit) ====================
-
-        @Test
-        void lambdaSort_WithMultipleMedia_ShouldSortByDistanceAscending() {
-                // Arrange
-                Pageable pageable = PageRequest.of(0, 10);
-                Double userLat = 43.651070;
-                Double userLng = -79.347015;
-
-                // Create media at different distances
-                List<Media> mediaList = new ArrayList<>(List.of(media3, media1, media2));
-
-                when(mediaRepository.findAll(any(Specification.class)))
-                                .thenReturn(mediaList);
-
-                // Act
-                Page<Media> result = mediaService.getAllFilteredActiveMedia(
-                                pageable, null, null, null, null, null, "nearest", userLat, userLng, null, null, null);
-
-                // Assert - Should be sorted: media1 (closest), media2 (medium), media3
-                // (farthest)
-                List<Media> content = result.getContent();
-                assertEquals(3, content.size());
-                assertEquals(media1.getTitle(), content.get(0).getTitle());
-                assertEquals(media2.getTitle(), content.get(1).getTitle());
-                assertEquals(media3.getTitle(), content.get(2).getTitle());
-        }
-
-        @Test
-        void lambdaSort_WithIdenticalDistances_ShouldMaintainStableSort() {
-                // Arrange
-                Pageable pageable = PageRequest.of(0, 10);
-                Double userLat = 43.651070;
-                Double userLng = -79.347015;
-
-                // Create multiple media at same location
-                Media media4 = createMedia("Same Location 1", business1Id, location1,
-                                new BigDecimal("100.00"), 10000, Status.ACTIVE);
-                Media media5 = createMedia("Same Location 2", business1Id, location1,
-                                new BigDecimal("200.00"), 20000, Status.ACTIVE);
-
-                List<Media> mediaList = new ArrayList<>(List.of(media4, media5));
-
-                when(mediaRepository.findAll(any(Specification.class)))
-                                .thenReturn(mediaList);
-
-                // Act
-                Page<Media> result = mediaService.getAllFilteredActiveMedia(
-                                pageable, null, null, null, null, null, "nearest", userLat, userLng, null, null, null);
-
-                // Assert - Both should be returned as they're at the same distance
-                assertEquals(2, result.getContent().size());
-        }
-
     // ==================== CRUD & Cloudinary Tests ====================
 
 
@@ -694,7 +695,7 @@ class MediaServiceUnitTest {
         mediaService.deleteMedia(id);
 
         // Assert
-        verify(uploader).destroy(eq("sample"), anyMap());
+        verify(cloudinaryClient).destroy(eq("sample"), anyMap());
         verify(mediaRepository).delete(media1);
     }
 
@@ -725,7 +726,7 @@ class MediaServiceUnitTest {
         mediaService.updateMediaById(mockJwt, id.toString(), requestModel);
 
         // Assert
-        verify(uploader).destroy(eq("old_id"), anyMap());
+        verify(cloudinaryClient).destroy(eq("old_id"), anyMap());
     }
 
     @Test
@@ -756,7 +757,7 @@ class MediaServiceUnitTest {
         mediaService.updateMediaById(mockJwt, id.toString(), requestModel);
 
         // Assert
-        verify(uploader, never()).destroy(anyString(), anyMap());
+        verify(cloudinaryClient, never()).destroy(anyString(), anyMap());
         verify(mediaRepository).save(any(Media.class));
     }
 
@@ -806,7 +807,7 @@ class MediaServiceUnitTest {
         when(mediaRepository.findById(id)).thenReturn(Optional.of(media1));
 
         // Simulate Cloudinary exception
-        when(uploader.destroy(anyString(), anyMap())).thenThrow(new RuntimeException("API Down"));
+        when(cloudinaryClient.destroy(anyString(), anyMap())).thenThrow(new RuntimeException("API Down"));
 
         // Act & Assert
         assertDoesNotThrow(() -> mediaService.deleteMedia(id));
@@ -830,7 +831,7 @@ class MediaServiceUnitTest {
         mediaService.deleteMedia(id);
 
         // Assert
-        verify(uploader).destroy(eq("my_image"), anyMap());
+        verify(cloudinaryClient).destroy(eq("my_image"), anyMap());
     }
 
     @Test
@@ -845,7 +846,7 @@ class MediaServiceUnitTest {
         mediaService.deleteMedia(id);
 
         // Assert
-        ArgumentCaptor<Map<String, Object>> mapCaptor = ArgumentCaptor.forClass(Map.class);        verify(uploader).destroy(eq("my_video"), mapCaptor.capture());
+        ArgumentCaptor<Map<String, Object>> mapCaptor = ArgumentCaptor.forClass(Map.class);        verify(cloudinaryClient).destroy(eq("my_video"), mapCaptor.capture());
         assertEquals("video", mapCaptor.getValue().get("resource_type"));
     }
 
@@ -860,7 +861,7 @@ class MediaServiceUnitTest {
         mediaService.deleteMedia(id);
 
         // Assert
-        verify(uploader, never()).destroy(anyString(), anyMap());
+        verify(cloudinaryClient, never()).destroy(anyString(), anyMap());
         verify(mediaRepository).delete(media1); // Should still delete from DB
     }
 
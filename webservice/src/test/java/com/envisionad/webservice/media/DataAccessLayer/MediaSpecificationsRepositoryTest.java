@@ -6,6 +6,9 @@ import com.envisionad.webservice.media.PresentationLayer.Models.WeeklyScheduleEn
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
@@ -177,6 +180,18 @@ class MediaSpecificationsRepositoryTest extends BaseIntegrationTest {
     void activeDays_ShouldBeCalculatedAutomatically() {
         Media m = mediaRepository.findAll().get(0);
         assertEquals(5, m.getActiveDays());
+        assertEquals(5000, m.getWeeklyImpressions());
+    }
+
+    @Test
+    void weeklyImpressionsSort_ShouldOrderInDatabase() {
+        Specification<Media> spec = MediaSpecifications.hasStatus(Status.ACTIVE);
+
+        Page<Media> page = mediaRepository.findAll(spec,
+                PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "weeklyImpressions")));
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals("Big Digital Screen", page.getContent().get(0).getTitle());
     }
 
     @Test
@@ -228,4 +243,145 @@ class MediaSpecificationsRepositoryTest extends BaseIntegrationTest {
 
         assertEquals(3, results.size());
     }
+
+    @Test
+    void orderByDistanceFrom_ShouldReturnNearestFirstAndCountAllMatches() {
+        MediaLocation farLocation = new MediaLocation();
+        farLocation.setName("Far Location");
+        farLocation.setCountry("Canada");
+        farLocation.setProvince("BC");
+        farLocation.setCity("Vancouver");
+        farLocation.setStreet("1 Far St");
+        farLocation.setPostalCode("V5K 0A1");
+        farLocation.setLatitude(49.28);
+        farLocation.setLongitude(-123.12);
+        farLocation.setBusinessId(UUID.randomUUID());
+        mediaLocationRepository.save(farLocation);
+
+        Media far = new Media();
+        far.setMediaLocation(farLocation);
+        far.setTitle("Far Screen");
+        far.setMediaOwnerName("Owner C");
+        far.setTypeOfDisplay(TypeOfDisplay.DIGITAL);
+        far.setStatus(Status.ACTIVE);
+        far.setPrice(new BigDecimal("10.00"));
+        far.setDailyImpressions(10);
+        far.setSchedule(createSchedule(1));
+        mediaRepository.save(far);
+
+        // User standing in Vancouver: the far screen becomes the nearest one.
+        Specification<Media> spec = MediaSpecifications.hasStatus(Status.ACTIVE)
+                .and(MediaSpecifications.orderByDistanceFrom(49.0, -123.0));
+
+        Page<Media> firstPage = mediaRepository.findAll(spec, PageRequest.of(0, 1));
+        Page<Media> secondPage = mediaRepository.findAll(spec, PageRequest.of(1, 1));
+
+        assertEquals(3, firstPage.getTotalElements());
+        assertEquals(1, firstPage.getContent().size());
+        assertEquals("Far Screen", firstPage.getContent().get(0).getTitle());
+        assertEquals(3, secondPage.getTotalElements());
+        assertEquals(1, secondPage.getContent().size());
+        assertTrue(secondPage.getContent().stream().noneMatch(m -> m.getTitle().equals("Far Screen")));
+    }
+
+    @Test
+    void orderByTitleSimilarity_ShouldRankTheClosestTitleFirstAndCountAllMatches() {
+        Specification<Media> spec = MediaSpecifications.titleContains("digital")
+                .and(MediaSpecifications.orderByTitleSimilarity("digital"));
+
+        Page<Media> firstPage = mediaRepository.findAll(spec, PageRequest.of(0, 1));
+        Page<Media> secondPage = mediaRepository.findAll(spec, PageRequest.of(1, 1));
+
+        assertEquals(2, firstPage.getTotalElements());
+        assertEquals("Digital Board", firstPage.getContent().get(0).getTitle());
+        assertEquals("Big Digital Screen", secondPage.getContent().get(0).getTitle());
+    }
+
+    private Media saveActiveMedia(String title, BigDecimal price, MediaLocation location) {
+        Media media = new Media();
+        media.setMediaLocation(location);
+        media.setTitle(title);
+        media.setMediaOwnerName("Owner C");
+        media.setTypeOfDisplay(TypeOfDisplay.DIGITAL);
+        media.setStatus(Status.ACTIVE);
+        media.setPrice(price);
+        media.setDailyImpressions(10);
+        media.setSchedule(createSchedule(1));
+        return mediaRepository.save(media);
+    }
+
+    // Reads one media at a time by price the way cursor paging does, continuing into the null tail
+    private List<Media> walkByPrice(boolean descending) {
+        Specification<Media> active = MediaSpecifications.hasStatus(Status.ACTIVE);
+        List<Media> walked = new ArrayList<>();
+        Media last = null;
+        while (true) {
+            List<Media> next = mediaRepository.findAllWithLocation(active.and(MediaSpecifications.seekBy("price",
+                    descending, last == null ? null : last.getPrice(), last == null ? null : last.getId())), 1);
+            if (next.isEmpty() && !descending && last != null && last.getPrice() != null) {
+                next = mediaRepository.findAllWithLocation(active.and(MediaSpecifications.seekNullTail("price")), 1);
+            }
+            if (next.isEmpty()) {
+                return walked;
+            }
+            last = next.get(0);
+            walked.add(last);
+        }
+    }
+
+    @Test
+    void seekBy_ShouldVisitEveryMediaOnceInPriceOrderIncludingTiesAndMissingPrices() {
+        MediaLocation location = mediaLocationRepository.findAll().get(0);
+        saveActiveMedia("Tied Screen", new BigDecimal("100.00"), location);
+        saveActiveMedia("Unpriced Screen", null, location);
+
+        List<String> ascending = walkByPrice(false).stream().map(Media::getTitle).toList();
+        List<String> descending = walkByPrice(true).stream().map(Media::getTitle).toList();
+
+        assertEquals(4, ascending.size());
+        assertTrue(ascending.subList(0, 2).containsAll(List.of("Digital Board", "Tied Screen")));
+        assertEquals(List.of("Big Digital Screen", "Unpriced Screen"), ascending.subList(2, 4));
+        assertEquals(4, descending.size());
+        assertEquals(List.of("Unpriced Screen", "Big Digital Screen"), descending.subList(0, 2));
+        assertTrue(descending.subList(2, 4).containsAll(List.of("Digital Board", "Tied Screen")));
+    }
+
+    @Test
+    void seekByDistanceFrom_ShouldContinuePastMediaAtTheSameLocation() {
+        MediaLocation farLocation = new MediaLocation();
+        farLocation.setName("Far Location");
+        farLocation.setCountry("Canada");
+        farLocation.setProvince("BC");
+        farLocation.setCity("Vancouver");
+        farLocation.setStreet("1 Far St");
+        farLocation.setPostalCode("V5K 0A1");
+        farLocation.setLatitude(49.28);
+        farLocation.setLongitude(-123.12);
+        farLocation.setBusinessId(UUID.randomUUID());
+        mediaLocationRepository.save(farLocation);
+        saveActiveMedia("Far Screen", new BigDecimal("10.00"), farLocation);
+
+        // Both other active media share one location, so they tie on distance
+        Specification<Media> active = MediaSpecifications.hasStatus(Status.ACTIVE);
+        List<String> walked = new ArrayList<>();
+        UUID lastId = null;
+        List<Media> next;
+        while (!(next = mediaRepository.findAllWithLocation(
+                active.and(MediaSpecifications.seekByDistanceFrom(49.0, -123.0, lastId)), 1)).isEmpty()) {
+            lastId = next.get(0).getId();
+            walked.add(next.get(0).getTitle());
+        }
+
+        assertEquals(3, walked.size());
+        assertEquals("Far Screen", walked.get(0));
+        assertTrue(walked.containsAll(List.of("Digital Board", "Big Digital Screen")));
+    }
+
+    @Test
+    void countUpTo_ShouldStopAtTheLimit() {
+        Specification<Media> active = MediaSpecifications.hasStatus(Status.ACTIVE);
+
+        assertEquals(1, mediaRepository.countUpTo(active, 1));
+        assertEquals(2, mediaRepository.countUpTo(active, 10));
+    }
 }
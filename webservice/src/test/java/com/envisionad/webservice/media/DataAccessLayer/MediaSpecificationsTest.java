@@ -186,21 +186,8 @@ class MediaSpecificationsTest {
     void whenMinWeeklyImpressionsProvided_thenReturnPredicate() {
         Integer min = 100;
 
-        Path<Integer> dailyPath = mock(Path.class);
-        Path<Integer> activeDaysPath = mock(Path.class);
-
-        Expression<Integer> coalesceDaily = mock(Expression.class);
-        Expression<Integer> coalesceActive = mock(Expression.class);
-        Expression<Integer> weeklyExpression = mock(Expression.class);
-
-        when(root.<Integer>get("dailyImpressions")).thenReturn(dailyPath);
-        when(root.<Integer>get("activeDays")).thenReturn(activeDaysPath);
-
-        when(cb.coalesce(dailyPath, 0)).thenReturn(coalesceDaily);
-        when(cb.coalesce(activeDaysPath, 0)).thenReturn(coalesceActive);
-
-        when(cb.prod(coalesceDaily, coalesceActive)).thenReturn(weeklyExpression);
-        when(cb.greaterThanOrEqualTo(weeklyExpression, min)).thenReturn(predicate);
+        when(root.<Integer>get("weeklyImpressions")).thenReturn(impressionsPath);
+        when(cb.greaterThanOrEqualTo(impressionsPath, min)).thenReturn(predicate);
 
         Specification<Media> spec =
                 MediaSpecifications.weeklyImpressionsGreaterThan(min);
@@ -287,4 +274,26 @@ class MediaSpecificationsTest {
         verifyNoInteractions(root, cb);
     }
 
+    @Test
+    void whenUserCoordinatesMissing_thenDistanceOrderIsSkipped() {
+        Specification<Media> spec = MediaSpecifications.orderByDistanceFrom(null, -73.0);
+
+        Predicate result = spec.toPredicate(root, query, cb);
+
+        assertNull(result);
+        verifyNoInteractions(root, query, cb);
+    }
+
+    @Test
+    void whenCountQuery_thenDistanceOrderIsSkipped() {
+        doReturn(Long.class).when(query).getResultType();
+
+        Specification<Media> spec = MediaSpecifications.orderByDistanceFrom(45.0, -73.0);
+        Predicate result = spec.toPredicate(root, query, cb);
+
+        assertNull(result);
+        verify(query, never()).orderBy(anyList());
+        verifyNoInteractions(root, cb);
+    }
+
 }
@@ -0,0 +1,124 @@
+package com.envisionad.webservice.media.DataAccessLayer;
+
+import com.envisionad.webservice.config.BaseIntegrationTest;
+import com.envisionad.webservice.media.BusinessLayer.MediaService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Title search against a catalogue of {@value #LISTINGS} listings in the Testcontainers database,
+ * seeded once for the class. The plan check is what guards the index; the latency budget is loose
+ * enough for a shared runner. Tagged {@code benchmark}, so it runs with {@code gradle benchmarkTest}
+ * rather than the regular test task.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MediaTitleSearchBenchmarkTest extends BaseIntegrationTest {
+
+    private static final int LISTINGS = 100_000;
+    private static final int MATCHES = 25;
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 15;
+    private static final Duration MEDIAN_BUDGET = Duration.ofMillis(150);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MediaService mediaService;
+
+    @Autowired
+    private MediaRepository mediaRepository;
+
+    @Autowired
+    private MediaLocationRepository mediaLocationRepository;
+
+    private MediaLocation location;
+
+    @BeforeAll
+    void seedCatalogue() {
+        mediaRepository.deleteAll();
+
+        location = new MediaLocation();
+        location.setName("Benchmark Location");
+        location.setCountry("Canada");
+        location.setProvince("QC");
+        location.setCity("Montreal");
+        location.setStreet("1 Benchmark St");
+        location.setPostalCode("H1H 1H1");
+        location.setLatitude(45.0);
+        location.setLongitude(-73.0);
+        location.setBusinessId(UUID.randomUUID());
+        mediaLocationRepository.save(location);
+
+        // Hex titles share no trigrams with the search term, so only the seeded matches qualify
+        jdbcTemplate.update("""
+                INSERT INTO media (media_id, media_location_id, title, media_owner_name, type_of_display,
+                                   status, price, daily_impressions, active_days, weekly_impressions)
+                SELECT gen_random_uuid(), ?,
+                       CASE WHEN i <= ? THEN 'Downtown Tower ' || i ELSE 'Listing ' || md5(i::text) END,
+                       'Benchmark Owner', 'DIGITAL', 'ACTIVE', 100.00, 1000, 0, 0
+                FROM generate_series(1, ?) AS i
+                """, location.getId(), MATCHES, LISTINGS);
+        jdbcTemplate.execute("ANALYZE media");
+    }
+
+    @AfterAll
+    void removeCatalogue() {
+        // Removed in one statement; deleteAll() would load every listing first
+        jdbcTemplate.update("DELETE FROM media WHERE media_location_id = ?", location.getId());
+        mediaLocationRepository.delete(location);
+    }
+
+    private Page<Media> searchByRelevance() {
+        return mediaService.getAllFilteredActiveMedia(PageRequest.of(0, 20), "downtown", null, null, null, null,
+                "relevance", null, null, null, null, null, null, null);
+    }
+
+    @Test
+    void titleSearch_ShouldBeAnsweredFromTheTrigramIndex() {
+        // Fresh statistics, so the planner costs the seeded table rather than an empty one
+        jdbcTemplate.execute("ANALYZE media");
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT media_id FROM media WHERE lower(title) LIKE '%downtown%'", String.class));
+
+        assertTrue(plan.contains("idx_media_title_trgm"), plan);
+    }
+
+    @Test
+    void titleSearch_RankedByRelevance_ShouldStayWithinBudget() {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            searchByRelevance();
+        }
+
+        long[] nanos = new long[MEASURED_RUNS];
+        Page<Media> page = null;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            page = searchByRelevance();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        Duration median = Duration.ofNanos(nanos[MEASURED_RUNS / 2]);
+
+        assertEquals(MATCHES, page.getTotalElements());
+        assertEquals(20, page.getContent().size());
+        assertTrue(page.getContent().get(0).getTitle().startsWith("Downtown Tower"));
+        assertTrue(median.compareTo(MEDIAN_BUDGET) <= 0,
+                "Median relevance search over " + LISTINGS + " listings took " + median.toMillis() + " ms");
+    }
+}
@@ -1,16 +1,21 @@
 package com.envisionad.webservice.media.MapperLayer;
 
 import com.envisionad.webservice.business.dataaccesslayer.Business;
+import com.envisionad.webservice.business.dataaccesslayer.BusinessIdentifier;
 import com.envisionad.webservice.business.dataaccesslayer.BusinessRepository;
 import com.envisionad.webservice.media.DataAccessLayer.Media;
 import com.envisionad.webservice.media.DataAccessLayer.MediaLocation;
 import com.envisionad.webservice.media.PresentationLayer.Models.MediaResponseModel;
+import com.envisionad.webservice.venue.dataaccesslayer.Venue;
 import com.envisionad.webservice.venue.dataaccesslayer.VenueRepository;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,7 +30,7 @@ class MediaResponseMapperTest {
     void setUp() {
         businessRepository = Mockito.mock(BusinessRepository.class);
         venueRepository = Mockito.mock(VenueRepository.class);
-        mapper = new MediaResponseMapper(businessRepository, venueRepository);
+        mapper = new MediaResponseMapper(businessRepository, venueRepository, new ConcurrentMapCacheManager());
     }
 
     @Test
@@ -139,4 +144,88 @@ class MediaResponseMapperTest {
         assertEquals("", response.getBusinessName());
     }
 
+    @Test
+    void entityListToResponseModelList_ShouldBatchLoadBusinessesAndVenues() {
+        UUID businessIdA = UUID.randomUUID();
+        UUID businessIdB = UUID.randomUUID();
+
+        Business businessA = new Business();
+        businessA.setBusinessId(new BusinessIdentifier(businessIdA.toString()));
+        businessA.setName("Business A");
+
+        Venue venue = new Venue();
+        venue.setVenueId("venue-1");
+        venue.setNameEn("Mall");
+        venue.setNameFr("Centre commercial");
+        venue.setColorCode("#123456");
+
+        List<Media> mediaList = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Media media = new Media();
+            media.setId(UUID.randomUUID());
+            media.setBusinessId(i % 2 == 0 ? businessIdA : businessIdB);
+            media.setVenueId("venue-1");
+            mediaList.add(media);
+        }
+
+        Mockito.when(businessRepository.findAllByBusinessId_BusinessIdIn(Mockito.anyList()))
+                .thenReturn(List.of(businessA));
+        Mockito.when(venueRepository.findAllByVenueIdIn(Mockito.anyCollection()))
+                .thenReturn(List.of(venue));
+
+        List<MediaResponseModel> responses = mapper.entityListToResponseModelList(mediaList);
+
+        assertEquals(5, responses.size());
+        assertEquals("Business A", responses.get(0).getBusinessName());
+        assertEquals("", responses.get(1).getBusinessName());
+        assertTrue(responses.stream().allMatch(r -> "Mall".equals(r.getVenue().getNameEn())));
+
+        Mockito.verify(businessRepository, Mockito.times(1)).findAllByBusinessId_BusinessIdIn(Mockito.anyList());
+        Mockito.verify(venueRepository, Mockito.times(1)).findAllByVenueIdIn(Mockito.anyCollection());
+        Mockito.verify(businessRepository, Mockito.never()).findByBusinessId_BusinessId(Mockito.anyString());
+        Mockito.verify(venueRepository, Mockito.never()).findByVenueId(Mockito.anyString());
+    }
+
+    @Test
+    void entityListToResponseModelList_SecondCall_ShouldBeServedFromCache() {
+        UUID businessId = UUID.randomUUID();
+
+        Business business = new Business();
+        business.setBusinessId(new BusinessIdentifier(businessId.toString()));
+        business.setName("Cached Business");
+
+        Venue venue = new Venue();
+        venue.setVenueId("venue-1");
+        venue.setNameEn("Mall");
+
+        Media media = new Media();
+        media.setId(UUID.randomUUID());
+        media.setBusinessId(businessId);
+        media.setVenueId("venue-1");
+
+        Mockito.when(businessRepository.findAllByBusinessId_BusinessIdIn(Mockito.anyList()))
+                .thenReturn(List.of(business));
+        Mockito.when(venueRepository.findAllByVenueIdIn(Mockito.anyCollection()))
+                .thenReturn(List.of(venue));
+
+        mapper.entityListToResponseModelList(List.of(media));
+        List<MediaResponseModel> responses = mapper.entityListToResponseModelList(List.of(media));
+        MediaResponseModel single = mapper.entityToResponseModel(media);
+
+        assertEquals("Cached Business", responses.get(0).getBusinessName());
+        assertEquals("Mall", single.getVenue().getNameEn());
+        Mockito.verify(businessRepository, Mockito.times(1)).findAllByBusinessId_BusinessIdIn(Mockito.anyList());
+        Mockito.verify(venueRepository, Mockito.times(1)).findAllByVenueIdIn(Mockito.anyCollection());
+        Mockito.verify(businessRepository, Mockito.never()).findByBusinessId_BusinessId(Mockito.anyString());
+        Mockito.verify(venueRepository, Mockito.never()).findByVenueId(Mockito.anyString());
+    }
+
+    @Test
+    void entityListToResponseModelList_WithEmptyList_ShouldNotQuery() {
+        List<MediaResponseModel> responses = mapper.entityListToResponseModelList(List.of());
+
+        assertTrue(responses.isEmpty());
+        Mockito.verifyNoInteractions(businessRepository, venueRepository);
+    }
+
 }
@@ -13,6 +13,14 @@ import com.envisionad.webservice.media.PresentationLayer.Models.ScheduleModel;
 import com.envisionad.webservice.media.PresentationLayer.Models.WeeklyScheduleEntry;
 import com.envisionad.webservice.payment.dataaccesslayer.StripeAccount;
 import com.envisionad.webservice.payment.dataaccesslayer.StripeAccountRepository;
+import com.envisionad.webservice.reservation.dataaccesslayer.Reservation;
+import com.envisionad.webservice.reservation.dataaccesslayer.ReservationRepository;
+import com.envisionad.webservice.reservation.dataaccesslayer.ReservationStatus;
+import com.envisionad.webservice.venue.dataaccesslayer.Venue;
+import com.envisionad.webservice.venue.dataaccesslayer.VenueRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +29,7 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.reactive.function.BodyInserters;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -47,6 +56,15 @@ class MediaControllerIntegrationTest extends BaseIntegrationTest {
         @Autowired
         private MediaLocationRepository mediaLocationRepository;
 
+        @Autowired
+        private VenueRepository venueRepository;
+
+        @Autowired
+        private ReservationRepository reservationRepository;
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
         private String mediaId;
         private String mediaLocationId;
 
@@ -278,4 +296,168 @@ class MediaControllerIntegrationTest extends BaseIntegrationTest {
 
                 assertEquals(0, mediaRepository.count());
         }
+
+        @Test
+        void getAllFilteredActiveMedia_ShouldUseConstantQueryCountPerPage() {
+                // Arrange
+                Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+                statistics.setStatisticsEnabled(true);
+                seedActiveMediaWithVenues(2);
+
+                // Act - small page
+                statistics.clear();
+                webTestClient.get()
+                                .uri(BASE_URI_MEDIA + "/active?size=20")
+                                .exchange()
+                                .expectStatus().isOk()
+                                .expectBody()
+                                .jsonPath("$.content.length()").isEqualTo(3);
+                long queriesForSmallPage = statistics.getPrepareStatementCount();
+
+                // Act - larger page
+                seedActiveMediaWithVenues(10);
+                statistics.clear();
+                webTestClient.get()
+                                .uri(BASE_URI_MEDIA + "/active?size=20")
+                                .exchange()
+                                .expectStatus().isOk()
+                                .expectBody()
+                                .jsonPath("$.content.length()").isEqualTo(13)
+                                .jsonPath("$.content[0].businessName").isEqualTo("Test Business");
+                long queriesForLargePage = statistics.getPrepareStatementCount();
+                statistics.setStatisticsEnabled(false);
+
+                // Assert - business and venue lookups are batched, not issued per media
+                assertEquals(queriesForSmallPage, queriesForLargePage);
+        }
+
+        @Test
+        void getAllFilteredActiveMedia_WithDateRange_ShouldExcludeMediaHeldForPartOfIt() {
+                // Arrange - three active media, one confirmed for a week overlapping the search
+                seedActiveMediaWithVenues(2);
+                List<Media> seeded = mediaRepository.findAll().stream()
+                                .filter(media -> !media.getId().toString().equals(mediaId))
+                                .toList();
+                reservationRepository.save(reservation(UUID.fromString(mediaId), ReservationStatus.CONFIRMED,
+                                LocalDateTime.of(2026, 11, 1, 0, 0), LocalDateTime.of(2026, 11, 8, 0, 0)));
+                // Denied reservations and ones ending as the search starts leave the media free
+                reservationRepository.save(reservation(seeded.get(0).getId(), ReservationStatus.DENIED,
+                                LocalDateTime.of(2026, 11, 3, 0, 0), LocalDateTime.of(2026, 11, 10, 0, 0)));
+                reservationRepository.save(reservation(seeded.get(1).getId(), ReservationStatus.PENDING,
+                                LocalDateTime.of(2026, 10, 27, 0, 0), LocalDateTime.of(2026, 11, 3, 0, 0)));
+
+                // Act & Assert - the filter applies before paging, so the total counts only free media
+                webTestClient.get()
+                                .uri(BASE_URI_MEDIA + "/active?size=1&startDate=2026-11-03T00:00:00&endDate=2026-11-10T00:00:00")
+                                .exchange()
+                                .expectStatus().isOk()
+                                .expectBody()
+                                .jsonPath("$.content.length()").isEqualTo(1)
+                                .jsonPath("$.totalElements").isEqualTo(2);
+
+                webTestClient.get()
+                                .uri(BASE_URI_MEDIA + "/active?size=20&startDate=2026-11-03T00:00:00&endDate=2026-11-10T00:00:00")
+                                .exchange()
+                                .expectStatus().isOk()
+                                .expectBody()
+                                .jsonPath("$.content[?(@.id == '" + mediaId + "')]").doesNotExist();
+        }
+
+        @Test
+        void getAllFilteredActiveMedia_WithOnlyStartDate_ShouldReturn400() {
+                webTestClient.get()
+                                .uri(BASE_URI_MEDIA + "/active?startDate=2026-11-03T00:00:00")
+                                .exchange()
+                                .expectStatus().isBadRequest();
+        }
+
+        @Test
+        void getActiveMediaClusters_ShouldAggregateEachCellIntoOneMarker() {
+                // Arrange - three active media in Toronto and one in Vancouver
+                seedActiveMediaWithVenues(2);
+                Media template = mediaRepository.findById(UUID.fromString(mediaId)).orElseThrow();
+
+                MediaLocation vancouver = new MediaLocation();
+                vancouver.setName("Vancouver Billboard");
+                vancouver.setBusinessId(UUID.fromString(BUSINESS_ID));
+                vancouver.setCountry("Canada");
+                vancouver.setProvince("BC");
+                vancouver.setCity("Vancouver");
+                vancouver.setStreet("1 Granville St");
+                vancouver.setPostalCode("V6C 1T2");
+                vancouver.setLatitude(49.28);
+                vancouver.setLongitude(-123.12);
+                mediaLocationRepository.save(vancouver);
+
+                Media far = new Media();
+                far.setMediaLocation(vancouver);
+                far.setTitle("Granville Screen");
+                far.setMediaOwnerName(template.getMediaOwnerName());
+                far.setTypeOfDisplay(TypeOfDisplay.DIGITAL);
+                far.setPrice(new BigDecimal("80.00"));
+                far.setDailyImpressions(1000);
+                far.setStatus(Status.ACTIVE);
+                far.setBusinessId(UUID.fromString(BUSINESS_ID));
+                far.setSchedule(template.getSchedule());
+                mediaRepository.save(far);
+
+                // Act & Assert - at zoom 3 a cell spans 11.25 degrees, so each city is one cluster
+                webTestClient.get()
+                                .uri(BASE_URI_MEDIA + "/clusters?bounds=40,60,-130,-70&zoom=3")
+                                .exchange()
+                                .expectStatus().isOk()
+                                .expectBody()
+                                .jsonPath("$.length()").isEqualTo(2)
+                                .jsonPath("$[?(@.count == 3 && @.minPrice == 100 && @.mediaId == null)]").exists()
+                                .jsonPath("$[?(@.count == 1 && @.mediaId == '" + far.getId() + "')]").exists();
+        }
+
+        @Test
+        void getActiveMediaClusters_WithBoundsTooLargeForTheZoom_ShouldReturn400() {
+                webTestClient.get()
+                                .uri(BASE_URI_MEDIA + "/clusters?bounds=-90,90,-180,180&zoom=15")
+                                .exchange()
+                                .expectStatus().isBadRequest();
+        }
+
+        private Reservation reservation(UUID mediaId, ReservationStatus status, LocalDateTime start, LocalDateTime end) {
+                Reservation reservation = new Reservation();
+                reservation.setReservationId(UUID.randomUUID().toString());
+                reservation.setMediaId(mediaId);
+                reservation.setCampaignId(UUID.randomUUID().toString());
+                reservation.setAdvertiserId(BUSINESS_ID);
+                reservation.setStatus(status);
+                reservation.setStartDate(start);
+                reservation.setEndDate(end);
+                reservation.setTotalPrice(new BigDecimal("100.00"));
+                return reservation;
+        }
+
+        private void seedActiveMediaWithVenues(int count) {
+                Media template = mediaRepository.findById(UUID.fromString(mediaId)).orElseThrow();
+                MediaLocation location = mediaLocationRepository.findById(UUID.fromString(mediaLocationId)).orElseThrow();
+
+                for (int i = 0; i < count; i++) {
+                        Venue venue = new Venue();
+                        venue.setNameEn("Venue " + i);
+                        venue.setNameFr("Lieu " + i);
+                        venue.setColorCode("#00000" + (i % 10));
+                        venueRepository.save(venue);
+
+                        Media media = new Media();
+                        media.setMediaLocation(location);
+                        media.setTitle("Seeded Board " + i);
+                        media.setMediaOwnerName(template.getMediaOwnerName());
+                        media.setTypeOfDisplay(TypeOfDisplay.DIGITAL);
+                        media.setLoopDuration(30);
+                        media.setResolution("1920x1080");
+                        media.setPrice(new BigDecimal("100.00"));
+                        media.setDailyImpressions(1000);
+                        media.setStatus(Status.ACTIVE);
+                        media.setBusinessId(UUID.fromString(BUSINESS_ID));
+                        media.setSchedule(template.getSchedule());
+                        media.setVenueId(venue.getVenueId());
+                        mediaRepository.save(media);
+                }
+        }
 }
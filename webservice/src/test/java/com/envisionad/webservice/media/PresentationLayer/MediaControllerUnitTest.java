@@ -19,11 +19,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.oauth2.jwt.Jwt;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
@@ -280,21 +282,21 @@ class MediaControllerUnitTest {
                 Page<MediaResponseModel> responsePage = new PageImpl<>(List.of(responseModel));
 
                 when(mediaService.getAllFilteredActiveMedia(pageable, null, null, null, null, null, null, null, null,
-                                null, null, null))
+                                null, null, null, null, null))
                                 .thenReturn(mediaPage);
-                when(responseMapper.entityToResponseModel(media))
-                                .thenReturn(responseModel);
+                when(responseMapper.entityListToResponseModelList(List.of(media)))
+                                .thenReturn(List.of(responseModel));
 
                 ResponseEntity<?> response = mediaController.getAllFilteredActiveMedia(pageable, null, null, null, null,
                                 null,
-                                null, null, null, null, null, null);
+                                null, null, null, null, null, null, null, null);
 
                 assertEquals(HttpStatus.OK, response.getStatusCode());
                 Page<?> body = (Page<?>) response.getBody();
                 assertEquals(1, body.getTotalElements());
 
                 verify(mediaService).getAllFilteredActiveMedia(pageable, null, null, null, null, null, null, null, null,
-                                null, null, null);
+                                null, null, null, null, null);
         }
 
         @Test
@@ -314,11 +316,11 @@ class MediaControllerUnitTest {
                                 50.0,
                                 bounds,
                                 mediaId.toString(),
-                                null))
+                                null, null, null))
                                 .thenReturn(mediaPage);
 
-                when(responseMapper.entityToResponseModel(media))
-                                .thenReturn(responseModel);
+                when(responseMapper.entityListToResponseModelList(List.of(media)))
+                                .thenReturn(List.of(responseModel));
 
                 ResponseEntity<?> response = mediaController.getAllFilteredActiveMedia(
                                 pageable,
@@ -332,7 +334,7 @@ class MediaControllerUnitTest {
                                 50.0,
                                 bounds,
                                 mediaId.toString(),
-                                null);
+                                null, null, null);
 
                 assertEquals(HttpStatus.OK, response.getStatusCode());
                 Page<?> body = (Page<?>) response.getBody();
@@ -345,14 +347,14 @@ class MediaControllerUnitTest {
                 Page<Media> mediaPage = new PageImpl<>(List.of(media));
 
                 when(mediaService.getAllFilteredActiveMedia(pageable, "Test", null, null, null, null, null, null, null,
-                                null, null, null))
+                                null, null, null, null, null))
                                 .thenReturn(mediaPage);
-                when(responseMapper.entityToResponseModel(media))
-                                .thenReturn(responseModel);
+                when(responseMapper.entityListToResponseModelList(List.of(media)))
+                                .thenReturn(List.of(responseModel));
 
                 ResponseEntity<?> response = mediaController.getAllFilteredActiveMedia(pageable, "Test", null, null,
                                 null,
-                                null, null, null, null, null, null, null);
+                                null, null, null, null, null, null, null, null, null);
 
                 assertEquals(HttpStatus.OK, response.getStatusCode());
                 Page<?> body = (Page<?>) response.getBody();
@@ -365,12 +367,12 @@ class MediaControllerUnitTest {
                 Page<Media> emptyPage = Page.empty();
 
                 when(mediaService.getAllFilteredActiveMedia(pageable, "NoMatch", null, null, null, null, null, null,
-                                null, null, null, null))
+                                null, null, null, null, null, null))
                                 .thenReturn(emptyPage);
 
                 ResponseEntity<?> response = mediaController.getAllFilteredActiveMedia(pageable, "NoMatch", null, null,
                                 null,
-                                null, null, null, null, null, null, null);
+                                null, null, null, null, null, null, null, null, null);
 
                 assertEquals(HttpStatus.OK, response.getStatusCode());
                 Page<?> body = (Page<?>) response.getBody();
@@ -389,9 +391,9 @@ class MediaControllerUnitTest {
                 null, null, null,
                 null, null, null,
                 null, null, null
-        )).thenReturn(mediaPage);
+        , null, null)).thenReturn(mediaPage);
 
-                when(responseMapper.entityToResponseModel(media)).thenReturn(responseModel);
+                when(responseMapper.entityListToResponseModelList(List.of(media))).thenReturn(List.of(responseModel));
 
                 ResponseEntity<?> response = mediaController.getAllFilteredActiveMedia(
                                 pageable,
@@ -399,7 +401,7 @@ class MediaControllerUnitTest {
                                 businessId,
                                 null, null, null,
                                 null, null, null,
-                                null, null, null);
+                                null, null, null, null, null);
 
                 assertEquals(HttpStatus.OK, response.getStatusCode());
         }
@@ -419,7 +421,7 @@ class MediaControllerUnitTest {
                                         null,
                                         null,
                                         null,
-                                        null);
+                                        null, null, null);
                 });
 
                 assertEquals("minPrice must be non-negative.", exception.getMessage());
@@ -441,7 +443,7 @@ class MediaControllerUnitTest {
                                         null,
                                         null,
                                         null,
-                                        null);
+                                        null, null, null);
                 });
 
                 assertEquals("maxPrice must be non-negative.", exception.getMessage());
@@ -463,7 +465,7 @@ class MediaControllerUnitTest {
                                         null,
                                         null,
                                         null,
-                                        null);
+                                        null, null, null);
                 });
 
                 assertEquals("minPrice must not be greater than maxPrice.", exception.getMessage());
@@ -485,7 +487,7 @@ class MediaControllerUnitTest {
                         null,
                         null,
                         null,
-                        null);
+                        null, null, null);
             });
 
             assertEquals("minWeeklyImpressions must be non-negative.", exception.getMessage());
@@ -502,16 +504,16 @@ class MediaControllerUnitTest {
                                 null, null, null, null, null,
                                 "nearest",
                                 50.0, 50.0,
-                                null, null, null)).thenReturn(mediaPage);
+                                null, null, null, null, null)).thenReturn(mediaPage);
 
-                when(responseMapper.entityToResponseModel(media)).thenReturn(responseModel);
+                when(responseMapper.entityListToResponseModelList(List.of(media))).thenReturn(List.of(responseModel));
 
                 ResponseEntity<?> response = mediaController.getAllFilteredActiveMedia(
                                 pageable,
                                 null, null, null, null, null,
                                 "nearest",
                                 50.0, 50.0,
-                                null, null, null);
+                                null, null, null, null, null);
 
                 assertEquals(HttpStatus.OK, response.getStatusCode());
         }
@@ -528,10 +530,10 @@ class MediaControllerUnitTest {
                 "weeklyImpressions,asc",
                 null, null,
                 null, null, null
-        )).thenReturn(mediaPage);
+        , null, null)).thenReturn(mediaPage);
 
-        when(responseMapper.entityToResponseModel(media))
-                .thenReturn(responseModel);
+        when(responseMapper.entityListToResponseModelList(List.of(media)))
+                .thenReturn(List.of(responseModel));
 
         ResponseEntity<?> response = mediaController.getAllFilteredActiveMedia(
                 pageable,
@@ -540,7 +542,7 @@ class MediaControllerUnitTest {
                 "weeklyImpressions,asc",
                 null, null,
                 null, null, null
-        );
+        , null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
 
@@ -551,7 +553,7 @@ class MediaControllerUnitTest {
                 "weeklyImpressions,asc",
                 null, null,
                 null, null, null
-        );
+        , null, null);
     }
 
     @Test
@@ -566,10 +568,10 @@ class MediaControllerUnitTest {
                 "weeklyImpressions,desc",
                 null, null,
                 null, null, null
-        )).thenReturn(mediaPage);
+        , null, null)).thenReturn(mediaPage);
 
-        when(responseMapper.entityToResponseModel(media))
-                .thenReturn(responseModel);
+        when(responseMapper.entityListToResponseModelList(List.of(media)))
+                .thenReturn(List.of(responseModel));
 
         ResponseEntity<?> response = mediaController.getAllFilteredActiveMedia(
                 pageable,
@@ -578,7 +580,7 @@ class MediaControllerUnitTest {
                 "weeklyImpressions,desc",
                 null, null,
                 null, null, null
-        );
+        , null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
@@ -598,7 +600,7 @@ class MediaControllerUnitTest {
                                         null,
                                         invalidBounds,
                                         null,
-                                        null);
+                                        null, null, null);
                 });
 
                 assertEquals("bounds must have a length of exactly 4.", exception.getMessage());
@@ -614,22 +616,131 @@ class MediaControllerUnitTest {
                                 pageable,
                                 null, null, null, null, null,
                                 null, null, null,
-                                null, mediaId.toString(), null)).thenReturn(mediaPage);
+                                null, mediaId.toString(), null, null, null)).thenReturn(mediaPage);
 
-                when(responseMapper.entityToResponseModel(media)).thenReturn(responseModel);
+                when(responseMapper.entityListToResponseModelList(List.of(media))).thenReturn(List.of(responseModel));
 
                 ResponseEntity<?> response = mediaController.getAllFilteredActiveMedia(
                                 pageable,
                                 null, null, null, null, null,
                                 null, null, null,
-                                null, mediaId.toString(), null);
+                                null, mediaId.toString(), null, null, null);
 
                 assertEquals(HttpStatus.OK, response.getStatusCode());
                 verify(mediaService).getAllFilteredActiveMedia(
                                 pageable,
                                 null, null, null, null, null,
                                 null, null, null,
-                                null, mediaId.toString(), null);
+                                null, mediaId.toString(), null, null, null);
+        }
+
+        @Test
+        void getAllFilteredActiveMedia_DateRange_ShouldPassThrough() {
+                Pageable pageable = PageRequest.of(0, 10);
+                Page<Media> mediaPage = new PageImpl<>(List.of(media));
+                LocalDateTime startDate = LocalDateTime.of(2026, 11, 3, 0, 0);
+                LocalDateTime endDate = startDate.plusWeeks(1);
+
+                when(mediaService.getAllFilteredActiveMedia(
+                                pageable,
+                                null, null, null, null, null,
+                                null, null, null,
+                                null, null, null, startDate, endDate)).thenReturn(mediaPage);
+                when(responseMapper.entityListToResponseModelList(List.of(media))).thenReturn(List.of(responseModel));
+
+                ResponseEntity<?> response = mediaController.getAllFilteredActiveMedia(
+                                pageable,
+                                null, null, null, null, null,
+                                null, null, null,
+                                null, null, null, startDate, endDate);
+
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+        }
+
+        @Test
+        void scrollFilteredActiveMedia_ShouldReturnTheSliceAfterTheCursor() {
+                MediaScrollResponseModel slice = new MediaScrollResponseModel();
+                when(mediaService.scrollFilteredActiveMedia(
+                                "cursor", 20, Sort.by("price"), true,
+                                null, null, null, null, null,
+                                null, null, null,
+                                null, null, null, null, null)).thenReturn(slice);
+
+                ResponseEntity<MediaScrollResponseModel> response = mediaController.scrollFilteredActiveMedia(
+                                "cursor", 20, Sort.by("price"), true,
+                                null, null, null, null, null,
+                                null, null, null,
+                                null, null, null, null, null);
+
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                assertSame(slice, response.getBody());
+                verify(mediaService, never()).getAllFilteredActiveMedia(any(), any(), any(), any(), any(), any(), any(),
+                                any(), any(), any(), any(), any(), any(), any());
+        }
+
+        @Test
+        void scrollFilteredActiveMedia_WithInvalidBounds_ShouldThrowException() {
+                IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                                mediaController.scrollFilteredActiveMedia(
+                                                null, 20, Sort.unsorted(), false,
+                                                null, null, null, null, null,
+                                                null, null, null,
+                                                List.of(40.0, 50.0), null, null, null, null));
+
+                assertEquals("bounds must have a length of exactly 4.", exception.getMessage());
+                verifyNoInteractions(mediaService);
+        }
+
+        @Test
+        void getActiveMediaClusters_ShouldReturnTheClustersForTheBounds() {
+                List<Double> bounds = List.of(40.0, 50.0, -80.0, -70.0);
+                List<MediaClusterResponseModel> clusters = List.of(
+                                new MediaClusterResponseModel(43.65, -79.35, 3, new BigDecimal("100.00"), null));
+                when(mediaService.getActiveMediaClusters(bounds, 5)).thenReturn(clusters);
+
+                ResponseEntity<List<MediaClusterResponseModel>> response = mediaController.getActiveMediaClusters(bounds, 5);
+
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                assertEquals(clusters, response.getBody());
+        }
+
+        @Test
+        void getActiveMediaClusters_WithInvalidBounds_ShouldThrowException() {
+                IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                                () -> mediaController.getActiveMediaClusters(List.of(40.0, 50.0), 5));
+
+                assertEquals("bounds must have a length of exactly 4.", exception.getMessage());
+                verifyNoInteractions(mediaService);
+        }
+
+        @Test
+        void getAllFilteredActiveMedia_StartDateWithoutEndDate_ShouldThrowException() {
+                LocalDateTime startDate = LocalDateTime.of(2026, 11, 3, 0, 0);
+
+                IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                                mediaController.getAllFilteredActiveMedia(
+                                                null,
+                                                null, null, null, null, null,
+                                                null, null, null,
+                                                null, null, null, startDate, null));
+
+                assertEquals("startDate and endDate must be given together.", exception.getMessage());
+                verifyNoInteractions(mediaService);
+        }
+
+        @Test
+        void getAllFilteredActiveMedia_EndDateNotAfterStartDate_ShouldThrowException() {
+                LocalDateTime startDate = LocalDateTime.of(2026, 11, 3, 0, 0);
+
+                IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                                mediaController.getAllFilteredActiveMedia(
+                                                null,
+                                                null, null, null, null, null,
+                                                null, null, null,
+                                                null, null, null, startDate, startDate));
+
+                assertEquals("startDate must be before endDate.", exception.getMessage());
+                verifyNoInteractions(mediaService);
         }
 
         @Test
@@ -1,106 +1,142 @@
 package com.envisionad.webservice.payment.businesslogiclayer;
 
 import com.envisionad.webservice.payment.dataaccesslayer.AdminDashboardRepository;
+import com.envisionad.webservice.payment.dataaccesslayer.PlatformOverviewSnapshot;
 import com.envisionad.webservice.payment.presentationlayer.models.AdminOverviewResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class AdminDashboardServiceImplTest {
 
+    private static final Duration MAX_STALENESS = Duration.ofMinutes(10);
+
     @Mock
     private AdminDashboardRepository adminDashboardRepository;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
     private AdminDashboardServiceImpl adminDashboardService;
 
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        adminDashboardService = new AdminDashboardServiceImpl(adminDashboardRepository, meterRegistry, MAX_STALENESS, true);
+    }
+
+    private static PlatformOverviewSnapshot snapshot(LocalDateTime refreshedAt) {
+        PlatformOverviewSnapshot snapshot = new PlatformOverviewSnapshot();
+        snapshot.setId(PlatformOverviewSnapshot.ID);
+        snapshot.setTotalPlatformRevenue(new BigDecimal("1234.56"));
+        snapshot.setTotalOrganizations(10L);
+        snapshot.setTotalMediaListings(50L);
+        snapshot.setTotalUsers(200L);
+        snapshot.setTotalMediaOwners(80L);
+        snapshot.setTotalAdvertisers(120L);
+        snapshot.setRefreshedAt(refreshedAt);
+        return snapshot;
+    }
+
     @Test
-    void getOverview_mapsAllFieldsCorrectly() {
-        when(adminDashboardRepository.sumPlatformRevenue()).thenReturn(new BigDecimal("1234.56"));
-        when(adminDashboardRepository.countOrganizations()).thenReturn(10L);
-        when(adminDashboardRepository.countMediaListings()).thenReturn(50L);
-        when(adminDashboardRepository.countDistinctKnownUsers()).thenReturn(200L);
-        when(adminDashboardRepository.countMediaOwners()).thenReturn(80L);
-        when(adminDashboardRepository.countAdvertisers()).thenReturn(120L);
+    void getOverview_whenSnapshotIsFresh_mapsAllFieldsWithoutRefreshing() {
+        LocalDateTime refreshedAt = LocalDateTime.now().minusMinutes(2);
+        when(adminDashboardRepository.findSnapshot()).thenReturn(Optional.of(snapshot(refreshedAt)));
 
         AdminOverviewResponse res = adminDashboardService.getOverview();
 
         assertThat(res).isNotNull();
-
         assertThat(res.totalPlatformRevenue()).isEqualByComparingTo("1234.56");
         assertThat(res.totalOrganizations()).isEqualTo(10L);
         assertThat(res.totalMediaListings()).isEqualTo(50L);
         assertThat(res.totalUsers()).isEqualTo(200L);
         assertThat(res.totalMediaOwners()).isEqualTo(80L);
         assertThat(res.totalAdvertisers()).isEqualTo(120L);
+        assertThat(res.refreshedAt()).isEqualTo(refreshedAt);
+        assertThat(res.snapshotAgeSeconds()).isBetween(120L, 130L);
 
-        verify(adminDashboardRepository).sumPlatformRevenue();
-        verify(adminDashboardRepository).countOrganizations();
-        verify(adminDashboardRepository).countMediaListings();
-        verify(adminDashboardRepository).countDistinctKnownUsers();
-        verify(adminDashboardRepository).countMediaOwners();
-        verify(adminDashboardRepository).countAdvertisers();
+        verify(adminDashboardRepository).findSnapshot();
         verifyNoMoreInteractions(adminDashboardRepository);
     }
 
     @Test
-    void getOverview_handlesZeros() {
-        when(adminDashboardRepository.sumPlatformRevenue()).thenReturn(BigDecimal.ZERO);
-        when(adminDashboardRepository.countOrganizations()).thenReturn(0L);
-        when(adminDashboardRepository.countMediaListings()).thenReturn(0L);
-        when(adminDashboardRepository.countDistinctKnownUsers()).thenReturn(0L);
-        when(adminDashboardRepository.countMediaOwners()).thenReturn(0L);
-        when(adminDashboardRepository.countAdvertisers()).thenReturn(0L);
+    void getOverview_whenNoSnapshotYet_refreshesItFirst() {
+        PlatformOverviewSnapshot refreshed = snapshot(LocalDateTime.now());
+        refreshed.setTotalPlatformRevenue(BigDecimal.ZERO);
+        refreshed.setTotalOrganizations(0L);
+        when(adminDashboardRepository.findSnapshot()).thenReturn(Optional.empty());
+        when(adminDashboardRepository.refreshSnapshot(any(LocalDateTime.class))).thenReturn(refreshed);
 
         AdminOverviewResponse res = adminDashboardService.getOverview();
 
-        assertThat(res).isNotNull();
         assertThat(res.totalPlatformRevenue()).isEqualByComparingTo("0");
         assertThat(res.totalOrganizations()).isZero();
-        assertThat(res.totalMediaListings()).isZero();
-        assertThat(res.totalUsers()).isZero();
-        assertThat(res.totalMediaOwners()).isZero();
-        assertThat(res.totalAdvertisers()).isZero();
+        assertThat(res.snapshotAgeSeconds()).isLessThan(5L);
+        assertEquals(1, meterRegistry.get("admin.overview.refresh").timer().count());
     }
 
+    @Test
+    void getOverview_whenSnapshotIsOlderThanTheBound_refreshesItFirst() {
+        when(adminDashboardRepository.findSnapshot())
+                .thenReturn(Optional.of(snapshot(LocalDateTime.now().minus(MAX_STALENESS).minusMinutes(1))));
+        PlatformOverviewSnapshot refreshed = snapshot(LocalDateTime.now());
+        refreshed.setTotalUsers(201L);
+        when(adminDashboardRepository.refreshSnapshot(any(LocalDateTime.class))).thenReturn(refreshed);
+
+        AdminOverviewResponse res = adminDashboardService.getOverview();
+
+        assertEquals(201L, res.totalUsers());
+        verify(adminDashboardRepository).refreshSnapshot(any(LocalDateTime.class));
+    }
 
     @Test
-    void getOverview_mapsAllRepositoryValues() {
-        AdminDashboardRepository repo = mock(AdminDashboardRepository.class);
-
-        when(repo.sumPlatformRevenue()).thenReturn(new BigDecimal("123.45"));
-        when(repo.countOrganizations()).thenReturn(10L);
-        when(repo.countMediaListings()).thenReturn(20L);
-        when(repo.countDistinctKnownUsers()).thenReturn(30L);
-        when(repo.countMediaOwners()).thenReturn(40L);
-        when(repo.countAdvertisers()).thenReturn(50L);
-
-        AdminDashboardServiceImpl service = new AdminDashboardServiceImpl(repo);
-
-        AdminOverviewResponse res = service.getOverview();
-
-        assertEquals(new BigDecimal("123.45"), res.totalPlatformRevenue());
-        assertEquals(10L, res.totalOrganizations());
-        assertEquals(20L, res.totalMediaListings());
-        assertEquals(30L, res.totalUsers());
-        assertEquals(40L, res.totalMediaOwners());
-        assertEquals(50L, res.totalAdvertisers());
-
-        verify(repo).sumPlatformRevenue();
-        verify(repo).countOrganizations();
-        verify(repo).countMediaListings();
-        verify(repo).countDistinctKnownUsers();
-        verify(repo).countMediaOwners();
-        verify(repo).countAdvertisers();
-        verifyNoMoreInteractions(repo);
+    void refreshIfDue_whenRecentAndUnchanged_leavesTheSnapshot() {
+        when(adminDashboardRepository.findSnapshot()).thenReturn(Optional.of(snapshot(LocalDateTime.now().minusMinutes(1))));
+
+        adminDashboardService.refreshIfDue();
+
+        verify(adminDashboardRepository, never()).refreshSnapshot(any());
+    }
+
+    @Test
+    void refreshIfDue_afterAWriteChangedTheOverview_refreshesOnce() {
+        when(adminDashboardRepository.findSnapshot()).thenReturn(Optional.of(snapshot(LocalDateTime.now().minusMinutes(1))));
+
+        adminDashboardService.overviewChanged();
+        adminDashboardService.refreshIfDue();
+        adminDashboardService.refreshIfDue();
+
+        verify(adminDashboardRepository, times(1)).refreshSnapshot(any(LocalDateTime.class));
+    }
+
+    @Test
+    void refreshIfDue_whenHalfWayToTheBound_refreshesBeforeReadersHaveTo() {
+        when(adminDashboardRepository.findSnapshot()).thenReturn(Optional.of(snapshot(LocalDateTime.now().minusMinutes(6))));
+
+        adminDashboardService.refreshIfDue();
+
+        verify(adminDashboardRepository).refreshSnapshot(any(LocalDateTime.class));
+    }
+
+    @Test
+    void refreshIfDue_whenDisabled_doesNotTouchTheDatabase() {
+        AdminDashboardServiceImpl disabled = new AdminDashboardServiceImpl(adminDashboardRepository, meterRegistry, MAX_STALENESS, false);
+
+        disabled.overviewChanged();
+        disabled.refreshIfDue();
+
+        verifyNoInteractions(adminDashboardRepository);
     }
 }
@@ -0,0 +1,95 @@
+package com.envisionad.webservice.payment.businesslogiclayer;
+
+import com.envisionad.webservice.payment.dataaccesslayer.BusinessDailyRollupRepository;
+import com.envisionad.webservice.payment.dataaccesslayer.PaymentIntent;
+import com.envisionad.webservice.reservation.dataaccesslayer.Reservation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BusinessDailyRollupServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+
+    @Mock
+    private BusinessDailyRollupRepository rollupRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BusinessDailyRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new BusinessDailyRollupService(rollupRepository, meterRegistry, true, 30);
+    }
+
+    private static Reservation reservation(LocalDateTime start, LocalDateTime end) {
+        Reservation reservation = new Reservation();
+        reservation.setAdvertiserId("advertiser-1");
+        reservation.setStartDate(start);
+        reservation.setEndDate(end);
+        return reservation;
+    }
+
+    @Test
+    void reservationChanged_ShouldRefreshTheDaysTheReservationRuns() {
+        service.reservationChanged(reservation(DAY.atTime(9, 0), DAY.plusDays(7).atTime(9, 0)));
+
+        // The end day itself is not counted
+        verify(rollupRepository).refreshAdvertiserDays("advertiser-1", DAY, DAY.plusDays(6));
+    }
+
+    @Test
+    void reservationChanged_WhenItEndsTheDayItStarts_ShouldRefreshThatDay() {
+        service.reservationChanged(reservation(DAY.atTime(9, 0), DAY.atTime(18, 0)));
+
+        verify(rollupRepository).refreshAdvertiserDays("advertiser-1", DAY, DAY);
+    }
+
+    @Test
+    void reservationChanged_WithoutAdvertiserOrDates_ShouldDoNothing() {
+        Reservation noAdvertiser = reservation(DAY.atTime(9, 0), DAY.plusDays(1).atTime(9, 0));
+        noAdvertiser.setAdvertiserId(null);
+
+        service.reservationChanged(noAdvertiser);
+        service.reservationChanged(reservation(null, null));
+
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    void paymentChanged_ShouldRefreshTheReceivingBusinessOnTheDayThePaymentWasCreated() {
+        PaymentIntent payment = new PaymentIntent();
+        payment.setBusinessId("owner-1");
+        payment.setCreatedAt(DAY.atTime(23, 30));
+
+        service.paymentChanged(payment);
+
+        verify(rollupRepository).refreshRevenueDays("owner-1", DAY, DAY, 30);
+    }
+
+    @Test
+    void rebuildDaily_ShouldRebuildWithThePlatformFee() {
+        service.rebuildDaily();
+
+        verify(rollupRepository).rebuildAll(30);
+        assertEquals(1, meterRegistry.get("dashboard.rollups.rebuild").timer().count());
+    }
+
+    @Test
+    void rebuildDaily_WhenDisabled_ShouldNotTouchTheDatabase() {
+        new BusinessDailyRollupService(rollupRepository, meterRegistry, false, 30).rebuildDaily();
+
+        verifyNoInteractions(rollupRepository);
+    }
+}
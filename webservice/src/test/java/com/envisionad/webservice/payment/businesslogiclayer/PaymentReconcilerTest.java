@@ -0,0 +1,220 @@
+package com.envisionad.webservice.payment.businesslogiclayer;
+
+import com.envisionad.webservice.config.outbound.OutboundHttpClients;
+import com.envisionad.webservice.config.outbound.OutboundHttpProperties;
+import com.envisionad.webservice.payment.dataaccesslayer.PaymentIntent;
+import com.envisionad.webservice.payment.dataaccesslayer.PaymentIntentRepository;
+import com.envisionad.webservice.payment.dataaccesslayer.PaymentReconciliationCheckpoint;
+import com.envisionad.webservice.payment.dataaccesslayer.PaymentReconciliationCheckpointRepository;
+import com.envisionad.webservice.payment.dataaccesslayer.PaymentStatus;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.checkout.Session;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentReconcilerTest {
+
+    @Mock
+    private PaymentIntentRepository paymentIntentRepository;
+
+    @Mock
+    private PaymentReconciliationCheckpointRepository checkpointRepository;
+
+    @Mock
+    private BusinessDailyRollupService businessDailyRollupService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final List<String> retrievedSessionIds = new CopyOnWriteArrayList<>();
+    private PaymentReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        OutboundHttpClients clients = new OutboundHttpClients(new OutboundHttpProperties(null), meterRegistry);
+        reconciler = new PaymentReconciler(paymentIntentRepository, checkpointRepository, businessDailyRollupService,
+                clients, meterRegistry, true) {
+            @Override
+            Session retrieveSession(String sessionId) throws StripeException {
+                retrievedSessionIds.add(sessionId);
+                Session session = sessions.get(sessionId);
+                if (session == null) {
+                    throw new ApiConnectionException("Stripe unreachable");
+                }
+                return session;
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        reconciler.shutdownExecutors();
+    }
+
+    private static PaymentIntent pending(long id, String sessionId) {
+        PaymentIntent payment = new PaymentIntent();
+        payment.setId(id);
+        payment.setBusinessId("biz-1");
+        payment.setStatus(PaymentStatus.PENDING);
+        payment.setStripeSessionId(sessionId);
+        return payment;
+    }
+
+    private void givenSession(String sessionId, String status, String paymentIntentId) {
+        Session session = mock(Session.class);
+        lenient().when(session.getStatus()).thenReturn(status);
+        lenient().when(session.getPaymentIntent()).thenReturn(paymentIntentId);
+        sessions.put(sessionId, session);
+    }
+
+    private void givenLockedCheckpoint(long lastPaymentId) {
+        when(checkpointRepository.tryLock(eq(PaymentReconciler.JOB_NAME), any(), any())).thenReturn(1);
+        PaymentReconciliationCheckpoint checkpoint = new PaymentReconciliationCheckpoint();
+        checkpoint.setJobName(PaymentReconciler.JOB_NAME);
+        checkpoint.setLastPaymentId(lastPaymentId);
+        when(checkpointRepository.findById(PaymentReconciler.JOB_NAME)).thenReturn(Optional.of(checkpoint));
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("payment.reconciler.payments").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void sweep_ShouldSettleCompletedAndExpiredSessions() {
+        givenLockedCheckpoint(0);
+        givenSession("sess_complete", "complete", "pi_new_123");
+        givenSession("sess_expired", "expired", null);
+        givenSession("sess_open", "open", null);
+        PaymentIntent expired = pending(2, "sess_expired");
+        expired.setStripePaymentIntentId("pi_old");
+        when(paymentIntentRepository.findStalePendingPayments(eq(0L), any(), any(Pageable.class)))
+                .thenReturn(List.of(pending(1, "sess_complete"), expired, pending(3, "sess_open")));
+        when(paymentIntentRepository.resolvePending(anyLong(), anyString(), any(), any(), any())).thenReturn(1);
+
+        assertEquals(3, reconciler.sweep());
+
+        verify(paymentIntentRepository).resolvePending(eq(1L), eq("sess_complete"), eq(PaymentStatus.SUCCEEDED),
+                eq("pi_new_123"), any());
+        verify(paymentIntentRepository).resolvePending(eq(2L), eq("sess_expired"), eq(PaymentStatus.FAILED),
+                eq("pi_old"), any());
+        verify(paymentIntentRepository, never()).resolvePending(eq(3L), anyString(), any(), any(), any());
+        // Only the payment that succeeded changes its business's revenue
+        verify(businessDailyRollupService).paymentChanged(argThat(payment -> payment.getId() == 1L));
+        verifyNoMoreInteractions(businessDailyRollupService);
+        // Reached the end, so the next sweep starts over
+        verify(checkpointRepository).advance(eq(PaymentReconciler.JOB_NAME), eq(0L), any());
+        verify(checkpointRepository).unlock(eq(PaymentReconciler.JOB_NAME), any());
+        assertEquals(1.0, outcome("succeeded"));
+        assertEquals(1.0, outcome("failed"));
+        assertEquals(1.0, outcome("unchanged"));
+    }
+
+    @Test
+    void sweep_ShouldResumeFromCheckpointAndAdvanceItPageByPage() {
+        givenLockedCheckpoint(100);
+        List<PaymentIntent> fullPage = LongStream.rangeClosed(101, 100 + PaymentReconciler.PAGE_SIZE)
+                .mapToObj(id -> pending(id, "sess_" + id))
+                .toList();
+        fullPage.forEach(payment -> givenSession(payment.getStripeSessionId(), "open", null));
+        long lastId = 100 + PaymentReconciler.PAGE_SIZE;
+        when(paymentIntentRepository.findStalePendingPayments(eq(100L), any(), any(Pageable.class))).thenReturn(fullPage);
+        when(paymentIntentRepository.findStalePendingPayments(eq(lastId), any(), any(Pageable.class))).thenReturn(List.of());
+
+        assertEquals(PaymentReconciler.PAGE_SIZE, reconciler.sweep());
+
+        verify(checkpointRepository).advance(eq(PaymentReconciler.JOB_NAME), eq(lastId), any());
+        verify(checkpointRepository).advance(eq(PaymentReconciler.JOB_NAME), eq(0L), any());
+        assertEquals(PaymentReconciler.PAGE_SIZE, retrievedSessionIds.size());
+    }
+
+    @Test
+    void sweep_ShouldStopAtTheSweepLimit() {
+        givenLockedCheckpoint(0);
+        when(paymentIntentRepository.findStalePendingPayments(anyLong(), any(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    long afterId = invocation.getArgument(0);
+                    return LongStream.rangeClosed(afterId + 1, afterId + PaymentReconciler.PAGE_SIZE)
+                            .mapToObj(id -> pending(id, "sess_" + id))
+                            .toList();
+                });
+
+        assertEquals(PaymentReconciler.MAX_PAYMENTS_PER_SWEEP, reconciler.sweep());
+
+        verify(checkpointRepository).advance(eq(PaymentReconciler.JOB_NAME),
+                eq((long) PaymentReconciler.MAX_PAYMENTS_PER_SWEEP), any());
+        verify(checkpointRepository, never()).advance(eq(PaymentReconciler.JOB_NAME), eq(0L), any());
+    }
+
+    @Test
+    void sweep_WhenAnotherReplicaHoldsTheLock_ShouldDoNothing() {
+        when(checkpointRepository.tryLock(eq(PaymentReconciler.JOB_NAME), any(), any())).thenReturn(0);
+
+        assertEquals(-1, reconciler.sweep());
+
+        verifyNoInteractions(paymentIntentRepository);
+        verify(checkpointRepository, never()).unlock(any(), any());
+    }
+
+    @Test
+    void reconcile_WhenStripeFails_ShouldCountAnErrorAndLeaveThePaymentPending() {
+        reconciler.reconcile(pending(1, "sess_unreachable"));
+
+        verifyNoInteractions(paymentIntentRepository);
+        assertEquals(1.0, outcome("error"));
+    }
+
+    @Test
+    void reconcile_WhenTheWebhookGotThereFirst_ShouldCountItUnchanged() {
+        givenSession("sess_complete", "complete", "pi_123");
+        when(paymentIntentRepository.resolvePending(anyLong(), anyString(), any(), any(), any())).thenReturn(0);
+
+        reconciler.reconcile(pending(1, "sess_complete"));
+
+        assertEquals(1.0, outcome("unchanged"));
+        assertEquals(0.0, outcome("succeeded"));
+        verifyNoInteractions(businessDailyRollupService);
+    }
+
+    @Test
+    void reconcilePendingPayments_ShouldSweepOnItsOwnThread() {
+        givenLockedCheckpoint(0);
+        when(paymentIntentRepository.findStalePendingPayments(eq(0L), any(), any(Pageable.class))).thenReturn(List.of());
+
+        reconciler.reconcilePendingPayments();
+
+        verify(checkpointRepository, timeout(5_000)).unlock(eq(PaymentReconciler.JOB_NAME), any());
+    }
+
+    @Test
+    void reconcilePendingPayments_WhenDisabled_ShouldNotTouchTheDatabase() {
+        PaymentReconciler disabled = new PaymentReconciler(paymentIntentRepository, checkpointRepository, businessDailyRollupService,
+                new OutboundHttpClients(new OutboundHttpProperties(null), meterRegistry), meterRegistry, false);
+        try {
+            disabled.reconcilePendingPayments();
+        } finally {
+            disabled.shutdownExecutors();
+        }
+
+        verifyNoInteractions(paymentIntentRepository, checkpointRepository);
+    }
+}
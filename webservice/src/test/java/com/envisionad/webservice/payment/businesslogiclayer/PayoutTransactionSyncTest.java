@@ -0,0 +1,227 @@
+package com.envisionad.webservice.payment.businesslogiclayer;
+
+import com.envisionad.webservice.config.outbound.OutboundHttpClients;
+import com.envisionad.webservice.config.outbound.OutboundHttpProperties;
+import com.envisionad.webservice.payment.dataaccesslayer.PayoutSyncStateRepository;
+import com.envisionad.webservice.payment.dataaccesslayer.PayoutTransaction;
+import com.envisionad.webservice.payment.dataaccesslayer.PayoutTransactionRepository;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.BalanceTransaction;
+import com.stripe.model.BalanceTransactionCollection;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.BalanceTransactionListParams;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PayoutTransactionSyncTest {
+
+    private static final String ACCOUNT = "acct_owner";
+
+    @Mock
+    private PayoutTransactionRepository payoutTransactionRepository;
+
+    @Mock
+    private PayoutSyncStateRepository syncStateRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    // Pages Stripe returns, in call order, null for a call that fails; the cursor each call was made with is recorded.
+    private final List<BalanceTransactionCollection> stripePages = new ArrayList<>();
+    private final List<String> requestedCursors = new ArrayList<>();
+    private final List<String> requestedAccounts = new ArrayList<>();
+    private boolean stripeDown;
+    private PayoutTransactionSync sync;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sync = newSync(true);
+    }
+
+    private PayoutTransactionSync newSync(boolean enabled) {
+        OutboundHttpClients clients = new OutboundHttpClients(new OutboundHttpProperties(null), meterRegistry);
+        return new PayoutTransactionSync(payoutTransactionRepository, syncStateRepository, clients, meterRegistry, enabled) {
+            @Override
+            BalanceTransactionCollection listBalanceTransactions(BalanceTransactionListParams params,
+                                                                 RequestOptions requestOptions) throws StripeException {
+                if (stripeDown) {
+                    throw new ApiConnectionException("Stripe unreachable");
+                }
+                requestedCursors.add(params.getStartingAfter());
+                requestedAccounts.add(requestOptions.getStripeAccount());
+                BalanceTransactionCollection page = stripePages.remove(0);
+                if (page == null) {
+                    throw new ApiConnectionException("Stripe unreachable");
+                }
+                return page;
+            }
+        };
+    }
+
+    private static BalanceTransaction transaction(String id) {
+        BalanceTransaction transaction = new BalanceTransaction();
+        transaction.setId(id);
+        transaction.setType("payment");
+        transaction.setAmount(10000L);
+        transaction.setFee(0L);
+        transaction.setNet(7000L);
+        transaction.setCurrency("cad");
+        transaction.setStatus("pending");
+        transaction.setCreated(1_760_000_000L);
+        transaction.setAvailableOn(1_760_600_000L);
+        return transaction;
+    }
+
+    private void givenStripePage(boolean hasMore, String... ids) {
+        BalanceTransactionCollection collection = new BalanceTransactionCollection();
+        collection.setData(Arrays.stream(ids).map(PayoutTransactionSyncTest::transaction).toList());
+        collection.setHasMore(hasMore);
+        stripePages.add(collection);
+    }
+
+    private void givenStripePageFails() {
+        stripePages.add(null);
+    }
+
+    @Test
+    void sync_ShouldPageBackUntilItReachesStoredTransactions() throws Exception {
+        givenStripePage(true, "txn_5", "txn_4");
+        givenStripePage(true, "txn_3", "txn_2");
+        when(payoutTransactionRepository.findExistingIds(List.of("txn_5", "txn_4"))).thenReturn(List.of());
+        when(payoutTransactionRepository.findExistingIds(List.of("txn_3", "txn_2"))).thenReturn(List.of("txn_2"));
+
+        assertEquals(4, sync.sync(ACCOUNT));
+
+        // The second page is requested after the last transaction of the first
+        assertEquals(Arrays.asList(null, "txn_4"), requestedCursors);
+        assertEquals(List.of(ACCOUNT, ACCOUNT), requestedAccounts);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PayoutTransaction>> saved = ArgumentCaptor.forClass(List.class);
+        verify(payoutTransactionRepository).saveAll(saved.capture());
+        assertEquals(List.of("txn_5", "txn_4", "txn_3", "txn_2"),
+                saved.getValue().stream().map(PayoutTransaction::getTransactionId).toList());
+        PayoutTransaction stored = saved.getValue().get(0);
+        assertEquals("txn_5", stored.getTransactionId());
+        assertEquals(ACCOUNT, stored.getStripeAccountId());
+        assertEquals(10000, stored.getAmount());
+        assertEquals(7000, stored.getNet());
+        assertNotNull(stored.getAvailableOn());
+        assertEquals(4.0, meterRegistry.get("stripe.payouts.sync.transactions").counter().count());
+    }
+
+    @Test
+    void sync_WhenALaterPageFails_ShouldSaveNothingAndBackfillItOnTheNextSync() throws Exception {
+        givenStripePage(true, "txn_5", "txn_4");
+        givenStripePageFails();
+        when(payoutTransactionRepository.findExistingIds(List.of("txn_5", "txn_4"))).thenReturn(List.of());
+
+        assertThrows(ApiConnectionException.class, () -> sync.sync(ACCOUNT));
+        verify(payoutTransactionRepository, never()).saveAll(anyList());
+
+        // Nothing was stored, so the next sync pages back past the newest page again
+        givenStripePage(true, "txn_5", "txn_4");
+        givenStripePage(true, "txn_3", "txn_2");
+        when(payoutTransactionRepository.findExistingIds(List.of("txn_3", "txn_2"))).thenReturn(List.of("txn_2"));
+
+        assertEquals(4, sync.sync(ACCOUNT));
+
+        assertEquals(Arrays.asList(null, "txn_4", null, "txn_4"), requestedCursors);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PayoutTransaction>> saved = ArgumentCaptor.forClass(List.class);
+        verify(payoutTransactionRepository).saveAll(saved.capture());
+        assertEquals(List.of("txn_5", "txn_4", "txn_3", "txn_2"),
+                saved.getValue().stream().map(PayoutTransaction::getTransactionId).toList());
+    }
+
+    @Test
+    void sync_ShouldStopWhenStripeHasNoMorePages() throws Exception {
+        givenStripePage(false, "txn_1");
+        when(payoutTransactionRepository.findExistingIds(anyList())).thenReturn(List.of());
+
+        assertEquals(1, sync.sync(ACCOUNT));
+        assertEquals(1, requestedCursors.size());
+    }
+
+    @Test
+    void sync_ShouldCapTheFirstSyncOfALongHistory() throws Exception {
+        for (int page = 0; page < PayoutTransactionSync.MAX_PAGES_PER_SYNC + 1; page++) {
+            givenStripePage(true, "txn_" + page);
+        }
+        when(payoutTransactionRepository.findExistingIds(anyList())).thenReturn(List.of());
+
+        assertEquals(PayoutTransactionSync.MAX_PAGES_PER_SYNC, sync.sync(ACCOUNT));
+        assertEquals(PayoutTransactionSync.MAX_PAGES_PER_SYNC, requestedCursors.size());
+    }
+
+    @Test
+    void syncDueAccounts_ShouldSyncClaimedAccountsAndMarkThemSynced() {
+        when(syncStateRepository.findDueAccountIds(any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(ACCOUNT, "acct_taken"));
+        when(syncStateRepository.claim(eq(ACCOUNT), any(), any())).thenReturn(1);
+        when(syncStateRepository.claim(eq("acct_taken"), any(), any())).thenReturn(0);
+        givenStripePage(false);
+
+        sync.syncDueAccounts();
+
+        verify(syncStateRepository).enrollOnboardedAccounts(any());
+        verify(syncStateRepository).markSynced(eq(ACCOUNT), any());
+        verify(syncStateRepository, never()).markSynced(eq("acct_taken"), any());
+        assertEquals(List.of(ACCOUNT), requestedAccounts);
+    }
+
+    @Test
+    void syncDueAccounts_WhenStripeFails_ShouldLeaveTheAccountLocked() {
+        when(syncStateRepository.findDueAccountIds(any(), any(), any(Pageable.class))).thenReturn(List.of(ACCOUNT));
+        when(syncStateRepository.claim(eq(ACCOUNT), any(), any())).thenReturn(1);
+        stripeDown = true;
+
+        sync.syncDueAccounts();
+
+        verify(syncStateRepository, never()).markSynced(any(), any());
+        assertEquals(1.0, meterRegistry.get("stripe.payouts.sync").tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    void pollDueAccounts_ShouldSyncOnItsOwnThread() {
+        when(syncStateRepository.findDueAccountIds(any(), any(), any(Pageable.class))).thenReturn(List.of(ACCOUNT));
+        when(syncStateRepository.claim(eq(ACCOUNT), any(), any())).thenReturn(1);
+        givenStripePage(false);
+
+        sync.pollDueAccounts();
+
+        verify(syncStateRepository, timeout(5_000)).markSynced(eq(ACCOUNT), any());
+        sync.shutdownSync();
+    }
+
+    @Test
+    void pollDueAccounts_WhenDisabled_ShouldNotTouchTheDatabase() {
+        newSync(false).pollDueAccounts();
+
+        verifyNoInteractions(syncStateRepository, payoutTransactionRepository);
+    }
+
+    @Test
+    void requestRefresh_ShouldIgnoreMissingAccounts() {
+        sync.requestRefresh(null);
+        sync.requestRefresh(" ");
+        sync.requestRefresh(ACCOUNT);
+
+        verify(syncStateRepository).requestRefresh(eq(ACCOUNT), any());
+        verifyNoMoreInteractions(syncStateRepository);
+    }
+}
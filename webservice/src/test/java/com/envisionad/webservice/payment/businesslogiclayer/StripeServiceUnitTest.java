@@ -5,27 +5,28 @@ import com.envisionad.webservice.advertisement.dataaccesslayer.AdCampaignIdentif
 import com.envisionad.webservice.advertisement.dataaccesslayer.AdCampaignRepository;
 import com.envisionad.webservice.media.DataAccessLayer.Media;
 import com.envisionad.webservice.media.DataAccessLayer.MediaRepository;
+import com.envisionad.webservice.payment.dataaccesslayer.BusinessDailyRollup;
+import com.envisionad.webservice.payment.dataaccesslayer.BusinessDailyRollupId;
+import com.envisionad.webservice.payment.dataaccesslayer.BusinessDailyRollupRepository;
 import com.envisionad.webservice.payment.dataaccesslayer.PaymentIntent;
 import com.envisionad.webservice.payment.dataaccesslayer.PaymentIntentRepository;
 import com.envisionad.webservice.payment.dataaccesslayer.PaymentStatus;
+import com.envisionad.webservice.payment.dataaccesslayer.PayoutTransaction;
+import com.envisionad.webservice.payment.dataaccesslayer.PayoutTransactionRepository;
 import com.envisionad.webservice.payment.dataaccesslayer.StripeAccount;
 import com.envisionad.webservice.payment.dataaccesslayer.StripeAccountRepository;
-import com.envisionad.webservice.reservation.dataaccesslayer.Reservation;
 import com.envisionad.webservice.utils.JwtUtils;
-import com.envisionad.webservice.reservation.dataaccesslayer.ReservationRepository;
 import com.envisionad.webservice.advertisement.exceptions.AdCampaignNotFoundException;
 import com.envisionad.webservice.payment.exceptions.DuplicatePaymentException;
 import com.envisionad.webservice.payment.exceptions.InvalidPricingException;
 import com.envisionad.webservice.payment.exceptions.StripeAccountNotFoundException;
 import com.envisionad.webservice.payment.exceptions.StripeOnboardingIncompleteException;
+import com.envisionad.webservice.payment.presentationlayer.models.PayoutTransactionResponseModel;
 import com.stripe.exception.StripeException;
 import com.stripe.model.Account;
 import com.stripe.model.AccountLink;
-import com.stripe.model.BalanceTransaction;
-import com.stripe.model.BalanceTransactionCollection;
 import com.stripe.param.AccountCreateParams;
 import com.stripe.param.AccountLinkCreateParams;
-import com.stripe.param.BalanceTransactionListParams;
 import com.stripe.net.RequestOptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -35,6 +36,7 @@ import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -59,7 +61,10 @@ class StripeServiceUnitTest {
         private MediaRepository mediaRepository;
 
         @Mock
-        private ReservationRepository reservationRepository;
+        private BusinessDailyRollupRepository businessDailyRollupRepository;
+
+        @Mock
+        private PayoutTransactionRepository payoutTransactionRepository;
 
         @Mock
         private JwtUtils jwtUtils;
@@ -67,7 +72,8 @@ class StripeServiceUnitTest {
         @BeforeEach
         void setUp() {
                 stripeService = new StripeServiceImpl(stripeAccountRepository, paymentIntentRepository,
-                                adCampaignRepository, mediaRepository, reservationRepository, jwtUtils);
+                                adCampaignRepository, mediaRepository, businessDailyRollupRepository,
+                                payoutTransactionRepository, jwtUtils);
                 // set platform fee percent for deterministic behavior
                 org.springframework.test.util.ReflectionTestUtils.setField(stripeService, "platformFeePercent", 30);
         }
@@ -688,6 +694,21 @@ class StripeServiceUnitTest {
 
         // ========== Tests for getDashboardData ==========
 
+        private static BusinessDailyRollup rollup(String businessId, LocalDate day) {
+                BusinessDailyRollup rollup = new BusinessDailyRollup();
+                rollup.setId(new BusinessDailyRollupId(businessId, day));
+                return rollup;
+        }
+
+        private static BusinessDailyRollup revenueRollup(String businessId, LocalDate day, String gross, String net,
+                        int paymentCount) {
+                BusinessDailyRollup rollup = rollup(businessId, day);
+                rollup.setGrossRevenue(new BigDecimal(gross));
+                rollup.setNetRevenue(new BigDecimal(net));
+                rollup.setPaymentCount(paymentCount);
+                return rollup;
+        }
+
         @Test
         void getDashboardData_shouldReturnDashboardMetrics_withGrossAndNetEarnings() {
                 // Given
@@ -707,178 +728,84 @@ class StripeServiceUnitTest {
                 account.setStripeAccountId(stripeAccountId);
                 account.setOnboardingComplete(true);
 
-                PaymentIntent payment1 = new PaymentIntent();
-                payment1.setAmount(new BigDecimal("100.00"));
-                payment1.setStatus(PaymentStatus.SUCCEEDED);
-                payment1.setBusinessId(businessId);
-                payment1.setCreatedAt(LocalDateTime.now());
-
-                PaymentIntent payment2 = new PaymentIntent();
-                payment2.setAmount(new BigDecimal("200.00"));
-                payment2.setStatus(PaymentStatus.SUCCEEDED);
-                payment2.setBusinessId(businessId);
-                payment2.setCreatedAt(LocalDateTime.now());
-
-                List<PaymentIntent> payments = List.of(payment1, payment2);
+                LocalDate today = LocalDate.now();
+                List<BusinessDailyRollup> rollups = List.of(
+                                revenueRollup(businessId, today.minusDays(3), "100.00", "70.00", 1),
+                                revenueRollup(businessId, today, "200.00", "140.00", 1));
 
                 when(jwtUtils.extractUserId(jwt)).thenReturn(userId);
                 doNothing().when(jwtUtils).validateUserIsEmployeeOfBusiness(userId, businessId);
                 when(stripeAccountRepository.findByBusinessId(businessId)).thenReturn(Optional.of(account));
-                when(paymentIntentRepository.findSuccessfulPaymentsByBusinessIdAndDateRange(
-                                eq(businessId), any(LocalDateTime.class), any(LocalDateTime.class)))
-                                .thenReturn(payments);
-
-                when(reservationRepository.findConfirmedReservationsByAdvertiserIdAndDateRange(
-                                eq(businessId), any(LocalDateTime.class), any(LocalDateTime.class)))
-                                .thenReturn(new ArrayList<>());
-                // when(paymentIntentRepository.findSuccessfulPaymentsByAdvertiserIdAndDateRange(
-                // eq(businessId), any(LocalDateTime.class), any(LocalDateTime.class)))
-                // .thenReturn(new ArrayList<>());
-
-                BalanceTransactionCollection mockPayouts = mock(BalanceTransactionCollection.class);
-                when(mockPayouts.getData()).thenReturn(new ArrayList<>());
+                when(businessDailyRollupRepository.findByBusinessIdAndDateRange(
+                                eq(businessId), any(LocalDate.class), any(LocalDate.class)))
+                                .thenReturn(rollups);
+
+                LocalDateTime payoutCreated = LocalDateTime.now().minusDays(2).withNano(0);
+                PayoutTransaction payout = new PayoutTransaction();
+                payout.setTransactionId("txn_1");
+                payout.setStripeAccountId(stripeAccountId);
+                payout.setType("payment");
+                payout.setAmount(10000);
+                payout.setNet(7000);
+                payout.setCurrency("cad");
+                payout.setStatus("pending");
+                payout.setCreatedAt(payoutCreated);
+                payout.setAvailableOn(payoutCreated.plusDays(7));
+                when(payoutTransactionRepository.findTop100ByStripeAccountIdOrderByCreatedAtDesc(stripeAccountId))
+                                .thenReturn(List.of(payout));
 
-                try (MockedStatic<BalanceTransaction> balanceTransactionMock = mockStatic(BalanceTransaction.class)) {
-                        balanceTransactionMock.when(() -> BalanceTransaction.list(
-                                        any(BalanceTransactionListParams.class), any(RequestOptions.class)))
-                                        .thenReturn(mockPayouts);
-
-                        // When
-                        Map<String, Object> dashboard = stripeService.getDashboardData(jwt, businessId, period);
+                // When
+                Map<String, Object> dashboard = stripeService.getDashboardData(jwt, businessId, period);
 
-                        // Then
-                        assertNotNull(dashboard);
-                        assertEquals(new BigDecimal("300.00"), dashboard.get("grossEarnings"));
+                // Then
+                assertNotNull(dashboard);
+                assertEquals(new BigDecimal("300.00"), dashboard.get("grossEarnings"));
 
-                        // Net earnings = 300 * (100 - 30) / 100 = 300 * 0.7 = 210.00
-                        BigDecimal expectedNetEarnings = new BigDecimal("210.00");
+                // Net earnings = 300 * (100 - 30) / 100 = 300 * 0.7 = 210.00
+                BigDecimal expectedNetEarnings = new BigDecimal("210.00");
 
-                        assertEquals(0, expectedNetEarnings.compareTo((BigDecimal) dashboard.get("netEarnings")));
+                assertEquals(0, expectedNetEarnings.compareTo((BigDecimal) dashboard.get("netEarnings")));
 
-                        // Platform fee = 300 - 210 = 90.00
-                        BigDecimal expectedPlatformFee = new BigDecimal("90.00");
-                        assertEquals(0, expectedPlatformFee.compareTo((BigDecimal) dashboard.get("platformFee")));
+                // Platform fee = 300 - 210 = 90.00
+                BigDecimal expectedPlatformFee = new BigDecimal("90.00");
+                assertEquals(0, expectedPlatformFee.compareTo((BigDecimal) dashboard.get("platformFee")));
 
-                        assertEquals(2, dashboard.get("paymentCount"));
-                        assertNotNull(dashboard.get("payouts"));
+                assertEquals(2, dashboard.get("paymentCount"));
+                java.time.ZoneId zone = java.time.ZoneId.systemDefault();
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> revenuePayments = (List<Map<String, Object>>) dashboard.get("revenuePayments");
+                assertEquals(2, revenuePayments.size());
+                assertEquals(new BigDecimal("200.00"), revenuePayments.get(1).get("amount"));
+                assertEquals(today.atStartOfDay(zone).toEpochSecond(), revenuePayments.get(1).get("created"));
+                assertEquals(List.of(new PayoutTransactionResponseModel("txn_1", "payment", 10000, 7000, "cad", "pending",
+                                payoutCreated.atZone(zone).toEpochSecond(),
+                                payoutCreated.plusDays(7).atZone(zone).toEpochSecond())),
+                                dashboard.get("payouts"));
 
-                        verify(jwtUtils).validateUserIsEmployeeOfBusiness(userId, businessId);
-                        verify(paymentIntentRepository).findSuccessfulPaymentsByBusinessIdAndDateRange(
-                                        eq(businessId), any(LocalDateTime.class), any(LocalDateTime.class));
-                }
+                verify(jwtUtils).validateUserIsEmployeeOfBusiness(userId, businessId);
+                verifyNoInteractions(paymentIntentRepository, mediaRepository);
         }
 
         @Test
         void getDashboardData_shouldFilterByWeeklyPeriod() {
-                // Given
-                String userId = "user-1";
-                String businessId = "biz-1";
-                String stripeAccountId = "acct_123";
-                String period = "weekly";
-
-                org.springframework.security.oauth2.jwt.Jwt jwt = org.springframework.security.oauth2.jwt.Jwt
-                                .withTokenValue("token")
-                                .header("alg", "none")
-                                .claim("sub", userId)
-                                .build();
-
-                StripeAccount account = new StripeAccount();
-                account.setBusinessId(businessId);
-                account.setStripeAccountId(stripeAccountId);
-
-                when(jwtUtils.extractUserId(jwt)).thenReturn(userId);
-                doNothing().when(jwtUtils).validateUserIsEmployeeOfBusiness(userId, businessId);
-                when(stripeAccountRepository.findByBusinessId(businessId)).thenReturn(Optional.of(account));
-                when(paymentIntentRepository.findSuccessfulPaymentsByBusinessIdAndDateRange(
-                                eq(businessId), any(LocalDateTime.class), any(LocalDateTime.class)))
-
-                                .thenReturn(Collections.emptyList());
-                when(reservationRepository.findConfirmedReservationsByAdvertiserIdAndDateRange(
-                                eq(businessId), any(LocalDateTime.class), any(LocalDateTime.class)))
-                                .thenReturn(Collections.emptyList());
-                when(paymentIntentRepository.findPendingPaymentsByAdvertiserId(businessId))
-                                .thenReturn(Collections.emptyList());
-
-                BalanceTransactionCollection mockPayouts = mock(BalanceTransactionCollection.class);
-                when(mockPayouts.getData()).thenReturn(new ArrayList<>());
-
-                try (MockedStatic<BalanceTransaction> balanceTransactionMock = mockStatic(BalanceTransaction.class)) {
-                        balanceTransactionMock.when(() -> BalanceTransaction.list(
-                                        any(BalanceTransactionListParams.class), any(RequestOptions.class)))
-                                        .thenReturn(mockPayouts);
-
-                        // When
-                        Map<String, Object> dashboard = stripeService.getDashboardData(jwt, businessId, period);
-
-                        // Then
-                        assertNotNull(dashboard);
-                        verify(paymentIntentRepository).findSuccessfulPaymentsByBusinessIdAndDateRange(
-                                        eq(businessId),
-                                        argThat(startDate -> startDate.isBefore(LocalDateTime.now()) &&
-                                                        startDate.isAfter(LocalDateTime.now().minusWeeks(2))),
-                                        any(LocalDateTime.class));
-                }
+                assertDashboardRange("weekly", LocalDate.now().minusWeeks(1));
         }
 
         @Test
         void getDashboardData_shouldFilterByYearlyPeriod() {
-                // Given
-                String userId = "user-1";
-                String businessId = "biz-1";
-                String stripeAccountId = "acct_123";
-                String period = "yearly";
-
-                org.springframework.security.oauth2.jwt.Jwt jwt = org.springframework.security.oauth2.jwt.Jwt
-                                .withTokenValue("token")
-                                .header("alg", "none")
-                                .claim("sub", userId)
-                                .build();
-
-                StripeAccount account = new StripeAccount();
-                account.setBusinessId(businessId);
-                account.setStripeAccountId(stripeAccountId);
-
-                when(jwtUtils.extractUserId(jwt)).thenReturn(userId);
-                doNothing().when(jwtUtils).validateUserIsEmployeeOfBusiness(userId, businessId);
-                when(stripeAccountRepository.findByBusinessId(businessId)).thenReturn(Optional.of(account));
-                when(paymentIntentRepository.findSuccessfulPaymentsByBusinessIdAndDateRange(
-                                eq(businessId), any(LocalDateTime.class), any(LocalDateTime.class)))
-
-                                .thenReturn(Collections.emptyList());
-                when(reservationRepository.findConfirmedReservationsByAdvertiserIdAndDateRange(
-                                eq(businessId), any(LocalDateTime.class), any(LocalDateTime.class)))
-                                .thenReturn(Collections.emptyList());
-                when(paymentIntentRepository.findPendingPaymentsByAdvertiserId(businessId))
-                                .thenReturn(Collections.emptyList());
-
-                BalanceTransactionCollection mockPayouts = mock(BalanceTransactionCollection.class);
-                when(mockPayouts.getData()).thenReturn(new ArrayList<>());
-
-                try (MockedStatic<BalanceTransaction> balanceTransactionMock = mockStatic(BalanceTransaction.class)) {
-                        balanceTransactionMock.when(() -> BalanceTransaction.list(
-                                        any(BalanceTransactionListParams.class), any(RequestOptions.class)))
-                                        .thenReturn(mockPayouts);
-
-                        // When
-                        Map<String, Object> dashboard = stripeService.getDashboardData(jwt, businessId, period);
-
-                        // Then
-                        assertNotNull(dashboard);
-                        verify(paymentIntentRepository).findSuccessfulPaymentsByBusinessIdAndDateRange(
-                                        eq(businessId),
-                                        argThat(startDate -> startDate.isBefore(LocalDateTime.now()) &&
-                                                        startDate.isAfter(LocalDateTime.now().minusYears(2))),
-                                        any(LocalDateTime.class));
-                }
+                assertDashboardRange("yearly", LocalDate.now().minusYears(1));
         }
 
         @Test
         void getDashboardData_shouldDefaultToMonthly_whenInvalidPeriod() {
+                assertDashboardRange("invalid", LocalDate.now().minusMonths(1));
+        }
+
+        private void assertDashboardRange(String period, LocalDate expectedStartDay) {
                 // Given
                 String userId = "user-1";
                 String businessId = "biz-1";
                 String stripeAccountId = "acct_123";
-                String period = "invalid";
 
                 org.springframework.security.oauth2.jwt.Jwt jwt = org.springframework.security.oauth2.jwt.Jwt
                                 .withTokenValue("token")
@@ -893,29 +820,14 @@ class StripeServiceUnitTest {
                 when(jwtUtils.extractUserId(jwt)).thenReturn(userId);
                 doNothing().when(jwtUtils).validateUserIsEmployeeOfBusiness(userId, businessId);
                 when(stripeAccountRepository.findByBusinessId(businessId)).thenReturn(Optional.of(account));
-                when(paymentIntentRepository.findSuccessfulPaymentsByBusinessIdAndDateRange(
-                                eq(businessId), any(LocalDateTime.class), any(LocalDateTime.class)))
-                                .thenReturn(Collections.emptyList());
-
-                BalanceTransactionCollection mockPayouts = mock(BalanceTransactionCollection.class);
-                when(mockPayouts.getData()).thenReturn(new ArrayList<>());
 
-                try (MockedStatic<BalanceTransaction> balanceTransactionMock = mockStatic(BalanceTransaction.class)) {
-                        balanceTransactionMock.when(() -> BalanceTransaction.list(
-                                        any(BalanceTransactionListParams.class), any(RequestOptions.class)))
-                                        .thenReturn(mockPayouts);
+                // When
+                Map<String, Object> dashboard = stripeService.getDashboardData(jwt, businessId, period);
 
-                        // When
-                        Map<String, Object> dashboard = stripeService.getDashboardData(jwt, businessId, period);
-
-                        // Then - should default to monthly (1 month back)
-                        assertNotNull(dashboard);
-                        verify(paymentIntentRepository).findSuccessfulPaymentsByBusinessIdAndDateRange(
-                                        eq(businessId),
-                                        argThat(startDate -> startDate.isBefore(LocalDateTime.now()) &&
-                                                        startDate.isAfter(LocalDateTime.now().minusMonths(2))),
-                                        any(LocalDateTime.class));
-                }
+                // Then - the period is read as a range of whole days ending today
+                assertNotNull(dashboard);
+                verify(businessDailyRollupRepository).findByBusinessIdAndDateRange(
+                                businessId, expectedStartDay, LocalDate.now());
         }
 
         @Test
@@ -935,13 +847,6 @@ class StripeServiceUnitTest {
                 doNothing().when(jwtUtils).validateUserIsEmployeeOfBusiness(userId, businessId);
                 when(stripeAccountRepository.findByBusinessId(businessId)).thenReturn(Optional.empty());
 
-                when(reservationRepository.findConfirmedReservationsByAdvertiserIdAndDateRange(
-                                eq(businessId), any(LocalDateTime.class), any(LocalDateTime.class)))
-                                .thenReturn(Collections.emptyList());
-                // when(paymentIntentRepository.findSuccessfulPaymentsByAdvertiserIdAndDateRange(
-                // eq(businessId), any(LocalDateTime.class), any(LocalDateTime.class)))
-                // .thenReturn(Collections.emptyList());
-
                 // When
                 Map<String, Object> dashboard = stripeService.getDashboardData(jwt, businessId, period);
 
@@ -949,6 +854,7 @@ class StripeServiceUnitTest {
                 assertNotNull(dashboard);
                 assertEquals(false, dashboard.get("isMediaOwner"));
                 assertEquals(0, ((BigDecimal) dashboard.get("totalSpend")).compareTo(BigDecimal.ZERO));
+                assertFalse(dashboard.containsKey("revenuePayments"));
         }
 
         @Test
@@ -972,27 +878,21 @@ class StripeServiceUnitTest {
                 when(jwtUtils.extractUserId(jwt)).thenReturn(userId);
                 doNothing().when(jwtUtils).validateUserIsEmployeeOfBusiness(userId, businessId);
                 when(stripeAccountRepository.findByBusinessId(businessId)).thenReturn(Optional.of(account));
-                when(paymentIntentRepository.findSuccessfulPaymentsByBusinessIdAndDateRange(
-                                eq(businessId), any(LocalDateTime.class), any(LocalDateTime.class)))
-                                .thenReturn(Collections.emptyList());
-
-                BalanceTransactionCollection mockPayouts = mock(BalanceTransactionCollection.class);
-                when(mockPayouts.getData()).thenReturn(new ArrayList<>());
+                // A day that was refreshed but has nothing left on it
+                when(businessDailyRollupRepository.findByBusinessIdAndDateRange(
+                                eq(businessId), any(LocalDate.class), any(LocalDate.class)))
+                                .thenReturn(List.of(rollup(businessId, LocalDate.now())));
 
-                try (MockedStatic<BalanceTransaction> balanceTransactionMock = mockStatic(BalanceTransaction.class)) {
-                        balanceTransactionMock.when(() -> BalanceTransaction.list(
-                                        any(BalanceTransactionListParams.class), any(RequestOptions.class)))
-                                        .thenReturn(mockPayouts);
-
-                        // When
-                        Map<String, Object> dashboard = stripeService.getDashboardData(jwt, businessId, period);
+                // When
+                Map<String, Object> dashboard = stripeService.getDashboardData(jwt, businessId, period);
 
-                        // Then
-                        assertEquals(0, ((BigDecimal) dashboard.get("grossEarnings")).compareTo(BigDecimal.ZERO));
-                        assertEquals(0, ((BigDecimal) dashboard.get("netEarnings")).compareTo(BigDecimal.ZERO));
-                        assertEquals(0, ((BigDecimal) dashboard.get("platformFee")).compareTo(BigDecimal.ZERO));
-                        assertEquals(0, dashboard.get("paymentCount"));
-                }
+                // Then
+                assertEquals(0, ((BigDecimal) dashboard.get("grossEarnings")).compareTo(BigDecimal.ZERO));
+                assertEquals(0, ((BigDecimal) dashboard.get("netEarnings")).compareTo(BigDecimal.ZERO));
+                assertEquals(0, ((BigDecimal) dashboard.get("platformFee")).compareTo(BigDecimal.ZERO));
+                assertEquals(0, dashboard.get("paymentCount"));
+                assertEquals(List.of(), dashboard.get("revenuePayments"));
+                assertEquals(List.of(), dashboard.get("payments"));
         }
 
         @Test
@@ -1081,11 +981,9 @@ class StripeServiceUnitTest {
         }
 
         @Test
-        void syncPendingPayments_shouldUpdateStatus_whenSessionIsComplete() {
-                // Given
+        void getDashboardData_shouldNotCallStripeForPendingPayments() {
                 String businessId = "biz-1";
                 String userId = "user-1";
-                String period = "monthly";
 
                 org.springframework.security.oauth2.jwt.Jwt jwt = org.springframework.security.oauth2.jwt.Jwt
                                 .withTokenValue("token")
@@ -1093,127 +991,23 @@ class StripeServiceUnitTest {
                                 .claim("sub", userId)
                                 .build();
 
-                StripeAccount account = new StripeAccount();
-                account.setBusinessId(businessId);
-                account.setStripeAccountId("acct_123");
-
-                PaymentIntent pendingPayment = new PaymentIntent();
-                pendingPayment.setId(1L);
-                pendingPayment.setBusinessId(businessId);
-                pendingPayment.setStatus(PaymentStatus.PENDING);
-                pendingPayment.setStripeSessionId("sess_complete");
-
                 when(jwtUtils.extractUserId(jwt)).thenReturn(userId);
-                doNothing().when(jwtUtils).validateUserIsEmployeeOfBusiness(userId, businessId);
-                when(stripeAccountRepository.findByBusinessId(businessId)).thenReturn(Optional.of(account));
-
-                // Return our pending payment
-                when(paymentIntentRepository.findPendingPaymentsByAdvertiserId(businessId))
-                                .thenReturn(List.of(pendingPayment));
-
-                // Other repository calls for getDashboardData flow
-                when(paymentIntentRepository.findSuccessfulPaymentsByBusinessIdAndDateRange(anyString(), any(), any()))
-                                .thenReturn(Collections.emptyList());
-                when(reservationRepository.findConfirmedReservationsByAdvertiserIdAndDateRange(anyString(), any(),
-                                any()))
-                                .thenReturn(Collections.emptyList());
-
-                // Mock Session.retrieve("sess_complete")
-                com.stripe.model.checkout.Session mockSession = mock(com.stripe.model.checkout.Session.class);
-                when(mockSession.getStatus()).thenReturn("complete");
-                when(mockSession.getPaymentIntent()).thenReturn("pi_new_123");
-
-                // Mock BalanceTransaction.list for the getDashboardData flow
-                BalanceTransactionCollection mockPayouts = mock(BalanceTransactionCollection.class);
-                when(mockPayouts.getData()).thenReturn(new ArrayList<>());
-
-                try (MockedStatic<com.stripe.model.checkout.Session> sessionMock = mockStatic(
-                                com.stripe.model.checkout.Session.class);
-                                MockedStatic<BalanceTransaction> btMock = mockStatic(BalanceTransaction.class)) {
-
-                        sessionMock.when(() -> com.stripe.model.checkout.Session.retrieve("sess_complete"))
-                                        .thenReturn(mockSession);
-
-                        btMock.when(() -> BalanceTransaction.list(any(BalanceTransactionListParams.class),
-                                        any(RequestOptions.class)))
-                                        .thenReturn(mockPayouts);
-
-                        // When
-                        // We call getDashboardData, which triggers syncPendingPayments internally
-                        stripeService.getDashboardData(jwt, businessId, period);
-
-                        // Then
-                        // Verify pendingPayment status was updated to SUCCEEDED and saved
-                        assertEquals(PaymentStatus.SUCCEEDED, pendingPayment.getStatus());
-                        assertEquals("pi_new_123", pendingPayment.getStripePaymentIntentId());
-                        verify(paymentIntentRepository).save(pendingPayment);
-                }
-        }
-
-        @Test
-        void syncPendingPayments_shouldUpdateStatus_whenSessionIsExpired() {
-                // Given
-                String businessId = "biz-1";
-                String userId = "user-1";
-
-                org.springframework.security.oauth2.jwt.Jwt jwt = org.springframework.security.oauth2.jwt.Jwt
-                                .withTokenValue("token")
-                                .header("alg", "none")
-                                .claim("sub", userId)
-                                .build();
-
-                StripeAccount account = new StripeAccount();
-                account.setBusinessId(businessId);
-
-                PaymentIntent pendingPayment = new PaymentIntent();
-                pendingPayment.setId(2L);
-                pendingPayment.setBusinessId(businessId);
-                pendingPayment.setStatus(PaymentStatus.PENDING);
-                pendingPayment.setStripeSessionId("sess_expired");
-
-                when(jwtUtils.extractUserId(jwt)).thenReturn(userId);
-                when(stripeAccountRepository.findByBusinessId(businessId)).thenReturn(Optional.of(account));
-                // Return our pending payment
-                when(paymentIntentRepository.findPendingPaymentsByAdvertiserId(businessId))
-                                .thenReturn(List.of(pendingPayment));
-                // Other calls
-                when(paymentIntentRepository.findSuccessfulPaymentsByBusinessIdAndDateRange(anyString(), any(), any()))
-                                .thenReturn(Collections.emptyList());
-                when(reservationRepository.findConfirmedReservationsByAdvertiserIdAndDateRange(anyString(), any(),
-                                any()))
-                                .thenReturn(Collections.emptyList());
-
-                // Mock session
-                com.stripe.model.checkout.Session mockSession = mock(com.stripe.model.checkout.Session.class);
-                when(mockSession.getStatus()).thenReturn("expired");
-
-                BalanceTransactionCollection mockPayouts = mock(BalanceTransactionCollection.class);
-                when(mockPayouts.getData()).thenReturn(new ArrayList<>());
+                when(stripeAccountRepository.findByBusinessId(businessId)).thenReturn(Optional.empty());
 
+                // Pending payments are reconciled in the background, so the dashboard never asks Stripe about them
                 try (MockedStatic<com.stripe.model.checkout.Session> sessionMock = mockStatic(
-                                com.stripe.model.checkout.Session.class);
-                                MockedStatic<BalanceTransaction> btMock = mockStatic(BalanceTransaction.class)) {
-
-                        sessionMock.when(() -> com.stripe.model.checkout.Session.retrieve("sess_expired"))
-                                        .thenReturn(mockSession);
-                        btMock.when(() -> BalanceTransaction.list(any(BalanceTransactionListParams.class),
-                                        any(RequestOptions.class)))
-                                        .thenReturn(mockPayouts);
-
-                        // When
+                                com.stripe.model.checkout.Session.class)) {
                         stripeService.getDashboardData(jwt, businessId, "monthly");
 
-                        // Then
-                        assertEquals(PaymentStatus.FAILED, pendingPayment.getStatus());
-                        verify(paymentIntentRepository).save(pendingPayment);
+                        sessionMock.verifyNoInteractions();
                 }
+                verify(paymentIntentRepository, never()).save(any());
         }
 
         @Test
-        void getDashboardData_shouldCalculateTotalImpressionsCorrectly() {
+        void getDashboardData_shouldSumImpressionsSpendAndCpmFromRollups() {
                 String userId = "user-1";
                 String businessId = "biz-1";
-                String stripeAccountId = "acct_123";
                 String period = "monthly";
 
                 org.springframework.security.oauth2.jwt.Jwt jwt = org.springframework.security.oauth2.jwt.Jwt
@@ -1222,80 +1016,36 @@ class StripeServiceUnitTest {
                         .claim("sub", userId)
                         .build();
 
-                StripeAccount account = new StripeAccount();
-                account.setBusinessId(businessId);
-                account.setStripeAccountId(stripeAccountId);
-
-                // Use a single base timestamp to build deterministic reservation date ranges
-                LocalDateTime base = LocalDateTime.now().withHour(12).withMinute(0).withSecond(0).withNano(0);
-
-                // Reservation: 3 days overlap, dailyImpressions = 1000, CONFIRMED
-                Reservation reservation1 = new Reservation();
-                reservation1.setMediaId(UUID.randomUUID());
-                reservation1.setStartDate(base.minusDays(5));
-                reservation1.setEndDate(base.minusDays(2));
-                reservation1.setStatus(com.envisionad.webservice.reservation.dataaccesslayer.ReservationStatus.CONFIRMED);
-
-                // Reservation: 2 days overlap, dailyImpressions = 500, PENDING
-                Reservation reservation2 = new Reservation();
-                reservation2.setMediaId(UUID.randomUUID());
-                reservation2.setStartDate(base.minusDays(3));
-                reservation2.setEndDate(base.minusDays(1));
-                reservation2.setStatus(com.envisionad.webservice.reservation.dataaccesslayer.ReservationStatus.PENDING);
-
-                // Reservation: 2 days overlap, dailyImpressions = 200, DENIED
-                Reservation reservation3 = new Reservation();
-                reservation3.setMediaId(UUID.randomUUID());
-                reservation3.setStartDate(base.minusDays(3));
-                reservation3.setEndDate(base.minusDays(1));
-                reservation3.setStatus(com.envisionad.webservice.reservation.dataaccesslayer.ReservationStatus.DENIED);
-
-                // Reservation: 2 days overlap, dailyImpressions = 300, CANCELLED
-                Reservation reservation4 = new Reservation();
-                reservation4.setMediaId(UUID.randomUUID());
-                reservation4.setStartDate(base.minusDays(3));
-                reservation4.setEndDate(base.minusDays(1));
-                reservation4.setStatus(com.envisionad.webservice.reservation.dataaccesslayer.ReservationStatus.CANCELLED);
-
-                Media media1 = new Media();
-                media1.setId(reservation1.getMediaId());
-                media1.setDailyImpressions(1000);
-
-                Media media2 = new Media();
-                media2.setId(reservation2.getMediaId());
-                media2.setDailyImpressions(500);
-
-                Media media3 = new Media();
-                media3.setId(reservation3.getMediaId());
-                media3.setDailyImpressions(200);
-
-                Media media4 = new Media();
-                media4.setId(reservation4.getMediaId());
-                media4.setDailyImpressions(300);
+                // A reservation that started 5 days ago and ran for 3 days at 1000 impressions a day
+                LocalDate startDay = LocalDate.now().minusDays(5);
+                List<BusinessDailyRollup> rollups = new ArrayList<>();
+                for (int day = 0; day < 3; day++) {
+                        BusinessDailyRollup rollup = rollup(businessId, startDay.plusDays(day));
+                        rollup.setImpressions(1000);
+                        rollups.add(rollup);
+                }
+                rollups.get(0).setSpend(new BigDecimal("150.00"));
+                rollups.get(0).setReservationCount(1);
 
                 when(jwtUtils.extractUserId(jwt)).thenReturn(userId);
                 doNothing().when(jwtUtils).validateUserIsEmployeeOfBusiness(userId, businessId);
-                when(stripeAccountRepository.findByBusinessId(businessId)).thenReturn(Optional.of(account));
-
-                // Only CONFIRMED reservation should be returned by the repository
-                when(reservationRepository.findConfirmedReservationsByAdvertiserIdAndDateRange(anyString(), any(), any()))
-                        .thenReturn(List.of(reservation1));
-                when(mediaRepository.findAllById(any())).thenReturn(List.of(media1, media2, media3, media4));
-                when(paymentIntentRepository.findSuccessfulPaymentsByBusinessIdAndDateRange(anyString(), any(), any()))
-                        .thenReturn(Collections.emptyList());
-
-                // Mock payouts
-                BalanceTransactionCollection mockPayouts = mock(BalanceTransactionCollection.class);
-                when(mockPayouts.getData()).thenReturn(new ArrayList<>());
-                try (MockedStatic<BalanceTransaction> balanceTransactionMock = mockStatic(BalanceTransaction.class)) {
-                        balanceTransactionMock.when(() -> BalanceTransaction.list(any(BalanceTransactionListParams.class), any(RequestOptions.class)))
-                                .thenReturn(mockPayouts);
+                when(stripeAccountRepository.findByBusinessId(businessId)).thenReturn(Optional.empty());
+                when(businessDailyRollupRepository.findByBusinessIdAndDateRange(
+                                eq(businessId), any(LocalDate.class), any(LocalDate.class)))
+                        .thenReturn(rollups);
 
-                        Map<String, Object> dashboard = stripeService.getDashboardData(jwt, businessId, period);
+                Map<String, Object> dashboard = stripeService.getDashboardData(jwt, businessId, period);
 
-                        // Only CONFIRMED should be counted: 3 days * 1000 = 3000
-                        assertEquals(3000L, dashboard.get("estimatedImpressions"));
-                }
+                assertEquals(3000L, dashboard.get("estimatedImpressions"));
+                assertEquals(new BigDecimal("150.00"), dashboard.get("totalSpend"));
+                // CPM = 150 * 1000 / 3000
+                assertEquals(new BigDecimal("50.00"), dashboard.get("averageCPM"));
+                // Spend is graphed on the day the reservation started
+                assertEquals(List.of(Map.of(
+                                "amount", new BigDecimal("150.00"),
+                                "created", startDay.atStartOfDay(java.time.ZoneId.systemDefault()).toEpochSecond(),
+                                "currency", "CAD")),
+                        dashboard.get("payments"));
         }
 
 }
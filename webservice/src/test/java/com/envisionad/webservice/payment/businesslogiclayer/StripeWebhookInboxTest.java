@@ -0,0 +1,250 @@
+package com.envisionad.webservice.payment.businesslogiclayer;
+
+import com.envisionad.webservice.payment.dataaccesslayer.StripeWebhookEvent;
+import com.envisionad.webservice.payment.dataaccesslayer.StripeWebhookEventRepository;
+import com.envisionad.webservice.payment.dataaccesslayer.WebhookEventStatus;
+import com.stripe.model.Account;
+import com.stripe.model.Event;
+import com.stripe.model.EventDataObjectDeserializer;
+import com.stripe.model.StripeObject;
+import com.stripe.model.checkout.Session;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StripeWebhookInboxTest {
+
+    private static final String EVENT_ID = "evt_123";
+    private static final String PAYLOAD = "{\"id\":\"evt_123\",\"object\":\"event\",\"type\":\"payment_intent.succeeded\","
+            + "\"created\":1700000000,\"data\":{\"object\":{\"id\":\"pi_123\",\"object\":\"payment_intent\"}}}";
+
+    @Mock
+    private StripeWebhookEventRepository webhookEventRepository;
+
+    @Mock
+    private StripeWebhookService webhookService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StripeWebhookInbox inbox;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        inbox = new StripeWebhookInbox(webhookEventRepository, webhookService, meterRegistry, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        inbox.shutdownWorkers();
+    }
+
+    // ==================== accept Tests ====================
+
+    @Test
+    void accept_newEvent_storesItKeyedByReservation() {
+        Event event = eventWithObject(paymentIntent("pi_123", Map.of("reservationId", "res_1")));
+        when(event.getCreated()).thenReturn(1_700_000_000L);
+        when(webhookEventRepository.insertIfAbsent(eq(EVENT_ID), eq("payment_intent.succeeded"), eq(PAYLOAD),
+                eq("reservation:res_1"), any(), any())).thenReturn(1);
+
+        assertTrue(inbox.accept(event, PAYLOAD));
+        assertEquals(1.0, meterRegistry.counter("stripe.webhook.inbox.received", "result", "accepted").count());
+    }
+
+    @Test
+    void accept_eventAlreadyStored_returnsFalseAndSkipsDatabaseOnRedelivery() {
+        Event event = eventWithObject(null);
+        when(webhookEventRepository.insertIfAbsent(eq(EVENT_ID), anyString(), anyString(), any(), any(), any()))
+                .thenReturn(0);
+
+        assertFalse(inbox.accept(event, PAYLOAD));
+        assertFalse(inbox.accept(event, PAYLOAD));
+
+        verify(webhookEventRepository, times(1)).insertIfAbsent(anyString(), anyString(), anyString(), any(), any(), any());
+        assertEquals(2.0, meterRegistry.counter("stripe.webhook.inbox.received", "result", "duplicate").count());
+    }
+
+    // ==================== pollInbox Tests ====================
+
+    @Test
+    void pollInbox_whenDisabled_doesNotTouchTheInbox() {
+        StripeWebhookInbox disabled = new StripeWebhookInbox(webhookEventRepository, webhookService, meterRegistry, false);
+
+        disabled.pollInbox();
+
+        assertFalse(disabled.isEnabled());
+        verifyNoInteractions(webhookEventRepository);
+        disabled.shutdownWorkers();
+    }
+
+    @Test
+    void pollInbox_claimsDueEventsAndProcessesThemOnWorkers() {
+        when(webhookEventRepository.findClaimableEventIds(any(), any())).thenReturn(List.of(EVENT_ID));
+        when(webhookEventRepository.claim(eq(EVENT_ID), any(), any())).thenReturn(1);
+        when(webhookEventRepository.findById(EVENT_ID)).thenReturn(Optional.of(storedEvent(1)));
+
+        inbox.pollInbox();
+
+        verify(webhookService, timeout(2_000)).handleEvent(any(Event.class));
+        verify(webhookEventRepository, timeout(2_000)).markProcessed(eq(EVENT_ID), any());
+    }
+
+    @Test
+    void pollInbox_whenAnotherWorkerWinsTheClaim_skipsEvent() {
+        when(webhookEventRepository.findClaimableEventIds(any(), any())).thenReturn(List.of(EVENT_ID));
+        when(webhookEventRepository.claim(eq(EVENT_ID), any(), any())).thenReturn(0);
+
+        inbox.pollInbox();
+
+        verify(webhookEventRepository, never()).findById(anyString());
+        verifyNoInteractions(webhookService);
+    }
+
+    // ==================== process Tests ====================
+
+    @Test
+    void process_success_marksEventProcessed() {
+        when(webhookEventRepository.findById(EVENT_ID)).thenReturn(Optional.of(storedEvent(1)));
+
+        inbox.process(EVENT_ID);
+
+        ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        verify(webhookService).handleEvent(eventCaptor.capture());
+        assertEquals(EVENT_ID, eventCaptor.getValue().getId());
+        assertEquals("payment_intent.succeeded", eventCaptor.getValue().getType());
+        verify(webhookEventRepository).markProcessed(eq(EVENT_ID), any());
+        assertEquals(1.0, meterRegistry.counter("stripe.webhook.inbox.processed", "outcome", "succeeded").count());
+    }
+
+    @Test
+    void process_handlerFails_schedulesRetryWithBackoff() {
+        when(webhookEventRepository.findById(EVENT_ID)).thenReturn(Optional.of(storedEvent(2)));
+        doThrow(new RuntimeException("Auth0 unavailable")).when(webhookService).handleEvent(any());
+
+        LocalDateTime before = LocalDateTime.now();
+        inbox.process(EVENT_ID);
+
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(webhookEventRepository).scheduleRetry(eq(EVENT_ID), nextAttempt.capture(),
+                eq("RuntimeException: Auth0 unavailable"));
+        assertFalse(nextAttempt.getValue().isBefore(before.plus(StripeWebhookInbox.backoffFor(2))));
+        verify(webhookEventRepository, never()).markProcessed(anyString(), any());
+        assertEquals(1.0, meterRegistry.counter("stripe.webhook.inbox.processed", "outcome", "retried").count());
+    }
+
+    @Test
+    void process_handlerFailsOnLastAttempt_marksEventFailed() {
+        when(webhookEventRepository.findById(EVENT_ID))
+                .thenReturn(Optional.of(storedEvent(StripeWebhookInbox.MAX_ATTEMPTS)));
+        doThrow(new RuntimeException("boom")).when(webhookService).handleEvent(any());
+
+        inbox.process(EVENT_ID);
+
+        verify(webhookEventRepository).markFailed(EVENT_ID, "RuntimeException: boom");
+        verify(webhookEventRepository, never()).scheduleRetry(anyString(), any(), anyString());
+        assertEquals(1.0, meterRegistry.counter("stripe.webhook.inbox.processed", "outcome", "failed").count());
+    }
+
+    @Test
+    void process_eventMissing_doesNothing() {
+        when(webhookEventRepository.findById(EVENT_ID)).thenReturn(Optional.empty());
+
+        inbox.process(EVENT_ID);
+
+        verifyNoInteractions(webhookService);
+    }
+
+    @Test
+    void backoffFor_doublesUpToTheCap() {
+        assertEquals(StripeWebhookInbox.BASE_BACKOFF, StripeWebhookInbox.backoffFor(1));
+        assertEquals(StripeWebhookInbox.BASE_BACKOFF.multipliedBy(4), StripeWebhookInbox.backoffFor(3));
+        assertEquals(StripeWebhookInbox.MAX_BACKOFF, StripeWebhookInbox.backoffFor(50));
+    }
+
+    @Test
+    void purgeProcessedEvents_deletesOldProcessedEvents() {
+        when(webhookEventRepository.deleteProcessedBefore(any())).thenReturn(3);
+
+        inbox.purgeProcessedEvents();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(webhookEventRepository).deleteProcessedBefore(cutoff.capture());
+        assertTrue(cutoff.getValue().isBefore(LocalDateTime.now().minus(Duration.ofDays(29))));
+    }
+
+    // ==================== orderingKeyOf Tests ====================
+
+    @Test
+    void orderingKeyOf_sessionUsesReservationMetadata() {
+        Session session = mock(Session.class);
+        when(session.getMetadata()).thenReturn(Map.of("reservationId", "res_1"));
+
+        assertEquals("reservation:res_1", StripeWebhookInbox.orderingKeyOf(eventWithObject(session)));
+    }
+
+    @Test
+    void orderingKeyOf_paymentIntentWithoutMetadataFallsBackToItsId() {
+        assertEquals("payment_intent:pi_123",
+                StripeWebhookInbox.orderingKeyOf(eventWithObject(paymentIntent("pi_123", null))));
+    }
+
+    @Test
+    void orderingKeyOf_accountUsesAccountId() {
+        Account account = mock(Account.class);
+        when(account.getId()).thenReturn("acct_1");
+
+        assertEquals("account:acct_1", StripeWebhookInbox.orderingKeyOf(eventWithObject(account)));
+    }
+
+    @Test
+    void orderingKeyOf_unknownOrUndeserializableObjectHasNoKey() {
+        assertNull(StripeWebhookInbox.orderingKeyOf(eventWithObject(null)));
+    }
+
+    // ==================== Helper Methods ====================
+
+    private Event eventWithObject(StripeObject object) {
+        EventDataObjectDeserializer deserializer = mock(EventDataObjectDeserializer.class);
+        when(deserializer.getObject()).thenReturn(Optional.ofNullable(object));
+        Event event = mock(Event.class);
+        lenient().when(event.getId()).thenReturn(EVENT_ID);
+        lenient().when(event.getType()).thenReturn("payment_intent.succeeded");
+        when(event.getDataObjectDeserializer()).thenReturn(deserializer);
+        return event;
+    }
+
+    private com.stripe.model.PaymentIntent paymentIntent(String id, Map<String, String> metadata) {
+        com.stripe.model.PaymentIntent paymentIntent = mock(com.stripe.model.PaymentIntent.class);
+        lenient().when(paymentIntent.getId()).thenReturn(id);
+        when(paymentIntent.getMetadata()).thenReturn(metadata);
+        return paymentIntent;
+    }
+
+    private StripeWebhookEvent storedEvent(int attempts) {
+        StripeWebhookEvent stored = new StripeWebhookEvent();
+        stored.setEventId(EVENT_ID);
+        stored.setEventType("payment_intent.succeeded");
+        stored.setPayload(PAYLOAD);
+        stored.setStatus(WebhookEventStatus.PROCESSING);
+        stored.setAttempts(attempts);
+        return stored;
+    }
+}
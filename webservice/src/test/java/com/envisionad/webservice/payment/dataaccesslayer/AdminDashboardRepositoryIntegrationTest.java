@@ -0,0 +1,84 @@
+package com.envisionad.webservice.payment.dataaccesslayer;
+
+import com.envisionad.webservice.business.dataaccesslayer.*;
+import com.envisionad.webservice.config.BaseIntegrationTest;
+import com.envisionad.webservice.reservation.dataaccesslayer.Reservation;
+import com.envisionad.webservice.reservation.dataaccesslayer.ReservationRepository;
+import com.envisionad.webservice.reservation.dataaccesslayer.ReservationStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Other test classes share this database, so the figures are checked as changes from a first refresh
+class AdminDashboardRepositoryIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private AdminDashboardRepository adminDashboardRepository;
+
+    @Autowired
+    private BusinessRepository businessRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    private void reservation(String advertiserId, ReservationStatus status, String price) {
+        Reservation reservation = new Reservation();
+        reservation.setReservationId(UUID.randomUUID().toString());
+        reservation.setAdvertiserId(advertiserId);
+        reservation.setStatus(status);
+        reservation.setStartDate(LocalDateTime.of(2026, 3, 10, 9, 0));
+        reservation.setEndDate(LocalDateTime.of(2026, 3, 12, 9, 0));
+        reservation.setTotalPrice(new BigDecimal(price));
+        reservationRepository.save(reservation);
+    }
+
+    @Test
+    void refreshSnapshot_computesEveryFigureAndKeepsASingleRow() {
+        PlatformOverviewSnapshot before = adminDashboardRepository.refreshSnapshot(LocalDateTime.of(2026, 3, 10, 9, 0));
+        long usersBefore = before.getTotalUsers();
+        long organizationsBefore = before.getTotalOrganizations();
+        long mediaOwnersBefore = before.getTotalMediaOwners();
+        long advertisersBefore = before.getTotalAdvertisers();
+        BigDecimal revenueBefore = before.getTotalPlatformRevenue();
+
+        String ownerId = "overview-owner-" + UUID.randomUUID();
+        Business business = new Business();
+        business.setBusinessId(new BusinessIdentifier());
+        business.setName("Overview Media Co");
+        business.setOwnerId(ownerId);
+        Roles roles = new Roles();
+        roles.setMediaOwner(true);
+        business.setRoles(roles);
+        businessRepository.save(business);
+
+        Employee employee = new Employee();
+        employee.setEmployeeId(new EmployeeIdentifier());
+        employee.setBusinessId(business.getBusinessId());
+        employee.setUserId(ownerId);
+        employeeRepository.save(employee);
+
+        String advertiserId = "overview-advertiser-" + UUID.randomUUID();
+        reservation(advertiserId, ReservationStatus.CONFIRMED, "100.00");
+        reservation(advertiserId, ReservationStatus.PENDING, "50.00");
+
+        LocalDateTime refreshedAt = LocalDateTime.of(2026, 3, 10, 10, 0);
+        adminDashboardRepository.refreshSnapshot(refreshedAt);
+        PlatformOverviewSnapshot after = adminDashboardRepository.findSnapshot().orElseThrow();
+
+        assertEquals(refreshedAt, after.getRefreshedAt());
+        assertEquals(organizationsBefore + 1, after.getTotalOrganizations());
+        assertEquals(mediaOwnersBefore + 1, after.getTotalMediaOwners());
+        // The owner is also an employee, so counts once, and the advertiser counts once for two reservations
+        assertEquals(usersBefore + 2, after.getTotalUsers());
+        assertEquals(advertisersBefore + 1, after.getTotalAdvertisers());
+        assertEquals(0, revenueBefore.add(new BigDecimal("100.00")).compareTo(after.getTotalPlatformRevenue()));
+    }
+}
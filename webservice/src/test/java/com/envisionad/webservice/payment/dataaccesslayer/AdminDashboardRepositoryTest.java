@@ -5,7 +5,8 @@ import jakarta.persistence.Query;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Field;
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -13,113 +14,48 @@ import static org.mockito.Mockito.*;
 class AdminDashboardRepositoryImplTest {
 
     @Test
-    void sumPlatformRevenue_whenBigDecimal_returnsSame() throws Exception {
+    void findSnapshot_looksUpTheSingleRowById() throws Exception {
         EntityManager em = mock(EntityManager.class);
-        Query q = mock(Query.class);
-
-        when(em.createNativeQuery(anyString())).thenReturn(q);
-        when(q.getSingleResult()).thenReturn(new BigDecimal("99.99"));
-
-        AdminDashboardRepositoryImpl repo = new AdminDashboardRepositoryImpl();
-        injectEntityManager(repo, em);
-
-        BigDecimal res = repo.sumPlatformRevenue();
-
-        assertEquals(new BigDecimal("99.99"), res);
-    }
-
-    @Test
-    void sumPlatformRevenue_whenNotBigDecimal_convertsToBigDecimal() throws Exception {
-        EntityManager em = mock(EntityManager.class);
-        Query q = mock(Query.class);
-
-        when(em.createNativeQuery(anyString())).thenReturn(q);
-        when(q.getSingleResult()).thenReturn(123L);
-
-        AdminDashboardRepositoryImpl repo = new AdminDashboardRepositoryImpl();
-        injectEntityManager(repo, em);
-
-        BigDecimal res = repo.sumPlatformRevenue();
-
-        assertEquals(new BigDecimal("123"), res);
-    }
-
-    @Test
-    void countOrganizations_returnsLongValue() throws Exception {
-        EntityManager em = mock(EntityManager.class);
-        Query q = mock(Query.class);
-
-        when(em.createNativeQuery(anyString())).thenReturn(q);
-        when(q.getSingleResult()).thenReturn(7);
+        PlatformOverviewSnapshot snapshot = new PlatformOverviewSnapshot();
 
-        AdminDashboardRepositoryImpl repo = new AdminDashboardRepositoryImpl();
-        injectEntityManager(repo, em);
-
-        assertEquals(7L, repo.countOrganizations());
-    }
-
-    @Test
-    void countMediaListings_returnsLongValue() throws Exception {
-        EntityManager em = mock(EntityManager.class);
-        Query q = mock(Query.class);
-
-        when(em.createNativeQuery(anyString())).thenReturn(q);
-        when(q.getSingleResult()).thenReturn(12);
+        when(em.find(PlatformOverviewSnapshot.class, PlatformOverviewSnapshot.ID)).thenReturn(snapshot);
 
         AdminDashboardRepositoryImpl repo = new AdminDashboardRepositoryImpl();
         injectEntityManager(repo, em);
 
-        assertEquals(12L, repo.countMediaListings());
-        verify(em, times(1)).createNativeQuery(anyString());
-        verify(q, times(1)).getSingleResult();
+        assertEquals(Optional.of(snapshot), repo.findSnapshot());
+        verify(em, never()).createNativeQuery(anyString());
     }
 
     @Test
-    void countDistinctKnownUsers_returnsLongValue() throws Exception {
+    void findSnapshot_beforeTheFirstRefresh_returnsEmpty() throws Exception {
         EntityManager em = mock(EntityManager.class);
-        Query q = mock(Query.class);
-
-        when(em.createNativeQuery(anyString())).thenReturn(q);
-        when(q.getSingleResult()).thenReturn(50);
 
         AdminDashboardRepositoryImpl repo = new AdminDashboardRepositoryImpl();
         injectEntityManager(repo, em);
 
-        assertEquals(50L, repo.countDistinctKnownUsers());
-        verify(em, times(1)).createNativeQuery(anyString());
-        verify(q, times(1)).getSingleResult();
-    }
-
-    @Test
-    void countMediaOwners_returnsLongValue() throws Exception {
-        EntityManager em = mock(EntityManager.class);
-        Query q = mock(Query.class);
-
-        when(em.createNativeQuery(anyString())).thenReturn(q);
-        when(q.getSingleResult()).thenReturn(9);
-
-        AdminDashboardRepositoryImpl repo = new AdminDashboardRepositoryImpl();
-        injectEntityManager(repo, em);
-
-        assertEquals(9L, repo.countMediaOwners());
-        verify(em, times(1)).createNativeQuery(anyString());
-        verify(q, times(1)).getSingleResult();
+        assertTrue(repo.findSnapshot().isEmpty());
     }
 
     @Test
-    void countAdvertisers_returnsLongValue() throws Exception {
+    void refreshSnapshot_runsOneStatementAndReturnsTheReloadedRow() throws Exception {
         EntityManager em = mock(EntityManager.class);
         Query q = mock(Query.class);
+        PlatformOverviewSnapshot snapshot = new PlatformOverviewSnapshot();
+        LocalDateTime refreshedAt = LocalDateTime.of(2026, 3, 10, 9, 0);
 
         when(em.createNativeQuery(anyString())).thenReturn(q);
-        when(q.getSingleResult()).thenReturn(4);
+        when(q.setParameter(anyString(), any())).thenReturn(q);
+        when(em.find(PlatformOverviewSnapshot.class, PlatformOverviewSnapshot.ID)).thenReturn(snapshot);
 
         AdminDashboardRepositoryImpl repo = new AdminDashboardRepositoryImpl();
         injectEntityManager(repo, em);
 
-        assertEquals(4L, repo.countAdvertisers());
+        assertSame(snapshot, repo.refreshSnapshot(refreshedAt));
         verify(em, times(1)).createNativeQuery(anyString());
-        verify(q, times(1)).getSingleResult();
+        verify(q).setParameter("refreshedAt", refreshedAt);
+        verify(q, times(1)).executeUpdate();
+        verify(em).refresh(snapshot);
     }
 
     private static void injectEntityManager(AdminDashboardRepositoryImpl repo, EntityManager em) throws Exception {
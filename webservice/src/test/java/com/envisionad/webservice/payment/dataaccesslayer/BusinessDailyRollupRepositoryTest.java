@@ -0,0 +1,184 @@
+package com.envisionad.webservice.payment.dataaccesslayer;
+
+import com.envisionad.webservice.config.BaseIntegrationTest;
+import com.envisionad.webservice.media.DataAccessLayer.Media;
+import com.envisionad.webservice.media.DataAccessLayer.MediaLocation;
+import com.envisionad.webservice.media.DataAccessLayer.MediaLocationRepository;
+import com.envisionad.webservice.media.DataAccessLayer.MediaRepository;
+import com.envisionad.webservice.media.DataAccessLayer.Status;
+import com.envisionad.webservice.media.DataAccessLayer.TypeOfDisplay;
+import com.envisionad.webservice.reservation.dataaccesslayer.Reservation;
+import com.envisionad.webservice.reservation.dataaccesslayer.ReservationRepository;
+import com.envisionad.webservice.reservation.dataaccesslayer.ReservationStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BusinessDailyRollupRepositoryTest extends BaseIntegrationTest {
+
+    private static final String ADVERTISER = "advertiser-1";
+    private static final String OWNER = "owner-1";
+    private static final int FEE_PERCENT = 30;
+
+    @Autowired
+    private BusinessDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private PaymentIntentRepository paymentIntentRepository;
+
+    @Autowired
+    private MediaRepository mediaRepository;
+
+    @Autowired
+    private MediaLocationRepository mediaLocationRepository;
+
+    private final LocalDate day = LocalDate.of(2026, 3, 10);
+    private MediaLocation location;
+    private Media media;
+
+    @BeforeEach
+    void setUp() {
+        rollupRepository.deleteAll();
+        reservationRepository.deleteAll();
+        paymentIntentRepository.deleteAll();
+
+        location = new MediaLocation();
+        location.setName("Rollup Location");
+        location.setCountry("Canada");
+        location.setProvince("QC");
+        location.setCity("Montreal");
+        location.setStreet("1 Rollup St");
+        location.setPostalCode("H1H 1H1");
+        location.setLatitude(45.0);
+        location.setLongitude(-73.0);
+        location.setBusinessId(UUID.randomUUID());
+        mediaLocationRepository.save(location);
+
+        media = media("Rollup Board");
+    }
+
+    private Media media(String title) {
+        Media board = new Media();
+        board.setMediaLocation(location);
+        board.setTitle(title);
+        board.setMediaOwnerName("Owner");
+        board.setTypeOfDisplay(TypeOfDisplay.DIGITAL);
+        board.setStatus(Status.ACTIVE);
+        board.setPrice(new BigDecimal("100.00"));
+        board.setDailyImpressions(1000);
+        return mediaRepository.save(board);
+    }
+
+    private Reservation reservation(ReservationStatus status, LocalDateTime start, LocalDateTime end, String price) {
+        return reservation(media, status, start, end, price);
+    }
+
+    private Reservation reservation(Media board, ReservationStatus status, LocalDateTime start, LocalDateTime end,
+                                    String price) {
+        Reservation reservation = new Reservation();
+        reservation.setReservationId(UUID.randomUUID().toString());
+        reservation.setAdvertiserId(ADVERTISER);
+        reservation.setMediaId(board.getId());
+        reservation.setStatus(status);
+        reservation.setStartDate(start);
+        reservation.setEndDate(end);
+        reservation.setTotalPrice(new BigDecimal(price));
+        return reservationRepository.save(reservation);
+    }
+
+    private void payment(PaymentStatus status, LocalDateTime createdAt, String amount) {
+        PaymentIntent payment = new PaymentIntent();
+        payment.setReservationId(UUID.randomUUID().toString());
+        payment.setBusinessId(OWNER);
+        payment.setAmount(new BigDecimal(amount));
+        payment.setStatus(status);
+        payment.setCreatedAt(createdAt);
+        paymentIntentRepository.save(payment);
+    }
+
+    private List<BusinessDailyRollup> rollups(String businessId) {
+        return rollupRepository.findByBusinessIdAndDateRange(businessId, day.minusDays(30), day.plusDays(30));
+    }
+
+    @Test
+    void refreshAdvertiserDays_countsImpressionsOnEachDayAndSpendOnTheStartDay() {
+        reservation(ReservationStatus.CONFIRMED, day.atTime(9, 0), day.plusDays(3).atTime(9, 0), "300.00");
+        // On another board, since one board cannot be held by two reservations over the same days
+        reservation(media("Other Board"), ReservationStatus.PENDING, day.atTime(9, 0), day.plusDays(3).atTime(9, 0), "999.00");
+
+        rollupRepository.refreshAdvertiserDays(ADVERTISER, day, day.plusDays(2));
+
+        List<BusinessDailyRollup> rows = rollups(ADVERTISER);
+        assertEquals(List.of(day, day.plusDays(1), day.plusDays(2)),
+                rows.stream().map(row -> row.getId().getRollupDate()).toList());
+        assertEquals(List.of(1000L, 1000L, 1000L), rows.stream().map(BusinessDailyRollup::getImpressions).toList());
+        assertEquals(0, new BigDecimal("300.00").compareTo(rows.get(0).getSpend()));
+        assertEquals(1, rows.get(0).getReservationCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(rows.get(1).getSpend()));
+    }
+
+    @Test
+    void refresh_recomputesRatherThanAddsAndKeepsTheOtherColumns() {
+        Reservation reservation = reservation(ReservationStatus.CONFIRMED, day.atTime(9, 0), day.atTime(18, 0), "100.00");
+        payment(PaymentStatus.SUCCEEDED, day.atTime(10, 0), "100.00");
+
+        // The same business as advertiser and media owner, refreshed twice as a replayed webhook would
+        rollupRepository.refreshAdvertiserDays(ADVERTISER, day, day);
+        rollupRepository.refreshAdvertiserDays(ADVERTISER, day, day);
+        rollupRepository.refreshRevenueDays(OWNER, day, day, FEE_PERCENT);
+        rollupRepository.refreshRevenueDays(OWNER, day, day, FEE_PERCENT);
+
+        BusinessDailyRollup advertiserDay = rollups(ADVERTISER).get(0);
+        assertEquals(1000L, advertiserDay.getImpressions());
+        assertEquals(1, advertiserDay.getReservationCount());
+
+        BusinessDailyRollup ownerDay = rollups(OWNER).get(0);
+        assertEquals(0, new BigDecimal("100.00").compareTo(ownerDay.getGrossRevenue()));
+        assertEquals(0, new BigDecimal("70.00").compareTo(ownerDay.getNetRevenue()));
+        assertEquals(1, ownerDay.getPaymentCount());
+
+        // Cancelling the reservation empties its day on the next refresh
+        reservation.setStatus(ReservationStatus.CANCELLED);
+        reservationRepository.save(reservation);
+        rollupRepository.refreshAdvertiserDays(ADVERTISER, day, day);
+        assertEquals(0L, rollups(ADVERTISER).get(0).getImpressions());
+        assertEquals(0, rollups(ADVERTISER).get(0).getReservationCount());
+    }
+
+    @Test
+    void rebuildAll_replacesEveryRowWithOnesComputedFromScratch() {
+        reservation(ReservationStatus.CONFIRMED, day.atTime(9, 0), day.plusDays(2).atTime(9, 0), "200.00");
+        payment(PaymentStatus.SUCCEEDED, day.atTime(10, 0), "50.00");
+        payment(PaymentStatus.SUCCEEDED, day.atTime(15, 0), "150.00");
+        payment(PaymentStatus.FAILED, day.atTime(16, 0), "999.00");
+
+        BusinessDailyRollup stale = new BusinessDailyRollup();
+        stale.setId(new BusinessDailyRollupId("gone", day));
+        stale.setImpressions(42);
+        rollupRepository.save(stale);
+
+        rollupRepository.rebuildAll(FEE_PERCENT);
+
+        assertTrue(rollups("gone").isEmpty());
+        List<BusinessDailyRollup> advertiserRows = rollups(ADVERTISER);
+        assertEquals(2, advertiserRows.size());
+        assertEquals(2000L, advertiserRows.stream().mapToLong(BusinessDailyRollup::getImpressions).sum());
+
+        List<BusinessDailyRollup> ownerRows = rollups(OWNER);
+        assertEquals(1, ownerRows.size());
+        assertEquals(0, new BigDecimal("200.00").compareTo(ownerRows.get(0).getGrossRevenue()));
+        assertEquals(0, new BigDecimal("140.00").compareTo(ownerRows.get(0).getNetRevenue()));
+        assertEquals(2, ownerRows.get(0).getPaymentCount());
+    }
+}
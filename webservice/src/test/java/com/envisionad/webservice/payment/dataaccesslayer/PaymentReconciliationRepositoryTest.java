@@ -0,0 +1,92 @@
+package com.envisionad.webservice.payment.dataaccesslayer;
+
+import com.envisionad.webservice.config.BaseIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentReconciliationRepositoryTest extends BaseIntegrationTest {
+
+    private static final String JOB = "pending-payments";
+
+    @Autowired
+    private PaymentIntentRepository paymentIntentRepository;
+
+    @Autowired
+    private PaymentReconciliationCheckpointRepository checkpointRepository;
+
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    @BeforeEach
+    void setUp() {
+        paymentIntentRepository.deleteAll();
+        checkpointRepository.deleteAll();
+    }
+
+    private PaymentIntent payment(String sessionId, PaymentStatus status, LocalDateTime updatedAt) {
+        PaymentIntent payment = new PaymentIntent();
+        payment.setStripeSessionId(sessionId);
+        payment.setBusinessId("biz-1");
+        payment.setAmount(new BigDecimal("100.00"));
+        payment.setStatus(status);
+        payment.setUpdatedAt(updatedAt);
+        return paymentIntentRepository.save(payment);
+    }
+
+    @Test
+    void findStalePendingPayments_returnsOnlyQuietPendingPaymentsAfterTheCursor() {
+        PaymentIntent first = payment("sess_1", PaymentStatus.PENDING, now.minusHours(1));
+        PaymentIntent second = payment("sess_2", PaymentStatus.PENDING, now.minusHours(1));
+        payment("sess_fresh", PaymentStatus.PENDING, now);
+        payment("sess_paid", PaymentStatus.SUCCEEDED, now.minusHours(1));
+        payment(null, PaymentStatus.PENDING, now.minusHours(1));
+
+        List<PaymentIntent> stale = paymentIntentRepository.findStalePendingPayments(
+                0, now.minusMinutes(15), PageRequest.of(0, 10));
+        assertEquals(List.of(first.getId(), second.getId()), stale.stream().map(PaymentIntent::getId).toList());
+
+        List<PaymentIntent> afterFirst = paymentIntentRepository.findStalePendingPayments(
+                first.getId(), now.minusMinutes(15), PageRequest.of(0, 10));
+        assertEquals(List.of(second.getId()), afterFirst.stream().map(PaymentIntent::getId).toList());
+    }
+
+    @Test
+    void resolvePending_onlyAppliesWhileTheSessionIsStillPending() {
+        PaymentIntent payment = payment("sess_1", PaymentStatus.PENDING, now.minusHours(1));
+
+        assertEquals(0, paymentIntentRepository.resolvePending(
+                payment.getId(), "sess_other", PaymentStatus.SUCCEEDED, "pi_1", now));
+        assertEquals(1, paymentIntentRepository.resolvePending(
+                payment.getId(), "sess_1", PaymentStatus.SUCCEEDED, "pi_1", now));
+        assertEquals(0, paymentIntentRepository.resolvePending(
+                payment.getId(), "sess_1", PaymentStatus.FAILED, null, now));
+
+        PaymentIntent stored = paymentIntentRepository.findById(payment.getId()).orElseThrow();
+        assertEquals(PaymentStatus.SUCCEEDED, stored.getStatus());
+        assertEquals("pi_1", stored.getStripePaymentIntentId());
+    }
+
+    @Test
+    void checkpoint_isLockedByOneSweepAtATimeAndKeepsItsPosition() {
+        assertEquals(1, checkpointRepository.insertIfAbsent(JOB, now));
+        assertEquals(0, checkpointRepository.insertIfAbsent(JOB, now));
+
+        assertEquals(1, checkpointRepository.tryLock(JOB, now, now.plusMinutes(10)));
+        assertEquals(0, checkpointRepository.tryLock(JOB, now, now.plusMinutes(10)));
+
+        checkpointRepository.advance(JOB, 42, now);
+        checkpointRepository.unlock(JOB, now);
+        assertEquals(1, checkpointRepository.tryLock(JOB, now, now.plusMinutes(10)));
+        assertEquals(42, checkpointRepository.findById(JOB).orElseThrow().getLastPaymentId());
+
+        // A sweep that died leaves an expired lock behind
+        assertEquals(1, checkpointRepository.tryLock(JOB, now.plusMinutes(11), now.plusMinutes(21)));
+    }
+}
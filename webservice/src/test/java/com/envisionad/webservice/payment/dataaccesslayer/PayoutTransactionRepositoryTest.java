@@ -0,0 +1,81 @@
+package com.envisionad.webservice.payment.dataaccesslayer;
+
+import com.envisionad.webservice.config.BaseIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayoutTransactionRepositoryTest extends BaseIntegrationTest {
+
+    @Autowired
+    private PayoutTransactionRepository payoutTransactionRepository;
+
+    @Autowired
+    private PayoutSyncStateRepository syncStateRepository;
+
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    @BeforeEach
+    void setUp() {
+        payoutTransactionRepository.deleteAll();
+        syncStateRepository.deleteAll();
+    }
+
+    private PayoutTransaction transaction(String id, String account, LocalDateTime createdAt) {
+        PayoutTransaction transaction = new PayoutTransaction();
+        transaction.setTransactionId(id);
+        transaction.setStripeAccountId(account);
+        transaction.setType("payment");
+        transaction.setAmount(10000);
+        transaction.setNet(7000);
+        transaction.setCurrency("cad");
+        transaction.setStatus("available");
+        transaction.setCreatedAt(createdAt);
+        transaction.setSyncedAt(now);
+        return transaction;
+    }
+
+    @Test
+    void findTop100ByStripeAccountId_returnsTheAccountsNewestTransactionsFirst() {
+        payoutTransactionRepository.saveAll(List.of(
+                transaction("txn_old", "acct_1", now.minusDays(3)),
+                transaction("txn_new", "acct_1", now.minusDays(1)),
+                transaction("txn_other", "acct_2", now)));
+
+        List<PayoutTransaction> history = payoutTransactionRepository.findTop100ByStripeAccountIdOrderByCreatedAtDesc("acct_1");
+
+        assertEquals(List.of("txn_new", "txn_old"), history.stream().map(PayoutTransaction::getTransactionId).toList());
+        assertEquals(List.of("txn_new"), payoutTransactionRepository.findExistingIds(List.of("txn_new", "txn_unknown")));
+    }
+
+    @Test
+    void requestRefresh_makesTheAccountDueUntilItIsClaimed() {
+        syncStateRepository.requestRefresh("acct_1", now);
+        syncStateRepository.requestRefresh("acct_1", now);
+
+        assertEquals(List.of("acct_1"), syncStateRepository.findDueAccountIds(now, now.minusMinutes(15), PageRequest.of(0, 10)));
+
+        assertEquals(1, syncStateRepository.claim("acct_1", now, now.plusMinutes(5)));
+        assertEquals(0, syncStateRepository.claim("acct_1", now, now.plusMinutes(5)));
+        assertTrue(syncStateRepository.findDueAccountIds(now, now.minusMinutes(15), PageRequest.of(0, 10)).isEmpty());
+
+        syncStateRepository.markSynced("acct_1", now);
+        PayoutSyncState state = syncStateRepository.findById("acct_1").orElseThrow();
+        assertNull(state.getRefreshRequestedAt());
+        assertNull(state.getLockedUntil());
+        assertEquals(now, state.getLastSyncedAt());
+        assertTrue(syncStateRepository.findDueAccountIds(now, now.minusMinutes(15), PageRequest.of(0, 10)).isEmpty());
+
+        // Due again once the last sync is stale, or as soon as a webhook asks
+        assertEquals(List.of("acct_1"),
+                syncStateRepository.findDueAccountIds(now.plusMinutes(20), now.plusMinutes(5), PageRequest.of(0, 10)));
+        syncStateRepository.requestRefresh("acct_1", now);
+        assertEquals(List.of("acct_1"), syncStateRepository.findDueAccountIds(now, now.minusMinutes(15), PageRequest.of(0, 10)));
+    }
+}
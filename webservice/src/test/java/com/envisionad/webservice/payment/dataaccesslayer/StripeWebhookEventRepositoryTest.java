@@ -0,0 +1,105 @@
+package com.envisionad.webservice.payment.dataaccesslayer;
+
+import com.envisionad.webservice.config.BaseIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripeWebhookEventRepositoryTest extends BaseIntegrationTest {
+
+    @Autowired
+    private StripeWebhookEventRepository webhookEventRepository;
+
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    @BeforeEach
+    void setUp() {
+        webhookEventRepository.deleteAll();
+    }
+
+    @Test
+    void insertIfAbsent_sameEventTwice_storesItOnce() {
+        assertEquals(1, insert("evt_1", "reservation:res_1", now.minusMinutes(2)));
+        assertEquals(0, insert("evt_1", "reservation:res_1", now.minusMinutes(2)));
+
+        StripeWebhookEvent stored = webhookEventRepository.findById("evt_1").orElseThrow();
+        assertEquals(WebhookEventStatus.PENDING, stored.getStatus());
+        assertEquals(0, stored.getAttempts());
+        assertEquals(1, webhookEventRepository.count());
+    }
+
+    @Test
+    void findClaimableEventIds_holdsBackLaterEventsForTheSameKey() {
+        insert("evt_late", "reservation:res_1", now.minusMinutes(1));
+        insert("evt_early", "reservation:res_1", now.minusMinutes(2));
+        insert("evt_other", "reservation:res_2", now.minusMinutes(3));
+        insert("evt_unkeyed", null, now.minusMinutes(4));
+
+        List<String> claimable = webhookEventRepository.findClaimableEventIds(now, PageRequest.of(0, 10));
+
+        assertEquals(List.of("evt_unkeyed", "evt_other", "evt_early"), claimable);
+
+        // While the earlier event is being processed the later one still waits
+        assertEquals(1, webhookEventRepository.claim("evt_early", now, now.plusMinutes(5)));
+        assertFalse(webhookEventRepository.findClaimableEventIds(now, PageRequest.of(0, 10)).contains("evt_late"));
+
+        webhookEventRepository.markProcessed("evt_early", now);
+        assertTrue(webhookEventRepository.findClaimableEventIds(now, PageRequest.of(0, 10)).contains("evt_late"));
+    }
+
+    @Test
+    void claim_succeedsOnceUntilTheLeaseExpires() {
+        insert("evt_1", "reservation:res_1", now.minusMinutes(2));
+
+        assertEquals(1, webhookEventRepository.claim("evt_1", now, now.plusMinutes(5)));
+        assertEquals(0, webhookEventRepository.claim("evt_1", now, now.plusMinutes(5)));
+        assertTrue(webhookEventRepository.findClaimableEventIds(now, PageRequest.of(0, 10)).isEmpty());
+
+        // A worker that died leaves an expired lease behind
+        LocalDateTime later = now.plusMinutes(10);
+        assertEquals(List.of("evt_1"), webhookEventRepository.findClaimableEventIds(later, PageRequest.of(0, 10)));
+        assertEquals(1, webhookEventRepository.claim("evt_1", later, later.plusMinutes(5)));
+        assertEquals(2, webhookEventRepository.findById("evt_1").orElseThrow().getAttempts());
+    }
+
+    @Test
+    void scheduleRetry_defersEventUntilNextAttempt() {
+        insert("evt_1", "reservation:res_1", now.minusMinutes(2));
+        webhookEventRepository.claim("evt_1", now, now.plusMinutes(5));
+
+        webhookEventRepository.scheduleRetry("evt_1", now.plusMinutes(1), "RuntimeException: boom");
+
+        assertTrue(webhookEventRepository.findClaimableEventIds(now, PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of("evt_1"),
+                webhookEventRepository.findClaimableEventIds(now.plusMinutes(1), PageRequest.of(0, 10)));
+        assertEquals("RuntimeException: boom", webhookEventRepository.findById("evt_1").orElseThrow().getLastError());
+    }
+
+    @Test
+    void markFailed_releasesLaterEventsAndDeleteProcessedBeforeKeepsFailures() {
+        insert("evt_early", "reservation:res_1", now.minusMinutes(2));
+        insert("evt_late", "reservation:res_1", now.minusMinutes(1));
+        webhookEventRepository.claim("evt_early", now, now.plusMinutes(5));
+
+        webhookEventRepository.markFailed("evt_early", "RuntimeException: boom");
+        assertEquals(List.of("evt_late"), webhookEventRepository.findClaimableEventIds(now, PageRequest.of(0, 10)));
+
+        webhookEventRepository.claim("evt_late", now, now.plusMinutes(5));
+        webhookEventRepository.markProcessed("evt_late", now.minusDays(31));
+
+        assertEquals(1, webhookEventRepository.deleteProcessedBefore(now.minusDays(30)));
+        assertEquals(WebhookEventStatus.FAILED, webhookEventRepository.findById("evt_early").orElseThrow().getStatus());
+        assertTrue(webhookEventRepository.findById("evt_late").isEmpty());
+    }
+
+    private int insert(String eventId, String orderingKey, LocalDateTime stripeCreatedAt) {
+        return webhookEventRepository.insertIfAbsent(eventId, "payment_intent.succeeded", "{}", orderingKey,
+                stripeCreatedAt, now.minusMinutes(5));
+    }
+}
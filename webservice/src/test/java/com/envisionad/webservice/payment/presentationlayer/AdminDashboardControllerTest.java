@@ -15,6 +15,7 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 import static org.mockito.Mockito.when;
 import static org.springframework.security.core.authority.AuthorityUtils.createAuthorityList;
@@ -46,7 +47,9 @@ class AdminDashboardControllerTest {
                 10L,
                 20L,
                 8L,
-                12L
+                12L,
+                LocalDateTime.of(2026, 3, 10, 9, 0),
+                42L
         );
 
         when(adminDashboardService.getOverview()).thenReturn(response);
@@ -61,7 +64,8 @@ class AdminDashboardControllerTest {
                 .andExpect(jsonPath("$.totalMediaListings").value(10))
                 .andExpect(jsonPath("$.totalUsers").value(20))
                 .andExpect(jsonPath("$.totalMediaOwners").value(8))
-                .andExpect(jsonPath("$.totalAdvertisers").value(12));
+                .andExpect(jsonPath("$.totalAdvertisers").value(12))
+                .andExpect(jsonPath("$.snapshotAgeSeconds").value(42));
     }
 
     @Test
@@ -9,8 +9,12 @@ import com.envisionad.webservice.business.dataaccesslayer.EmployeeRepository;
 import com.envisionad.webservice.config.Auth0Service;
 import com.envisionad.webservice.media.DataAccessLayer.Media;
 import com.envisionad.webservice.media.DataAccessLayer.MediaRepository;
+import com.envisionad.webservice.payment.businesslogiclayer.AdminDashboardService;
+import com.envisionad.webservice.payment.businesslogiclayer.BusinessDailyRollupService;
+import com.envisionad.webservice.payment.businesslogiclayer.PayoutTransactionSync;
 import com.envisionad.webservice.payment.businesslogiclayer.StripeWebhookService;
 import com.envisionad.webservice.payment.dataaccesslayer.*;
+import com.envisionad.webservice.reservation.businesslogiclayer.MediaAvailabilityService;
 import com.envisionad.webservice.reservation.dataaccesslayer.Reservation;
 import com.envisionad.webservice.reservation.dataaccesslayer.ReservationRepository;
 import com.envisionad.webservice.reservation.dataaccesslayer.ReservationStatus;
@@ -30,6 +34,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 
@@ -72,6 +77,18 @@ class StripeWebhookServiceTest {
     @Mock
     private Auth0Service auth0Service;
 
+    @Mock
+    private PayoutTransactionSync payoutTransactionSync;
+
+    @Mock
+    private BusinessDailyRollupService businessDailyRollupService;
+
+    @Mock
+    private AdminDashboardService adminDashboardService;
+
+    @Mock
+    private MediaAvailabilityService mediaAvailabilityService;
+
     @Mock
     private Event event;
 
@@ -84,7 +101,79 @@ class StripeWebhookServiceTest {
 
     @BeforeEach
     void setUp() {
-        reset(paymentIntentRepository, reservationRepository, mediaRepository, adCampaignRepository, employeeRepository, emailService, stripeAccountRepository, adCampaignService, auth0Service, event, deserializer);
+        reset(paymentIntentRepository, reservationRepository, mediaRepository, adCampaignRepository, employeeRepository, emailService, stripeAccountRepository, adCampaignService, auth0Service, payoutTransactionSync, event, deserializer);
+    }
+
+    // ==================== handleEvent Tests ====================
+
+    @Test
+    void whenHandleEvent_withKnownTypes_thenRouteToMatchingHandler() {
+        // Arrange
+        StripeWebhookService service = spy(stripeWebhookService);
+        Event checkout = mock(Event.class);
+        Event succeeded = mock(Event.class);
+        Event failed = mock(Event.class);
+        Event account = mock(Event.class);
+        when(checkout.getType()).thenReturn("checkout.session.completed");
+        when(succeeded.getType()).thenReturn("payment_intent.succeeded");
+        when(failed.getType()).thenReturn("payment_intent.payment_failed");
+        when(account.getType()).thenReturn("account.updated");
+        doNothing().when(service).handleCheckoutSessionCompleted(checkout);
+        doNothing().when(service).handlePaymentIntentSucceeded(succeeded);
+        doNothing().when(service).handlePaymentIntentFailed(failed);
+        doNothing().when(service).handleAccountUpdated(account);
+
+        // Act
+        service.handleEvent(checkout);
+        service.handleEvent(succeeded);
+        service.handleEvent(failed);
+        service.handleEvent(account);
+
+        // Assert
+        verify(service).handleCheckoutSessionCompleted(checkout);
+        verify(service).handlePaymentIntentSucceeded(succeeded);
+        verify(service).handlePaymentIntentFailed(failed);
+        verify(service).handleAccountUpdated(account);
+    }
+
+    @Test
+    void whenHandleEvent_withConnectedPayoutEvent_thenRequestPayoutRefresh() {
+        // Arrange
+        when(event.getType()).thenReturn("payout.paid");
+        when(event.getAccount()).thenReturn("acct_owner");
+
+        // Act
+        stripeWebhookService.handleEvent(event);
+
+        // Assert
+        verify(payoutTransactionSync).requestRefresh("acct_owner");
+        verifyNoInteractions(paymentIntentRepository, reservationRepository, stripeAccountRepository);
+    }
+
+    @Test
+    void whenHandleEvent_withPlatformBalanceEvent_thenIgnoreEvent() {
+        // Arrange
+        when(event.getType()).thenReturn("balance.available");
+        when(event.getAccount()).thenReturn(null);
+
+        // Act
+        stripeWebhookService.handleEvent(event);
+
+        // Assert
+        verifyNoInteractions(payoutTransactionSync);
+    }
+
+    @Test
+    void whenHandleEvent_withUnhandledType_thenIgnoreEvent() {
+        // Arrange
+        when(event.getType()).thenReturn("customer.created");
+
+        // Act
+        stripeWebhookService.handleEvent(event);
+
+        // Assert
+        verify(event, never()).getDataObjectDeserializer();
+        verifyNoInteractions(paymentIntentRepository, reservationRepository, stripeAccountRepository);
     }
 
     // ==================== handleCheckoutSessionCompleted Tests ====================
@@ -115,6 +204,10 @@ class StripeWebhookServiceTest {
         when(reservationRepository.findByReservationId(RESERVATION_ID)).thenReturn(Optional.of(reservation));
         when(mediaRepository.findById(reservation.getMediaId())).thenReturn(Optional.of(media));
         when(adCampaignRepository.findByCampaignId_CampaignId(reservation.getCampaignId())).thenReturn(new AdCampaign());
+        payment.setBusinessId("owner-business");
+        StripeAccount ownerAccount = new StripeAccount();
+        ownerAccount.setStripeAccountId("acct_owner");
+        when(stripeAccountRepository.findByBusinessId("owner-business")).thenReturn(Optional.of(ownerAccount));
         // Act
         stripeWebhookService.handleCheckoutSessionCompleted(event);
 
@@ -132,6 +225,12 @@ class StripeWebhookServiceTest {
 
         Reservation savedReservation = reservationCaptor.getValue();
         assertEquals(ReservationStatus.CONFIRMED, savedReservation.getStatus());
+
+        verify(payoutTransactionSync).requestRefresh("acct_owner");
+        verify(businessDailyRollupService).paymentChanged(savedPayment);
+        verify(businessDailyRollupService).reservationChanged(savedReservation);
+        verify(adminDashboardService).overviewChanged();
+        verify(mediaAvailabilityService).reservationChanged(savedReservation);
     }
 
     @Test
@@ -363,6 +462,10 @@ class StripeWebhookServiceTest {
 
         Reservation savedReservation = reservationCaptor.getValue();
         assertEquals(ReservationStatus.CANCELLED, savedReservation.getStatus());
+        // A cancelled reservation drops out of the advertiser's rollup
+        verify(businessDailyRollupService).reservationChanged(savedReservation);
+        verify(adminDashboardService).overviewChanged();
+        verify(mediaAvailabilityService).reservationChanged(savedReservation);
     }
 
     @Test
@@ -504,7 +607,8 @@ class StripeWebhookServiceTest {
         when(mediaRepository.findById(reservation.getMediaId())).thenReturn(Optional.of(mockMedia));
         when(adCampaignRepository.findByCampaignId_CampaignId(reservation.getCampaignId())).thenReturn(mockCampaign);
         when(employeeRepository.findAllByBusinessId_BusinessId(any())).thenReturn(List.of(mockEmployee));
-        when(auth0Service.getUserEmailByUserId("auth0|owner123")).thenReturn("owner@example.com");
+        when(auth0Service.getUserEmailsByUserIds(List.of("auth0|owner123")))
+                .thenReturn(Map.of("auth0|owner123", "owner@example.com"));
 
         // Act
         stripeWebhookService.handlePaymentIntentSucceeded(event);
@@ -713,7 +817,8 @@ class StripeWebhookServiceTest {
 
         Employee employee = mock(Employee.class);
         when(employee.getUserId()).thenReturn("auth0|owner456");
-        when(auth0Service.getUserEmailByUserId("auth0|owner456")).thenReturn(mediaOwnerEmail);
+        when(auth0Service.getUserEmailsByUserIds(List.of("auth0|owner456")))
+                .thenReturn(Map.of("auth0|owner456", mediaOwnerEmail));
 
         List<String> imageLinks = List.of("http://example.com/ad1.jpg", "http://example.com/ad2.png");
         when(adCampaignService.getAllCampaignImageLinks(campaignId)).thenReturn(imageLinks);
@@ -836,7 +941,8 @@ class StripeWebhookServiceTest {
 
         Employee employee = mock(Employee.class);
         when(employee.getUserId()).thenReturn("auth0|owner789");
-        when(auth0Service.getUserEmailByUserId("auth0|owner789")).thenReturn(mediaOwnerEmail);
+        when(auth0Service.getUserEmailsByUserIds(List.of("auth0|owner789")))
+                .thenReturn(Map.of("auth0|owner789", mediaOwnerEmail));
 
         when(adCampaignService.getAllCampaignImageLinks(campaignId)).thenReturn(List.of()); // No image links
         when(employeeRepository.findAllByBusinessId_BusinessId(businessId.toString()))
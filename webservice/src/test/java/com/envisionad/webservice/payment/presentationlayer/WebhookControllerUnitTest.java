@@ -1,5 +1,6 @@
 package com.envisionad.webservice.payment.presentationlayer;
 
+import com.envisionad.webservice.payment.businesslogiclayer.StripeWebhookInbox;
 import com.envisionad.webservice.payment.businesslogiclayer.StripeWebhookService;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.model.Event;
@@ -32,6 +33,9 @@ class WebhookControllerUnitTest {
     @Mock
     private StripeWebhookService webhookService;
 
+    @Mock
+    private StripeWebhookInbox webhookInbox;
+
     private static final String TEST_WEBHOOK_SECRET = "whsec_test123";
     private static final String VALID_SIGNATURE = "valid_signature";
     private static final String INVALID_SIGNATURE = "invalid_signature";
@@ -52,7 +56,7 @@ class WebhookControllerUnitTest {
             webhookMock.when(() -> Webhook.constructEvent(payload, VALID_SIGNATURE, TEST_WEBHOOK_SECRET))
                     .thenReturn(mockEvent);
 
-            doNothing().when(webhookService).handleCheckoutSessionCompleted(mockEvent);
+            doNothing().when(webhookService).handleEvent(mockEvent);
 
             // When
             ResponseEntity<String> response = webhookController.handleStripeWebhook(payload, VALID_SIGNATURE);
@@ -61,9 +65,8 @@ class WebhookControllerUnitTest {
             assertNotNull(response);
             assertEquals(HttpStatus.OK, response.getStatusCode());
             assertEquals("Webhook handled", response.getBody());
-            verify(webhookService, times(1)).handleCheckoutSessionCompleted(mockEvent);
-            verify(webhookService, never()).handlePaymentIntentSucceeded(any());
-            verify(webhookService, never()).handlePaymentIntentFailed(any());
+            verify(webhookService, times(1)).handleEvent(mockEvent);
+            verify(webhookInbox, never()).accept(any(), anyString());
         }
     }
 
@@ -78,7 +81,7 @@ class WebhookControllerUnitTest {
             webhookMock.when(() -> Webhook.constructEvent(payload, VALID_SIGNATURE, TEST_WEBHOOK_SECRET))
                     .thenReturn(mockEvent);
 
-            doNothing().when(webhookService).handlePaymentIntentSucceeded(mockEvent);
+            doNothing().when(webhookService).handleEvent(mockEvent);
 
             // When
             ResponseEntity<String> response = webhookController.handleStripeWebhook(payload, VALID_SIGNATURE);
@@ -87,8 +90,7 @@ class WebhookControllerUnitTest {
             assertNotNull(response);
             assertEquals(HttpStatus.OK, response.getStatusCode());
             assertEquals("Webhook handled", response.getBody());
-            verify(webhookService, times(1)).handlePaymentIntentSucceeded(mockEvent);
-            verify(webhookService, never()).handleCheckoutSessionCompleted(any());
+            verify(webhookService, times(1)).handleEvent(mockEvent);
         }
     }
 
@@ -103,7 +105,7 @@ class WebhookControllerUnitTest {
             webhookMock.when(() -> Webhook.constructEvent(payload, VALID_SIGNATURE, TEST_WEBHOOK_SECRET))
                     .thenReturn(mockEvent);
 
-            doNothing().when(webhookService).handlePaymentIntentFailed(mockEvent);
+            doNothing().when(webhookService).handleEvent(mockEvent);
 
             // When
             ResponseEntity<String> response = webhookController.handleStripeWebhook(payload, VALID_SIGNATURE);
@@ -112,7 +114,7 @@ class WebhookControllerUnitTest {
             assertNotNull(response);
             assertEquals(HttpStatus.OK, response.getStatusCode());
             assertEquals("Webhook handled", response.getBody());
-            verify(webhookService, times(1)).handlePaymentIntentFailed(mockEvent);
+            verify(webhookService, times(1)).handleEvent(mockEvent);
         }
     }
 
@@ -134,9 +136,7 @@ class WebhookControllerUnitTest {
             assertNotNull(response);
             assertEquals(HttpStatus.OK, response.getStatusCode());
             assertEquals("Webhook handled", response.getBody());
-            verify(webhookService, never()).handleCheckoutSessionCompleted(any());
-            verify(webhookService, never()).handlePaymentIntentSucceeded(any());
-            verify(webhookService, never()).handlePaymentIntentFailed(any());
+            verify(webhookService, times(1)).handleEvent(mockEvent);
         }
     }
 
@@ -156,7 +156,8 @@ class WebhookControllerUnitTest {
             assertNotNull(response);
             assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
             assertEquals("Invalid signature", response.getBody());
-            verify(webhookService, never()).handleCheckoutSessionCompleted(any());
+            verify(webhookService, never()).handleEvent(any());
+            verify(webhookInbox, never()).accept(any(), anyString());
         }
     }
 
@@ -172,7 +173,7 @@ class WebhookControllerUnitTest {
                     .thenReturn(mockEvent);
 
             doThrow(new RuntimeException("Database connection failed"))
-                    .when(webhookService).handleCheckoutSessionCompleted(mockEvent);
+                    .when(webhookService).handleEvent(mockEvent);
 
             // When
             ResponseEntity<String> response = webhookController.handleStripeWebhook(payload, VALID_SIGNATURE);
@@ -181,7 +182,7 @@ class WebhookControllerUnitTest {
             assertNotNull(response);
             assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
             assertEquals("Webhook processing failed", response.getBody());
-            verify(webhookService, times(1)).handleCheckoutSessionCompleted(mockEvent);
+            verify(webhookService, times(1)).handleEvent(mockEvent);
         }
     }
 
@@ -197,7 +198,7 @@ class WebhookControllerUnitTest {
                     .thenReturn(mockEvent);
 
             doThrow(new NullPointerException("Payment intent not found"))
-                    .when(webhookService).handlePaymentIntentSucceeded(mockEvent);
+                    .when(webhookService).handleEvent(mockEvent);
 
             // When
             ResponseEntity<String> response = webhookController.handleStripeWebhook(payload, VALID_SIGNATURE);
@@ -208,5 +209,74 @@ class WebhookControllerUnitTest {
             assertEquals("Webhook processing failed", response.getBody());
         }
     }
-}
 
+    @Test
+    void handleStripeWebhook_inboxMode_shouldStoreEventAndAcknowledgeWithoutProcessing() {
+        // Given
+        String payload = "{\"type\":\"payment_intent.succeeded\"}";
+        Event mockEvent = mock(Event.class);
+        when(mockEvent.getType()).thenReturn("payment_intent.succeeded");
+        when(webhookInbox.isEnabled()).thenReturn(true);
+        when(webhookInbox.accept(mockEvent, payload)).thenReturn(true);
+
+        try (MockedStatic<Webhook> webhookMock = mockStatic(Webhook.class)) {
+            webhookMock.when(() -> Webhook.constructEvent(payload, VALID_SIGNATURE, TEST_WEBHOOK_SECRET))
+                    .thenReturn(mockEvent);
+
+            // When
+            ResponseEntity<String> response = webhookController.handleStripeWebhook(payload, VALID_SIGNATURE);
+
+            // Then
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals("Webhook received", response.getBody());
+            verify(webhookInbox).accept(mockEvent, payload);
+            verify(webhookService, never()).handleEvent(any());
+        }
+    }
+
+    @Test
+    void handleStripeWebhook_inboxMode_shouldAcknowledgeDuplicateEvent() {
+        // Given
+        String payload = "{\"type\":\"payment_intent.succeeded\"}";
+        Event mockEvent = mock(Event.class);
+        when(mockEvent.getType()).thenReturn("payment_intent.succeeded");
+        when(webhookInbox.isEnabled()).thenReturn(true);
+        when(webhookInbox.accept(mockEvent, payload)).thenReturn(false);
+
+        try (MockedStatic<Webhook> webhookMock = mockStatic(Webhook.class)) {
+            webhookMock.when(() -> Webhook.constructEvent(payload, VALID_SIGNATURE, TEST_WEBHOOK_SECRET))
+                    .thenReturn(mockEvent);
+
+            // When
+            ResponseEntity<String> response = webhookController.handleStripeWebhook(payload, VALID_SIGNATURE);
+
+            // Then
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals("Webhook already received", response.getBody());
+            verify(webhookService, never()).handleEvent(any());
+        }
+    }
+
+    @Test
+    void handleStripeWebhook_inboxMode_shouldReturnInternalServerError_whenEventCannotBeStored() {
+        // Given
+        String payload = "{\"type\":\"payment_intent.succeeded\"}";
+        Event mockEvent = mock(Event.class);
+        when(mockEvent.getType()).thenReturn("payment_intent.succeeded");
+        when(webhookInbox.isEnabled()).thenReturn(true);
+        when(webhookInbox.accept(mockEvent, payload)).thenThrow(new RuntimeException("Database connection failed"));
+
+        try (MockedStatic<Webhook> webhookMock = mockStatic(Webhook.class)) {
+            webhookMock.when(() -> Webhook.constructEvent(payload, VALID_SIGNATURE, TEST_WEBHOOK_SECRET))
+                    .thenReturn(mockEvent);
+
+            // When
+            ResponseEntity<String> response = webhookController.handleStripeWebhook(payload, VALID_SIGNATURE);
+
+            // Then
+            assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+            assertEquals("Webhook processing failed", response.getBody());
+            verify(webhookService, never()).handleEvent(any());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.envisionad.webservice.reservation.businesslogiclayer;
+
+import com.envisionad.webservice.reservation.dataaccesslayer.Reservation;
+import com.envisionad.webservice.reservation.dataaccesslayer.ReservationRepository;
+import com.envisionad.webservice.reservation.dataaccesslayer.ReservationStatus;
+import com.envisionad.webservice.reservation.presentationlayer.models.AvailabilityWeekResponseModel;
+import com.envisionad.webservice.reservation.presentationlayer.models.MediaAvailabilityResponseModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MediaAvailabilityServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 11, 3);
+    private static final UUID MEDIA_ID = UUID.fromString("a1b2c3d4-e5f6-7890-abcd-ef1234567890");
+    private static final UUID OTHER_MEDIA_ID = UUID.fromString("b1b2c3d4-e5f6-7890-abcd-ef1234567890");
+    private static final String CAMPAIGN_ID = "campaign-1";
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    private MediaAvailabilityService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new MediaAvailabilityService(reservationRepository, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Reservation reservation(String reservationId, UUID mediaId, String campaignId, ReservationStatus status,
+                                           LocalDate start, LocalDate end) {
+        Reservation reservation = new Reservation();
+        reservation.setReservationId(reservationId);
+        reservation.setMediaId(mediaId);
+        reservation.setCampaignId(campaignId);
+        reservation.setStatus(status);
+        reservation.setStartDate(start.atStartOfDay());
+        reservation.setEndDate(end.atStartOfDay());
+        return reservation;
+    }
+
+    private static List<Boolean> booked(MediaAvailabilityResponseModel availability) {
+        return availability.getWeeks().stream().map(AvailabilityWeekResponseModel::isBooked).toList();
+    }
+
+    private List<MediaAvailabilityResponseModel> availability(UUID... mediaIds) {
+        return service.getAvailability(Arrays.stream(mediaIds).map(UUID::toString).toList(), FROM, 1);
+    }
+
+    @Test
+    void getAvailability_ShouldMarkTheWeeksAReservationHoldsForEveryMediaFromOneQuery() {
+        when(reservationRepository.findAllHoldingReservationsByMediaIdInAndDateRange(anyCollection(), any(), any()))
+                .thenReturn(List.of(
+                        reservation("r1", MEDIA_ID, CAMPAIGN_ID, ReservationStatus.CONFIRMED, FROM.plusWeeks(1), FROM.plusWeeks(2)),
+                        // Runs into the third week by a day, so that week is held too
+                        reservation("r2", OTHER_MEDIA_ID, CAMPAIGN_ID, ReservationStatus.PENDING, FROM.plusDays(3), FROM.plusDays(15))));
+
+        List<MediaAvailabilityResponseModel> availability = availability(MEDIA_ID, OTHER_MEDIA_ID);
+
+        assertEquals(List.of(MEDIA_ID.toString(), OTHER_MEDIA_ID.toString()),
+                availability.stream().map(MediaAvailabilityResponseModel::getMediaId).toList());
+        assertEquals(List.of(false, true, false, false, false), booked(availability.get(0)));
+        assertEquals(List.of(true, true, true, false, false), booked(availability.get(1)));
+        assertEquals(FROM, availability.get(0).getWeeks().get(0).getStartDate());
+        assertEquals(FROM.plusWeeks(1), availability.get(0).getWeeks().get(0).getEndDate());
+        verify(reservationRepository, times(1)).findAllHoldingReservationsByMediaIdInAndDateRange(
+                List.of(MEDIA_ID, OTHER_MEDIA_ID), FROM.atStartOfDay(), FROM.plusWeeks(5).atStartOfDay());
+    }
+
+    @Test
+    void getAvailability_ShouldCountTheReservationsOfEveryCampaign() {
+        when(reservationRepository.findAllHoldingReservationsByMediaIdInAndDateRange(anyCollection(), any(), any()))
+                .thenReturn(List.of(
+                        reservation("r1", MEDIA_ID, "other-campaign", ReservationStatus.CONFIRMED, FROM, FROM.plusWeeks(1)),
+                        reservation("r2", MEDIA_ID, CAMPAIGN_ID, ReservationStatus.CONFIRMED, FROM.plusWeeks(2), FROM.plusWeeks(3))));
+
+        assertEquals(List.of(true, false, true, false, false), booked(availability(MEDIA_ID).get(0)));
+    }
+
+    @Test
+    void getAvailability_ShouldServeRepeatedCallsFromTheIndex() {
+        when(reservationRepository.findAllHoldingReservationsByMediaIdInAndDateRange(anyCollection(), any(), any()))
+                .thenReturn(List.of());
+
+        availability(MEDIA_ID);
+        availability(MEDIA_ID);
+
+        verify(reservationRepository, times(1)).findAllHoldingReservationsByMediaIdInAndDateRange(anyCollection(), any(), any());
+    }
+
+    @Test
+    void reservationChanged_ShouldBookAndFreeWeeksWithoutReloading() {
+        when(reservationRepository.findAllHoldingReservationsByMediaIdInAndDateRange(anyCollection(), any(), any()))
+                .thenReturn(List.of());
+        availability(MEDIA_ID);
+
+        Reservation created = reservation("r1", MEDIA_ID, CAMPAIGN_ID, ReservationStatus.PENDING, FROM.plusWeeks(1), FROM.plusWeeks(2));
+        service.reservationChanged(created);
+        assertEquals(List.of(false, true, false, false, false), booked(availability(MEDIA_ID).get(0)));
+
+        created.setStatus(ReservationStatus.APPROVED);
+        service.reservationChanged(created);
+        assertEquals(List.of(false, true, false, false, false), booked(availability(MEDIA_ID).get(0)));
+
+        created.setStatus(ReservationStatus.DENIED);
+        service.reservationChanged(created);
+        assertEquals(List.of(false, false, false, false, false), booked(availability(MEDIA_ID).get(0)));
+
+        verify(reservationRepository, times(1)).findAllHoldingReservationsByMediaIdInAndDateRange(anyCollection(), any(), any());
+    }
+
+    @Test
+    void reservationChanged_InsideATransaction_ShouldWaitForTheCommit() {
+        when(reservationRepository.findAllHoldingReservationsByMediaIdInAndDateRange(anyCollection(), any(), any()))
+                .thenReturn(List.of());
+        availability(MEDIA_ID);
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.reservationChanged(reservation("r1", MEDIA_ID, CAMPAIGN_ID, ReservationStatus.CONFIRMED, FROM, FROM.plusWeeks(1)));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertFalse(booked(availability(MEDIA_ID).get(0)).get(0));
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertTrue(booked(availability(MEDIA_ID).get(0)).get(0));
+    }
+
+    @Test
+    void getAvailability_WithBadArguments_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> service.getAvailability(List.of(), FROM, 3));
+        assertThrows(IllegalArgumentException.class, () -> service.getAvailability(List.of(MEDIA_ID.toString()), FROM, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getAvailability(List.of(MEDIA_ID.toString()), FROM, MediaAvailabilityService.MAX_MONTHS + 1));
+        assertThrows(IllegalArgumentException.class, () -> service.getAvailability(List.of("not-a-uuid"), FROM, 3));
+
+        verifyNoInteractions(reservationRepository);
+    }
+}
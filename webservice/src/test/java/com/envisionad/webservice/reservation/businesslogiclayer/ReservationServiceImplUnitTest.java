@@ -12,6 +12,7 @@ import com.envisionad.webservice.media.DataAccessLayer.MediaRepository;
 import com.envisionad.webservice.media.exceptions.MediaNotFoundException;
 import com.envisionad.webservice.reservation.dataaccesslayer.*;
 import com.envisionad.webservice.reservation.datamapperlayer.ReservationResponseMapper;
+import com.envisionad.webservice.reservation.exceptions.BadReservationRequestException;
 import com.envisionad.webservice.reservation.exceptions.ReservationAlreadyProcessedException;
 import com.envisionad.webservice.reservation.exceptions.ReservationNotFoundException;
 import com.envisionad.webservice.reservation.presentationlayer.models.DenialDetailsRequestModel;
@@ -24,8 +25,11 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.oauth2.jwt.Jwt;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -45,6 +49,7 @@ class ReservationServiceImplUnitTest {
     @Mock private MediaRepository mediaRepository;
     @Mock private BusinessRepository businessRepository;
     @Mock private JwtUtils jwtUtils;
+    @Mock private MediaAvailabilityService mediaAvailabilityService;
 
     private Jwt mediaToken;
 
@@ -240,6 +245,7 @@ class ReservationServiceImplUnitTest {
         assertNotNull(result);
         assertEquals(ReservationStatus.APPROVED, reservation.getStatus());
         verify(reservationRepository).save(reservation);
+        verify(mediaAvailabilityService).reservationChanged(reservation);
     }
 
     @Test
@@ -276,17 +282,9 @@ class ReservationServiceImplUnitTest {
         r1.setMediaId(mediaId);
         r1.setCampaignId("camp-1");
 
-        // Reservation 2: Belongs to someone else
-        Reservation r2 = new Reservation();
-        r2.setMediaId(UUID.randomUUID());
-
-        when(reservationRepository.findAll()).thenReturn(List.of(r1, r2));
-
-        // Mock Media lookup for the filter
-        Media myMedia = new Media();
-        myMedia.setBusinessId(UUID.fromString(myBusinessId));
-        when(mediaRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
-        when(mediaRepository.findById(mediaId)).thenReturn(Optional.of(myMedia));
+        // Ownership filtering happens in the joined query
+        when(reservationRepository.findAllByMediaOwnerBusinessId(UUID.fromString(myBusinessId), null, null, Pageable.unpaged()))
+                .thenReturn(List.of(r1));
 
         Media enrichedMedia = new Media();
         enrichedMedia.setId(mediaId);
@@ -319,7 +317,7 @@ class ReservationServiceImplUnitTest {
                 .thenReturn(List.of(advertiserBusiness));
 
         // Act
-        List<ReservationResponseModel> result = reservationService.getAllReservationByMediaOwnerBusinessId(mediaToken, myBusinessId);
+        List<ReservationResponseModel> result = reservationService.getAllReservationByMediaOwnerBusinessId(mediaToken, myBusinessId, null, null, Pageable.unpaged());
 
         // Assert
         assertEquals(1, result.size());
@@ -330,6 +328,8 @@ class ReservationServiceImplUnitTest {
         verify(jwtUtils).validateUserIsEmployeeOfBusiness(mediaToken, myBusinessId);
         verify(mediaRepository).findAllByIdWithLocation(anyList());
         verify(businessRepository).findAllByBusinessId_BusinessIdIn(anyList());
+        verify(reservationRepository, never()).findAll();
+        verify(mediaRepository, never()).findById(any(UUID.class));
     }
 
     @Test
@@ -339,7 +339,104 @@ class ReservationServiceImplUnitTest {
                 .when(jwtUtils).validateUserIsEmployeeOfBusiness(mediaToken, businessId);
 
         assertThrows(org.springframework.security.access.AccessDeniedException.class, () ->
-                reservationService.getAllReservationByMediaOwnerBusinessId(mediaToken, businessId));
+                reservationService.getAllReservationByMediaOwnerBusinessId(mediaToken, businessId, null, null, Pageable.unpaged()));
+    }
+
+    @Test
+    void getAllReservationByMediaOwnerBusinessId_shouldPassDateRangeAndPageToRepository() {
+        String myBusinessId = UUID.randomUUID().toString();
+        LocalDateTime from = LocalDateTime.of(2026, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2026, 2, 1, 0, 0);
+        Pageable pageable = PageRequest.of(2, 25);
+
+        when(reservationRepository.findAllByMediaOwnerBusinessId(UUID.fromString(myBusinessId), from, to, pageable))
+                .thenReturn(List.of());
+        when(reservationResponseMapper.entitiesToResponseModelList(anyList())).thenReturn(List.of());
+
+        List<ReservationResponseModel> result =
+                reservationService.getAllReservationByMediaOwnerBusinessId(mediaToken, myBusinessId, from, to, pageable);
+
+        assertTrue(result.isEmpty());
+        verify(reservationRepository).findAllByMediaOwnerBusinessId(UUID.fromString(myBusinessId), from, to, pageable);
+    }
+
+    @Test
+    void getAllReservationByMediaOwnerBusinessId_withOversizedPage_shouldCapThePageSize() {
+        String myBusinessId = UUID.randomUUID().toString();
+        Pageable capped = PageRequest.of(1, ReservationServiceImpl.MAX_PAGE_SIZE);
+
+        when(reservationRepository.findAllByMediaOwnerBusinessId(UUID.fromString(myBusinessId), null, null, capped))
+                .thenReturn(List.of());
+        when(reservationResponseMapper.entitiesToResponseModelList(anyList())).thenReturn(List.of());
+
+        reservationService.getAllReservationByMediaOwnerBusinessId(mediaToken, myBusinessId, null, null, PageRequest.of(1, 10_000));
+
+        verify(reservationRepository).findAllByMediaOwnerBusinessId(UUID.fromString(myBusinessId), null, null, capped);
+    }
+
+    @Test
+    void getAllReservationByMediaOwnerBusinessId_whenStartDateNotBeforeEndDate_shouldThrowException() {
+        String myBusinessId = UUID.randomUUID().toString();
+        LocalDateTime date = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+        assertThrows(BadReservationRequestException.class, () ->
+                reservationService.getAllReservationByMediaOwnerBusinessId(mediaToken, myBusinessId, date, date, Pageable.unpaged()));
+        verifyNoInteractions(reservationRepository);
+    }
+
+    @Test
+    void getAllReservationByAdvertiserBusinessId_withCursor_shouldQueryBeforeCursorRow() {
+        String advertiserBusinessId = UUID.randomUUID().toString();
+        Pageable pageable = PageRequest.of(0, 20);
+
+        Reservation cursorRow = new Reservation();
+        cursorRow.setId(42);
+        when(reservationRepository.findByReservationId("res-cursor")).thenReturn(Optional.of(cursorRow));
+
+        Reservation next = new Reservation();
+        next.setCampaignId("camp-1");
+        when(reservationRepository.findAllByAdvertiserBusinessId(advertiserBusinessId, 42, pageable))
+                .thenReturn(List.of(next));
+
+        ReservationResponseModel model = new ReservationResponseModel();
+        model.setCampaignId("camp-1");
+        when(reservationResponseMapper.entitiesToResponseModelList(List.of(next))).thenReturn(List.of(model));
+
+        AdCampaign campaign = mock(AdCampaign.class);
+        when(campaign.getCampaignId()).thenReturn(new AdCampaignIdentifier("camp-1"));
+        when(campaign.getName()).thenReturn("Summer Push");
+        when(adCampaignRepository.findAllByCampaignId_CampaignIdIn(List.of("camp-1"))).thenReturn(List.of(campaign));
+
+        List<ReservationResponseModel> result = reservationService.getAllReservationByAdvertiserBusinessId(
+                mediaToken, advertiserBusinessId, "res-cursor", pageable);
+
+        assertEquals(1, result.size());
+        assertEquals("Summer Push", result.getFirst().getCampaignName());
+        verify(reservationRepository, never()).findAll();
+        verify(adCampaignRepository, never()).findByCampaignId_CampaignId(anyString());
+    }
+
+    @Test
+    void getAllReservationByAdvertiserBusinessId_withOversizedPage_shouldCapThePageSize() {
+        String advertiserBusinessId = UUID.randomUUID().toString();
+        Pageable capped = PageRequest.of(0, ReservationServiceImpl.MAX_PAGE_SIZE);
+
+        when(reservationRepository.findAllByAdvertiserBusinessId(advertiserBusinessId, null, capped)).thenReturn(List.of());
+        when(reservationResponseMapper.entitiesToResponseModelList(anyList())).thenReturn(List.of());
+
+        reservationService.getAllReservationByAdvertiserBusinessId(mediaToken, advertiserBusinessId, null, PageRequest.of(0, 10_000));
+
+        verify(reservationRepository).findAllByAdvertiserBusinessId(advertiserBusinessId, null, capped);
+    }
+
+    @Test
+    void getAllReservationByAdvertiserBusinessId_withUnknownCursor_shouldThrowNotFound() {
+        String advertiserBusinessId = UUID.randomUUID().toString();
+        when(reservationRepository.findByReservationId("missing")).thenReturn(Optional.empty());
+
+        assertThrows(ReservationNotFoundException.class, () ->
+                reservationService.getAllReservationByAdvertiserBusinessId(
+                        mediaToken, advertiserBusinessId, "missing", Pageable.unpaged()));
     }
 
     @Test
@@ -354,17 +451,15 @@ class ReservationServiceImplUnitTest {
     }
 
     @Test
-    void getAllReservationByMediaOwnerBusinessId_whenMediaRecordMissing_shouldSkipReservation() {
+    void getAllReservationByMediaOwnerBusinessId_whenNoOwnedReservations_shouldReturnEmpty() {
         String myBusinessId = UUID.randomUUID().toString();
-        Reservation r1 = new Reservation();
-        r1.setMediaId(UUID.randomUUID());
 
-        when(reservationRepository.findAll()).thenReturn(List.of(r1));
-        // Simulate media record being missing from DB
-        when(mediaRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+        // Reservations on media the business does not own never leave the database
+        when(reservationRepository.findAllByMediaOwnerBusinessId(UUID.fromString(myBusinessId), null, null, Pageable.unpaged()))
+                .thenReturn(List.of());
         when(reservationResponseMapper.entitiesToResponseModelList(anyList())).thenReturn(List.of());
 
-        List<ReservationResponseModel> result = reservationService.getAllReservationByMediaOwnerBusinessId(mediaToken, myBusinessId);
+        List<ReservationResponseModel> result = reservationService.getAllReservationByMediaOwnerBusinessId(mediaToken, myBusinessId, null, null, Pageable.unpaged());
 
         assertTrue(result.isEmpty());
         verify(reservationResponseMapper, never()).entityToResponseModel(any());
@@ -389,6 +484,7 @@ class ReservationServiceImplUnitTest {
 
         assertEquals(ReservationStatus.DENIED, reservation.getStatus());
         verify(reservationRepository).save(reservation);
+        verify(mediaAvailabilityService).reservationChanged(reservation);
     }
 
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.envisionad.webservice.advertisement.dataaccesslayer.AdCampaignIdentif
 import com.envisionad.webservice.business.dataaccesslayer.BusinessIdentifier;
 import com.envisionad.webservice.media.DataAccessLayer.Media;
 import com.envisionad.webservice.media.DataAccessLayer.MediaRepository;
+import com.envisionad.webservice.payment.businesslogiclayer.BusinessDailyRollupService;
 import com.envisionad.webservice.payment.dataaccesslayer.PaymentIntent;
 import com.envisionad.webservice.payment.dataaccesslayer.PaymentIntentRepository;
 import com.envisionad.webservice.payment.dataaccesslayer.PaymentStatus;
@@ -51,6 +52,9 @@ class ReservationServiceUnitTest {
     @Mock
     private PaymentIntentRepository paymentIntentRepository;
 
+    @Mock
+    private BusinessDailyRollupService businessDailyRollupService;
+
     private static final String PAYMENT_INTENT_ID = "pi_3QfRBWHI4UD28XdL0H0YVZTa";
     private static final String RESERVATION_ID = "550e8400-e29b-41d4-a716-446655440000";
     private static final String BUSINESS_ID = "b0eebc99-9c0b-4ef8-bb6d-6bb9bd380b22"; // Media owner's business
@@ -143,6 +147,7 @@ class ReservationServiceUnitTest {
             assertEquals(ADVERTISER_BUSINESS_ID, savedPayment.getBusinessId());
             assertEquals(TOTAL_PRICE, savedPayment.getAmount());
             assertEquals(PaymentStatus.SUCCEEDED, savedPayment.getStatus());
+            verify(businessDailyRollupService).paymentChanged(savedPayment);
         }
     }
 
@@ -18,14 +18,22 @@ import com.envisionad.webservice.reservation.presentationlayer.models.Reservatio
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.reactive.function.BodyInserters;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -514,7 +522,7 @@ class ReservationControllerIntegrationTest extends BaseIntegrationTest {
 
 
     @Test
-    void createReservation_WithOverlappingDatesForDifferentCampaigns_ShouldAllowCreation() {
+    void createReservation_WithOverlappingDatesForDifferentCampaigns_ShouldReturn409() {
         // Arrange - Create an existing reservation for the first campaign
         Reservation existingReservation = new Reservation();
         existingReservation.setReservationId(UUID.randomUUID().toString());
@@ -549,10 +557,10 @@ class ReservationControllerIntegrationTest extends BaseIntegrationTest {
                 .headers(headers -> headers.setBearerAuth("mock-token"))
                 .body(BodyInserters.fromValue(requestModel))
                 .exchange()
-                .expectStatus().isCreated();
+                .expectStatus().isEqualTo(409);
 
-        // Verify both reservations exist (no conflict between different campaigns)
-        assertEquals(2, reservationRepository.count());
+        // Verify only the existing reservation exists (a media is held by one campaign at a time)
+        assertEquals(1, reservationRepository.count());
     }
 
     @Test
@@ -659,6 +667,137 @@ class ReservationControllerIntegrationTest extends BaseIntegrationTest {
                 .jsonPath("$[1].campaignId").isEqualTo(this.campaignId);
     }
 
+    @Test
+    void getAllReservationByAdvertiserBusinessId_WithCursor_ShouldPageNewestFirst() {
+        List<String> reservationIds = new java.util.ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Reservation reservation = new Reservation();
+            reservation.setReservationId(UUID.randomUUID().toString());
+            reservation.setMediaId(UUID.fromString(this.mediaId));
+            reservation.setCampaignId(this.campaignId);
+            reservation.setAdvertiserId(USER_ID);
+            reservation.setStatus(ReservationStatus.PENDING);
+            reservation.setStartDate(LocalDateTime.now().plusDays(1 + i * 10L));
+            reservation.setEndDate(LocalDateTime.now().plusDays(8 + i * 10L));
+            reservation.setTotalPrice(new BigDecimal("150.00"));
+            reservationIds.add(reservationRepository.save(reservation).getReservationId());
+        }
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/media/reservations/advertiser")
+                        .queryParam("businessId", BUSINESS_ID)
+                        .queryParam("size", 2)
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .headers(headers -> headers.setBearerAuth("mock-token"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].reservationId").isEqualTo(reservationIds.get(2))
+                .jsonPath("$[1].reservationId").isEqualTo(reservationIds.get(1))
+                .jsonPath("$[0].campaignName").isNotEmpty();
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/media/reservations/advertiser")
+                        .queryParam("businessId", BUSINESS_ID)
+                        .queryParam("cursor", reservationIds.get(1))
+                        .queryParam("size", 2)
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .headers(headers -> headers.setBearerAuth("mock-token"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].reservationId").isEqualTo(reservationIds.get(0));
+    }
+
+    @Test
+    void getAllReservationByAdvertiserBusinessId_WithSizeOutOfRange_ShouldReturn400() {
+        for (int size : new int[]{0, 101}) {
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/v1/media/reservations/advertiser")
+                            .queryParam("businessId", BUSINESS_ID)
+                            .queryParam("size", size)
+                            .build())
+                    .accept(MediaType.APPLICATION_JSON)
+                    .headers(headers -> headers.setBearerAuth("mock-token"))
+                    .exchange()
+                    .expectStatus().isBadRequest();
+        }
+    }
+
+    @Test
+    void getAllReservationByMediaOwnerBusinessId_ShouldFilterByDateRangeAndPage() {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < 3; i++) {
+            Reservation reservation = new Reservation();
+            reservation.setReservationId(UUID.randomUUID().toString());
+            reservation.setMediaId(UUID.fromString(this.mediaId));
+            reservation.setCampaignId(this.campaignId);
+            reservation.setAdvertiserId(USER_ID);
+            reservation.setStatus(ReservationStatus.CONFIRMED);
+            reservation.setStartDate(base.plusDays(i * 10L));
+            reservation.setEndDate(base.plusDays(i * 10L + 7));
+            reservation.setTotalPrice(new BigDecimal("150.00"));
+            reservationRepository.save(reservation);
+        }
+
+        // Only the last two reservations overlap the window; newest first, one per page
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/media/reservations/media-owner")
+                        .queryParam("businessId", BUSINESS_ID)
+                        .queryParam("startDate", base.plusDays(8).toString())
+                        .queryParam("endDate", base.plusDays(40).toString())
+                        .queryParam("page", 0)
+                        .queryParam("size", 1)
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .headers(headers -> headers.setBearerAuth("mock-token"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].mediaTitle").isEqualTo("Downtown Digital Board")
+                .jsonPath("$[0].startDate").value(startDate ->
+                        assertTrue(startDate.toString().startsWith(base.plusDays(20).toLocalDate().toString())));
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/media/reservations/media-owner")
+                        .queryParam("businessId", BUSINESS_ID)
+                        .queryParam("startDate", base.plusDays(8).toString())
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .headers(headers -> headers.setBearerAuth("mock-token"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2);
+    }
+
+    @Test
+    void getAllReservationByMediaOwnerBusinessId_WithPageOutOfRange_ShouldReturn400() {
+        for (String[] paging : new String[][]{{"-1", "10"}, {"0", "0"}, {"0", "101"}}) {
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/v1/media/reservations/media-owner")
+                            .queryParam("businessId", BUSINESS_ID)
+                            .queryParam("page", paging[0])
+                            .queryParam("size", paging[1])
+                            .build())
+                    .accept(MediaType.APPLICATION_JSON)
+                    .headers(headers -> headers.setBearerAuth("mock-token"))
+                    .exchange()
+                    .expectStatus().isBadRequest();
+        }
+    }
+
     @Test
     void getMediaReservationById_ShouldReturnSpecificReservation() {
         // Arrange - Create a reservation
@@ -688,5 +827,142 @@ class ReservationControllerIntegrationTest extends BaseIntegrationTest {
                 .jsonPath("$.status").isEqualTo("PENDING")
                 .jsonPath("$.totalPrice").isEqualTo(150.00);
     }
-}
 
+    @Test
+    void saveReservation_OverlappingReservationOfAnotherCampaign_ShouldBeRejectedByTheDatabase() {
+        // Arrange - Another campaign already holds the media for the same week
+        AdCampaign otherCampaign = new AdCampaign();
+        otherCampaign.setCampaignId(new AdCampaignIdentifier());
+        otherCampaign.setBusinessId(new BusinessIdentifier(BUSINESS_ID));
+        otherCampaign.setName("Other Campaign");
+        adCampaignRepository.save(otherCampaign);
+
+        Reservation existingReservation = new Reservation();
+        existingReservation.setReservationId(UUID.randomUUID().toString());
+        existingReservation.setMediaId(UUID.fromString(this.mediaId));
+        existingReservation.setCampaignId(otherCampaign.getCampaignId().getCampaignId());
+        existingReservation.setAdvertiserId(USER_ID);
+        existingReservation.setStatus(ReservationStatus.CONFIRMED);
+        existingReservation.setStartDate(LocalDateTime.now().plusDays(1));
+        existingReservation.setEndDate(LocalDateTime.now().plusDays(8));
+        existingReservation.setTotalPrice(new BigDecimal("150.00"));
+        reservationRepository.save(existingReservation);
+
+        // Written past the service's check, as a booking racing the first one would be
+        Reservation overlappingReservation = new Reservation();
+        overlappingReservation.setReservationId(UUID.randomUUID().toString());
+        overlappingReservation.setMediaId(UUID.fromString(this.mediaId));
+        overlappingReservation.setCampaignId(this.campaignId);
+        overlappingReservation.setAdvertiserId(USER_ID);
+        overlappingReservation.setStatus(ReservationStatus.PENDING);
+        overlappingReservation.setStartDate(LocalDateTime.now().plusDays(3));
+        overlappingReservation.setEndDate(LocalDateTime.now().plusDays(10));
+        overlappingReservation.setTotalPrice(new BigDecimal("150.00"));
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> reservationRepository.saveAndFlush(overlappingReservation));
+        assertEquals(1, reservationRepository.count());
+    }
+
+    @Test
+    void createReservation_ManyConcurrentOverlappingBookings_ShouldKeepExactlyOne() throws Exception {
+        // Arrange - Every request overlaps every other one, and all are released at once
+        int bookings = 24;
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        ExecutorService executor = Executors.newFixedThreadPool(bookings);
+        CountDownLatch ready = new CountDownLatch(bookings);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<HttpStatus>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < bookings; i++) {
+                ReservationRequestModel requestModel = new ReservationRequestModel();
+                requestModel.setCampaignId(this.campaignId);
+                requestModel.setStartDate(start.plusHours(i));
+                requestModel.setEndDate(start.plusDays(7).plusHours(i));
+
+                results.add(executor.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    return HttpStatus.valueOf(webTestClient.post()
+                            .uri(BASE_URI_RESERVATIONS, this.mediaId)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .headers(headers -> headers.setBearerAuth("mock-token"))
+                            .body(BodyInserters.fromValue(requestModel))
+                            .exchange()
+                            .returnResult(String.class)
+                            .getStatus()
+                            .value());
+                }));
+            }
+            ready.await();
+
+            // Act
+            go.countDown();
+
+            // Assert - One booking wins, every other one is rejected as a conflict rather than failing
+            List<HttpStatus> statuses = new ArrayList<>();
+            for (Future<HttpStatus> result : results) {
+                statuses.add(result.get());
+            }
+            assertEquals(1, statuses.stream().filter(HttpStatus.CREATED::equals).count(), statuses::toString);
+            assertEquals(bookings - 1, statuses.stream().filter(HttpStatus.CONFLICT::equals).count(), statuses::toString);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Reservation> saved = reservationRepository.findAllReservationsByMediaId(UUID.fromString(this.mediaId));
+        assertEquals(1, saved.size());
+    }
+
+    @Test
+    void getMediaAvailability_ShouldReturnBookedWeeksForEachMediaAsked() {
+        // Arrange - The media is held for the second week by a booking made through the API
+        LocalDate from = LocalDate.now().plusDays(1);
+        ReservationRequestModel requestModel = new ReservationRequestModel();
+        requestModel.setCampaignId(this.campaignId);
+        requestModel.setStartDate(from.plusWeeks(1).atStartOfDay());
+        requestModel.setEndDate(from.plusWeeks(2).atStartOfDay());
+
+        webTestClient.post()
+                .uri(BASE_URI_RESERVATIONS, this.mediaId)
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(headers -> headers.setBearerAuth("mock-token"))
+                .body(BodyInserters.fromValue(requestModel))
+                .exchange()
+                .expectStatus().isCreated();
+
+        String unreservedMediaId = UUID.randomUUID().toString();
+
+        // Act & Assert - No login needed, as when browsing search results
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/v1/media/availability")
+                        .queryParam("mediaIds", this.mediaId + "," + unreservedMediaId)
+                        .queryParam("from", from.toString())
+                        .queryParam("months", 1)
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].mediaId").isEqualTo(this.mediaId)
+                .jsonPath("$[0].weeks[0].startDate").isEqualTo(from.toString())
+                .jsonPath("$[0].weeks[0].booked").isEqualTo(false)
+                .jsonPath("$[0].weeks[1].booked").isEqualTo(true)
+                .jsonPath("$[0].weeks[2].booked").isEqualTo(false)
+                .jsonPath("$[1].mediaId").isEqualTo(unreservedMediaId)
+                .jsonPath("$[1].weeks[1].booked").isEqualTo(false);
+    }
+
+    @Test
+    void getMediaAvailability_WithTooManyMonths_ShouldReturn400() {
+        webTestClient.get()
+                .uri("/api/v1/media/{mediaId}/availability?months=13", this.mediaId)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
@@ -0,0 +1,76 @@
+package com.envisionad.webservice.utils;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.Uploader;
+import com.envisionad.webservice.config.exceptions.OutboundDependencyUnavailableException;
+import com.envisionad.webservice.config.outbound.OutboundHttpClients;
+import com.envisionad.webservice.config.outbound.OutboundHttpProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CloudinaryClientTest {
+
+    @Mock
+    private Cloudinary cloudinary;
+
+    @Mock
+    private Uploader uploader;
+
+    private CloudinaryClient cloudinaryClient;
+
+    @BeforeEach
+    void setUp() {
+        OutboundHttpProperties.DependencySettings settings = new OutboundHttpProperties.DependencySettings(
+                null, Duration.ofSeconds(10), 2, 2, Duration.ofMinutes(1));
+        OutboundHttpClients clients = new OutboundHttpClients(
+                new OutboundHttpProperties(Map.of(OutboundHttpClients.CLOUDINARY, settings)), new SimpleMeterRegistry());
+        cloudinaryClient = new CloudinaryClient(cloudinary, clients);
+        lenient().when(cloudinary.uploader()).thenReturn(uploader);
+    }
+
+    @Test
+    void destroy_ShouldPassOptionsThroughWithTheReadTimeout() throws Exception {
+        when(uploader.destroy(eq("ads/banner"), anyMap())).thenReturn(Map.of("result", "ok"));
+
+        Map result = cloudinaryClient.destroy("ads/banner", Map.of("invalidate", true, "resource_type", "image"));
+
+        assertEquals("ok", result.get("result"));
+        verify(uploader).destroy(eq("ads/banner"), argThat(options ->
+                Boolean.TRUE.equals(options.get("invalidate"))
+                        && "image".equals(options.get("resource_type"))
+                        && Integer.valueOf(10).equals(options.get("timeout"))));
+    }
+
+    @Test
+    void destroy_WhenCallerSetsATimeout_ShouldKeepIt() throws Exception {
+        when(uploader.destroy(anyString(), anyMap())).thenReturn(Map.of("result", "ok"));
+
+        cloudinaryClient.destroy("ads/banner", Map.of("timeout", 3));
+
+        verify(uploader).destroy(eq("ads/banner"), argThat(options -> Integer.valueOf(3).equals(options.get("timeout"))));
+    }
+
+    @Test
+    void destroy_WhenCloudinaryKeepsFailing_ShouldStopCallingIt() throws Exception {
+        when(uploader.destroy(anyString(), anyMap())).thenThrow(new IOException("Cloudinary down"));
+
+        assertThrows(IOException.class, () -> cloudinaryClient.destroy("a", Map.of()));
+        assertThrows(IOException.class, () -> cloudinaryClient.destroy("b", Map.of()));
+        assertThrows(OutboundDependencyUnavailableException.class, () -> cloudinaryClient.destroy("c", Map.of()));
+
+        verify(uploader, times(2)).destroy(anyString(), anyMap());
+    }
+}
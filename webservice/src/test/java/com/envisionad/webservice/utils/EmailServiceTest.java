@@ -1,5 +1,9 @@
 package com.envisionad.webservice.utils;
 
+import com.envisionad.webservice.email.businesslogiclayer.EmailOutboxDispatcher;
+import com.envisionad.webservice.email.dataaccesslayer.EmailOutboxMessage;
+import com.envisionad.webservice.email.dataaccesslayer.EmailOutboxRepository;
+import com.envisionad.webservice.email.dataaccesslayer.EmailOutboxStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -7,8 +11,8 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -20,7 +24,10 @@ class EmailServiceTest {
     private EmailService emailService;
 
     @Mock
-    private JavaMailSender mailSender;
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    private EmailOutboxDispatcher emailOutboxDispatcher;
 
     private static final String FROM_EMAIL = "envisionadinc@gmail.com";
     private static final String TO_EMAIL = "recipient@example.com";
@@ -30,7 +37,7 @@ class EmailServiceTest {
     @BeforeEach
     void setUp() {
         // Reset mocks before each test
-        reset(mailSender);
+        reset(emailOutboxRepository, emailOutboxDispatcher);
     }
 
     @Test
@@ -39,15 +46,15 @@ class EmailServiceTest {
         emailService.sendSimpleEmail(TO_EMAIL, SUBJECT, BODY);
 
         // Assert
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender).send(messageCaptor.capture());
+        ArgumentCaptor<EmailOutboxMessage> messageCaptor = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(emailOutboxRepository).save(messageCaptor.capture());
 
-        SimpleMailMessage capturedMessage = messageCaptor.getValue();
+        EmailOutboxMessage capturedMessage = messageCaptor.getValue();
         assertNotNull(capturedMessage);
-        assertEquals(FROM_EMAIL, capturedMessage.getFrom());
-        assertArrayEquals(new String[]{TO_EMAIL}, capturedMessage.getTo());
+        assertEquals(FROM_EMAIL, capturedMessage.getFromAddress());
+        assertEquals(TO_EMAIL, capturedMessage.getToAddress());
         assertEquals(SUBJECT, capturedMessage.getSubject());
-        assertEquals(BODY, capturedMessage.getText());
+        assertEquals(BODY, capturedMessage.getBody());
     }
 
     @Test
@@ -59,15 +66,15 @@ class EmailServiceTest {
         emailService.sendSimpleEmail(TO_EMAIL, SUBJECT, multilineBody);
 
         // Assert
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender).send(messageCaptor.capture());
-
-        SimpleMailMessage capturedMessage = messageCaptor.getValue();
-        assertEquals(multilineBody, capturedMessage.getText());
-        assertNotNull(capturedMessage.getText());
-        assertTrue(capturedMessage.getText().contains("Line 1"));
-        assertTrue(capturedMessage.getText().contains("Line 2"));
-        assertTrue(capturedMessage.getText().contains("Line 3"));
+        ArgumentCaptor<EmailOutboxMessage> messageCaptor = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(emailOutboxRepository).save(messageCaptor.capture());
+
+        EmailOutboxMessage capturedMessage = messageCaptor.getValue();
+        assertEquals(multilineBody, capturedMessage.getBody());
+        assertNotNull(capturedMessage.getBody());
+        assertTrue(capturedMessage.getBody().contains("Line 1"));
+        assertTrue(capturedMessage.getBody().contains("Line 2"));
+        assertTrue(capturedMessage.getBody().contains("Line 3"));
     }
 
     @Test
@@ -76,12 +83,12 @@ class EmailServiceTest {
         emailService.sendSimpleEmail(TO_EMAIL, SUBJECT, "");
 
         // Assert
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender).send(messageCaptor.capture());
+        ArgumentCaptor<EmailOutboxMessage> messageCaptor = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(emailOutboxRepository).save(messageCaptor.capture());
 
-        SimpleMailMessage capturedMessage = messageCaptor.getValue();
-        assertEquals("", capturedMessage.getText());
-        verify(mailSender, times(1)).send(any(SimpleMailMessage.class));
+        EmailOutboxMessage capturedMessage = messageCaptor.getValue();
+        assertEquals("", capturedMessage.getBody());
+        verify(emailOutboxRepository, times(1)).save(any(EmailOutboxMessage.class));
     }
 
     @Test
@@ -93,11 +100,11 @@ class EmailServiceTest {
         emailService.sendSimpleEmail(TO_EMAIL, SUBJECT, specialCharBody);
 
         // Assert
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender).send(messageCaptor.capture());
+        ArgumentCaptor<EmailOutboxMessage> messageCaptor = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(emailOutboxRepository).save(messageCaptor.capture());
 
-        SimpleMailMessage capturedMessage = messageCaptor.getValue();
-        assertEquals(specialCharBody, capturedMessage.getText());
+        EmailOutboxMessage capturedMessage = messageCaptor.getValue();
+        assertEquals(specialCharBody, capturedMessage.getBody());
     }
 
     @Test
@@ -109,13 +116,13 @@ class EmailServiceTest {
         emailService.sendSimpleEmail(TO_EMAIL, SUBJECT, longBody);
 
         // Assert
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender).send(messageCaptor.capture());
+        ArgumentCaptor<EmailOutboxMessage> messageCaptor = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(emailOutboxRepository).save(messageCaptor.capture());
 
-        SimpleMailMessage capturedMessage = messageCaptor.getValue();
-        assertEquals(longBody, capturedMessage.getText());
-        assertNotNull(capturedMessage.getText());
-        assertEquals(5000, capturedMessage.getText().length());
+        EmailOutboxMessage capturedMessage = messageCaptor.getValue();
+        assertEquals(longBody, capturedMessage.getBody());
+        assertNotNull(capturedMessage.getBody());
+        assertEquals(5000, capturedMessage.getBody().length());
     }
 
     @Test
@@ -127,12 +134,12 @@ class EmailServiceTest {
         emailService.sendSimpleEmail(TO_EMAIL, SUBJECT, htmlBody);
 
         // Assert
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender).send(messageCaptor.capture());
+        ArgumentCaptor<EmailOutboxMessage> messageCaptor = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(emailOutboxRepository).save(messageCaptor.capture());
 
-        SimpleMailMessage capturedMessage = messageCaptor.getValue();
-        // Note: SimpleMailMessage sends plain text, so HTML tags will be sent as-is
-        assertEquals(htmlBody, capturedMessage.getText());
+        EmailOutboxMessage capturedMessage = messageCaptor.getValue();
+        // Note: emails are sent as plain text, so HTML tags are queued as-is
+        assertEquals(htmlBody, capturedMessage.getBody());
     }
 
     @Test
@@ -146,14 +153,14 @@ class EmailServiceTest {
         emailService.sendSimpleEmail(recipient2, SUBJECT, BODY);
 
         // Assert
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender, times(2)).send(messageCaptor.capture());
+        ArgumentCaptor<EmailOutboxMessage> messageCaptor = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(emailOutboxRepository, times(2)).save(messageCaptor.capture());
 
-        SimpleMailMessage firstMessage = messageCaptor.getAllValues().get(0);
-        SimpleMailMessage secondMessage = messageCaptor.getAllValues().get(1);
+        EmailOutboxMessage firstMessage = messageCaptor.getAllValues().get(0);
+        EmailOutboxMessage secondMessage = messageCaptor.getAllValues().get(1);
 
-        assertArrayEquals(new String[]{recipient1}, firstMessage.getTo());
-        assertArrayEquals(new String[]{recipient2}, secondMessage.getTo());
+        assertEquals(recipient1, firstMessage.getToAddress());
+        assertEquals(recipient2, secondMessage.getToAddress());
     }
 
     @Test
@@ -167,11 +174,11 @@ class EmailServiceTest {
         emailService.sendSimpleEmail(TO_EMAIL, subject2, BODY);
 
         // Assert
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender, times(2)).send(messageCaptor.capture());
+        ArgumentCaptor<EmailOutboxMessage> messageCaptor = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(emailOutboxRepository, times(2)).save(messageCaptor.capture());
 
-        SimpleMailMessage firstMessage = messageCaptor.getAllValues().get(0);
-        SimpleMailMessage secondMessage = messageCaptor.getAllValues().get(1);
+        EmailOutboxMessage firstMessage = messageCaptor.getAllValues().get(0);
+        EmailOutboxMessage secondMessage = messageCaptor.getAllValues().get(1);
 
         assertEquals(subject1, firstMessage.getSubject());
         assertEquals(subject2, secondMessage.getSubject());
@@ -185,19 +192,20 @@ class EmailServiceTest {
         emailService.sendSimpleEmail(TO_EMAIL, SUBJECT, BODY);
 
         // Assert
-        verify(mailSender, times(3)).send(any(SimpleMailMessage.class));
+        verify(emailOutboxRepository, times(3)).save(any(EmailOutboxMessage.class));
     }
 
     @Test
-    void whenSendSimpleEmail_withMailSenderThrowingException_thenExceptionPropagates() {
+    void whenSendSimpleEmail_withOutboxWriteFailing_thenExceptionPropagatesAndNothingIsSent() {
         // Arrange
-        doThrow(new RuntimeException("SMTP connection failed"))
-                .when(mailSender).send(any(SimpleMailMessage.class));
+        doThrow(new RuntimeException("Database unavailable"))
+                .when(emailOutboxRepository).save(any(EmailOutboxMessage.class));
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> emailService.sendSimpleEmail(TO_EMAIL, SUBJECT, BODY));
 
-        verify(mailSender, times(1)).send(any(SimpleMailMessage.class));
+        verify(emailOutboxRepository, times(1)).save(any(EmailOutboxMessage.class));
+        verifyNoInteractions(emailOutboxDispatcher);
     }
 
     @Test
@@ -208,12 +216,12 @@ class EmailServiceTest {
         emailService.sendSimpleEmail("user3@example.com", "Subject 3", "Body 3");
 
         // Assert
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender, times(3)).send(messageCaptor.capture());
+        ArgumentCaptor<EmailOutboxMessage> messageCaptor = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(emailOutboxRepository, times(3)).save(messageCaptor.capture());
 
         // All emails should have the same FROM address
-        for (SimpleMailMessage message : messageCaptor.getAllValues()) {
-            assertEquals(FROM_EMAIL, message.getFrom());
+        for (EmailOutboxMessage message : messageCaptor.getAllValues()) {
+            assertEquals(FROM_EMAIL, message.getFromAddress());
         }
     }
 
@@ -226,11 +234,11 @@ class EmailServiceTest {
         emailService.sendSimpleEmail(TO_EMAIL, "Unicode Test", unicodeBody);
 
         // Assert
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender).send(messageCaptor.capture());
+        ArgumentCaptor<EmailOutboxMessage> messageCaptor = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(emailOutboxRepository).save(messageCaptor.capture());
 
-        SimpleMailMessage capturedMessage = messageCaptor.getValue();
-        assertEquals(unicodeBody, capturedMessage.getText());
+        EmailOutboxMessage capturedMessage = messageCaptor.getValue();
+        assertEquals(unicodeBody, capturedMessage.getBody());
     }
 
     @Test
@@ -242,11 +250,11 @@ class EmailServiceTest {
         emailService.sendSimpleEmail(emailWithPlus, SUBJECT, BODY);
 
         // Assert
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender).send(messageCaptor.capture());
+        ArgumentCaptor<EmailOutboxMessage> messageCaptor = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(emailOutboxRepository).save(messageCaptor.capture());
 
-        SimpleMailMessage capturedMessage = messageCaptor.getValue();
-        assertArrayEquals(new String[]{emailWithPlus}, capturedMessage.getTo());
+        EmailOutboxMessage capturedMessage = messageCaptor.getValue();
+        assertEquals(emailWithPlus, capturedMessage.getToAddress());
     }
 
     @Test
@@ -255,10 +263,10 @@ class EmailServiceTest {
         emailService.sendSimpleEmail(TO_EMAIL, "", BODY);
 
         // Assert
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender).send(messageCaptor.capture());
+        ArgumentCaptor<EmailOutboxMessage> messageCaptor = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(emailOutboxRepository).save(messageCaptor.capture());
 
-        SimpleMailMessage capturedMessage = messageCaptor.getValue();
+        EmailOutboxMessage capturedMessage = messageCaptor.getValue();
         assertEquals("", capturedMessage.getSubject());
     }
 
@@ -268,18 +276,63 @@ class EmailServiceTest {
         emailService.sendSimpleEmail(TO_EMAIL, SUBJECT, BODY);
 
         // Assert
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender).send(messageCaptor.capture());
+        ArgumentCaptor<EmailOutboxMessage> messageCaptor = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(emailOutboxRepository).save(messageCaptor.capture());
 
-        SimpleMailMessage capturedMessage = messageCaptor.getValue();
+        EmailOutboxMessage capturedMessage = messageCaptor.getValue();
 
         // Verify all fields are set
-        assertNotNull(capturedMessage.getFrom(), "From address should not be null");
-        assertNotNull(capturedMessage.getTo(), "To address should not be null");
+        assertNotNull(capturedMessage.getFromAddress(), "From address should not be null");
+        assertNotNull(capturedMessage.getToAddress(), "To address should not be null");
         assertNotNull(capturedMessage.getSubject(), "Subject should not be null");
-        assertNotNull(capturedMessage.getText(), "Body should not be null");
+        assertNotNull(capturedMessage.getBody(), "Body should not be null");
+        assertEquals(EmailOutboxStatus.PENDING, capturedMessage.getStatus(), "Message should be queued");
+    }
 
-        assertEquals(1, capturedMessage.getTo().length, "Should have exactly one recipient");
+    // ==================== Dispatch Tests ====================
+
+    @Test
+    void whenSendSimpleEmail_outsideTransaction_thenWakesDispatcherImmediately() {
+        // Act
+        emailService.sendSimpleEmail(TO_EMAIL, SUBJECT, BODY);
+
+        // Assert
+        verify(emailOutboxDispatcher).wake();
+    }
+
+    @Test
+    void whenSendSimpleEmail_insideTransaction_thenWakesDispatcherOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            emailService.sendSimpleEmail(TO_EMAIL, SUBJECT, BODY);
+
+            // Assert
+            verify(emailOutboxDispatcher, never()).wake();
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+            verify(emailOutboxDispatcher).wake();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void whenSendSimpleEmail_insideTransactionThatRollsBack_thenDispatcherIsNotWoken() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            emailService.sendSimpleEmail(TO_EMAIL, SUBJECT, BODY);
+
+            // Assert
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+            verifyNoInteractions(emailOutboxDispatcher);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 }
 
@@ -0,0 +1,103 @@
+package com.envisionad.webservice.utils;
+
+import com.envisionad.webservice.business.dataaccesslayer.BusinessIdentifier;
+import com.envisionad.webservice.business.dataaccesslayer.Employee;
+import com.envisionad.webservice.business.dataaccesslayer.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtUtilsTest {
+
+    private static final String USER_ID = "auth0|123";
+    private static final String BUSINESS_ID = "business-1";
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private static void startRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @Test
+    void validateUserIsEmployeeOfBusiness_withinOneRequest_queriesOnce() {
+        JwtUtils jwtUtils = new JwtUtils(employeeRepository, Duration.ZERO);
+        when(employeeRepository.existsByUserIdAndBusinessId_BusinessId(USER_ID, BUSINESS_ID)).thenReturn(true);
+        startRequest();
+
+        jwtUtils.validateUserIsEmployeeOfBusiness(USER_ID, BUSINESS_ID);
+        jwtUtils.validateUserIsEmployeeOfBusiness(USER_ID, BUSINESS_ID);
+
+        verify(employeeRepository, times(1)).existsByUserIdAndBusinessId_BusinessId(USER_ID, BUSINESS_ID);
+    }
+
+    @Test
+    void validateUserIsEmployeeOfBusiness_acrossRequests_answersFromTheSharedCache() {
+        JwtUtils jwtUtils = new JwtUtils(employeeRepository, Duration.ofMinutes(1));
+        when(employeeRepository.existsByUserIdAndBusinessId_BusinessId(USER_ID, BUSINESS_ID)).thenReturn(false);
+
+        startRequest();
+        assertThrows(AccessDeniedException.class, () -> jwtUtils.validateUserIsEmployeeOfBusiness(USER_ID, BUSINESS_ID));
+        startRequest();
+        assertThrows(AccessDeniedException.class, () -> jwtUtils.validateUserIsEmployeeOfBusiness(USER_ID, BUSINESS_ID));
+
+        verify(employeeRepository, times(1)).existsByUserIdAndBusinessId_BusinessId(USER_ID, BUSINESS_ID);
+    }
+
+    @Test
+    void evictMembership_makesTheNextCheckSeeTheNewEmployee() {
+        JwtUtils jwtUtils = new JwtUtils(employeeRepository, Duration.ofMinutes(1));
+        when(employeeRepository.existsByUserIdAndBusinessId_BusinessId(USER_ID, BUSINESS_ID)).thenReturn(false, true);
+        startRequest();
+
+        assertFalse(jwtUtils.isEmployeeOfBusiness(USER_ID, BUSINESS_ID));
+        jwtUtils.evictMembership(USER_ID, BUSINESS_ID);
+
+        assertTrue(jwtUtils.isEmployeeOfBusiness(USER_ID, BUSINESS_ID));
+    }
+
+    @Test
+    void resolveBusinessIdOfUser_cachesTheEmployeesBusinessUntilEvicted() {
+        JwtUtils jwtUtils = new JwtUtils(employeeRepository, Duration.ofMinutes(1));
+        Employee employee = new Employee();
+        employee.setUserId(USER_ID);
+        employee.setBusinessId(new BusinessIdentifier(BUSINESS_ID));
+        when(employeeRepository.findByUserId(USER_ID)).thenReturn(null, employee);
+
+        assertEquals(Optional.empty(), jwtUtils.resolveBusinessIdOfUser(USER_ID));
+        assertEquals(Optional.empty(), jwtUtils.resolveBusinessIdOfUser(USER_ID));
+        jwtUtils.evictMembership(USER_ID, BUSINESS_ID);
+
+        assertEquals(Optional.of(BUSINESS_ID), jwtUtils.resolveBusinessIdOfUser(USER_ID));
+        verify(employeeRepository, times(2)).findByUserId(USER_ID);
+    }
+
+    @Test
+    void isEmployeeOfBusiness_outsideARequestWithNoTtl_alwaysQueries() {
+        JwtUtils jwtUtils = new JwtUtils(employeeRepository, Duration.ZERO);
+        when(employeeRepository.existsByUserIdAndBusinessId_BusinessId(USER_ID, BUSINESS_ID)).thenReturn(true);
+
+        assertTrue(jwtUtils.isEmployeeOfBusiness(USER_ID, BUSINESS_ID));
+        assertTrue(jwtUtils.isEmployeeOfBusiness(USER_ID, BUSINESS_ID));
+
+        verify(employeeRepository, times(2)).existsByUserIdAndBusinessId_BusinessId(USER_ID, BUSINESS_ID);
+    }
+}